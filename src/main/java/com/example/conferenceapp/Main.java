@@ -1,19 +1,51 @@
 package com.example.conferenceapp;
 
+import com.example.conferenceapp.dao.AsyncDao;
+import com.example.conferenceapp.dao.ReferenceDao;
+import com.example.conferenceapp.service.GlobalSearchIndex;
+import com.example.conferenceapp.service.ScheduleConflictService;
+import com.example.conferenceapp.service.ThumbnailStore;
+import com.example.conferenceapp.util.DBUtil;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonType;
 import javafx.scene.image.Image;
 import javafx.stage.Stage;
 
 import java.net.URL;
+import java.sql.SQLException;
 
 public class Main extends Application {
 
     @Override
     public void start(Stage primaryStage) throws Exception {
 
+        /* ---------- схема БД ---------- */
+        try {
+            DBUtil.migrate();
+        } catch (SQLException | RuntimeException e) {
+            e.printStackTrace();
+            Alert alert = new Alert(Alert.AlertType.ERROR,
+                    "Не удалось обновить схему базы данных:\n" + e.getMessage(), ButtonType.OK);
+            alert.setHeaderText(null);
+            alert.showAndWait();
+            Platform.exit();
+            return;
+        }
+
+        /* ---------- миниатюры фото и логотипов строятся в фоне ---------- */
+        ThumbnailStore.getInstance().startWarmUp(new ReferenceDao()::findImagePaths);
+
+        /* ---------- индекс общего поиска тоже ---------- */
+        GlobalSearchIndex.getInstance().start();
+
+        /* ---------- и расписание для проверки пересечений ---------- */
+        ScheduleConflictService.getInstance().start();
+
         /* ---------- главное FXML ---------- */
         Parent root = FXMLLoader.load(
                 getClass().getResource("/com/example/conferenceapp/fxml/Main.fxml"));
@@ -45,5 +77,12 @@ public class Main extends Application {
         primaryStage.show();
     }
 
+    @Override
+    public void stop() {
+        AsyncDao.shutdown();
+        ThumbnailStore.getInstance().flush();
+        DBUtil.shutdown();
+    }
+
     public static void main(String[] args) { launch(args); }
 }
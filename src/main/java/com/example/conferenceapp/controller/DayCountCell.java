@@ -0,0 +1,47 @@
+package com.example.conferenceapp.controller;
+
+import javafx.scene.control.DateCell;
+import javafx.scene.control.Tooltip;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * День календаря со счётчиком мероприятий под числом. Счётчики месяца
+ * приходят из каталога асинхронно: пока их нет, показывается только число,
+ * а по приходу {@link #refresh()} перерисовывает ячейку.
+ */
+class DayCountCell extends DateCell {
+
+    private final Function<YearMonth, Map<LocalDate, Integer>> counts;
+
+    /** @param counts счётчики месяца или {@code null}, если они ещё читаются */
+    DayCountCell(Function<YearMonth, Map<LocalDate, Integer>> counts) {
+        this.counts = counts;
+    }
+
+    @Override
+    public void updateItem(LocalDate date, boolean empty) {
+        super.updateItem(date, empty);
+        setTooltip(null);
+        if (empty || date == null) {
+            return;
+        }
+        Map<LocalDate, Integer> month = counts.apply(YearMonth.from(date));
+        int count = month != null ? month.getOrDefault(date, 0) : 0;
+        if (count > 0) {
+            setText(date.getDayOfMonth() + "\n" + count);
+            setTooltip(new Tooltip("Мероприятий: " + count));
+            setStyle("-fx-font-weight: bold;");
+        } else {
+            setText(String.valueOf(date.getDayOfMonth()));
+            setStyle(null);
+        }
+    }
+
+    void refresh() {
+        updateItem(getItem(), isEmpty());
+    }
+}
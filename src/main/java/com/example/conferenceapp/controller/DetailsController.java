@@ -1,12 +1,12 @@
 package com.example.conferenceapp.controller;
 
 import com.example.conferenceapp.model.Event;
+import com.example.conferenceapp.service.ImageService;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
@@ -16,6 +16,8 @@ import java.time.format.DateTimeFormatter;
 
 public class DetailsController {
 
+    private static final int LOGO_SIZE = 64;
+
     /* UI */
     @FXML private ImageView logo;
     @FXML private Label title;
@@ -27,7 +29,8 @@ public class DetailsController {
     /* заполнение данными */
     public void setEvent(Event e) {
         if (e.getLogoPath() != null)
-            logo.setImage(new Image("file:" + e.getLogoPath()));
+            ImageService.getInstance().load(e.getLogoPath(), LOGO_SIZE)
+                    .thenAccept(image -> logo.setImage(image));
 
         title.setText(e.getTitle());
         date.setText(e.getStart().format(
@@ -0,0 +1,204 @@
+package com.example.conferenceapp.controller;
+
+import com.example.conferenceapp.dao.AsyncDao;
+import com.example.conferenceapp.dao.EventDao;
+import com.example.conferenceapp.dao.EventDao.EventFilter;
+import com.example.conferenceapp.dao.EventDao.Facets;
+import com.example.conferenceapp.model.Event;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableView;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * Каталог мероприятий для таблицы главного экрана.
+ * <p>
+ * В таблицу не читается всё, что когда-либо создавалось: при открытии и
+ * при смене фильтров загружается первая страница из {@value #PAGE_SIZE}
+ * мероприятий вместе с фасетами ({@link EventDao#search}), следующая —
+ * когда при прокрутке до конца загруженного остаётся меньше
+ * {@value #PREFETCH_ROWS} строк. Фильтры применяются в SQL. Строки таблицы
+ * и так виртуальные, поэтому время открытия и память зависят от прокрутки,
+ * а не от числа прошедших мероприятий.
+ * <p>
+ * Фасеты и счётчики дней календаря кэшируются на {@value #CACHE_TTL_MS} мс
+ * по фильтру: переключение туда-обратно между значениями фильтра читает
+ * только страницу, без группировок.
+ * <p>
+ * Используется только из потока JavaFX.
+ */
+final class EventCatalog {
+
+    static final int PAGE_SIZE = 100;
+    private static final int PREFETCH_ROWS = 20;
+    private static final int CACHE_ENTRIES = 32;
+    private static final long CACHE_TTL_MS = 60_000;
+
+    private final TableView<Event> table;
+    private final EventDao eventDao;
+    private final Consumer<Facets> facetsListener;
+    private final ObservableList<Event> items = FXCollections.observableArrayList();
+    private final AsyncDao.Latest<List<Event>> pageLoad = new AsyncDao.Latest<>();
+    private final AsyncDao.Latest<EventDao.SearchResult> searchLoad = new AsyncDao.Latest<>();
+    private final Recent<EventFilter, Facets> facets = new Recent<>();
+    private final Recent<DaysKey, Map<LocalDate, Integer>> days = new Recent<>();
+    private final Set<DaysKey> daysLoading = new HashSet<>();
+
+    private EventFilter filter = EventFilter.ALL;
+    private EventDao.PageKey after;
+    private boolean loading;
+    private boolean exhausted;
+
+    /** Календарь: фильтр без дат и месяц. */
+    private record DaysKey(EventFilter filter, YearMonth month) {
+    }
+
+    /** @param facetsListener получает фасеты каждого нового поиска (из кэша или из БД) */
+    EventCatalog(TableView<Event> table, EventDao eventDao, Consumer<Facets> facetsListener) {
+        this.table = table;
+        this.eventDao = eventDao;
+        this.facetsListener = facetsListener;
+        table.setItems(items);
+    }
+
+    EventFilter filter() {
+        return filter;
+    }
+
+    /** Сбрасывает загруженное и читает первую страницу с новыми фильтрами. */
+    void reload(EventFilter filter) {
+        pageLoad.cancel();
+        searchLoad.cancel();
+        this.filter = filter;
+        after = null;
+        exhausted = false;
+        items.clear();
+        table.scrollTo(0);
+        table.setPlaceholder(Placeholders.loading());
+
+        Facets cached = facets.get(filter);
+        if (cached != null) {
+            facetsListener.accept(cached);
+            loading = false;
+            loadMore();
+            return;
+        }
+        loading = true;
+        searchLoad.supply(() -> eventDao.search(filter, PAGE_SIZE))
+                .whenComplete((result, ex) -> {
+                    if (ex instanceof CancellationException) return;
+                    loading = false;
+                    if (ex != null) {
+                        failed();
+                        return;
+                    }
+                    facets.put(filter, result.facets());
+                    facetsListener.accept(result.facets());
+                    append(result.page());
+                });
+    }
+
+    /** Строка {@code index} появилась на экране; вызывается из фабрики строк таблицы. */
+    void rowShown(int index) {
+        if (index >= 0 && index >= items.size() - PREFETCH_ROWS) {
+            loadMore();
+        }
+    }
+
+    /**
+     * Мероприятия по дням {@code month} с текущими направлением и городом,
+     * если они уже прочитаны; иначе {@code null}, а чтение запускается в фоне
+     * и по окончании вызывается {@code loaded}.
+     */
+    Map<LocalDate, Integer> dayCounts(YearMonth month, Runnable loaded) {
+        DaysKey key = new DaysKey(filter.withoutDates(), month);
+        Map<LocalDate, Integer> counts = days.get(key);
+        if (counts == null && daysLoading.add(key)) {
+            AsyncDao.supply(() -> eventDao.countByDay(key.filter(), month))
+                    .whenComplete((result, ex) -> {
+                        daysLoading.remove(key);
+                        if (result != null) {
+                            days.put(key, result);
+                            loaded.run();
+                        }
+                    });
+        }
+        return counts;
+    }
+
+    private void loadMore() {
+        if (loading || exhausted) {
+            return;
+        }
+        loading = true;
+        EventFilter current = filter;
+        EventDao.PageKey from = after;
+        pageLoad.supply(() -> eventDao.findPage(current, from, PAGE_SIZE))
+                .whenComplete((page, ex) -> {
+                    if (ex instanceof CancellationException) return;
+                    loading = false;
+                    if (ex != null) {
+                        failed();
+                        return;
+                    }
+                    append(page);
+                });
+    }
+
+    private void append(List<Event> page) {
+        exhausted = page.size() < PAGE_SIZE;
+        if (!page.isEmpty()) {
+            after = EventDao.PageKey.of(page.get(page.size() - 1));
+            items.addAll(page);
+        }
+        table.setPlaceholder(Placeholders.empty("Мероприятия не найдены"));
+    }
+
+    private void failed() {
+        exhausted = true;   // повтор — через «Сбросить» или смену фильтра
+        if (items.isEmpty()) {
+            table.setPlaceholder(Placeholders.failed());
+        }
+    }
+
+    /* ---------- кэш фасетов ---------- */
+
+    /** Последние {@value #CACHE_ENTRIES} значений, каждое живёт {@value #CACHE_TTL_MS} мс. */
+    private static final class Recent<K, V> {
+
+        private record Entry<V>(V value, long storedAt) {
+        }
+
+        private final Map<K, Entry<V>> map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > CACHE_ENTRIES;
+            }
+        };
+
+        V get(K key) {
+            Entry<V> entry = map.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() - entry.storedAt() > CACHE_TTL_MS) {
+                map.remove(key);
+                return null;
+            }
+            return entry.value();
+        }
+
+        void put(K key, V value) {
+            map.put(key, new Entry<>(value, System.currentTimeMillis()));
+        }
+    }
+}
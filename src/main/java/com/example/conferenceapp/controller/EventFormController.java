@@ -1,6 +1,5 @@
 package com.example.conferenceapp.controller;
 
-import com.example.conferenceapp.dao.ActivityDao;
 import com.example.conferenceapp.dao.EventDao;
 import com.example.conferenceapp.dao.PersonDao;
 import com.example.conferenceapp.dao.ReferenceDao;
@@ -51,7 +50,6 @@ public class EventFormController {
     private final ReferenceDao referenceDao = new ReferenceDao();
     private final PersonDao personDao = new PersonDao();
     private final EventDao eventDao = new EventDao();
-    private final ActivityDao activityDao = new ActivityDao();
 
     private final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("HH:mm");
 
@@ -251,26 +249,24 @@ public class EventFormController {
         LocalDateTime startDateTime = LocalDateTime.of(startDate, startTime);
         LocalDateTime endDateTime = LocalDateTime.of(endDate, endTime);
 
-        int directionId = referenceDao.ensureDirection(directionBox.getEditor().getText().trim());
-        int cityId = referenceDao.ensureCity(cityBox.getEditor().getText().trim());
+        String direction = directionBox.getEditor().getText().trim();
+        String city = cityBox.getEditor().getText().trim();
 
-        Event event = new Event(0, titleField.getText().trim(), directionId, directionBox.getEditor().getText().trim(),
-                startDateTime, endDateTime, cityId, cityBox.getEditor().getText().trim(),
+        Event event = new Event(0, titleField.getText().trim(), 0, direction,
+                startDateTime, endDateTime, null, city,
                 organizer != null ? organizer.getId() : null, organizer != null ? organizer.getFullName() : null,
                 null, descriptionArea.getText());
 
-        int eventId = eventDao.insert(event);
-        if (eventId == 0) {
-            showError("Не удалось сохранить мероприятие");
-            return false;
+        for (ActivityDraft draft : activities) {
+            Activity activity = new Activity(0, draft.title(), 1, draft.start(), draft.end());
+            draft.juryIds().forEach(activity::withJuryId);
+            event.withActivity(activity);
         }
 
-        for (ActivityDraft draft : activities) {
-            Activity activity = new Activity(eventId, draft.title(), 1, draft.start(), draft.end());
-            int activityId = activityDao.insert(activity);
-            if (!draft.jury().isEmpty()) {
-                activityDao.assignJury(activityId, draft.juryIds());
-            }
+        // направление, город, мероприятие, активности и жюри — одной транзакцией
+        if (eventDao.createEventAggregate(event) == null) {
+            showError("Не удалось сохранить мероприятие");
+            return false;
         }
 
         if (onSaved != null) {
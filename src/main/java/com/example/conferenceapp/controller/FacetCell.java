@@ -0,0 +1,43 @@
+package com.example.conferenceapp.controller;
+
+import javafx.scene.control.ListCell;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Значение фильтра со счётчиком: «Криптография (12)». Счётчики берутся из
+ * последних фасетов каталога; значение, по которому с остальными фильтрами
+ * ничего не найдётся, показывается серым.
+ */
+class FacetCell<T> extends ListCell<T> {
+
+    private final Supplier<Map<T, Integer>> counts;
+    private final Function<T, String> label;
+    private final String prompt;
+
+    FacetCell(Supplier<Map<T, Integer>> counts, Function<T, String> label) {
+        this(counts, label, null);
+    }
+
+    /** @param prompt текст для пустого значения — для ячейки-кнопки комбобокса */
+    FacetCell(Supplier<Map<T, Integer>> counts, Function<T, String> label, String prompt) {
+        this.counts = counts;
+        this.label = label;
+        this.prompt = prompt;
+    }
+
+    @Override
+    protected void updateItem(T value, boolean empty) {
+        super.updateItem(value, empty);
+        if (empty || value == null) {
+            setText(prompt);
+            setStyle(null);
+            return;
+        }
+        int count = counts.get().getOrDefault(value, 0);
+        setText(label.apply(value) + " (" + count + ")");
+        setStyle(count == 0 ? "-fx-text-fill: #999999;" : null);
+    }
+}
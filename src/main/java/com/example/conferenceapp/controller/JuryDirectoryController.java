@@ -1,5 +1,6 @@
 package com.example.conferenceapp.controller;
 
+import com.example.conferenceapp.dao.AsyncDao;
 import com.example.conferenceapp.dao.EventDao;
 import com.example.conferenceapp.dao.PersonDao;
 import com.example.conferenceapp.model.Event;
@@ -8,18 +9,16 @@ import com.example.conferenceapp.model.User;
 import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
-import javafx.scene.layout.DialogPane;
 import javafx.stage.Modality;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 
 public class JuryDirectoryController implements UserAware {
 
@@ -27,7 +26,7 @@ public class JuryDirectoryController implements UserAware {
     @FXML private ComboBox<String> roleBox;
     @FXML private ComboBox<Event> eventBox;
     @FXML private TableView<PersonCard> table;
-    @FXML private TableColumn<PersonCard, ImageView> photoCol;
+    @FXML private TableColumn<PersonCard, String> photoCol;
     @FXML private TableColumn<PersonCard, String> nameCol;
     @FXML private TableColumn<PersonCard, String> emailCol;
     @FXML private TableColumn<PersonCard, String> roleCol;
@@ -35,9 +34,12 @@ public class JuryDirectoryController implements UserAware {
     @FXML private Button registerBtn;
 
     private final ObservableList<PersonCard> master = FXCollections.observableArrayList();
-    private final FilteredList<PersonCard> filtered = new FilteredList<>(master, p -> true);
+    private final PeopleFilter peopleFilter = new PeopleFilter(master, Set.of("jury", "moderator"),
+            () -> searchField.getText(), shown -> countLabel.setText("Всего: " + shown));
     private final PersonDao personDao = new PersonDao();
     private final EventDao eventDao = new EventDao();
+    private final AsyncDao.Latest<List<Event>> eventsLoad = new AsyncDao.Latest<>();
+    private final AsyncDao.Latest<List<PersonCard>> peopleLoad = new AsyncDao.Latest<>();
 
     private User organizer;
 
@@ -67,56 +69,48 @@ public class JuryDirectoryController implements UserAware {
         eventBox.setButtonCell(new OrganizerEventsController.EventCell());
         eventBox.setCellFactory(cb -> new OrganizerEventsController.EventCell());
 
-        photoCol.setCellValueFactory(param -> {
-            String photo = param.getValue().getPhotoPath();
-            ImageView view = new ImageView();
-            if (photo != null && !photo.isBlank()) {
-                view.setImage(new Image("file:" + photo, 48, 48, true, true));
-            }
-            view.setFitWidth(48);
-            view.setFitHeight(48);
-            return new ReadOnlyObjectWrapper<>(view);
-        });
+        photoCol.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue().getPhotoPath()));
+        photoCol.setCellFactory(col -> new ThumbnailCell<>(48, null));
         nameCol .setCellValueFactory(p -> new ReadOnlyObjectWrapper<>(p.getValue().getFullName()));
         emailCol.setCellValueFactory(p -> new ReadOnlyObjectWrapper<>(p.getValue().getEmail()));
         roleCol .setCellValueFactory(p -> new ReadOnlyObjectWrapper<>(p.getValue().getRole()));
 
-        table.setItems(filtered);
+        table.setItems(peopleFilter.items());
 
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> applyFilters());
-        roleBox.valueProperty().addListener((obs, oldVal, newVal) -> applyFilters());
-        eventBox.valueProperty().addListener((obs, oldVal, newVal) -> applyFilters());
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> peopleFilter.apply());
+        roleBox.valueProperty().addListener((obs, oldVal, newVal) -> reload());
+        eventBox.valueProperty().addListener((obs, oldVal, newVal) -> reload());
 
         registerBtn.setOnAction(e -> JuryRegistrationController.open(table.getScene(), organizer, this::reload));
     }
 
     private void loadEvents() {
         if (organizer == null) return;
-        List<Event> events = eventDao.findByOrganizer(organizer.getId(), null, null);
-        eventBox.getItems().setAll(events);
+        int organizerId = organizer.getId();
+        eventsLoad.supply(() -> eventDao.findByOrganizer(organizerId, null, null))
+                .thenAccept(events -> eventBox.getItems().setAll(events));
     }
 
+    /** Перечитывает список при смене роли или мероприятия; ответ по прежнему фильтру отбрасывается. */
     private void reload() {
         String role = switch (roleBox.getSelectionModel().getSelectedIndex()) {
             case 1 -> "jury";
             case 2 -> "moderator";
             default -> null;
         };
-        String lastName = searchField.getText();
         Integer eventId = eventBox.getValue() != null ? eventBox.getValue().getId() : null;
-        master.setAll(personDao.findJuryAndModerators(role, lastName, eventId));
-        applyFilters();
-    }
-
-    private void applyFilters() {
-        String query = searchField.getText();
-        filtered.setPredicate(card -> {
-            if (query != null && !query.isBlank() && !card.getFullName().toLowerCase().contains(query.toLowerCase())) {
-                return false;
-            }
-            return true;
-        });
-        countLabel.setText("Всего: " + filtered.size());
+        master.clear();
+        table.setPlaceholder(Placeholders.loading());
+        countLabel.setText("Загрузка…");
+        peopleLoad.supply(() -> personDao.findJuryAndModerators(role, eventId))
+                .whenComplete((people, ex) -> {
+                    if (ex instanceof CancellationException) return;
+                    table.setPlaceholder(ex == null
+                            ? Placeholders.empty("Жюри и модераторы не найдены")
+                            : Placeholders.failed());
+                    master.setAll(people != null ? people : List.of());
+                    peopleFilter.apply();
+                });
     }
 
     @Override
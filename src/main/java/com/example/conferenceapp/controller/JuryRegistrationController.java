@@ -9,10 +9,8 @@ import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 
-import java.io.File;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
@@ -43,6 +41,7 @@ public class JuryRegistrationController {
     private Consumer<Void> onRegistered;
     private User organizer;
     private String generatedId;
+    private PhotoChooser photo;
 
     public static void open(Scene parent, User organizer, Runnable onRegistered) {
         try {
@@ -77,7 +76,8 @@ public class JuryRegistrationController {
         genderBox.getItems().setAll("Мужской", "Женский");
         roleBox.getItems().setAll("Жюри", "Модератор");
         attachEventCheck.selectedProperty().addListener((obs, oldV, newV) -> eventBox.setDisable(!newV));
-        choosePhotoBtn.setOnAction(e -> choosePhoto());
+        photo = new PhotoChooser(photoField);
+        choosePhotoBtn.setOnAction(e -> photo.choose());
     }
 
     private void initData() {
@@ -90,18 +90,16 @@ public class JuryRegistrationController {
         }
     }
 
-    private void choosePhoto() {
-        FileChooser chooser = new FileChooser();
-        chooser.setTitle("Выбор фото");
-        chooser.getExtensionFilters().addAll(
-                new FileChooser.ExtensionFilter("Изображения", "*.png", "*.jpg", "*.jpeg"));
-        File file = chooser.showOpenDialog(photoField.getScene().getWindow());
-        if (file != null) {
-            photoField.setText(file.getAbsolutePath());
-        }
-    }
-
     private boolean save() {
+        if (generatedId == null) {
+            // при открытии формы номер выдать не удалось — ещё одна попытка
+            generatedId = personDao.nextIdNumber("JR-");
+            if (generatedId == null) {
+                showError("Не удалось выдать номер");
+                return false;
+            }
+            idNumberLabel.setText(generatedId);
+        }
         if (fullNameField.getText() == null || fullNameField.getText().isBlank()) {
             showError("Введите ФИО");
             return false;
@@ -139,6 +137,12 @@ public class JuryRegistrationController {
             return false;
         }
 
+        String photoProblem = photo.problem();
+        if (photoProblem != null) {
+            showError(photoProblem);
+            return false;
+        }
+
         Integer directionId = null;
         if (directionBox.getEditor().getText() != null && !directionBox.getEditor().getText().isBlank()) {
             directionId = referenceDao.ensureDirection(directionBox.getEditor().getText().trim());
@@ -155,7 +159,7 @@ public class JuryRegistrationController {
                 emailField.getText().trim(),
                 phoneField.getText().trim(),
                 passwordField.getText(),
-                photoField.getText()
+                photo.key()
         );
 
         if (userId == 0) {
@@ -1,6 +1,7 @@
 package com.example.conferenceapp.controller;
 
 import com.example.conferenceapp.dao.ActivityDao;
+import com.example.conferenceapp.dao.AsyncDao;
 import com.example.conferenceapp.dao.EventDao;
 import com.example.conferenceapp.model.Activity;
 import com.example.conferenceapp.model.ActivityTask;
@@ -10,6 +11,7 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.input.MouseButton;
@@ -24,6 +26,7 @@ import javafx.stage.Stage;
 import java.io.IOException;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 public class KanbanController {
 
@@ -36,6 +39,7 @@ public class KanbanController {
     private final ObservableList<Event> events = FXCollections.observableArrayList();
     private final EventDao eventDao = new EventDao();
     private final ActivityDao activityDao = new ActivityDao();
+    private final AsyncDao.Latest<List<Activity>> boardLoad = new AsyncDao.Latest<>();
     private final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("HH:mm");
 
     private User organizer;
@@ -85,26 +89,48 @@ public class KanbanController {
         }
 
         eventBox.setDisable(false);
-        events.setAll(eventDao.findByOrganizer(organizer.getId(), null, null));
-        if (selected != null) {
-            events.stream().filter(ev -> ev.getId() == selected.getId()).findFirst()
-                    .ifPresent(eventBox::setValue);
-        }
-        if (eventBox.getValue() == null && !events.isEmpty()) {
-            eventBox.setValue(events.get(0));
-        }
-        refreshBoard();
+        infoLabel.setText("Загрузка мероприятий…");
+        int organizerId = organizer.getId();
+        AsyncDao.supply(() -> eventDao.findByOrganizer(organizerId, null, null))
+                .thenAccept(loaded -> {
+                    events.setAll(loaded);
+                    if (selected != null) {
+                        events.stream().filter(ev -> ev.getId() == selected.getId()).findFirst()
+                                .ifPresent(eventBox::setValue);
+                    }
+                    if (eventBox.getValue() == null && !events.isEmpty()) {
+                        eventBox.setValue(events.get(0));
+                    }
+                    refreshBoard();
+                });
     }
 
     private void refreshBoard() {
         boardPane.getChildren().clear();
         Event event = eventBox.getValue();
         if (event == null) {
+            boardLoad.cancel();
             infoLabel.setText("Выберите мероприятие");
             return;
         }
 
-        List<Activity> activities = activityDao.findByEvent(event.getId());
+        Node loading = Placeholders.loading();
+        loading.relocate(20, 20);
+        boardPane.getChildren().add(loading);
+        infoLabel.setText("Загрузка…");
+        boardLoad.supply(() -> activityDao.findByEvent(event.getId()))
+                .whenComplete((activities, ex) -> {
+                    if (ex instanceof CancellationException) return;
+                    boardPane.getChildren().clear();
+                    if (ex != null) {
+                        infoLabel.setText("Не удалось загрузить активности");
+                        return;
+                    }
+                    layoutBoard(activities);
+                });
+    }
+
+    private void layoutBoard(List<Activity> activities) {
         if (activities.isEmpty()) {
             infoLabel.setText("Для мероприятия пока нет активностей");
             return;
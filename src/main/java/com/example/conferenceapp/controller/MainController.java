@@ -1,38 +1,58 @@
 package com.example.conferenceapp.controller;
 
+import com.example.conferenceapp.dao.AsyncDao;
 import com.example.conferenceapp.dao.EventDao;
+import com.example.conferenceapp.dao.EventDao.EventFilter;
+import com.example.conferenceapp.dao.EventDao.Facets;
 import com.example.conferenceapp.model.Event;
+import com.example.conferenceapp.service.GlobalSearchIndex;
+import com.example.conferenceapp.service.GlobalSearchIndex.Hit;
+import com.example.conferenceapp.service.GlobalSearchIndex.Kind;
 import javafx.beans.property.ReadOnlyObjectWrapper;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
+import javafx.geometry.Side;
 import javafx.scene.control.*;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 
 import java.net.URL;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 public class MainController {
 
     /* ---------- UI-элементы ---------- */
     @FXML private ImageView logoBig;          // логотип в шапке
     @FXML private ComboBox<String> directionFilter;
+    @FXML private ComboBox<String> cityFilter;
+    @FXML private ComboBox<YearMonth> monthFilter;
     @FXML private DatePicker dateFilter;
     @FXML private TableView<Event> eventTable;
-    @FXML private TableColumn<Event, ImageView> logoCol;
+    @FXML private TableColumn<Event, String> logoCol;
     @FXML private TableColumn<Event, String> titleCol;
     @FXML private TableColumn<Event, String> directionCol;
     @FXML private TableColumn<Event, String> dateCol;
     @FXML private Button loginBtn;
+    @FXML private TextField globalSearch;
 
     /* ---------- данные ---------- */
-    private final ObservableList<Event> master   = FXCollections.observableArrayList();
-    private final FilteredList<Event>   filtered = new FilteredList<>(master, p -> true);
+    private static final DateTimeFormatter MONTH =
+            DateTimeFormatter.ofPattern("LLLL yyyy", Locale.forLanguageTag("ru"));
+    private static final int SEARCH_PER_KIND = 5;
+    private static final int SEARCH_TITLE_CHARS = 70;
+
     private final EventDao eventDao = new EventDao();
+    private final List<DayCountCell> dayCells = new ArrayList<>();
+    private EventCatalog catalog;
+    private Facets facets = new Facets(Map.of(), Map.of(), Map.of());
+    private boolean showingFacets;      // списки фильтров обновляются из фасетов, а не пользователем
+    private final ContextMenu searchResults = new ContextMenu();
 
     /* ---------- инициализация контроллера ---------- */
     public void initialize() {
@@ -44,33 +64,60 @@ public class MainController {
             logoBig.setImage(new Image(logoUrl.toExternalForm()));
 
         /* колонки таблицы */
-        logoCol.setCellValueFactory(p -> {
-            String path = p.getValue().getLogoPath();
-            ImageView iv = new ImageView(path != null
-                    ? new Image("file:" + path, 64, 64, true, true)
-                    : null);
-            iv.setFitHeight(60); iv.setFitWidth(60);
-            return new ReadOnlyObjectWrapper<>(iv);
-        });
+        logoCol.setCellValueFactory(p -> new ReadOnlyObjectWrapper<>(p.getValue().getLogoPath()));
+        logoCol.setCellFactory(col -> new ThumbnailCell<>(60, null));
         titleCol    .setCellValueFactory(p -> new ReadOnlyObjectWrapper<>(p.getValue().getTitle()));
         directionCol.setCellValueFactory(p -> new ReadOnlyObjectWrapper<>(p.getValue().getDirection()));
         DateTimeFormatter df = DateTimeFormatter.ofPattern("dd.MM.yyyy");
         dateCol     .setCellValueFactory(p -> new ReadOnlyObjectWrapper<>(p.getValue().getStart().format(df)));
 
-        eventTable.setItems(filtered);
+        catalog = new EventCatalog(eventTable, eventDao, this::showFacets);
+
+        /* фильтры: значения со счётчиками, календарь с числом мероприятий по дням */
+        directionFilter.setCellFactory(lv -> new FacetCell<>(() -> facets.directions(), name -> name));
+        cityFilter     .setCellFactory(lv -> new FacetCell<>(() -> facets.cities(), name -> name));
+        monthFilter    .setCellFactory(lv -> new FacetCell<>(() -> facets.months(), MONTH::format));
+        directionFilter.setButtonCell(new FacetCell<>(() -> facets.directions(), name -> name,
+                directionFilter.getPromptText()));
+        cityFilter     .setButtonCell(new FacetCell<>(() -> facets.cities(), name -> name, cityFilter.getPromptText()));
+        monthFilter    .setButtonCell(new FacetCell<>(() -> facets.months(), MONTH::format,
+                monthFilter.getPromptText()));
+        dateFilter.setDayCellFactory(picker -> {
+            DayCountCell cell = new DayCountCell(this::dayCounts);
+            dayCells.add(cell);
+            return cell;
+        });
 
         /* данные + фильтры */
-        loadData();
+        applyFilters();
         directionFilter.setOnAction(e -> applyFilters());
+        cityFilter     .setOnAction(e -> applyFilters());
+        monthFilter    .setOnAction(e -> {
+            YearMonth month = monthFilter.getValue();
+            LocalDate day = dateFilter.getValue();
+            if (month != null && day != null && !YearMonth.from(day).equals(month)) {
+                showingFacets = true;
+                dateFilter.setValue(null);      // выбранный день из другого месяца перекрыл бы месяц
+                showingFacets = false;
+            }
+            applyFilters();
+        });
         dateFilter     .setOnAction(e -> applyFilters());
 
+        /* общий поиск: выдача — на каждое нажатие, из индекса в памяти */
+        globalSearch.textProperty().addListener((obs, old, text) -> showSearchResults(text));
+        globalSearch.focusedProperty().addListener((obs, was, focused) -> {
+            if (!focused) searchResults.hide();
+        });
+
         loginBtn.setOnAction(e ->
                 LoginController.open(loginBtn.getScene())   // ← передаём сцену
         );
 
-        /* двойной клик → карточка Details */
+        /* двойной клик → карточка Details; показ строки → подгрузка следующей страницы */
         eventTable.setRowFactory(tv -> {
             TableRow<Event> row = new TableRow<>();
+            row.indexProperty().addListener((obs, old, index) -> catalog.rowShown(index.intValue()));
             row.setOnMouseClicked(ev -> {
                 if (ev.getClickCount() == 2 && !row.isEmpty()) {
                     DetailsController.open(row.getItem());
@@ -81,38 +128,99 @@ public class MainController {
     }
 
 
-    /* ---------- загрузка всех мероприятий из DAO ---------- */
-    private void loadData() {
-        List<Event> all = eventDao.find(null, null);
-        master.setAll(all);
-        populateDirectionFilter();
+    /* ---------- применение фильтров: новый запрос, а не фильтрация в памяти ---------- */
+    private void applyFilters() {
+        if (showingFacets) return;
+        catalog.reload(new EventFilter(directionFilter.getValue(), cityFilter.getValue(),
+                monthFilter.getValue(), dateFilter.getValue()));
     }
 
-    private void populateDirectionFilter() {
-        directionFilter.getItems().clear();
-        master.stream()
-                .map(Event::getDirection)
-                .filter(s -> s != null && !s.isBlank())
-                .distinct()
-                .sorted()
-                .forEach(directionFilter.getItems()::add);
+    /* ---------- фасеты нового поиска → значения фильтров и счётчики ---------- */
+    private void showFacets(Facets found) {
+        facets = found;
+        showingFacets = true;
+        try {
+            showValues(directionFilter, found.directions().keySet());
+            showValues(cityFilter, found.cities().keySet());
+            showValues(monthFilter, found.months().keySet());
+        } finally {
+            showingFacets = false;
+        }
+        dayCells.forEach(DayCountCell::refresh);
     }
 
-    /* ---------- применение фильтров ---------- */
-    private void applyFilters() {
-        String    dir = directionFilter.getValue();
-        LocalDate d   = dateFilter.getValue();
+    /** Значения с найденными мероприятиями; выбранное остаётся в списке, даже если по нему 0. */
+    private static <T> void showValues(ComboBox<T> box, Set<T> values) {
+        T selected = box.getValue();
+        List<T> items = new ArrayList<>(values);
+        if (selected != null && !values.contains(selected)) {
+            items.add(0, selected);
+        }
+        box.getItems().setAll(items);
+        box.setValue(selected);
+    }
 
-        filtered.setPredicate(ev ->
-                (dir == null || ev.getDirection().equals(dir)) &&
-                        (d   == null || ev.getStart().toLocalDate().isEqual(d))
-        );
+    /* ---------- общий поиск ---------- */
+    private void showSearchResults(String query) {
+        searchResults.getItems().clear();
+        if (query == null || query.isBlank()) {
+            searchResults.hide();
+            return;
+        }
+        GlobalSearchIndex index = GlobalSearchIndex.getInstance();
+        List<Hit> hits = index.search(query, SEARCH_PER_KIND);
+        if (hits.isEmpty()) {
+            MenuItem none = new MenuItem(index.isReady() ? "Ничего не найдено" : "Поиск готовится, повторите позже");
+            none.setDisable(true);
+            searchResults.getItems().add(none);
+        }
+        Kind group = null;
+        for (Hit hit : hits) {
+            if (hit.kind() != group) {
+                if (group != null) searchResults.getItems().add(new SeparatorMenuItem());
+                group = hit.kind();
+                Label header = new Label(group.label());
+                header.setStyle("-fx-font-weight: bold;");
+                CustomMenuItem headerItem = new CustomMenuItem(header, false);
+                searchResults.getItems().add(headerItem);
+            }
+            String text = shorten(hit.title());
+            if (!hit.context().isEmpty()) text += " — " + shorten(hit.context());
+            MenuItem item = new MenuItem(text);
+            if (hit.eventId() > 0) {
+                int eventId = hit.eventId();
+                item.setOnAction(e -> openEvent(eventId));
+            }
+            searchResults.getItems().add(item);
+        }
+        if (!searchResults.isShowing()) {
+            searchResults.show(globalSearch, Side.BOTTOM, 0, 0);
+        }
+    }
+
+    private void openEvent(int eventId) {
+        AsyncDao.supply(() -> eventDao.findById(eventId))
+                .whenComplete((event, ex) -> {
+                    if (event != null) DetailsController.open(event);
+                });
+    }
+
+    private static String shorten(String text) {
+        return text.length() <= SEARCH_TITLE_CHARS ? text : text.substring(0, SEARCH_TITLE_CHARS - 1) + "…";
+    }
+
+    private Map<LocalDate, Integer> dayCounts(YearMonth month) {
+        return catalog.dayCounts(month, () -> dayCells.forEach(DayCountCell::refresh));
     }
 
     /* ---------- кнопка «Сбросить» ---------- */
     @FXML private void onClearFilters() {
+        showingFacets = true;
         directionFilter.setValue(null);
+        cityFilter.setValue(null);
+        monthFilter.setValue(null);
         dateFilter.setValue(null);
+        showingFacets = false;
         applyFilters();
     }
 }
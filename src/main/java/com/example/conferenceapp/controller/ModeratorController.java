@@ -1,23 +1,28 @@
 package com.example.conferenceapp.controller;
 
-import com.example.conferenceapp.dao.ActivityDao;
+import com.example.conferenceapp.dao.AsyncDao;
 import com.example.conferenceapp.dao.EventDao;
 import com.example.conferenceapp.dao.ModeratorDao;
 import com.example.conferenceapp.dao.ReferenceDao;
 import com.example.conferenceapp.model.Event;
 import com.example.conferenceapp.model.ModeratorSlot;
 import com.example.conferenceapp.model.User;
+import com.example.conferenceapp.service.ScheduleConflictService;
+import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 
-import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
 import java.util.stream.Collectors;
 
 public class ModeratorController implements UserAware {
@@ -41,61 +46,15 @@ public class ModeratorController implements UserAware {
     private final ModeratorDao moderatorDao = new ModeratorDao();
     private final EventDao eventDao = new EventDao();
     private final ReferenceDao referenceDao = new ReferenceDao();
-    private final ActivityDao activityDao = new ActivityDao();
+    private final ScheduleConflictService conflictService = ScheduleConflictService.getInstance();
+    private final AsyncDao.Latest<List<ModeratorSlot>> slotsLoad = new AsyncDao.Latest<>();
+    private final BooleanProperty applying = new SimpleBooleanProperty(false);
 
     private final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
     private final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("HH:mm");
 
     private User moderator;
 
-    @FXML private Label greetingLabel;
-    @FXML private ComboBox<String> directionBox;
-    @FXML private ComboBox<Event> eventBox;
-    @FXML private TableView<ModeratorSlot> activityTable;
-    @FXML private TableColumn<ModeratorSlot, String> activityCol;
-    @FXML private TableColumn<ModeratorSlot, String> eventCol;
-    @FXML private TableColumn<ModeratorSlot, String> dateCol;
-    @FXML private TableColumn<ModeratorSlot, String> timeCol;
-    @FXML private TableColumn<ModeratorSlot, String> statusCol;
-    @FXML private Button applyBtn;
-    @FXML private Button myActivitiesBtn;
-    @FXML private Label infoLabel;
-
-    private final ObservableList<ModeratorSlot> master = FXCollections.observableArrayList();
-    private final FilteredList<ModeratorSlot> filtered = new FilteredList<>(master, s -> true);
-
-    private final ModeratorDao moderatorDao = new ModeratorDao();
-    private final EventDao eventDao = new EventDao();
-    private final ReferenceDao referenceDao = new ReferenceDao();
-    private final ActivityDao activityDao = new ActivityDao();
-
-    private final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-    private final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("HH:mm");
-
-    private User moderator;
-
-    /* ─ UI ─────────────────────────────────────────────────────────── */
-    @FXML private Label greetingLabel;
-    @FXML private ComboBox<String> directionBox;
-    @FXML private ComboBox<String> eventBox;
-    @FXML private TableView<ActivityEntry> activityTable;
-    @FXML private TableColumn<ActivityEntry, String> activityCol;
-    @FXML private TableColumn<ActivityEntry, String> eventCol;
-    @FXML private TableColumn<ActivityEntry, String> dateCol;
-    @FXML private TableColumn<ActivityEntry, String> timeCol;
-    @FXML private TableColumn<ActivityEntry, String> statusCol;
-    @FXML private Button applyBtn;
-    @FXML private Button myActivitiesBtn;
-    @FXML private Label infoLabel;
-
-    /* ─ data ───────────────────────────────────────────────────────── */
-    private final ObservableList<ActivityEntry> master = FXCollections.observableArrayList();
-    private final FilteredList<ActivityEntry> filtered = new FilteredList<>(master, e -> true);
-    private User user;
-
-    private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-    private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("HH:mm");
-
     /* ─ init ───────────────────────────────────────────────────────── */
     public void initialize() {
         activityCol.setCellValueFactory(p -> new ReadOnlyObjectWrapper<>(p.getValue().getActivityTitle()));
@@ -107,14 +66,15 @@ public class ModeratorController implements UserAware {
         activityTable.setItems(filtered);
         activityTable.getSelectionModel().setSelectionMode(SelectionMode.SINGLE);
 
-        directionBox.getItems().setAll(referenceDao.findAllDirections());
+        AsyncDao.supply(referenceDao::findAllDirections)
+                .thenAccept(directions -> directionBox.getItems().setAll(directions));
         directionBox.setOnAction(e -> reload());
 
         eventBox.setButtonCell(new OrganizerEventsController.EventCell());
         eventBox.setCellFactory(cb -> new OrganizerEventsController.EventCell());
         eventBox.setOnAction(e -> reload());
 
-        applyBtn.disableProperty().bind(activityTable.getSelectionModel().selectedItemProperty().isNull());
+        applyBtn.disableProperty().bind(activityTable.getSelectionModel().selectedItemProperty().isNull().or(applying));
         applyBtn.setOnAction(e -> onApply());
         myActivitiesBtn.setOnAction(e -> showMyActivities());
 
@@ -127,11 +87,22 @@ public class ModeratorController implements UserAware {
 
     private void reload() {
         if (moderator == null) return;
+        int moderatorId = moderator.getId();
         String direction = directionBox.getValue();
         Integer eventId = eventBox.getValue() != null ? eventBox.getValue().getId() : null;
-        master.setAll(moderatorDao.loadSlots(moderator.getId(), direction, eventId));
-        filtered.setPredicate(slot -> true);
-        infoLabel.setText("Доступных активностей: " + filtered.size());
+        master.clear();
+        activityTable.setPlaceholder(Placeholders.loading());
+        infoLabel.setText("Загрузка…");
+        slotsLoad.supply(() -> moderatorDao.loadSlots(moderatorId, direction, eventId))
+                .whenComplete((slots, ex) -> {
+                    if (ex instanceof CancellationException) return;
+                    activityTable.setPlaceholder(ex == null
+                            ? Placeholders.empty("Нет активностей по выбранным условиям")
+                            : Placeholders.failed());
+                    master.setAll(slots != null ? slots : List.of());
+                    filtered.setPredicate(slot -> true);
+                    infoLabel.setText("Доступных активностей: " + filtered.size());
+                });
     }
 
     private void onApply() {
@@ -147,30 +118,66 @@ public class ModeratorController implements UserAware {
             return;
         }
 
-        if (activityDao.hasCollision(moderator.getId(), slot.getDate(), slot.getStart(), slot.getEnd())) {
+        int moderatorId = moderator.getId();
+        applying.set(true);
+        AsyncDao.supply(() -> conflictService.findConflicts(moderatorId,
+                        LocalDateTime.of(slot.getDate(), slot.getStart()),
+                        LocalDateTime.of(slot.getDate(), slot.getEnd()),
+                        slot.getActivityId()))
+                .thenCompose(conflicts -> confirmAndSubmit(slot, moderatorId, conflicts))
+                .whenComplete((submitted, ex) -> {
+                    applying.set(false);
+                    if (ex != null) {
+                        showAlert(Alert.AlertType.ERROR, "Не удалось отправить заявку");
+                    } else if (submitted) {
+                        showAlert(Alert.AlertType.INFORMATION, "Заявка отправлена и ожидает подтверждения организатора");
+                        reload();
+                    }
+                });
+    }
+
+    /** Спрашивает, как поступить с пересечениями, и отправляет заявку; {@code false} — пользователь отказался. */
+    private CompletableFuture<Boolean> confirmAndSubmit(ModeratorSlot slot, int moderatorId,
+                                                        List<ScheduleConflictService.Booking> conflicts) {
+        boolean cancelPrevious = false;
+        if (!conflicts.isEmpty()) {
             Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
             alert.setTitle("Конфликт расписания");
             alert.setHeaderText("Обнаружено пересечение по времени");
             ButtonType cancelPast = new ButtonType("Отменить прошлые заявки", ButtonBar.ButtonData.OK_DONE);
             ButtonType cancelCurrent = new ButtonType("Отменить текущую", ButtonBar.ButtonData.CANCEL_CLOSE);
             alert.getButtonTypes().setAll(cancelPast, cancelCurrent);
-            alert.setContentText("Выберите действие");
+            alert.setContentText(conflicts.stream()
+                    .map(b -> String.format("%s (%s, %s–%s)", b.activityTitle(), b.eventTitle(),
+                            TIME_FMT.format(b.start()), TIME_FMT.format(b.end())))
+                    .collect(Collectors.joining("\n", "", "\n\nВыберите действие")));
             ButtonType result = alert.showAndWait().orElse(cancelCurrent);
             if (result == cancelPast) {
-                moderatorDao.cancelApplications(moderator.getId());
+                cancelPrevious = true;
             } else {
                 showAlert(Alert.AlertType.INFORMATION, "Заявка не отправлена");
-                return;
+                return CompletableFuture.completedFuture(false);
             }
         }
 
-        moderatorDao.submitApplication(slot.getActivityId(), moderator.getId());
-        showAlert(Alert.AlertType.INFORMATION, "Заявка отправлена и ожидает подтверждения организатора");
-        reload();
+        boolean cancel = cancelPrevious;
+        return AsyncDao.supply(() -> {
+            if (cancel) {
+                moderatorDao.cancelApplications(moderatorId);
+            }
+            moderatorDao.submitApplication(slot.getActivityId(), moderatorId);
+            return true;
+        });
     }
 
     private void showMyActivities() {
-        List<ModeratorSlot> mine = moderatorDao.myActivities(moderator.getId());
+        if (moderator == null) return;
+        int moderatorId = moderator.getId();
+        AsyncDao.supply(() -> moderatorDao.myActivities(moderatorId))
+                .thenAccept(this::showMyActivities);
+    }
+
+    private void showMyActivities(List<ModeratorSlot> mine) {
         Dialog<Void> dialog = new Dialog<>();
         dialog.setTitle("Мои активности");
         dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
@@ -207,7 +214,8 @@ public class ModeratorController implements UserAware {
 
     private void loadEvents() {
         if (moderator == null) return;
-        eventBox.getItems().setAll(eventDao.find(null, null));
+        AsyncDao.supply(() -> eventDao.find(null, null))
+                .thenAccept(events -> eventBox.getItems().setAll(events));
     }
 
     private String buildGreeting(User user) {
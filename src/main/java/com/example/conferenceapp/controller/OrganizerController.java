@@ -1,12 +1,12 @@
 package com.example.conferenceapp.controller;
 
 import com.example.conferenceapp.model.User;
+import com.example.conferenceapp.service.ImageService;
 import javafx.fxml.FXML;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.stage.Stage;
 
@@ -14,6 +14,8 @@ import java.time.LocalTime;
 
 public class OrganizerController implements UserAware {
 
+    private static final int PHOTO_SIZE = 140;
+
     /* ─ UI ─────────────────────────────────────────────────────────── */
     @FXML private ImageView photo;
     @FXML private Label     greeting;
@@ -58,9 +60,10 @@ public class OrganizerController implements UserAware {
                 u.getFirstName(),           // имя
                 u.getMiddleName()));        // отчество
 
-        /* устанавливаем фото (если задано) */
+        /* устанавливаем фото (если задано): путь к файлу или ключ хранилища */
         if (u.getPhotoPath() != null && !u.getPhotoPath().isBlank()) {
-            photo.setImage(new Image("file:" + u.getPhotoPath()));
+            ImageService.getInstance().load(u.getPhotoPath(), PHOTO_SIZE)
+                    .thenAccept(image -> photo.setImage(image));
         }
     }
 
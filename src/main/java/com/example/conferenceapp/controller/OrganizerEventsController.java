@@ -12,8 +12,6 @@ import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
 import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
@@ -30,7 +28,7 @@ public class OrganizerEventsController implements UserAware {
     @FXML private ComboBox<String> directionFilter;
     @FXML private DatePicker dateFilter;
     @FXML private TableView<Event> table;
-    @FXML private TableColumn<Event, ImageView> logoCol;
+    @FXML private TableColumn<Event, String> logoCol;
     @FXML private TableColumn<Event, String> titleCol;
     @FXML private TableColumn<Event, String> directionCol;
     @FXML private TableColumn<Event, String> startCol;
@@ -69,16 +67,8 @@ public class OrganizerEventsController implements UserAware {
     }
 
     public void initialize() {
-        logoCol.setCellValueFactory(param -> {
-            String logo = param.getValue().getLogoPath();
-            ImageView view = new ImageView();
-            if (logo != null && !logo.isBlank()) {
-                view.setImage(new Image("file:" + logo, 48, 48, true, true));
-            }
-            view.setFitWidth(48);
-            view.setFitHeight(48);
-            return new ReadOnlyObjectWrapper<>(view);
-        });
+        logoCol.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue().getLogoPath()));
+        logoCol.setCellFactory(col -> new ThumbnailCell<>(48, null));
         titleCol.setCellValueFactory(p -> new ReadOnlyObjectWrapper<>(p.getValue().getTitle()));
         directionCol.setCellValueFactory(p -> new ReadOnlyObjectWrapper<>(p.getValue().getDirection()));
         startCol.setCellValueFactory(p -> new ReadOnlyObjectWrapper<>(DATE_FMT.format(p.getValue().getStart())));
@@ -1,8 +1,10 @@
 package com.example.conferenceapp.controller;
 
 import com.example.conferenceapp.dao.ActivityDao;
+import com.example.conferenceapp.dao.AsyncDao;
 import com.example.conferenceapp.dao.EventDao;
 import com.example.conferenceapp.model.Event;
+import com.example.conferenceapp.model.EventRoster;
 import com.example.conferenceapp.model.ParticipantActivity;
 import com.example.conferenceapp.model.ResourceItem;
 import com.example.conferenceapp.model.User;
@@ -15,6 +17,7 @@ import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.input.Clipboard;
 import javafx.scene.input.ClipboardContent;
@@ -25,18 +28,27 @@ import java.awt.Desktop;
 import java.net.URI;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
  * Рабочее место участника: отображение активностей и ресурсов.
+ * <p>
+ * Сначала читается только расписание. Материалы и число участников
+ * активности читаются при её выборе, заодно — у соседних активностей
+ * списка, куда пользователь скорее всего перейдёт следующим.
  */
 public class ParticipantController implements UserAware {
 
     @FXML private Label greetingLabel;
     @FXML private Label activityInfoLabel;
     @FXML private ListView<ActivityCard> activityList;
+    @FXML private Tab participantsTab;
     @FXML private ListView<String> participantList;
     @FXML private TableView<ResourceEntry> resourceTable;
     @FXML private TableColumn<ResourceEntry, String> resourceNameCol;
@@ -50,19 +62,17 @@ public class ParticipantController implements UserAware {
     private final ObservableList<ActivityCard> activities = FXCollections.observableArrayList();
     private final ActivityDao activityDao = new ActivityDao();
     private final EventDao eventDao = new EventDao();
+    private final AsyncDao.Latest<List<ParticipantActivity>> activitiesLoad = new AsyncDao.Latest<>();
+    private final Map<Integer, RosterList> rosters = new HashMap<>();     // по мероприятию
+    private final Map<String, String> names = new HashMap<>();            // общий пул имён всех списков
+    private int generation;     // номер загрузки расписания: подгрузки от прошлой не трогают новую
     private User user;
 
+    private static final int PREFETCH_NEIGHBOURS = 1;
     private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
     private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("HH:mm");
     private static final DateTimeFormatter DATE_TIME_FMT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
 
-    /* ─ data ───────────────────────────────────────────────────────── */
-    private final ObservableList<ActivityCard> activities = FXCollections.observableArrayList();
-    private User user;
-
-    private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-    private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("HH:mm");
-
     /* ─ init ───────────────────────────────────────────────────────── */
     public void initialize() {
         prepareActivityList();
@@ -70,6 +80,7 @@ public class ParticipantController implements UserAware {
 
         activityList.setItems(activities);
         activityList.getSelectionModel().selectedItemProperty().addListener((obs, oldV, newV) -> showActivity(newV));
+        participantsTab.selectedProperty().addListener((obs, was, selected) -> showParticipants());
 
         addResourceBtn.disableProperty().bind(activityList.getSelectionModel().selectedItemProperty().isNull());
         addResourceBtn.setOnAction(e -> onAddResource());
@@ -77,8 +88,6 @@ public class ParticipantController implements UserAware {
         kanbanBtn.disableProperty().bind(activityList.getSelectionModel().selectedItemProperty().isNull());
         kanbanBtn.setOnAction(e -> openKanban());
 
-        resourceTable.setPlaceholder(new Label("Ресурсы пока не добавлены"));
-        participantList.setPlaceholder(new Label("Участники не найдены"));
         statusLabel.setText("");
     }
 
@@ -134,24 +143,40 @@ public class ParticipantController implements UserAware {
 
     private void reloadActivities() {
         activities.clear();
+        rosters.clear();
+        names.clear();
+        generation++;
         participantList.setItems(FXCollections.observableArrayList());
         resourceTable.setItems(FXCollections.observableArrayList());
 
         if (user == null) {
+            activitiesLoad.cancel();
             activityInfoLabel.setText("Авторизуйтесь для просмотра активностей");
             return;
         }
 
-        List<ParticipantActivity> loaded = activityDao.findForParticipant(user.getId());
-        activities.setAll(loaded.stream().map(ActivityCard::new).collect(Collectors.toList()));
-
-        if (activities.isEmpty()) {
-            activityInfoLabel.setText("Активности не найдены");
-            setStatus("Нет запланированных активностей", false);
-        } else {
-            activityList.getSelectionModel().selectFirst();
-            setStatus("Найдено активностей: " + activities.size(), true);
-        }
+        int userId = user.getId();
+        activityList.setPlaceholder(Placeholders.loading());
+        activitiesLoad.supply(() -> activityDao.findForParticipant(userId))
+                .whenComplete((loaded, ex) -> {
+                    if (ex instanceof CancellationException) return;
+                    activityList.setPlaceholder(ex == null
+                            ? Placeholders.empty("Активности не найдены")
+                            : Placeholders.failed());
+                    if (ex != null) {
+                        showError("Не удалось загрузить активности");
+                        return;
+                    }
+                    activities.setAll(loaded.stream().map(ActivityCard::new).collect(Collectors.toList()));
+
+                    if (activities.isEmpty()) {
+                        activityInfoLabel.setText("Активности не найдены");
+                        setStatus("Нет запланированных активностей", false);
+                    } else {
+                        activityList.getSelectionModel().selectFirst();
+                        setStatus("Найдено активностей: " + activities.size(), true);
+                    }
+                });
     }
 
     private void onAddResource() {
@@ -170,17 +195,21 @@ public class ParticipantController implements UserAware {
         String author = user != null ? user.getFullName() : "Участник";
         Integer userId = user != null ? user.getId() : null;
 
-        ResourceItem saved = activityDao.addResource(current.getActivityId(), form.name(), form.url(), userId, author);
-        if (saved == null) {
-            showError("Не удалось сохранить ресурс. Попробуйте позже.");
-            return;
-        }
-
-        ResourceEntry entry = ResourceEntry.from(saved);
-        current.getResources().add(entry);
-        resourceTable.setItems(current.getResources());
-        resourceTable.getSelectionModel().select(entry);
-        showInfo("Ресурс «" + form.name() + "» добавлен");
+        AsyncDao.supply(() -> activityDao.addResource(current.getActivityId(), form.name(), form.url(), userId, author))
+                .whenComplete((saved, ex) -> {
+                    if (saved == null) {
+                        showError("Не удалось сохранить ресурс. Попробуйте позже.");
+                        return;
+                    }
+
+                    ResourceEntry entry = ResourceEntry.from(saved);
+                    current.getResources().add(entry);
+                    if (current == activityList.getSelectionModel().getSelectedItem()) {
+                        resourceTable.setItems(current.getResources());
+                        resourceTable.getSelectionModel().select(entry);
+                    }
+                    showInfo("Ресурс «" + form.name() + "» добавлен");
+                });
     }
 
     private void onDownload(ResourceEntry entry) {
@@ -229,15 +258,18 @@ public class ParticipantController implements UserAware {
             return;
         }
 
-        if (activityDao.deleteResource(entry.getId())) {
-            ActivityCard current = activityList.getSelectionModel().getSelectedItem();
-            if (current != null) {
-                current.getResources().remove(entry);
-                showInfo("Ресурс удалён");
-            }
-        } else {
-            showError("Не удалось удалить ресурс");
-        }
+        ActivityCard current = activityList.getSelectionModel().getSelectedItem();
+        AsyncDao.supply(() -> activityDao.deleteResource(entry.getId()))
+                .whenComplete((deleted, ex) -> {
+                    if (Boolean.TRUE.equals(deleted)) {
+                        if (current != null) {
+                            current.getResources().remove(entry);
+                        }
+                        showInfo("Ресурс удалён");
+                    } else {
+                        showError("Не удалось удалить ресурс");
+                    }
+                });
     }
 
     private void showActivity(ActivityCard activity) {
@@ -257,8 +289,73 @@ public class ParticipantController implements UserAware {
         );
         activityInfoLabel.setText(info);
 
-        participantList.setItems(activity.getParticipants());
         resourceTable.setItems(activity.getResources());
+        showDetails(activity);
+        loadDetails(activity).thenAccept(loaded -> {
+            if (activity == activityList.getSelectionModel().getSelectedItem()) {
+                showDetails(activity);
+            }
+        });
+        int index = activityList.getSelectionModel().getSelectedIndex();
+        for (int i = index - PREFETCH_NEIGHBOURS; i <= index + PREFETCH_NEIGHBOURS; i++) {
+            if (i != index && i >= 0 && i < activities.size()) {
+                loadDetails(activities.get(i));
+            }
+        }
+    }
+
+    /**
+     * Материалы активности и, если мероприятие ещё не встречалось, число его
+     * участников. Завершается {@code true}, когда прочитано; после ошибки
+     * следующий выбор активности читает заново.
+     */
+    private CompletableFuture<Boolean> loadDetails(ActivityCard card) {
+        if (card.details != null && !card.detailsFailed()) {
+            return card.details;
+        }
+        int activityId = card.getActivityId();
+        int eventId = card.getEventId();
+        boolean needRoster = !rosters.containsKey(eventId);
+        int loadGeneration = generation;
+        card.details = AsyncDao.supply(() -> new ActivityDetails(
+                        activityDao.findResources(activityId),
+                        needRoster ? activityDao.findRoster(eventId) : null))
+                .handle((details, ex) -> {
+                    if (ex != null || (needRoster && details.roster() == null)) {
+                        return false;
+                    }
+                    card.getResources().setAll(details.resources().stream()
+                            .map(ResourceEntry::from).collect(Collectors.toList()));
+                    if (details.roster() != null && loadGeneration == generation) {
+                        rosters.putIfAbsent(eventId, new RosterList(details.roster(), activityDao,
+                                name -> names.computeIfAbsent(name, n -> n)));
+                    }
+                    return true;
+                });
+        return card.details;
+    }
+
+    private void showDetails(ActivityCard activity) {
+        resourceTable.setPlaceholder(detailsPlaceholder(activity, "Ресурсы пока не добавлены"));
+        showParticipants();
+    }
+
+    /** Имена читаются, только пока вкладка участников открыта и список виден. */
+    private void showParticipants() {
+        ActivityCard activity = activityList.getSelectionModel().getSelectedItem();
+        if (activity == null || !participantsTab.isSelected()) {
+            return;
+        }
+        participantList.setPlaceholder(detailsPlaceholder(activity, "Участники не найдены"));
+        RosterList roster = rosters.get(activity.getEventId());
+        participantList.setItems(roster != null ? roster : FXCollections.observableArrayList());
+    }
+
+    private static Node detailsPlaceholder(ActivityCard activity, String emptyText) {
+        if (activity.details == null || !activity.details.isDone()) {
+            return Placeholders.loading();
+        }
+        return activity.detailsFailed() ? Placeholders.failed() : Placeholders.empty(emptyText);
     }
 
     private void openKanban() {
@@ -266,12 +363,14 @@ public class ParticipantController implements UserAware {
         if (selected == null) {
             return;
         }
-        Event event = eventDao.findById(selected.getEventId());
-        if (event == null) {
-            showError("Не удалось загрузить данные мероприятия");
-            return;
-        }
-        KanbanController.open(event, null, greetingLabel.getScene());
+        AsyncDao.supply(() -> eventDao.findById(selected.getEventId()))
+                .whenComplete((event, ex) -> {
+                    if (event == null) {
+                        showError("Не удалось загрузить данные мероприятия");
+                        return;
+                    }
+                    KanbanController.open(event, null, greetingLabel.getScene());
+                });
     }
 
     private Optional<ResourceForm> showResourceDialog() {
@@ -296,7 +395,8 @@ public class ParticipantController implements UserAware {
         dialog.getDialogPane().setContent(grid);
 
         Button saveBtn = (Button) dialog.getDialogPane().lookupButton(saveBtnType);
-        saveBtn.disableProperty().bind(nameField.textProperty().trim().isEmpty());
+        saveBtn.disableProperty().bind(Bindings.createBooleanBinding(
+                () -> nameField.getText() == null || nameField.getText().isBlank(), nameField.textProperty()));
 
         dialog.setResultConverter(button -> {
             if (button == saveBtnType) {
@@ -352,6 +452,8 @@ public class ParticipantController implements UserAware {
 
     private record ResourceForm(String name, String url) { }
 
+    private record ActivityDetails(List<ResourceItem> resources, EventRoster roster) { }
+
     public static class ActivityCard {
         private final int activityId;
         private final int eventId;
@@ -359,8 +461,8 @@ public class ParticipantController implements UserAware {
         private final String eventName;
         private final LocalDateTime start;
         private final LocalDateTime end;
-        private final ObservableList<String> participants = FXCollections.observableArrayList();
         private final ObservableList<ResourceEntry> resources = FXCollections.observableArrayList();
+        private CompletableFuture<Boolean> details;     // материалы и участники; null — ещё не запрашивались
 
         public ActivityCard(ParticipantActivity activity) {
             this.activityId = activity.getActivityId();
@@ -369,8 +471,6 @@ public class ParticipantController implements UserAware {
             this.eventName = activity.getEventTitle();
             this.start = activity.getStart();
             this.end = activity.getEnd();
-            this.participants.setAll(activity.getParticipants());
-            this.resources.setAll(activity.getResources().stream().map(ResourceEntry::from).collect(Collectors.toList()));
         }
 
         public int getActivityId() { return activityId; }
@@ -379,9 +479,12 @@ public class ParticipantController implements UserAware {
         public String getEventName() { return eventName; }
         public LocalDateTime getStart() { return start; }
         public LocalDateTime getEnd() { return end; }
-        public ObservableList<String> getParticipants() { return participants; }
         public ObservableList<ResourceEntry> getResources() { return resources; }
 
+        private boolean detailsFailed() {
+            return details.isDone() && !details.join();
+        }
+
         public String getDisplayName() {
             return "%s — %s %s–%s".formatted(title,
                     DATE_FMT.format(start.toLocalDate()),
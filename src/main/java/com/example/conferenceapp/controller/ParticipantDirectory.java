@@ -0,0 +1,118 @@
+package com.example.conferenceapp.controller;
+
+import com.example.conferenceapp.dao.AsyncDao;
+import com.example.conferenceapp.dao.PersonDao;
+import com.example.conferenceapp.dao.PersonDao.ParticipantFilter;
+import com.example.conferenceapp.dao.PersonDao.ParticipantKey;
+import com.example.conferenceapp.dao.PersonDao.ParticipantPage;
+import com.example.conferenceapp.dao.PersonDao.ParticipantSort;
+import com.example.conferenceapp.model.PersonCard;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableView;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.IntConsumer;
+
+/**
+ * Строки справочника участников для таблицы — так же, как
+ * {@link EventCatalog} для мероприятий: при открытии, смене фильтров или
+ * сортировки читается первая страница из {@value #PAGE_SIZE} строк и
+ * отдельным запросом — их общее число, следующая страница — когда при
+ * прокрутке до конца загруженного остаётся меньше {@value #PREFETCH_ROWS}
+ * строк. Сортирует SQL.
+ * <p>
+ * Используется только из потока JavaFX.
+ */
+final class ParticipantDirectory {
+
+    static final int PAGE_SIZE = 100;
+    private static final int PREFETCH_ROWS = 20;
+
+    private final TableView<PersonCard> table;
+    private final PersonDao personDao;
+    private final IntConsumer countListener;
+    private final ObservableList<PersonCard> items = FXCollections.observableArrayList();
+    private final AsyncDao.Latest<ParticipantPage> pageLoad = new AsyncDao.Latest<>();
+    private final AsyncDao.Latest<Integer> countLoad = new AsyncDao.Latest<>();
+
+    private ParticipantFilter filter = new ParticipantFilter(null, null);
+    private ParticipantSort sort = ParticipantSort.NAME;
+    private boolean descending;
+    private ParticipantKey after;
+    private boolean loading;
+    private boolean exhausted;
+
+    /** @param countListener получает число строк с текущими фильтрами; {@code -1} — не удалось прочитать */
+    ParticipantDirectory(TableView<PersonCard> table, PersonDao personDao, IntConsumer countListener) {
+        this.table = table;
+        this.personDao = personDao;
+        this.countListener = countListener;
+        table.setItems(items);
+    }
+
+    /** Сбрасывает загруженное и читает первую страницу и число строк. */
+    void reload(ParticipantFilter filter, ParticipantSort sort, boolean descending) {
+        pageLoad.cancel();
+        this.filter = filter;
+        this.sort = sort;
+        this.descending = descending;
+        after = null;
+        exhausted = false;
+        loading = false;
+        items.clear();
+        table.scrollTo(0);
+        table.setPlaceholder(Placeholders.loading());
+
+        countLoad.supply(() -> personDao.countParticipants(filter))
+                .whenComplete((count, ex) -> {
+                    if (ex instanceof CancellationException) return;
+                    countListener.accept(ex == null ? count : -1);
+                });
+        loadMore();
+    }
+
+    /** Сбрасывает загруженное и показывает загрузку, не читая страниц: фильтр ещё не готов. */
+    void waiting() {
+        pageLoad.cancel();
+        countLoad.cancel();
+        exhausted = true;
+        loading = false;
+        items.clear();
+        table.setPlaceholder(Placeholders.loading());
+    }
+
+    /** Строка {@code index} появилась на экране; вызывается из фабрики строк таблицы. */
+    void rowShown(int index) {
+        if (index >= 0 && index >= items.size() - PREFETCH_ROWS) {
+            loadMore();
+        }
+    }
+
+    private void loadMore() {
+        if (loading || exhausted) {
+            return;
+        }
+        loading = true;
+        ParticipantFilter currentFilter = filter;
+        ParticipantSort currentSort = sort;
+        boolean currentDescending = descending;
+        ParticipantKey from = after;
+        pageLoad.supply(() -> personDao.findParticipantPage(currentFilter, currentSort, currentDescending, from, PAGE_SIZE))
+                .whenComplete((page, ex) -> {
+                    if (ex instanceof CancellationException) return;
+                    loading = false;
+                    if (ex != null || page == null) {
+                        exhausted = true;   // повтор — сменой фильтра или сортировки
+                        if (items.isEmpty()) {
+                            table.setPlaceholder(Placeholders.failed());
+                        }
+                        return;
+                    }
+                    after = page.next();
+                    exhausted = after == null;
+                    items.addAll(page.rows());
+                    table.setPlaceholder(Placeholders.empty("Участники не найдены"));
+                });
+    }
+}
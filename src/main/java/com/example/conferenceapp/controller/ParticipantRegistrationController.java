@@ -9,10 +9,8 @@ import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 
-import java.io.File;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
@@ -42,6 +40,7 @@ public class ParticipantRegistrationController {
     private Consumer<Void> onRegistered;
     private User organizer;
     private String generatedId;
+    private PhotoChooser photo;
 
     public static void open(Scene parent, User organizer, Runnable onRegistered) {
         try {
@@ -74,7 +73,8 @@ public class ParticipantRegistrationController {
     public void initialize() {
         genderBox.getItems().setAll("Мужской", "Женский");
         directionBox.setEditable(true);
-        choosePhotoBtn.setOnAction(e -> choosePhoto());
+        photo = new PhotoChooser(photoField);
+        choosePhotoBtn.setOnAction(e -> photo.choose());
     }
 
     private void initData() {
@@ -88,17 +88,16 @@ public class ParticipantRegistrationController {
         }
     }
 
-    private void choosePhoto() {
-        FileChooser chooser = new FileChooser();
-        chooser.setTitle("Выбор фото");
-        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Изображения", "*.png", "*.jpg", "*.jpeg"));
-        File file = chooser.showOpenDialog(photoField.getScene().getWindow());
-        if (file != null) {
-            photoField.setText(file.getAbsolutePath());
-        }
-    }
-
     private boolean save() {
+        if (generatedId == null) {
+            // при открытии формы номер выдать не удалось — ещё одна попытка
+            generatedId = personDao.nextIdNumber("PT-");
+            if (generatedId == null) {
+                showError("Не удалось выдать номер участника");
+                return false;
+            }
+            idLabel.setText(generatedId);
+        }
         if (nameField.getText() == null || nameField.getText().isBlank()) {
             showError("Введите имя");
             return false;
@@ -133,6 +132,12 @@ public class ParticipantRegistrationController {
             return false;
         }
 
+        String photoProblem = photo.problem();
+        if (photoProblem != null) {
+            showError(photoProblem);
+            return false;
+        }
+
         Integer directionId = null;
         if (directionBox.getEditor().getText() != null && !directionBox.getEditor().getText().isBlank()) {
             directionId = referenceDao.ensureDirection(directionBox.getEditor().getText().trim());
@@ -166,7 +171,7 @@ public class ParticipantRegistrationController {
                 emailField.getText(),
                 phoneField.getText(),
                 passwordField.getText(),
-                photoField.getText()
+                photo.key()
         );
 
         if (userId == 0) {
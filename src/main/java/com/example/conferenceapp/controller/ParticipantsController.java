@@ -2,43 +2,56 @@ package com.example.conferenceapp.controller;
 
 import com.example.conferenceapp.dao.EventDao;
 import com.example.conferenceapp.dao.PersonDao;
+import com.example.conferenceapp.dao.PersonDao.ParticipantFilter;
+import com.example.conferenceapp.dao.PersonDao.ParticipantSort;
 import com.example.conferenceapp.model.Event;
 import com.example.conferenceapp.model.PersonCard;
 import com.example.conferenceapp.model.User;
+import com.example.conferenceapp.service.PeopleSearchIndex;
+import javafx.application.Platform;
 import javafx.beans.property.ReadOnlyObjectWrapper;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
-import javafx.scene.layout.DialogPane;
 import javafx.stage.Modality;
 
 import java.io.IOException;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Set;
 
 public class ParticipantsController implements UserAware {
 
     @FXML private TextField searchField;
     @FXML private ComboBox<Event> eventBox;
     @FXML private TableView<PersonCard> table;
-    @FXML private TableColumn<PersonCard, ImageView> photoCol;
+    @FXML private TableColumn<PersonCard, String> photoCol;
     @FXML private TableColumn<PersonCard, String> nameCol;
     @FXML private TableColumn<PersonCard, String> emailCol;
     @FXML private TableColumn<PersonCard, String> phoneCol;
+    @FXML private TableColumn<PersonCard, String> eventCol;
+    @FXML private TableColumn<PersonCard, String> registeredCol;
     @FXML private Label countLabel;
     @FXML private Button registerBtn;
 
-    private final ObservableList<PersonCard> master = FXCollections.observableArrayList();
-    private final FilteredList<PersonCard> filtered = new FilteredList<>(master, p -> true);
+    /**
+     * Сколько лучших совпадений поиска сортируется по колонке: сортировать
+     * приходится весь набор разом, и его id уходят в SQL одним списком.
+     * В порядке релевантности выдача листается целиком.
+     */
+    private static final int SORTED_SEARCH_LIMIT = 500;
+    private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private final PeopleSearchIndex peopleIndex = PeopleSearchIndex.getInstance();
     private final PersonDao personDao = new PersonDao();
     private final EventDao eventDao = new EventDao();
 
+    private ParticipantDirectory directory;
     private User organizer;
+    private boolean waitingForIndex;
+    /** Совпадений поиска больше, чем показано при сортировке по колонке; {@code 0} — показаны все. */
+    private int truncatedFrom;
 
     public static void open(Scene parent, User organizer) {
         try {
@@ -63,23 +76,31 @@ public class ParticipantsController implements UserAware {
         eventBox.setButtonCell(new OrganizerEventsController.EventCell());
         eventBox.setCellFactory(cb -> new OrganizerEventsController.EventCell());
 
-        photoCol.setCellValueFactory(param -> {
-            String photo = param.getValue().getPhotoPath();
-            ImageView view = new ImageView();
-            if (photo != null && !photo.isBlank()) {
-                view.setImage(new Image("file:" + photo, 48, 48, true, true));
-            }
-            view.setFitWidth(48);
-            view.setFitHeight(48);
-            return new ReadOnlyObjectWrapper<>(view);
-        });
+        photoCol.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue().getPhotoPath()));
+        photoCol.setCellFactory(col -> new ThumbnailCell<>(48, null));
         nameCol .setCellValueFactory(p -> new ReadOnlyObjectWrapper<>(p.getValue().getFullName()));
         emailCol.setCellValueFactory(p -> new ReadOnlyObjectWrapper<>(p.getValue().getEmail()));
         phoneCol.setCellValueFactory(p -> new ReadOnlyObjectWrapper<>(p.getValue().getPhone()));
+        eventCol.setCellValueFactory(p -> new ReadOnlyObjectWrapper<>(p.getValue().getEventTitle()));
+        registeredCol.setCellValueFactory(p -> new ReadOnlyObjectWrapper<>(
+                p.getValue().getRegisteredAt() == null ? "" : DATE_FMT.format(p.getValue().getRegisteredAt())));
+        photoCol.setSortable(false);
+        phoneCol.setSortable(false);
+
+        /* строки читаются страницами по мере прокрутки, сортировка по щелчку на заголовке — в SQL */
+        directory = new ParticipantDirectory(table, personDao, this::showCount);
+        table.setRowFactory(tv -> {
+            TableRow<PersonCard> row = new TableRow<>();
+            row.indexProperty().addListener((obs, old, index) -> directory.rowShown(index.intValue()));
+            return row;
+        });
+        table.setSortPolicy(tv -> {
+            reload();
+            return true;
+        });
+        peopleIndex.startLoading();
 
-        table.setItems(filtered);
-
-        searchField.textProperty().addListener((obs, oldV, newV) -> applyFilters());
+        searchField.textProperty().addListener((obs, oldV, newV) -> reload());
         eventBox.valueProperty().addListener((obs, oldV, newV) -> reload());
 
         registerBtn.setOnAction(e -> ParticipantRegistrationController.open(table.getScene(), organizer, this::reload));
@@ -91,17 +112,66 @@ public class ParticipantsController implements UserAware {
         eventBox.getItems().setAll(events);
     }
 
+    /**
+     * Новый запрос с текущими фильтрами и сортировкой. Текст поиска ищется
+     * по индексу людей; без выбранной колонки совпадения листаются в порядке
+     * релевантности все, с колонкой — сортируются лучшие
+     * {@value #SORTED_SEARCH_LIMIT}, и подпись говорит, что показаны не все.
+     */
     private void reload() {
-        String lastName = searchField.getText();
+        if (directory == null) return;
         Integer eventId = eventBox.getValue() != null ? eventBox.getValue().getId() : null;
-        master.setAll(personDao.findParticipants(lastName, eventId));
-        applyFilters();
+        String query = searchField.getText();
+        List<Integer> userIds = null;
+        truncatedFrom = 0;
+        if (query != null && !query.isBlank()) {
+            if (!peopleIndex.isReady()) {
+                // индекс людей ещё собирается — запрос уйдёт, когда он будет готов
+                directory.waiting();
+                countLabel.setText("Всего: —");
+                reloadWhenIndexReady();
+                return;
+            }
+            userIds = peopleIndex.search(query, Set.of("participant"), Integer.MAX_VALUE).stream()
+                    .map(PeopleSearchIndex.Hit::userId)
+                    .toList();
+            if (!table.getSortOrder().isEmpty() && userIds.size() > SORTED_SEARCH_LIMIT) {
+                truncatedFrom = userIds.size();
+                userIds = userIds.subList(0, SORTED_SEARCH_LIMIT);
+            }
+        }
+
+        ParticipantSort sort = userIds != null ? ParticipantSort.RELEVANCE : ParticipantSort.NAME;
+        boolean descending = false;
+        if (!table.getSortOrder().isEmpty()) {
+            TableColumn<PersonCard, ?> column = table.getSortOrder().get(0);
+            sort = column == emailCol ? ParticipantSort.EMAIL
+                    : column == eventCol ? ParticipantSort.EVENT
+                    : column == registeredCol ? ParticipantSort.REGISTERED
+                    : ParticipantSort.NAME;
+            descending = column.getSortType() == TableColumn.SortType.DESCENDING;
+        }
+        directory.reload(new ParticipantFilter(eventId, userIds), sort, descending);
     }
 
-    private void applyFilters() {
-        String query = searchField.getText();
-        filtered.setPredicate(card -> query == null || query.isBlank() || card.getFullName().toLowerCase().contains(query.toLowerCase()));
-        countLabel.setText("Всего: " + filtered.size());
+    private void showCount(int count) {
+        if (count < 0) {
+            countLabel.setText("Всего: —");
+        } else if (truncatedFrom > 0) {
+            countLabel.setText("Всего: " + count + " — лучшие " + SORTED_SEARCH_LIMIT + " из " + truncatedFrom
+                    + " найденных; уточните запрос или уберите сортировку");
+        } else {
+            countLabel.setText("Всего: " + count);
+        }
+    }
+
+    private void reloadWhenIndexReady() {
+        if (waitingForIndex) return;
+        waitingForIndex = true;
+        peopleIndex.whenReady(() -> Platform.runLater(() -> {
+            waitingForIndex = false;
+            reload();
+        }));
     }
 
     @Override
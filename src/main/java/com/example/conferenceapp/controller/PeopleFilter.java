@@ -0,0 +1,80 @@
+package com.example.conferenceapp.controller;
+
+import com.example.conferenceapp.model.PersonCard;
+import com.example.conferenceapp.service.PeopleSearchIndex;
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Поиск по мере ввода в загруженном списке людей через {@link PeopleSearchIndex}:
+ * ФИО (в том числе латиницей), почта, номер; лучшие совпадения сверху.
+ * Пока индекс собирается, работает простое совпадение по ФИО, а когда
+ * соберётся — поиск повторяется.
+ */
+final class PeopleFilter {
+
+    private final PeopleSearchIndex peopleIndex = PeopleSearchIndex.getInstance();
+    private final FilteredList<PersonCard> filtered;
+    private final SortedList<PersonCard> ranked;
+    private final Set<String> roles;
+    private final Supplier<String> query;
+    private final IntConsumer shown;
+    private boolean waitingForIndex;
+
+    /**
+     * @param roles коды ролей, среди которых ищет индекс
+     * @param query текущий текст поиска
+     * @param shown получает число показанных строк после каждого применения
+     */
+    PeopleFilter(ObservableList<PersonCard> master, Set<String> roles,
+                 Supplier<String> query, IntConsumer shown) {
+        this.filtered = new FilteredList<>(master, p -> true);
+        this.ranked = new SortedList<>(filtered);
+        this.roles = roles;
+        this.query = query;
+        this.shown = shown;
+        peopleIndex.startLoading();
+    }
+
+    /** Отфильтрованный и упорядоченный список для таблицы. */
+    SortedList<PersonCard> items() {
+        return ranked;
+    }
+
+    void apply() {
+        String text = query.get();
+        if (text == null || text.isBlank()) {
+            filtered.setPredicate(card -> true);
+            ranked.setComparator(null);
+        } else if (!peopleIndex.isReady()) {
+            String needle = text.strip().toLowerCase(Locale.ROOT);
+            filtered.setPredicate(card -> card.getFullName() != null
+                    && card.getFullName().toLowerCase(Locale.ROOT).contains(needle));
+            ranked.setComparator(null);
+            applyWhenIndexReady();
+        } else {
+            Map<Integer, Integer> positions = peopleIndex.positions(text, roles);
+            filtered.setPredicate(card -> positions.containsKey(card.getId()));
+            ranked.setComparator(Comparator.comparingInt(card -> positions.get(card.getId())));
+        }
+        shown.accept(filtered.size());
+    }
+
+    private void applyWhenIndexReady() {
+        if (waitingForIndex) return;
+        waitingForIndex = true;
+        peopleIndex.whenReady(() -> Platform.runLater(() -> {
+            waitingForIndex = false;
+            apply();
+        }));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.conferenceapp.controller;
+
+import com.example.conferenceapp.service.MediaStore;
+import javafx.application.Platform;
+import javafx.scene.control.TextField;
+import javafx.stage.FileChooser;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Поле «Фото» в формах регистрации. Выбранный файл сразу копируется в
+ * {@link MediaStore} в фоне, так что к нажатию «ОК» обычно уже есть ключ
+ * для сохранения в {@code user.photo}.
+ */
+final class PhotoChooser {
+
+    private final TextField field;
+    private CompletableFuture<String> ingest;
+    private boolean pending;
+    private String key;
+    private String error;
+
+    PhotoChooser(TextField field) {
+        this.field = field;
+        field.setEditable(false);
+    }
+
+    void choose() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Выбор фото");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Изображения", "*.png", "*.jpg", "*.jpeg"));
+        File file = chooser.showOpenDialog(field.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        key = null;
+        error = null;
+        pending = true;
+        field.setText(file.getName() + " — обработка…");
+
+        CompletableFuture<String> current = MediaStore.getInstance().ingestAsync(file.toPath());
+        ingest = current;
+        current.whenCompleteAsync((stored, ex) -> {
+            if (current != ingest) {
+                return;                                 // пользователь уже выбрал другой файл
+            }
+            pending = false;
+            if (ex != null) {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                if (cause instanceof UncheckedIOException io) {
+                    cause = io.getCause();
+                }
+                error = "Не удалось загрузить фото: " + cause.getMessage();
+                field.setText(file.getName() + " — ошибка");
+            } else {
+                key = stored;
+                field.setText(file.getName());
+            }
+        }, Platform::runLater);
+    }
+
+    /** Ключ для сохранения; {@code null}, если фото не выбрано. */
+    String key() {
+        return key;
+    }
+
+    /** Почему сохранять пока нельзя; {@code null}, если можно. */
+    String problem() {
+        if (error != null) {
+            return error;
+        }
+        if (pending) {
+            return "Фото ещё обрабатывается, подождите несколько секунд";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.conferenceapp.controller;
+
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.VBox;
+
+/**
+ * Заглушки для пустых таблиц и списков: пока идёт фоновая загрузка
+ * и после неё.
+ */
+final class Placeholders {
+
+    private Placeholders() {
+    }
+
+    static Node loading() {
+        ProgressIndicator indicator = new ProgressIndicator();
+        indicator.setMaxSize(32, 32);
+        VBox box = new VBox(8, indicator, new Label("Загрузка…"));
+        box.setAlignment(Pos.CENTER);
+        return box;
+    }
+
+    static Node empty(String text) {
+        return new Label(text);
+    }
+
+    static Node failed() {
+        Label label = new Label("Не удалось загрузить данные");
+        label.setStyle("-fx-text-fill: #CC0000;");
+        return label;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.conferenceapp.controller;
+
+import com.example.conferenceapp.dao.ActivityDao;
+import com.example.conferenceapp.dao.AsyncDao;
+import com.example.conferenceapp.model.EventRoster;
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Участники мероприятия для {@code ListView}: размер известен сразу, а
+ * имена читаются страницами по {@value #PAGE_SIZE}, когда список
+ * спрашивает строку, которой ещё нет, — то есть только для видимых
+ * ячеек. Пока страница читается, на её месте {@value #LOADING}.
+ * <p>
+ * Один объект на мероприятие: все его активности показывают один и тот же
+ * список, повторный выбор активности ничего не перечитывает. Используется
+ * только из потока JavaFX.
+ */
+final class RosterList extends ObservableListBase<String> {
+
+    static final int PAGE_SIZE = 100;
+    private static final String LOADING = "…";
+
+    private final EventRoster roster;
+    private final ActivityDao activityDao;
+    private final UnaryOperator<String> intern;
+    private final String[] names;
+    private final BitSet requested = new BitSet();
+    /** Число строк; меньше {@code names.length}, если участников убрали после подсчёта. */
+    private int size;
+
+    /** @param intern общий для всех списков пул строк: человек из нескольких мероприятий хранится один раз */
+    RosterList(EventRoster roster, ActivityDao activityDao, UnaryOperator<String> intern) {
+        this.roster = roster;
+        this.activityDao = activityDao;
+        this.intern = intern;
+        this.names = new String[roster.getSize()];
+        this.size = names.length;
+    }
+
+    @Override
+    public String get(int index) {
+        String name = names[index];
+        if (name == null) {
+            request(index / PAGE_SIZE);
+            return LOADING;
+        }
+        return name;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void request(int page) {
+        if (requested.get(page)) {
+            return;
+        }
+        requested.set(page);
+        int from = page * PAGE_SIZE;
+        AsyncDao.supply(() -> activityDao.findRosterPage(roster.getEventId(), from, PAGE_SIZE))
+                .whenComplete((loaded, ex) -> {
+                    if (loaded == null) {
+                        requested.clear(page);      // повтор — при следующем показе строк
+                        return;
+                    }
+                    fill(from, loaded);
+                });
+    }
+
+    /**
+     * Короткая страница — участников стало меньше, чем при подсчёте: список
+     * обрезается по ней, иначе хвост так и показывал бы {@value #LOADING}.
+     * Лишние имена (участников добавили) не показываются.
+     */
+    private void fill(int from, List<String> loaded) {
+        if (from >= size) {
+            return;
+        }
+        int count = Math.min(loaded.size(), size - from);
+        int end = loaded.size() < PAGE_SIZE ? from + count : size;
+        beginChange();
+        try {
+            for (int i = 0; i < count; i++) {
+                names[from + i] = intern.apply(loaded.get(i));
+                nextSet(from + i, LOADING);
+            }
+            if (end < size) {
+                List<String> removed = new ArrayList<>(size - end);
+                for (int i = end; i < size; i++) {
+                    removed.add(names[i] != null ? names[i] : LOADING);
+                    names[i] = null;
+                }
+                size = end;
+                nextRemove(end, removed);
+            }
+        } finally {
+            endChange();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.conferenceapp.controller;
+
+import com.example.conferenceapp.service.ImageService;
+import javafx.scene.control.TableCell;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+/**
+ * Ячейка таблицы с миниатюрой: значение — путь к файлу, картинка берётся
+ * из общего {@link ImageService}. Пока файл декодируется, показывается
+ * заглушка; ответ для строки, которую ячейка уже успела сменить при
+ * прокрутке, игнорируется.
+ */
+class ThumbnailCell<S> extends TableCell<S, String> {
+
+    private final ImageService images = ImageService.getInstance();
+    private final ImageView view = new ImageView();
+    private final int size;
+    private final Image placeholder;
+    private final Image fallback;
+    private String requested;
+
+    /** @param fallback картинка для строк без файла; {@code null} — пустая ячейка */
+    ThumbnailCell(int size, Image fallback) {
+        this.size = size;
+        this.placeholder = images.placeholder(size);
+        this.fallback = fallback;
+        view.setFitWidth(size);
+        view.setFitHeight(size);
+        view.setPreserveRatio(true);
+    }
+
+    @Override
+    protected void updateItem(String path, boolean empty) {
+        super.updateItem(path, empty);
+        setText(null);
+        requested = null;
+        if (empty) {
+            setGraphic(null);
+            return;
+        }
+        if (path == null || path.isBlank()) {
+            view.setImage(fallback);
+            setGraphic(fallback != null ? view : null);
+            return;
+        }
+
+        setGraphic(view);
+        Image hit = images.cached(path, size);
+        if (hit != null) {
+            view.setImage(hit);
+            return;
+        }
+        requested = path;
+        view.setImage(placeholder);
+        images.load(path, size).thenAccept(image -> {
+            if (path.equals(requested)) {
+                view.setImage(image != null ? image : fallback);
+            }
+        });
+    }
+}
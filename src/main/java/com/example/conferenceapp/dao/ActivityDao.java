@@ -2,24 +2,25 @@ package com.example.conferenceapp.dao;
 
 import com.example.conferenceapp.model.Activity;
 import com.example.conferenceapp.model.ActivityTask;
+import com.example.conferenceapp.model.EventRoster;
 import com.example.conferenceapp.model.ParticipantActivity;
 import com.example.conferenceapp.model.ResourceItem;
 import com.example.conferenceapp.util.DBUtil;
 
 import java.sql.*;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 public class ActivityDao {
 
+    /**
+     * Активности мероприятия вместе с жюри и задачами.
+     * Три запроса на одном соединении независимо от числа активностей:
+     * активности, затем все связи жюри и все задачи мероприятия разом.
+     */
     public List<Activity> findByEvent(int eventId) {
         String sql = """
             SELECT a.id,
@@ -30,97 +31,94 @@ public class ActivityDao {
                    a.end_time,
                    a.moderator_id,
                    u.full_name AS moderator_name,
-                   (SELECT DATE(e.start_datetime) + INTERVAL (a.day_num-1) DAY
-                    FROM event e WHERE e.id = a.event_id) AS activity_date
+                   a.start_at
               FROM activity a
               LEFT JOIN user u ON a.moderator_id = u.id
              WHERE a.event_id = ?
-             ORDER BY a.day_num, a.start_time
+             ORDER BY a.start_at, a.id
         """;
 
-        List<Activity> activities = new ArrayList<>();
+        Map<Integer, Activity> byId = new LinkedHashMap<>();
 
-        try (Connection c = DBUtil.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
+        try (Connection c = DBUtil.getConnection()) {
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                ps.setInt(1, eventId);
 
-            ps.setInt(1, eventId);
-
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    Activity activity = new Activity(
-                            rs.getInt("id"),
-                            rs.getInt("event_id"),
-                            rs.getString("title"),
-                            rs.getInt("day_num"),
-                            rs.getTime("start_time").toLocalTime(),
-                            rs.getTime("end_time").toLocalTime(),
-                            (Integer) rs.getObject("moderator_id"),
-                            rs.getString("moderator_name")
-                    );
-                    Date date = rs.getDate("activity_date");
-                    if (date != null) {
-                        activity.setDate(date.toLocalDate());
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Activity activity = new Activity(
+                                rs.getInt("id"),
+                                rs.getInt("event_id"),
+                                rs.getString("title"),
+                                rs.getInt("day_num"),
+                                rs.getTime("start_time").toLocalTime(),
+                                rs.getTime("end_time").toLocalTime(),
+                                (Integer) rs.getObject("moderator_id"),
+                                rs.getString("moderator_name")
+                        );
+                        Timestamp startAt = rs.getTimestamp("start_at");
+                        if (startAt != null) {
+                            activity.setDate(startAt.toLocalDateTime().toLocalDate());
+                        }
+                        byId.put(activity.getId(), activity);
                     }
-                    activities.add(activity);
                 }
             }
+
+            if (!byId.isEmpty()) {
+                loadJury(c, eventId, byId);
+                loadTasks(c, eventId, byId);
+            }
         } catch (SQLException ex) {
-            ex.printStackTrace();
+            throw new IllegalStateException("Cannot load event activities", ex);
         }
 
-        loadJury(activities);
-        loadTasks(activities);
-        return activities;
+        return new ArrayList<>(byId.values());
     }
 
-    private void loadJury(List<Activity> activities) {
-        if (activities.isEmpty()) return;
+    private void loadJury(Connection c, int eventId, Map<Integer, Activity> byId) throws SQLException {
         String sql = """
             SELECT aj.activity_id,
                    u.full_name
               FROM activity_jury aj
+              JOIN activity a ON a.id = aj.activity_id
               JOIN user u ON u.id = aj.jury_id
-             WHERE aj.activity_id = ?
+             WHERE a.event_id = ?
              ORDER BY u.full_name
         """;
 
-        try (Connection c = DBUtil.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-
-            for (Activity activity : activities) {
-                ps.setInt(1, activity.getId());
-                try (ResultSet rs = ps.executeQuery()) {
-                    while (rs.next()) {
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Activity activity = byId.get(rs.getInt("activity_id"));
+                    if (activity != null) {
                         activity.withJury(rs.getString("full_name"));
                     }
                 }
             }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
         }
     }
 
-    private void loadTasks(List<Activity> activities) {
-        if (activities.isEmpty()) return;
-
+    private void loadTasks(Connection c, int eventId, Map<Integer, Activity> byId) throws SQLException {
         String sql = """
             SELECT t.id,
                    t.activity_id,
                    t.title,
                    u.full_name AS author
               FROM activity_task t
+              JOIN activity a ON a.id = t.activity_id
               LEFT JOIN user u ON u.id = t.created_by
-             WHERE t.activity_id = ?
+             WHERE a.event_id = ?
              ORDER BY t.id
         """;
 
-        try (Connection c = DBUtil.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-
-            for (Activity activity : activities) {
-                ps.setInt(1, activity.getId());
-                try (ResultSet rs = ps.executeQuery()) {
-                    while (rs.next()) {
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Activity activity = byId.get(rs.getInt("activity_id"));
+                    if (activity != null) {
                         activity.withTask(new ActivityTask(
                                 rs.getInt("id"),
                                 rs.getInt("activity_id"),
@@ -130,54 +128,6 @@ public class ActivityDao {
                     }
                 }
             }
-
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-        }
-    }
-
-    public int insert(Activity activity) {
-        String sql = """
-            INSERT INTO activity(event_id, title, day_num, start_time, end_time)
-            VALUES(?,?,?,?,?)
-        """;
-
-        try (Connection c = DBUtil.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            ps.setInt(1, activity.getEventId());
-            ps.setString(2, activity.getTitle());
-            ps.setInt(3, activity.getDayNum());
-            ps.setTime(4, Time.valueOf(activity.getStartTime()));
-            ps.setTime(5, Time.valueOf(activity.getEndTime()));
-
-            ps.executeUpdate();
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    int id = rs.getInt(1);
-                    activity.setId(id);
-                    return id;
-                }
-            }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-        }
-        return 0;
-    }
-
-    public void assignJury(int activityId, List<Integer> juryIds) {
-        String sql = "INSERT INTO activity_jury(activity_id, jury_id) VALUES(?,?)";
-        try (Connection c = DBUtil.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-
-            for (Integer id : juryIds) {
-                ps.setInt(1, activityId);
-                ps.setInt(2, id);
-                ps.addBatch();
-            }
-            ps.executeBatch();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
         }
     }
 
@@ -214,7 +164,7 @@ public class ActivityDao {
                 }
             }
         } catch (SQLException ex) {
-            ex.printStackTrace();
+            throw new IllegalStateException("Cannot load activity resources", ex);
         }
         return resources;
     }
@@ -259,61 +209,22 @@ public class ActivityDao {
         return false;
     }
 
-    public boolean hasCollision(int moderatorId, LocalDate date, LocalTime start, LocalTime end) {
-        String sql = """
-            SELECT COUNT(*)
-              FROM activity a
-              JOIN event e ON e.id = a.event_id
-              LEFT JOIN moderator_application ma
-                     ON ma.activity_id = a.id AND ma.moderator_id = ?
-             WHERE (
-                    (ma.status = 'APPROVED' OR ma.status = 'SENT')
-                    OR a.moderator_id = ?
-                  )
-               AND DATE(e.start_datetime) + INTERVAL (a.day_num-1) DAY = ?
-               AND NOT (a.end_time <= ? OR a.start_time >= ?)
-        """;
-
-        try (Connection c = DBUtil.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-
-            ps.setInt(1, moderatorId);
-            ps.setInt(2, moderatorId);
-            ps.setDate(3, Date.valueOf(date));
-            ps.setTime(4, Time.valueOf(start));
-            ps.setTime(5, Time.valueOf(end));
-
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0;
-                }
-            }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-        }
-        return false;
-    }
-
     public List<ParticipantActivity> findForParticipant(int participantId) {
         String sql = """
             SELECT a.id,
                    a.event_id,
                    a.title,
                    e.title AS event_title,
-                   DATE(e.start_datetime) + INTERVAL (a.day_num-1) DAY AS activity_date,
-                   a.start_time,
-                   a.end_time
+                   a.start_at,
+                   a.end_at
               FROM participant_event pe
               JOIN event e ON e.id = pe.event_id
               JOIN activity a ON a.event_id = e.id
              WHERE pe.participant_id = ?
-             ORDER BY activity_date, a.start_time
+             ORDER BY a.start_at, a.id
         """;
 
         List<ParticipantActivity> activities = new ArrayList<>();
-        Map<Integer, ParticipantActivity> byActivity = new LinkedHashMap<>();
-        Set<Integer> eventIds = new HashSet<>();
-        Set<Integer> activityIds = new HashSet<>();
 
         try (Connection c = DBUtil.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
@@ -322,137 +233,89 @@ public class ActivityDao {
 
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    Date dateValue = rs.getDate("activity_date");
-                    Time startValue = rs.getTime("start_time");
-                    Time endValue = rs.getTime("end_time");
-                    if (dateValue == null || startValue == null || endValue == null) {
+                    Timestamp startValue = rs.getTimestamp("start_at");
+                    Timestamp endValue = rs.getTimestamp("end_at");
+                    if (startValue == null || endValue == null) {
                         continue;
                     }
 
-                    LocalDate activityDate = dateValue.toLocalDate();
                     ParticipantActivity activity =
                             new ParticipantActivity(
                                     rs.getInt("id"),
                                     rs.getInt("event_id"),
                                     rs.getString("title"),
                                     rs.getString("event_title"),
-                                    LocalDateTime.of(activityDate, startValue.toLocalTime()),
-                                    LocalDateTime.of(activityDate, endValue.toLocalTime())
+                                    startValue.toLocalDateTime(),
+                                    endValue.toLocalDateTime()
                             );
                     activities.add(activity);
-                    byActivity.put(activity.getActivityId(), activity);
-                    eventIds.add(activity.getEventId());
-                    activityIds.add(activity.getActivityId());
                 }
             }
 
         } catch (SQLException ex) {
-            ex.printStackTrace();
-        }
-
-        if (activities.isEmpty()) {
-            return activities;
+            throw new IllegalStateException("Cannot load participant activities", ex);
         }
 
-        loadParticipants(eventIds, activities);
-        loadResources(activityIds, byActivity);
         return activities;
     }
 
-    private void loadParticipants(Set<Integer> eventIds,
-                                  List<ParticipantActivity> activities) {
-        if (eventIds.isEmpty()) {
-            return;
-        }
-
-        String placeholders = String.join(",", java.util.Collections.nCopies(eventIds.size(), "?"));
+    /** Число участников мероприятия; имена — {@link #findRosterPage}, когда их показывают. */
+    public EventRoster findRoster(int eventId) {
         String sql = """
-            SELECT pe.event_id,
-                   u.full_name
-              FROM participant_event pe
-              JOIN user u ON u.id = pe.participant_id
-             WHERE pe.event_id IN (%s)
-             ORDER BY u.full_name
-        """.formatted(placeholders);
-
-        Map<Integer, List<String>> byEvent = new HashMap<>();
+            SELECT COUNT(*)
+              FROM participant_event
+             WHERE event_id = ?
+        """;
 
         try (Connection c = DBUtil.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
 
-            int idx = 1;
-            for (Integer eventId : eventIds) {
-                ps.setInt(idx++, eventId);
-            }
+            ps.setInt(1, eventId);
 
             try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    byEvent.computeIfAbsent(rs.getInt("event_id"), k -> new ArrayList<>())
-                            .add(rs.getString("full_name"));
-                }
+                rs.next();
+                return new EventRoster(eventId, rs.getInt(1));
             }
 
         } catch (SQLException ex) {
-            ex.printStackTrace();
-        }
-
-        for (ParticipantActivity activity : activities) {
-            List<String> participants = byEvent.get(activity.getEventId());
-            if (participants != null) {
-                participants.forEach(activity::withParticipant);
-            }
+            throw new IllegalStateException("Cannot load event roster", ex);
         }
     }
 
-    private void loadResources(Set<Integer> activityIds,
-                               Map<Integer, ParticipantActivity> byActivity) {
-        if (activityIds.isEmpty()) {
-            return;
-        }
-
-        String placeholders = String.join(",", java.util.Collections.nCopies(activityIds.size(), "?"));
+    /**
+     * Имена участников мероприятия с позиции {@code offset} в порядке ФИО.
+     * Страница запрашивается по позиции, а не по ключу последней строки:
+     * список прокручивают в любое место, а участников у мероприятия тысячи,
+     * не миллионы.
+     */
+    public List<String> findRosterPage(int eventId, int offset, int limit) {
         String sql = """
-            SELECT r.id,
-                   r.activity_id,
-                   r.name,
-                   r.url,
-                   u.full_name AS uploaded_by,
-                   r.uploaded_at
-              FROM resource r
-              LEFT JOIN user u ON u.id = r.uploaded_by
-             WHERE r.activity_id IN (%s)
-             ORDER BY r.id
-        """.formatted(placeholders);
+            SELECT u.full_name
+              FROM participant_event pe
+              JOIN user u ON u.id = pe.participant_id
+             WHERE pe.event_id = ?
+             ORDER BY u.full_name, u.id
+             LIMIT ? OFFSET ?
+        """;
+
+        List<String> names = new ArrayList<>(limit);
 
         try (Connection c = DBUtil.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
 
-            int idx = 1;
-            for (Integer activityId : activityIds) {
-                ps.setInt(idx++, activityId);
-            }
+            ps.setInt(1, eventId);
+            ps.setInt(2, limit);
+            ps.setInt(3, offset);
 
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    ParticipantActivity activity = byActivity.get(rs.getInt("activity_id"));
-                    if (activity == null) {
-                        continue;
-                    }
-                    activity.withResource(new ResourceItem(
-                            rs.getInt("id"),
-                            rs.getInt("activity_id"),
-                            rs.getString("name"),
-                            rs.getString("url"),
-                            rs.getString("uploaded_by"),
-                            rs.getTimestamp("uploaded_at") != null
-                                    ? rs.getTimestamp("uploaded_at").toLocalDateTime()
-                                    : null
-                    ));
+                    names.add(rs.getString("full_name"));
                 }
             }
 
         } catch (SQLException ex) {
-            ex.printStackTrace();
+            throw new IllegalStateException("Cannot load roster page", ex);
         }
+        return names;
     }
 }
@@ -0,0 +1,167 @@
+package com.example.conferenceapp.dao;
+
+import javafx.application.Platform;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Выполнение обращений к DAO вне потока JavaFX.
+ * <p>
+ * Вызов уходит в небольшой фоновый пул, результат возвращается как
+ * {@link CompletableFuture}, который завершается в потоке JavaFX через
+ * {@link Platform#runLater}. Поэтому обработчики, навешанные из контроллера
+ * ({@code thenAccept}, {@code whenComplete}), могут сразу трогать UI.
+ * <p>
+ * Отмена ({@code cancel}) снимает ещё не начатый запрос с очереди; уже
+ * выполняющийся запрос доходит до конца, но его результат отбрасывается —
+ * прерывать поток посреди JDBC-вызова нельзя, соединение вернулось бы в пул
+ * в неизвестном состоянии.
+ * <p>
+ * Методы чтения DAO, которые экраны вызывают через этот класс, о сбое БД
+ * сообщают исключением, а не пустым списком: иначе таблица показала бы
+ * «ничего не найдено» вместо {@code Placeholders.failed()}.
+ */
+public final class AsyncDao {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncDao.class);
+
+    /** Половина интерактивного пула ({@code db.interactive.pool.max=8}) — остальное синхронным вызовам. */
+    private static final int THREADS = 4;
+    private static final int QUEUE_CAPACITY = 64;
+
+    private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+    private AsyncDao() {
+    }
+
+    /**
+     * Выполняет {@code call} в фоне; результат приходит в поток JavaFX. Если
+     * {@code call} бросает исключение — например, DAO не смог прочитать данные, —
+     * оно же завершает и future.
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> call) {
+        Call<T> task = new Call<>(call);
+        task.result.whenComplete((value, ex) -> {
+            if (task.result.isCancelled()) {
+                EXECUTOR.remove(task);              // не занимать место в очереди
+            }
+        });
+        EXECUTOR.execute(task);
+        return task.result;
+    }
+
+    /** То же для вызовов без результата (сохранение, удаление). */
+    public static CompletableFuture<Void> run(Runnable call) {
+        return supply(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /** Останавливает пул; ждущие в очереди запросы отбрасываются. */
+    public static void shutdown() {
+        EXECUTOR.shutdownNow();
+        try {
+            EXECUTOR.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /* ---------- последний запрос экрана ---------- */
+
+    /**
+     * Канал запросов одного элемента экрана (таблица, доска): каждый новый
+     * запрос отменяет предыдущий, так что устаревший ответ — например, по
+     * мероприятию, которое пользователь уже сменил в фильтре — не перезапишет
+     * свежий. Используется только из потока JavaFX.
+     */
+    public static final class Latest<T> {
+
+        private CompletableFuture<T> current;
+
+        public CompletableFuture<T> supply(Supplier<T> call) {
+            cancel();
+            current = AsyncDao.supply(call);
+            return current;
+        }
+
+        public void cancel() {
+            if (current != null) {
+                current.cancel(false);
+                current = null;
+            }
+        }
+    }
+
+    /* ---------- пул ---------- */
+
+    /** Запрос в очереди пула вместе с future, которую он завершит. */
+    private static final class Call<T> implements Runnable {
+
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        private final Supplier<T> call;
+
+        Call(Supplier<T> call) {
+            this.call = call;
+        }
+
+        @Override
+        public void run() {
+            if (result.isDone()) {
+                return;                             // отменён, пока ждал в очереди
+            }
+            try {
+                T value = call.get();
+                Platform.runLater(() -> result.complete(value));
+            } catch (RuntimeException | Error ex) {
+                log.warn("Background DAO call failed", ex);
+                fail(ex);
+            }
+        }
+
+        void fail(Throwable ex) {
+            Platform.runLater(() -> result.completeExceptionally(ex));
+        }
+    }
+
+    /**
+     * Очередь полна — значит, запросы копятся быстрее, чем БД отвечает, и
+     * самый старый из них, скорее всего, уже никому не нужен: он снимается с
+     * очереди и завершается ошибкой (экран покажет «не удалось загрузить»),
+     * а новый встаёт в конец. Запросы одного элемента экрана до этого не
+     * доходят: {@link Latest} снимает с очереди предыдущий сам.
+     */
+    private static void dropOldest(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            ((Call<?>) task).fail(new RejectedExecutionException("Background DAO pool is shut down"));
+            return;
+        }
+        Runnable oldest = executor.getQueue().poll();
+        if (oldest != null) {
+            log.warn("Background DAO queue is full ({} tasks), oldest request dropped", QUEUE_CAPACITY);
+            ((Call<?>) oldest).fail(new RejectedExecutionException("Background DAO queue is full"));
+        }
+        executor.execute(task);
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, "dao-async-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        return new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), factory, AsyncDao::dropOldest);
+    }
+}
@@ -2,17 +2,28 @@ package com.example.conferenceapp.dao;
 
 import com.example.conferenceapp.model.Activity;
 import com.example.conferenceapp.model.Event;
+import com.example.conferenceapp.service.ScheduleConflictService;
 import com.example.conferenceapp.util.DBUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.sql.*;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Collection;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
 
 public class EventDao {
 
+    private static final Logger log = LoggerFactory.getLogger(EventDao.class);
+    private static final int BATCH_SIZE = 500;
+
     public List<Event> find(String directionFilter, LocalDate dateFilter) {
         List<Event> list = new ArrayList<>();
 
@@ -69,6 +80,274 @@ public class EventDao {
         return list;
     }
 
+    /* ---------- каталог: постраничное чтение и фасеты ---------- */
+
+    /**
+     * Позиция в каталоге — начало и id последнего мероприятия страницы.
+     * Следующая страница начинается строго после неё, поэтому вставка или
+     * удаление мероприятий между запросами не сдвигает и не дублирует строки,
+     * как сдвинул бы {@code OFFSET}.
+     */
+    public record PageKey(LocalDateTime start, int id) {
+
+        public static PageKey of(Event event) {
+            return new PageKey(event.getStart(), event.getId());
+        }
+    }
+
+    /**
+     * Фильтры каталога; {@code null} — без ограничения. День важнее месяца:
+     * если задан {@code date}, {@code month} не учитывается.
+     */
+    public record EventFilter(String direction, String city, YearMonth month, LocalDate date) {
+
+        public static final EventFilter ALL = new EventFilter(null, null, null, null);
+
+        /** Те же направление и город без ограничения по датам — для календаря и фасета месяцев. */
+        public EventFilter withoutDates() {
+            return new EventFilter(direction, city, null, null);
+        }
+
+        LocalDateTime from() {
+            if (date != null) return date.atStartOfDay();
+            return month != null ? month.atDay(1).atStartOfDay() : null;
+        }
+
+        LocalDateTime to() {
+            if (date != null) return date.plusDays(1).atStartOfDay();
+            return month != null ? month.plusMonths(1).atDay(1).atStartOfDay() : null;
+        }
+    }
+
+    /**
+     * Число мероприятий по каждому значению фильтра. Счётчики фасета
+     * считаются со всеми остальными фильтрами, но без его собственного —
+     * показывают, сколько будет найдено, если выбрать другое значение.
+     */
+    public record Facets(Map<String, Integer> directions, Map<String, Integer> cities,
+                         Map<YearMonth, Integer> months) {
+    }
+
+    /** Первая страница поиска и фасеты к ней. */
+    public record SearchResult(List<Event> page, Facets facets) {
+    }
+
+    /** Условие каталога: направление, город, диапазон дат — 7 параметров, см. {@link #bindFilter}. */
+    private static final String CATALOG_WHERE = """
+            WHERE (? IS NULL OR d.name = ?)
+              AND (? IS NULL OR g.name = ?)
+              AND (? IS NULL OR (e.start_datetime >= ? AND e.start_datetime < ?))
+        """;
+
+    private static final String CATALOG_FROM = """
+            FROM event e
+            JOIN direction d ON e.direction_id  = d.id
+            JOIN city      g ON e.city_id       = g.id
+        """;
+
+    /** Прежняя сигнатура: только направление и день. */
+    public List<Event> findPage(String directionFilter, LocalDate dateFilter, PageKey after, int limit) {
+        return findPage(new EventFilter(directionFilter, null, null, dateFilter), after, limit);
+    }
+
+    /**
+     * Страница каталога в порядке {@code (start_datetime, id)}: до {@code limit}
+     * мероприятий после {@code after} ({@code null} — с начала). Даты
+     * сравниваются диапазоном, а не {@code DATE(...)}, чтобы запрос шёл по
+     * {@code idx_event_start} / {@code idx_event_direction_start} и читал
+     * только {@code limit} строк индекса, сколько бы мероприятий ни было в БД.
+     */
+    public List<Event> findPage(EventFilter filter, PageKey after, int limit) {
+        List<Event> list = new ArrayList<>(limit);
+
+        String sql = """
+            SELECT e.id,
+                   e.title,
+                   d.name            AS dir_name,
+                   e.start_datetime,
+                   e.logo,
+                   g.name            AS city,
+                   u.full_name       AS organizer,
+                   e.description
+            %s
+            LEFT JOIN user u ON e.organizer_id  = u.id
+            %s
+              AND (? IS NULL OR e.start_datetime > ? OR (e.start_datetime = ? AND e.id > ?))
+            ORDER BY e.start_datetime, e.id
+            LIMIT ?
+        """.formatted(CATALOG_FROM, CATALOG_WHERE);
+
+        try (Connection c = DBUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+
+            int i = bindFilter(ps, 1, filter.direction(), filter.city(), filter.from(), filter.to());
+            if (after != null) {
+                Timestamp afterStart = Timestamp.valueOf(after.start());
+                ps.setTimestamp(i++, afterStart);
+                ps.setTimestamp(i++, afterStart);
+                ps.setTimestamp(i++, afterStart);
+                ps.setInt(i++, after.id());
+            } else {
+                ps.setNull(i++, Types.TIMESTAMP);
+                ps.setNull(i++, Types.TIMESTAMP);
+                ps.setNull(i++, Types.TIMESTAMP);
+                ps.setNull(i++, Types.INTEGER);
+            }
+            ps.setInt(i, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(catalogEvent(rs));
+                }
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Cannot load event page", ex);
+        }
+        return list;
+    }
+
+    /**
+     * Первая страница и фасеты по направлению, городу и месяцу одним
+     * запросом: страница и три {@code GROUP BY} склеены через
+     * {@code UNION ALL}, строки различаются колонкой {@code kind}.
+     * Следующие страницы — {@link #findPage(EventFilter, PageKey, int)}.
+     */
+    public SearchResult search(EventFilter filter, int limit) {
+        List<Event> page = new ArrayList<>(limit);
+        Map<String, Integer> directions = new TreeMap<>();
+        Map<String, Integer> cities = new TreeMap<>();
+        Map<YearMonth, Integer> months = new TreeMap<>();
+
+        String sql = """
+            (SELECT 'E' AS kind,
+                    e.id,
+                    e.title,
+                    d.name            AS dir_name,
+                    e.start_datetime,
+                    e.logo,
+                    g.name            AS city,
+                    u.full_name       AS organizer,
+                    e.description,
+                    NULL              AS facet_value,
+                    NULL              AS facet_count
+             %1$s
+             LEFT JOIN user u ON e.organizer_id  = u.id
+             %2$s
+             ORDER BY e.start_datetime, e.id
+             LIMIT ?)
+            UNION ALL
+            (SELECT 'D', NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, d.name, COUNT(*)
+             %1$s
+             %2$s
+             GROUP BY d.name)
+            UNION ALL
+            (SELECT 'C', NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, g.name, COUNT(*)
+             %1$s
+             %2$s
+             GROUP BY g.name)
+            UNION ALL
+            (SELECT 'M', NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL,
+                    EXTRACT(YEAR_MONTH FROM e.start_datetime), COUNT(*)
+             %1$s
+             %2$s
+             GROUP BY EXTRACT(YEAR_MONTH FROM e.start_datetime))
+        """.formatted(CATALOG_FROM, CATALOG_WHERE);
+
+        String dir = filter.direction();
+        String city = filter.city();
+        LocalDateTime from = filter.from();
+        LocalDateTime to = filter.to();
+
+        try (Connection c = DBUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+
+            int i = bindFilter(ps, 1, dir, city, from, to);
+            ps.setInt(i++, limit);
+            i = bindFilter(ps, i, null, city, from, to);      // направления — без своего фильтра
+            i = bindFilter(ps, i, dir, null, from, to);       // города
+            bindFilter(ps, i, dir, city, null, null);         // месяцы — без дат
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    switch (rs.getString("kind")) {
+                        case "E" -> page.add(catalogEvent(rs));
+                        case "D" -> directions.put(rs.getString("facet_value"), rs.getInt("facet_count"));
+                        case "C" -> cities.put(rs.getString("facet_value"), rs.getInt("facet_count"));
+                        case "M" -> {
+                            int yearMonth = Integer.parseInt(rs.getString("facet_value"));
+                            months.put(YearMonth.of(yearMonth / 100, yearMonth % 100), rs.getInt("facet_count"));
+                        }
+                        default -> { }
+                    }
+                }
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Cannot search events", ex);
+        }
+        return new SearchResult(page, new Facets(directions, cities, months));
+    }
+
+    /** Мероприятия по дням месяца (по дню начала) с фильтрами направления и города — для календаря. */
+    public Map<LocalDate, Integer> countByDay(EventFilter filter, YearMonth month) {
+        Map<LocalDate, Integer> days = new TreeMap<>();
+        String sql = """
+            SELECT DAY(e.start_datetime) AS day_num, COUNT(*) AS cnt
+            %s
+            %s
+            GROUP BY DAY(e.start_datetime)
+        """.formatted(CATALOG_FROM, CATALOG_WHERE);
+
+        try (Connection c = DBUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+
+            bindFilter(ps, 1, filter.direction(), filter.city(),
+                    month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    days.put(month.atDay(rs.getInt("day_num")), rs.getInt("cnt"));
+                }
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Cannot count events by day", ex);
+        }
+        return days;
+    }
+
+    /** Параметры {@link #CATALOG_WHERE} начиная с {@code index}; возвращает следующий номер. */
+    private static int bindFilter(PreparedStatement ps, int index, String direction, String city,
+                                  LocalDateTime from, LocalDateTime to) throws SQLException {
+        ps.setString(index++, direction);
+        ps.setString(index++, direction);
+        ps.setString(index++, city);
+        ps.setString(index++, city);
+        if (from != null) {
+            Timestamp start = Timestamp.valueOf(from);
+            ps.setTimestamp(index++, start);
+            ps.setTimestamp(index++, start);
+            ps.setTimestamp(index++, Timestamp.valueOf(to));
+        } else {
+            ps.setNull(index++, Types.TIMESTAMP);
+            ps.setNull(index++, Types.TIMESTAMP);
+            ps.setNull(index++, Types.TIMESTAMP);
+        }
+        return index;
+    }
+
+    private static Event catalogEvent(ResultSet rs) throws SQLException {
+        return new Event(
+                rs.getInt   ("id"),
+                rs.getString("title"),
+                rs.getString("dir_name"),
+                rs.getTimestamp("start_datetime")
+                        .toLocalDateTime(),
+                rs.getString("logo"),
+                rs.getString("city"),
+                rs.getString("organizer"),
+                rs.getString("description")
+        );
+    }
+
     public List<Event> findByOrganizer(int organizerId, String direction, LocalDate date) {
         List<Event> list = new ArrayList<>();
         String sql = """
@@ -135,13 +414,108 @@ public class EventDao {
     }
 
     public int insert(Event event) {
+        try (Connection c = DBUtil.getConnection()) {
+            return insertEvent(c, event);
+        } catch (SQLException ex) {
+            ex.printStackTrace();
+        }
+        return 0;
+    }
+
+    /**
+     * Сохраняет мероприятие целиком: направление и город (создаются при необходимости),
+     * само мероприятие, его активности ({@link Event#getActivities()}) и назначения жюри
+     * ({@link Activity#getJuryIds()}). Всё выполняется на одном соединении в одной
+     * транзакции, активности и жюри вставляются JDBC-пакетами.
+     *
+     * @return идентификаторы и длительность этапов; {@code null}, если транзакция откатена
+     */
+    public AggregateResult createEventAggregate(Event event) {
+        Map<String, Duration> phases = new LinkedHashMap<>();
+        try (Connection c = DBUtil.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                long t = System.nanoTime();
+                ReferenceDao references = new ReferenceDao();
+                event.setDirectionId(references.ensureDirection(c, event.getDirection()));
+                if (event.getCity() != null) {
+                    event.setCityId(references.ensureCity(c, event.getCity()));
+                }
+                t = phase(phases, "references", t);
+
+                int eventId = insertEvent(c, event);
+                if (eventId == 0) {
+                    throw new SQLException("Event insert returned no generated key");
+                }
+                t = phase(phases, "event", t);
+
+                List<Activity> activities = event.getActivities();
+                List<Integer> activityIds = insertActivities(c, eventId, event.getStartDate(), activities);
+                t = phase(phases, "activities", t);
+
+                insertJury(c, activities, activityIds);
+                t = phase(phases, "jury", t);
+
+                c.commit();
+                phase(phases, "commit", t);
+                ScheduleConflictService.getInstance().activitiesChanged(activityIds);
+
+                AggregateResult result = new AggregateResult(eventId, activityIds, phases);
+                log.debug("Created {}", result);
+                return result;
+            } catch (SQLException ex) {
+                c.rollback();
+                throw ex;
+            }
+        } catch (SQLException ex) {
+            ex.printStackTrace();
+        }
+        return null;
+    }
+
+    /** Итог {@link #createEventAggregate}: новые ключи и время каждого этапа. */
+    public record AggregateResult(int eventId, List<Integer> activityIds, Map<String, Duration> phases) {
+
+        public Duration total() {
+            return phases.values().stream().reduce(Duration.ZERO, Duration::plus);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("event ").append(eventId)
+                    .append(" with ").append(activityIds.size()).append(" activities in ")
+                    .append(total().toMillis()).append(" ms");
+            phases.forEach((name, d) -> sb.append(", ").append(name).append('=')
+                    .append(String.format(Locale.ROOT, "%.2f ms", d.toNanos() / 1_000_000.0)));
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Меняет только окончание мероприятия. {@code activity.start_at/end_at} зависят от даты
+     * начала, поэтому пересчитывать их не нужно.
+     */
+    public void updateEndDateTime(int eventId, LocalDateTime end) {
+        String sql = "UPDATE event SET end_datetime = ? WHERE id = ?";
+        try (Connection c = DBUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(end));
+            ps.setInt(2, eventId);
+            ps.executeUpdate();
+        } catch (SQLException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /* ---------- вставка в рамках транзакции ---------- */
+
+    private int insertEvent(Connection c, Event event) throws SQLException {
         String sql = """
             INSERT INTO event(title, direction_id, start_datetime, end_datetime, city_id, organizer_id, logo, description)
             VALUES(?,?,?,?,?,?,?,?)
         """;
 
-        try (Connection c = DBUtil.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             ps.setString(1, event.getTitle());
             ps.setInt(2, event.getDirectionId());
@@ -169,36 +543,87 @@ public class EventDao {
                     return rs.getInt(1);
                 }
             }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
         }
         return 0;
     }
 
-    public void updateEndDateTime(int eventId, LocalDateTime end) {
-        String sql = "UPDATE event SET end_datetime = ? WHERE id = ?";
-        try (Connection c = DBUtil.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setTimestamp(1, Timestamp.valueOf(end));
-            ps.setInt(2, eventId);
-            ps.executeUpdate();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
+    /**
+     * Пакетная вставка активностей; ключи возвращаются в порядке {@code activities}.
+     * {@code start_at/end_at} вычисляются здесь же от даты начала мероприятия.
+     */
+    private List<Integer> insertActivities(Connection c, int eventId, LocalDate eventDate,
+                                           List<Activity> activities) throws SQLException {
+        String sql = """
+            INSERT INTO activity(event_id, title, day_num, start_time, end_time, start_at, end_at, moderator_id)
+            VALUES(?,?,?,?,?,?,?,?)
+        """;
+        List<Integer> ids = new ArrayList<>(activities.size());
+
+        try (PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int from = 0; from < activities.size(); from += BATCH_SIZE) {
+                List<Activity> chunk = activities.subList(from, Math.min(from + BATCH_SIZE, activities.size()));
+                for (Activity activity : chunk) {
+                    ps.setInt(1, eventId);
+                    ps.setString(2, activity.getTitle());
+                    ps.setInt(3, activity.getDayNum());
+                    ps.setTime(4, Time.valueOf(activity.getStartTime()));
+                    ps.setTime(5, Time.valueOf(activity.getEndTime()));
+                    LocalDate day = eventDate.plusDays(activity.getDayNum() - 1L);
+                    ps.setTimestamp(6, Timestamp.valueOf(day.atTime(activity.getStartTime())));
+                    ps.setTimestamp(7, Timestamp.valueOf(day.atTime(activity.getEndTime())));
+                    if (activity.getModeratorId() != null) {
+                        ps.setInt(8, activity.getModeratorId());
+                    } else {
+                        ps.setNull(8, Types.INTEGER);
+                    }
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                int before = ids.size();
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    while (rs.next()) {
+                        ids.add(rs.getInt(1));
+                    }
+                }
+                if (ids.size() - before != chunk.size()) {
+                    throw new SQLException("Expected " + chunk.size() + " generated keys, got " + (ids.size() - before));
+                }
+            }
         }
+        for (int i = 0; i < ids.size(); i++) {
+            activities.get(i).setId(ids.get(i));
+        }
+        return ids;
     }
 
-    public void bulkInsertActivities(int eventId, Collection<Activity> activities) {
-        ActivityDao activityDao = new ActivityDao();
-        for (Activity activity : activities) {
-            activity.setId(0);
-            activityDao.insert(new Activity(eventId,
-                    activity.getTitle(),
-                    activity.getDayNum(),
-                    activity.getStartTime(),
-                    activity.getEndTime()));
+    private void insertJury(Connection c, List<Activity> activities, List<Integer> activityIds) throws SQLException {
+        String sql = "INSERT INTO activity_jury(activity_id, jury_id) VALUES(?,?)";
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            int pending = 0;
+            for (int i = 0; i < activities.size(); i++) {
+                for (Integer juryId : activities.get(i).getJuryIds()) {
+                    ps.setInt(1, activityIds.get(i));
+                    ps.setInt(2, juryId);
+                    ps.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        ps.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            if (pending > 0) {
+                ps.executeBatch();
+            }
         }
     }
 
+    private static long phase(Map<String, Duration> phases, String name, long startedNanos) {
+        long now = System.nanoTime();
+        phases.put(name, Duration.ofNanos(now - startedNanos));
+        return now;
+    }
+
     public Event findById(int eventId) {
         String sql = """
             SELECT e.id,
@@ -1,6 +1,7 @@
 package com.example.conferenceapp.dao;
 
 import com.example.conferenceapp.model.ModeratorSlot;
+import com.example.conferenceapp.service.ScheduleConflictService;
 import com.example.conferenceapp.util.DBUtil;
 
 import java.sql.*;
@@ -16,9 +17,8 @@ public class ModeratorDao {
                    a.title,
                    e.title          AS event_title,
                    d.name           AS direction_name,
-                   DATE(e.start_datetime) + INTERVAL (a.day_num-1) DAY AS activity_date,
-                   a.start_time,
-                   a.end_time,
+                   a.start_at,
+                   a.end_at,
                    ma.status,
                    CASE WHEN a.moderator_id = ? THEN 'APPROVED' END AS direct_status
               FROM activity a
@@ -28,7 +28,7 @@ public class ModeratorDao {
                      ON ma.activity_id = a.id AND ma.moderator_id = ?
              WHERE (? IS NULL OR d.name = ?)
                AND (? IS NULL OR e.id = ?)
-             ORDER BY activity_date, a.start_time
+             ORDER BY a.start_at, a.id
         """;
 
         List<ModeratorSlot> slots = new ArrayList<>();
@@ -49,6 +49,11 @@ public class ModeratorDao {
 
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
+                    Timestamp startAt = rs.getTimestamp("start_at");
+                    Timestamp endAt = rs.getTimestamp("end_at");
+                    if (startAt == null || endAt == null) {
+                        continue;   // активность без дня или времени в расписание не попадает
+                    }
                     ModeratorSlot.Status status = ModeratorSlot.Status.AVAILABLE;
                     String state = rs.getString("status");
                     if (state != null) {
@@ -62,16 +67,16 @@ public class ModeratorDao {
                             rs.getString("title"),
                             rs.getString("event_title"),
                             rs.getString("direction_name"),
-                            rs.getDate("activity_date").toLocalDate(),
-                            rs.getTime("start_time").toLocalTime(),
-                            rs.getTime("end_time").toLocalTime(),
+                            startAt.toLocalDateTime().toLocalDate(),
+                            startAt.toLocalDateTime().toLocalTime(),
+                            endAt.toLocalDateTime().toLocalTime(),
                             status
                     ));
                 }
             }
 
         } catch (SQLException ex) {
-            ex.printStackTrace();
+            throw new IllegalStateException("Cannot load moderator slots", ex);
         }
         return slots;
     }
@@ -83,6 +88,7 @@ public class ModeratorDao {
             ps.setInt(1, activityId);
             ps.setInt(2, moderatorId);
             ps.executeUpdate();
+            ScheduleConflictService.getInstance().applicationSubmitted(activityId, moderatorId);
         } catch (SQLException ex) {
             ex.printStackTrace();
         }
@@ -94,6 +100,7 @@ public class ModeratorDao {
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setInt(1, moderatorId);
             ps.executeUpdate();
+            ScheduleConflictService.getInstance().applicationsCancelled(moderatorId);
         } catch (SQLException ex) {
             ex.printStackTrace();
         }
@@ -105,14 +112,14 @@ public class ModeratorDao {
                    a.title,
                    e.title    AS event_title,
                    d.name     AS direction_name,
-                   DATE(e.start_datetime) + INTERVAL (a.day_num-1) DAY AS activity_date,
-                   a.start_time,
-                   a.end_time
+                   a.start_at,
+                   a.end_at
               FROM activity a
               JOIN event e ON e.id = a.event_id
               JOIN direction d ON d.id = e.direction_id
               LEFT JOIN moderator_application ma ON ma.activity_id = a.id AND ma.moderator_id = ?
              WHERE a.moderator_id = ? OR ma.status = 'APPROVED'
+             ORDER BY a.start_at, a.id
         """;
 
         List<ModeratorSlot> list = new ArrayList<>();
@@ -124,14 +131,19 @@ public class ModeratorDao {
 
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
+                    Timestamp startAt = rs.getTimestamp("start_at");
+                    Timestamp endAt = rs.getTimestamp("end_at");
+                    if (startAt == null || endAt == null) {
+                        continue;
+                    }
                     list.add(new ModeratorSlot(
                             rs.getInt("id"),
                             rs.getString("title"),
                             rs.getString("event_title"),
                             rs.getString("direction_name"),
-                            rs.getDate("activity_date").toLocalDate(),
-                            rs.getTime("start_time").toLocalTime(),
-                            rs.getTime("end_time").toLocalTime(),
+                            startAt.toLocalDateTime().toLocalDate(),
+                            startAt.toLocalDateTime().toLocalTime(),
+                            endAt.toLocalDateTime().toLocalTime(),
                             ModeratorSlot.Status.APPROVED
                     ));
                 }
@@ -1,18 +1,50 @@
 package com.example.conferenceapp.dao;
 
 import com.example.conferenceapp.model.PersonCard;
+import com.example.conferenceapp.service.IdNumberSequence;
+import com.example.conferenceapp.service.PeopleSearchIndex;
 import com.example.conferenceapp.util.DBUtil;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class PersonDao {
 
-    public List<PersonCard> findJuryAndModerators(String roleFilter, String lastName, Integer eventId) {
-        StringBuilder sql = new StringBuilder("""
+    /**
+     * Жюри и модераторы, по одной карточке на человека; в
+     * {@link PersonCard#getEventTitles()} — все его мероприятия в порядке
+     * начала. Людей и их мероприятия читают два запроса с одним фильтром;
+     * фильтр стоит в каждой ветке {@code UNION}, так что связи читаются только
+     * у отобранных людей. Пары человек — мероприятие схлопывает {@code UNION}
+     * (в том числе от многих активностей одного мероприятия), а список
+     * собирается здесь, без {@code GROUP_CONCAT} и его предела
+     * {@code group_concat_max_len}. Фильтр по мероприятию — {@code EXISTS} по
+     * самим связям и список мероприятий человека не урезает. Поиск по ФИО
+     * идёт по загруженному списку через {@code PeopleSearchIndex}.
+     */
+    public List<PersonCard> findJuryAndModerators(String roleFilter, Integer eventId) {
+        StringBuilder filter = new StringBuilder(" WHERE r.code IN ('jury','moderator')");
+        if (roleFilter != null) {
+            filter.append(" AND r.code = ?");
+        }
+        if (eventId != null) {
+            filter.append("""
+                 AND (EXISTS (SELECT 1 FROM moderator_assignment ma WHERE ma.user_id = u.id AND ma.event_id = ?)
+                      OR EXISTS (SELECT 1
+                                   FROM activity_jury aj
+                                   JOIN activity a ON a.id = aj.activity_id
+                                  WHERE aj.jury_id = u.id AND a.event_id = ?))
+            """);
+        }
+
+        String peopleSql = """
             SELECT u.id,
                    u.id_number,
                    u.full_name,
@@ -20,132 +52,580 @@ public class PersonDao {
                    u.phone,
                    r.label_ru AS role_label,
                    d.name     AS direction,
-                   e.title    AS event_title,
                    u.photo
               FROM user u
               JOIN role r ON r.id = u.role_id
               LEFT JOIN direction d ON d.id = u.direction_id
-              LEFT JOIN (
-                    SELECT ma.user_id, ma.event_id
-                      FROM moderator_assignment ma
-                    UNION
-                    SELECT aj.jury_id AS user_id, a.event_id
-                      FROM activity_jury aj
-                      JOIN activity a ON a.id = aj.activity_id
-              ) rel ON rel.user_id = u.id
-              LEFT JOIN event e ON e.id = rel.event_id
-             WHERE r.code IN ('jury','moderator')
-        """);
+            %s
+             ORDER BY u.full_name, u.id
+            """.formatted(filter);
+
+        // псевдонимы веток не совпадают с псевдонимами EXISTS фильтра
+        String eventsSql = """
+            SELECT rm.user_id, e.title, e.start_datetime, e.id
+              FROM moderator_assignment rm
+              JOIN event e ON e.id = rm.event_id
+              JOIN user u ON u.id = rm.user_id
+              JOIN role r ON r.id = u.role_id
+            %1$s
+            UNION
+            SELECT rj.jury_id, e.title, e.start_datetime, e.id
+              FROM activity_jury rj
+              JOIN activity ra ON ra.id = rj.activity_id
+              JOIN event e ON e.id = ra.event_id
+              JOIN user u ON u.id = rj.jury_id
+              JOIN role r ON r.id = u.role_id
+            %1$s
+             ORDER BY 1, 3, 4
+            """.formatted(filter);
 
-        if (roleFilter != null) {
-            sql.append(" AND r.code = ?");
+        List<PersonCard> list = new ArrayList<>();
+        try (Connection c = DBUtil.getConnection()) {
+
+            Map<Integer, List<String>> events = new HashMap<>();
+            try (PreparedStatement ps = c.prepareStatement(eventsSql)) {
+                int idx = bindJuryFilter(ps, 1, roleFilter, eventId);
+                bindJuryFilter(ps, idx, roleFilter, eventId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        events.computeIfAbsent(rs.getInt("user_id"), k -> new ArrayList<>())
+                              .add(rs.getString("title"));
+                    }
+                }
+            }
+
+            try (PreparedStatement ps = c.prepareStatement(peopleSql)) {
+                bindJuryFilter(ps, 1, roleFilter, eventId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int id = rs.getInt("id");
+                        list.add(new PersonCard(
+                                id,
+                                rs.getString("id_number"),
+                                rs.getString("full_name"),
+                                rs.getString("email"),
+                                rs.getString("phone"),
+                                rs.getString("role_label"),
+                                rs.getString("direction"),
+                                events.getOrDefault(id, List.of()),
+                                rs.getString("photo")
+                        ));
+                    }
+                }
+            }
+
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Cannot load jury and moderators", ex);
         }
-        if (lastName != null && !lastName.isBlank()) {
-            sql.append(" AND u.full_name LIKE ?");
+        return list;
+    }
+
+    /** Параметры фильтра справочника жюри начиная с {@code idx}; возвращает следующий номер. */
+    private static int bindJuryFilter(PreparedStatement ps, int idx, String roleFilter,
+                                      Integer eventId) throws SQLException {
+        if (roleFilter != null) {
+            ps.setString(idx++, roleFilter);
         }
         if (eventId != null) {
-            sql.append(" AND rel.event_id = ?");
+            ps.setInt(idx++, eventId);
+            ps.setInt(idx++, eventId);
         }
+        return idx;
+    }
 
-        sql.append(" ORDER BY u.full_name");
+    /* ---------- справочник участников: страницы и число строк ---------- */
+
+    /**
+     * Порядок справочника участников. Имя, почта и дата регистрации — колонки
+     * {@code user} без NULL (для имени и почты — вычисляемые {@code sort_name},
+     * {@code sort_email}, миграция V8) с индексами {@code (role_id, колонка, id)}:
+     * страница — диапазон индекса от ключа предыдущей, без сортировки всей
+     * таблицы. {@link #EVENT} идёт по индексу {@code event(title, id)} и внутри
+     * мероприятия — по {@code participant_event(event_id, participant_id)};
+     * участники без мероприятий — в конце при любом направлении.
+     * {@link #RELEVANCE} — порядок {@code userIds} фильтра (выдача поиска по
+     * людям); страница — следующий отрезок этого списка.
+     */
+    public enum ParticipantSort {
+        NAME("u.sort_name"),
+        EMAIL("u.sort_email"),
+        EVENT(null),
+        REGISTERED("u.created_at"),
+        RELEVANCE(null);
+
+        private final String column;
+
+        ParticipantSort(String column) {
+            this.column = column;
+        }
+    }
 
-        List<PersonCard> list = new ArrayList<>();
-        try (Connection c = DBUtil.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql.toString())) {
+    /**
+     * Фильтры справочника; {@code null} — без ограничения.
+     *
+     * @param userIds только эти участники (выдача поиска по людям), в порядке релевантности
+     */
+    public record ParticipantFilter(Integer eventId, List<Integer> userIds) {
+    }
+
+    /**
+     * Позиция в справочнике — ключ сортировки, id участника и мероприятия
+     * последней строки страницы. Строка справочника — пара участник и
+     * мероприятие; при сортировке по имени, почте и дате страница кончается
+     * на участнике целиком и {@code eventId} не нужен. Для {@link ParticipantSort#RELEVANCE}
+     * {@code sortValue} — номер первого не прочитанного id в списке фильтра.
+     */
+    public record ParticipantKey(Object sortValue, int userId, int eventId) {
+    }
+
+    /** Страница справочника; {@code next == null} — дальше строк нет. */
+    public record ParticipantPage(List<PersonCard> rows, ParticipantKey next) {
+    }
+
+    /** Мероприятий за один запрос при сортировке по мероприятию. */
+    private static final int EVENT_BATCH = 20;
+
+    private static final String PARTICIPANT_COLUMNS = """
+            SELECT u.id,
+                   u.id_number,
+                   u.full_name,
+                   u.email,
+                   u.phone,
+                   r.label_ru,
+                   d.name     AS direction,
+                   e.title    AS event_title,
+                   u.photo,
+                   u.created_at,
+                   COALESCE(pe.event_id, 0) AS event_id
+            """;
+
+    /**
+     * Строки справочника после {@code after} ({@code null} — с начала) в
+     * порядке {@code sort}: не меньше {@code limit} строк, пока они есть.
+     * Сортировка и отбор — в SQL по индексам, в память попадает только
+     * страница: открытие справочника на 100 тыс. участников не зависит от их
+     * числа. Ошибка чтения — {@link IllegalStateException}.
+     */
+    public ParticipantPage findParticipantPage(ParticipantFilter filter, ParticipantSort sort, boolean descending,
+                                               ParticipantKey after, int limit) {
+        if (filter.userIds() != null && filter.userIds().isEmpty()) {
+            return new ParticipantPage(List.of(), null);
+        }
+        try (Connection c = DBUtil.getConnection()) {
+            if (sort == ParticipantSort.RELEVANCE && filter.userIds() != null) {
+                return relevancePage(c, filter, after, limit);
+            }
+            if (sort == ParticipantSort.EVENT && filter.eventId() == null) {
+                return eventPage(c, filter, descending, after, limit);
+            }
+            // в одном мероприятии сортировать по нему нечего — по имени
+            ParticipantSort byUser = sort.column != null ? sort : ParticipantSort.NAME;
+            return userPage(c, filter, byUser, descending, after, limit);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Cannot load participant page", ex);
+        }
+    }
+
+    /**
+     * {@code limit} участников по индексу {@code (role_id, колонка, id)} и все
+     * их строки. Внешняя сортировка — только по строкам этих участников.
+     */
+    private ParticipantPage userPage(Connection c, ParticipantFilter filter, ParticipantSort sort, boolean descending,
+                                     ParticipantKey after, int limit) throws SQLException {
+        String column = sort.column;
+        String direction = descending ? " DESC" : "";
+        String compare = descending ? "<" : ">";
+
+        StringBuilder sql = new StringBuilder(PARTICIPANT_COLUMNS).append("""
+                   , p.sort_key
+              FROM (
+                    SELECT u.id, %s AS sort_key
+                      FROM user u
+                      JOIN role r ON r.id = u.role_id
+                     WHERE r.code = 'participant'
+            """.formatted(column));
+        if (filter.eventId() != null) {
+            sql.append("   AND EXISTS (SELECT 1 FROM participant_event f WHERE f.participant_id = u.id AND f.event_id = ?)\n");
+        }
+        appendUserIds(sql, filter);
+        if (after != null) {
+            // (колонка, id) > (?, ?), записанное так, чтобы MySQL взял диапазон индекса
+            sql.append("   AND %1$s %2$s= ? AND (%1$s %2$s ? OR u.id %2$s ?)\n".formatted(column, compare));
+        }
+        sql.append("""
+                     ORDER BY %1$s%2$s, u.id%2$s
+                     LIMIT ?
+              ) p
+              JOIN user u ON u.id = p.id
+              JOIN role r ON r.id = u.role_id
+              LEFT JOIN direction d ON d.id = u.direction_id
+              LEFT JOIN participant_event pe ON pe.participant_id = u.id%3$s
+              LEFT JOIN event e ON e.id = pe.event_id
+             ORDER BY p.sort_key%2$s, p.id%2$s, pe.event_id%2$s
+            """.formatted(column, direction, filter.eventId() != null ? " AND pe.event_id = ?" : ""));
 
+        List<PersonCard> rows = new ArrayList<>(limit);
+        ParticipantKey last = null;
+        int users = 0;
+        try (PreparedStatement ps = c.prepareStatement(sql.toString())) {
             int idx = 1;
-            if (roleFilter != null) {
-                ps.setString(idx++, roleFilter);
+            if (filter.eventId() != null) {
+                ps.setInt(idx++, filter.eventId());
             }
-            if (lastName != null && !lastName.isBlank()) {
-                ps.setString(idx++, lastName + "%");
+            idx = bindUserIds(ps, idx, filter);
+            if (after != null) {
+                ps.setObject(idx++, after.sortValue());
+                ps.setObject(idx++, after.sortValue());
+                ps.setInt(idx++, after.userId());
             }
-            if (eventId != null) {
-                ps.setInt(idx++, eventId);
+            ps.setInt(idx++, limit);
+            if (filter.eventId() != null) {
+                ps.setInt(idx, filter.eventId());
             }
 
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    list.add(new PersonCard(
-                            rs.getInt("id"),
-                            rs.getString("id_number"),
-                            rs.getString("full_name"),
-                            rs.getString("email"),
-                            rs.getString("phone"),
-                            rs.getString("role_label"),
-                            rs.getString("direction"),
-                            rs.getString("event_title"),
-                            rs.getString("photo")
-                    ));
+                    rows.add(participantCard(rs));
+                    if (last == null || last.userId() != rs.getInt("id")) {
+                        users++;
+                    }
+                    last = new ParticipantKey(rs.getObject("sort_key"), rs.getInt("id"), 0);
                 }
             }
+        }
+        return new ParticipantPage(rows, users < limit ? null : last);
+    }
 
-        } catch (SQLException ex) {
-            ex.printStackTrace();
+    /**
+     * Следующий отрезок выдачи поиска. Отрезки без строк (никто не в выбранном
+     * мероприятии) пропускаются, и каждый следующий вдвое длиннее — до
+     * {@value #COUNT_CHUNK} id, — чтобы редкие совпадения не читались по сотне.
+     */
+    private ParticipantPage relevancePage(Connection c, ParticipantFilter filter, ParticipantKey after,
+                                          int limit) throws SQLException {
+        List<Integer> ids = filter.userIds();
+        int from = after != null ? (Integer) after.sortValue() : 0;
+        List<PersonCard> rows = new ArrayList<>(limit);
+        int size = limit;
+        while (rows.isEmpty() && from < ids.size()) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + size, ids.size()));
+            from += chunk.size();
+            size = Math.min(size * 2, Math.max(limit, COUNT_CHUNK));
+
+            StringBuilder sql = new StringBuilder(PARTICIPANT_COLUMNS).append("""
+                  FROM user u
+                  JOIN role r ON r.id = u.role_id
+                  LEFT JOIN direction d ON d.id = u.direction_id
+                  %s JOIN participant_event pe ON pe.participant_id = u.id%s
+                  LEFT JOIN event e ON e.id = pe.event_id
+                 WHERE r.code = 'participant'
+                """.formatted(filter.eventId() != null ? "" : "LEFT",
+                              filter.eventId() != null ? " AND pe.event_id = ?" : ""));
+            ParticipantFilter chunkFilter = new ParticipantFilter(null, chunk);
+            appendUserIds(sql, chunkFilter);
+
+            List<PersonCard> found = new ArrayList<>();
+            List<Integer> eventIds = new ArrayList<>();
+            try (PreparedStatement ps = c.prepareStatement(sql.toString())) {
+                int idx = 1;
+                if (filter.eventId() != null) {
+                    ps.setInt(idx++, filter.eventId());
+                }
+                bindUserIds(ps, idx, chunkFilter);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        found.add(participantCard(rs));
+                        eventIds.add(rs.getInt("event_id"));
+                    }
+                }
+            }
+
+            // порядок выдачи, у одного участника — по мероприятию
+            Map<Integer, Integer> position = new HashMap<>(chunk.size() * 2);
+            for (int i = 0; i < chunk.size(); i++) {
+                position.put(chunk.get(i), i);
+            }
+            Integer[] order = new Integer[found.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.<Integer>comparingInt(i -> position.get(found.get(i).getId()))
+                    .thenComparingInt(eventIds::get));
+            for (Integer i : order) {
+                rows.add(found.get(i));
+            }
         }
-        return list;
+        return new ParticipantPage(rows, from < ids.size() ? new ParticipantKey(from, 0, 0) : null);
     }
 
-    public List<PersonCard> findParticipants(String lastName, Integer eventId) {
-        StringBuilder sql = new StringBuilder("""
-            SELECT u.id,
-                   u.id_number,
-                   u.full_name,
-                   u.email,
-                   u.phone,
-                   r.label_ru,
-                   d.name     AS direction,
-                   e.title    AS event_title,
-                   u.photo
+    /**
+     * Сортировка по мероприятию: мероприятия с участниками — пачками по
+     * {@value #EVENT_BATCH} по индексу {@code event(title, id)}, участники
+     * каждого — отдельной веткой {@code UNION ALL} по индексу
+     * {@code participant_event(event_id, participant_id)} с тем же
+     * {@code LIMIT}; затем участники без мероприятий по id. Ключ строки
+     * мероприятия — (название, id мероприятия, id участника), участника без
+     * мероприятия — {@code (null, id участника, 0)}.
+     */
+    private ParticipantPage eventPage(Connection c, ParticipantFilter filter, boolean descending,
+                                      ParticipantKey after, int limit) throws SQLException {
+        List<PersonCard> rows = new ArrayList<>(limit);
+        ParticipantKey position = after;
+        if (position == null || position.eventId() != 0) {
+            while (rows.size() < limit) {
+                List<ParticipantKey> events = nextEvents(c, filter, descending, position);
+                if (events.isEmpty()) {
+                    position = null;
+                    break;
+                }
+                position = eventRows(c, filter, descending, events, position, limit - rows.size(), rows);
+            }
+            if (rows.size() >= limit) {
+                return new ParticipantPage(rows, position);
+            }
+        }
+
+        // участники без мероприятий
+        int fromUser = position != null ? position.userId() : descending ? Integer.MAX_VALUE : 0;
+        String compare = descending ? "<" : ">";
+        StringBuilder sql = new StringBuilder(PARTICIPANT_COLUMNS).append("""
               FROM user u
               JOIN role r ON r.id = u.role_id
               LEFT JOIN direction d ON d.id = u.direction_id
               LEFT JOIN participant_event pe ON pe.participant_id = u.id
               LEFT JOIN event e ON e.id = pe.event_id
              WHERE r.code = 'participant'
-        """);
+               AND pe.participant_id IS NULL
+               AND u.id %s ?
+            """.formatted(compare));
+        appendUserIds(sql, filter);
+        sql.append(" ORDER BY u.id").append(descending ? " DESC" : "").append(" LIMIT ?");
+
+        int remaining = limit - rows.size();
+        int read = 0;
+        ParticipantKey last = null;
+        try (PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            ps.setInt(1, fromUser);
+            int idx = bindUserIds(ps, 2, filter);
+            ps.setInt(idx, remaining);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(participantCard(rs));
+                    last = new ParticipantKey(null, rs.getInt("id"), 0);
+                    read++;
+                }
+            }
+        }
+        return new ParticipantPage(rows, read < remaining ? null : last);
+    }
 
-        if (lastName != null && !lastName.isBlank()) {
-            sql.append(" AND u.full_name LIKE ?");
+    /**
+     * Следующие мероприятия с участниками: с мероприятия {@code position}
+     * включительно, если оно прочитано не до конца, иначе — после него.
+     */
+    private static List<ParticipantKey> nextEvents(Connection c, ParticipantFilter filter, boolean descending,
+                                                   ParticipantKey position) throws SQLException {
+        String compare = descending ? "<" : ">";
+        boolean inclusive = position != null && position.userId() != (descending ? 0 : Integer.MAX_VALUE);
+        String direction = descending ? " DESC" : "";
+        StringBuilder sql = new StringBuilder("""
+            SELECT e.id, e.title
+              FROM event e
+             WHERE EXISTS (SELECT 1 FROM participant_event pe WHERE pe.event_id = e.id
+            """);
+        if (filter.userIds() != null) {
+            sql.append("   AND pe.participant_id IN (")
+               .append(String.join(",", java.util.Collections.nCopies(filter.userIds().size(), "?")))
+               .append(")");
         }
-        if (eventId != null) {
-            sql.append(" AND pe.event_id = ?");
+        sql.append(")\n");
+        if (position != null) {
+            // (title, id) >= (?, ?) или > (?, ?)
+            sql.append("   AND e.title %1$s= ? AND (e.title %1$s ? OR e.id %1$s%2$s ?)\n"
+                    .formatted(compare, inclusive ? "=" : ""));
         }
+        sql.append(" ORDER BY e.title%1$s, e.id%1$s LIMIT %2$d".formatted(direction, EVENT_BATCH));
+
+        List<ParticipantKey> events = new ArrayList<>(EVENT_BATCH);
+        try (PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            int idx = bindUserIds(ps, 1, filter);
+            if (position != null) {
+                ps.setObject(idx++, position.sortValue());
+                ps.setObject(idx++, position.sortValue());
+                ps.setInt(idx, position.eventId());
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    events.add(new ParticipantKey(rs.getString("title"), 0, rs.getInt("id")));
+                }
+            }
+        }
+        return events;
+    }
 
-        sql.append(" ORDER BY u.full_name");
-
-        List<PersonCard> list = new ArrayList<>();
-        try (Connection c = DBUtil.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql.toString())) {
-
-            int idx = 1;
-            if (lastName != null && !lastName.isBlank()) {
-                ps.setString(idx++, lastName + "%");
+    /**
+     * Дописывает в {@code rows} до {@code remaining} строк мероприятий {@code events}
+     * и возвращает ключ последней. Если строк меньше — пачка прочитана целиком,
+     * и ключ указывает за последнее её мероприятие.
+     */
+    private static ParticipantKey eventRows(Connection c, ParticipantFilter filter, boolean descending,
+                                            List<ParticipantKey> events, ParticipantKey position, int remaining,
+                                            List<PersonCard> rows) throws SQLException {
+        String compare = descending ? "<" : ">";
+        String direction = descending ? " DESC" : "";
+        int beforeAll = descending ? Integer.MAX_VALUE : 0;
+        int afterAll = descending ? 0 : Integer.MAX_VALUE;
+
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < events.size(); i++) {
+            if (i > 0) {
+                sql.append(" UNION ALL ");
             }
-            if (eventId != null) {
-                ps.setInt(idx++, eventId);
+            sql.append('(').append(PARTICIPANT_COLUMNS).append("""
+                   , %1$d AS branch
+              FROM participant_event pe
+              JOIN user u ON u.id = pe.participant_id
+              JOIN role r ON r.id = u.role_id
+              LEFT JOIN direction d ON d.id = u.direction_id
+              JOIN event e ON e.id = pe.event_id
+             WHERE pe.event_id = ?
+               AND pe.participant_id %2$s ?
+               AND r.code = 'participant'
+            """.formatted(i, compare));
+            if (filter.userIds() != null) {
+                sql.append("   AND pe.participant_id IN (")
+                   .append(String.join(",", java.util.Collections.nCopies(filter.userIds().size(), "?")))
+                   .append(")\n");
             }
+            sql.append(" ORDER BY pe.participant_id").append(direction).append(" LIMIT ?)");
+        }
+        sql.append(" ORDER BY branch, id").append(direction).append(" LIMIT ?");
 
+        int read = 0;
+        ParticipantKey last = null;
+        try (PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            int idx = 1;
+            for (ParticipantKey event : events) {
+                ps.setInt(idx++, event.eventId());
+                boolean continues = position != null && position.eventId() == event.eventId();
+                ps.setInt(idx++, continues ? position.userId() : beforeAll);
+                idx = bindUserIds(ps, idx, filter);
+                ps.setInt(idx++, remaining);
+            }
+            ps.setInt(idx, remaining);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    list.add(new PersonCard(
-                            rs.getInt("id"),
-                            rs.getString("id_number"),
-                            rs.getString("full_name"),
-                            rs.getString("email"),
-                            rs.getString("phone"),
-                            rs.getString("label_ru"),
-                            rs.getString("direction"),
-                            rs.getString("event_title"),
-                            rs.getString("photo")
-                    ));
+                    rows.add(participantCard(rs));
+                    last = new ParticipantKey(rs.getString("event_title"), rs.getInt("id"), rs.getInt("event_id"));
+                    read++;
                 }
             }
+        }
+        if (read < remaining) {
+            ParticipantKey end = events.get(events.size() - 1);
+            return new ParticipantKey(end.sortValue(), afterAll, end.eventId());
+        }
+        return last;
+    }
+
+    private static PersonCard participantCard(ResultSet rs) throws SQLException {
+        Timestamp registered = rs.getTimestamp("created_at");
+        return new PersonCard(
+                rs.getInt("id"),
+                rs.getString("id_number"),
+                rs.getString("full_name"),
+                rs.getString("email"),
+                rs.getString("phone"),
+                rs.getString("label_ru"),
+                rs.getString("direction"),
+                rs.getString("event_title"),
+                rs.getString("photo"),
+                registered != null ? registered.toLocalDateTime() : null
+        );
+    }
+
+    private static void appendUserIds(StringBuilder sql, ParticipantFilter filter) {
+        if (filter.userIds() != null) {
+            sql.append("   AND u.id IN (")
+               .append(String.join(",", java.util.Collections.nCopies(filter.userIds().size(), "?")))
+               .append(")\n");
+        }
+    }
+
+    private static int bindUserIds(PreparedStatement ps, int idx, ParticipantFilter filter) throws SQLException {
+        if (filter.userIds() != null) {
+            for (Integer userId : filter.userIds()) {
+                ps.setInt(idx++, userId);
+            }
+        }
+        return idx;
+    }
+
+    /** Сколько id выдачи поиска уходит в один запрос подсчёта. */
+    private static final int COUNT_CHUNK = 1000;
+
+    /**
+     * Число строк справочника с теми же фильтрами — без сортировки и чтения
+     * карточек. Длинная выдача поиска считается
+     * частями по {@value #COUNT_CHUNK} id.
+     */
+    public int countParticipants(ParticipantFilter filter) {
+        List<Integer> ids = filter.userIds();
+        if (ids != null && ids.size() > COUNT_CHUNK) {
+            int total = 0;
+            for (int from = 0; from < ids.size(); from += COUNT_CHUNK) {
+                total += countParticipants(new ParticipantFilter(filter.eventId(),
+                        ids.subList(from, Math.min(from + COUNT_CHUNK, ids.size()))));
+            }
+            return total;
+        }
+        if (ids != null && ids.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("""
+            SELECT COUNT(*)
+              FROM user u
+              JOIN role r ON r.id = u.role_id
+              LEFT JOIN participant_event pe ON pe.participant_id = u.id
+             WHERE r.code = 'participant'
+            """);
+        appendParticipantFilter(sql, filter);
+
+        try (Connection c = DBUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql.toString())) {
+
+            bindParticipantFilter(ps, 1, filter);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
 
         } catch (SQLException ex) {
-            ex.printStackTrace();
+            throw new IllegalStateException("Cannot count participants", ex);
         }
-        return list;
+    }
+
+    private static void appendParticipantFilter(StringBuilder sql, ParticipantFilter filter) {
+        if (filter.eventId() != null) {
+            sql.append("   AND pe.event_id = ?\n");
+        }
+        if (filter.userIds() != null) {
+            sql.append("   AND u.id IN (")
+               .append(String.join(",", java.util.Collections.nCopies(filter.userIds().size(), "?")))
+               .append(")\n");
+        }
+    }
+
+    private static int bindParticipantFilter(PreparedStatement ps, int idx, ParticipantFilter filter) throws SQLException {
+        if (filter.eventId() != null) {
+            ps.setInt(idx++, filter.eventId());
+        }
+        if (filter.userIds() != null) {
+            for (Integer userId : filter.userIds()) {
+                ps.setInt(idx++, userId);
+            }
+        }
+        return idx;
     }
 
     public Optional<PersonCard> findByIdNumber(String idNumber) {
@@ -192,26 +672,17 @@ public class PersonDao {
         return Optional.empty();
     }
 
+    /**
+     * Номер для нового пользователя из {@link IdNumberSequence}; {@code null},
+     * если номер выдать не удалось.
+     */
     public String nextIdNumber(String prefix) {
-        String sql = "SELECT LPAD(MAX(CAST(SUBSTRING(id_number, ?) AS UNSIGNED)) + 1, 6, '0') FROM user WHERE id_number LIKE ?";
-        try (Connection c = DBUtil.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-
-            ps.setInt(1, prefix.length() + 1);
-            ps.setString(2, prefix + "%");
-
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    String suffix = rs.getString(1);
-                    if (suffix != null) {
-                        return prefix + suffix;
-                    }
-                }
-            }
+        try {
+            return IdNumberSequence.getInstance().next(prefix);
         } catch (SQLException ex) {
             ex.printStackTrace();
         }
-        return prefix + "000001";
+        return null;
     }
 
     public List<com.example.conferenceapp.model.LookupValue> loadUsersByRole(String roleCode) {
@@ -288,7 +759,10 @@ public class PersonDao {
             ps.executeUpdate();
             try (ResultSet rs = ps.getGeneratedKeys()) {
                 if (rs.next()) {
-                    return rs.getInt(1);
+                    int id = rs.getInt(1);
+                    PeopleSearchIndex.getInstance().userSaved(
+                            new PeopleSearchIndex.Person(id, idNumber, fullName, email, roleCode));
+                    return id;
                 }
             }
         } catch (SQLException ex) {
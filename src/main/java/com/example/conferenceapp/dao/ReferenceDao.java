@@ -17,59 +17,76 @@ public class ReferenceDao {
         return simple("SELECT name FROM city ORDER BY name");
     }
 
+    /** Все пути к фотографиям пользователей и логотипам мероприятий (для прогрева миниатюр). */
+    public List<String> findImagePaths(){
+        return simple("""
+            SELECT photo FROM user  WHERE photo IS NOT NULL AND photo <> ''
+             UNION
+            SELECT logo  FROM event WHERE logo  IS NOT NULL AND logo  <> ''
+        """);
+    }
+
     public int ensureDirection(String name){
-        String sql = "SELECT id FROM direction WHERE name = ?";
-        try(Connection c = DBUtil.getConnection();
-            PreparedStatement ps = c.prepareStatement(sql)){
+        try(Connection c = DBUtil.getConnection()){
+            return ensureDirection(c, name);
+        }catch(SQLException e){ e.printStackTrace(); }
+        return 0;
+    }
+
+    public int ensureCity(String name){
+        try(Connection c = DBUtil.getConnection()){
+            return ensureCity(c, name);
+        }catch(SQLException e){ e.printStackTrace(); }
+        return 0;
+    }
+
+    /** Вариант для работы внутри чужой транзакции: ошибки пробрасываются вызывающему. */
+    public int ensureDirection(Connection c, String name) throws SQLException {
+        try(PreparedStatement ps = c.prepareStatement("SELECT id FROM direction WHERE name = ?")){
             ps.setString(1, name);
             try(ResultSet rs = ps.executeQuery()){
                 if(rs.next()) return rs.getInt(1);
             }
-        }catch(SQLException e){ e.printStackTrace(); }
+        }
 
         String insert = "INSERT INTO direction(name) VALUES(?)";
-        try(Connection c = DBUtil.getConnection();
-            PreparedStatement ps = c.prepareStatement(insert, Statement.RETURN_GENERATED_KEYS)){
+        try(PreparedStatement ps = c.prepareStatement(insert, Statement.RETURN_GENERATED_KEYS)){
             ps.setString(1, name);
             ps.executeUpdate();
             try(ResultSet rs = ps.getGeneratedKeys()){
                 if(rs.next()) return rs.getInt(1);
             }
-        }catch(SQLException e){ e.printStackTrace(); }
+        }
         return 0;
     }
 
-    public int ensureCity(String name){
-        String sql = "SELECT id FROM city WHERE name = ?";
-        try(Connection c = DBUtil.getConnection();
-            PreparedStatement ps = c.prepareStatement(sql)){
+    public int ensureCity(Connection c, String name) throws SQLException {
+        try(PreparedStatement ps = c.prepareStatement("SELECT id FROM city WHERE name = ?")){
             ps.setString(1, name);
             try(ResultSet rs = ps.executeQuery()){
                 if(rs.next()) return rs.getInt(1);
             }
-        }catch(SQLException e){ e.printStackTrace(); }
+        }
 
-        int countryId = resolveDefaultCountry();
+        int countryId = resolveDefaultCountry(c);
         String insert = "INSERT INTO city(name, country_id) VALUES(?, ?)";
-        try(Connection c = DBUtil.getConnection();
-            PreparedStatement ps = c.prepareStatement(insert, Statement.RETURN_GENERATED_KEYS)){
+        try(PreparedStatement ps = c.prepareStatement(insert, Statement.RETURN_GENERATED_KEYS)){
             ps.setString(1, name);
             ps.setInt(2, countryId);
             ps.executeUpdate();
             try(ResultSet rs = ps.getGeneratedKeys()){
                 if(rs.next()) return rs.getInt(1);
             }
-        }catch(SQLException e){ e.printStackTrace(); }
+        }
         return 0;
     }
 
-    private int resolveDefaultCountry(){
+    private int resolveDefaultCountry(Connection c) throws SQLException {
         String sql = "SELECT id FROM country ORDER BY id LIMIT 1";
-        try(Connection c = DBUtil.getConnection();
-            Statement st = c.createStatement();
+        try(Statement st = c.createStatement();
             ResultSet rs = st.executeQuery(sql)){
             if(rs.next()) return rs.getInt(1);
-        }catch(SQLException e){ e.printStackTrace(); }
+        }
         return 1;
     }
     /* -------- utils ------ */
@@ -1,6 +1,7 @@
 package com.example.conferenceapp.dao;
 
 import com.example.conferenceapp.model.User;
+import com.example.conferenceapp.service.PeopleSearchIndex;
 import com.example.conferenceapp.util.DBUtil;
 
 import java.sql.*;
@@ -101,7 +102,11 @@ public class UserDao {
             }
             ps.setInt(idx, u.getId());
 
-            return ps.executeUpdate() == 1;
+            if (ps.executeUpdate() != 1) {
+                return false;
+            }
+            PeopleSearchIndex.getInstance().profileChanged(u.getId(), u.getFullName(), u.getEmail());
+            return true;
 
         } catch (SQLException ex) {
             ex.printStackTrace();
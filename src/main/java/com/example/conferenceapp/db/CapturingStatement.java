@@ -0,0 +1,67 @@
+package com.example.conferenceapp.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/** Обёртка над выражением, сообщающая {@link StatementListener} текст запроса и параметры. */
+final class CapturingStatement implements InvocationHandler {
+
+    private final Statement target;
+    private final String sql;
+    private final StatementListener listener;
+    private final List<Object> parameters = new ArrayList<>();
+
+    private CapturingStatement(Statement target, String sql, StatementListener listener) {
+        this.target = target;
+        this.sql = sql;
+        this.listener = listener;
+    }
+
+    /**
+     * @param type интерфейс, который вернул метод соединения ({@code Statement},
+     *             {@code PreparedStatement} или {@code CallableStatement})
+     * @param sql  текст подготовленного запроса; {@code null} для обычного {@link Statement}
+     */
+    static Statement wrap(Statement target, Class<?> type, String sql, StatementListener listener) {
+        return (Statement) Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[]{type},
+                new CapturingStatement(target, sql, listener));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+            // setNull(i, type) — значение null, а не код типа
+            remember(index, name.equals("setNull") ? null : args[1]);
+        } else if (name.equals("clearParameters")) {
+            parameters.clear();
+        } else if (name.startsWith("execute")) {
+            if (args != null && args.length > 0 && args[0] instanceof String text) {
+                listener.executing(text, List.of());
+            } else if (sql != null) {
+                listener.executing(sql, Arrays.asList(parameters.toArray()));
+            }
+        }
+
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private void remember(int index, Object value) {
+        while (parameters.size() < index) {
+            parameters.add(null);
+        }
+        parameters.set(index - 1, value);
+    }
+}
@@ -0,0 +1,360 @@
+package com.example.conferenceapp.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограниченный пул JDBC-соединений.
+ * <p>
+ * Одновременно выдаётся не более {@code maxSize} соединений; остальные запросы
+ * ждут не дольше {@code acquireTimeout}. DAO получают прокси, у которого
+ * {@code close()} возвращает соединение в пул вместо разрыва TCP-сессии.
+ * Фоновый поток проверяет простаивающие соединения, выводит из оборота
+ * «старые» и поддерживает не меньше {@code minIdle} готовых соединений.
+ * Каждому созданному выражению выставляется тайм-аут профиля.
+ */
+public final class ConnectionPool implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionPool.class);
+    private static final int VALIDATION_TIMEOUT_SEC = 2;
+
+    private final PoolSettings settings;
+    private final Semaphore permits;
+    private final BlockingDeque<Slot> idle = new LinkedBlockingDeque<>();
+    private final ScheduledExecutorService housekeeper;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private static volatile StatementListener statementListener;
+
+    private volatile boolean closed;
+
+    public ConnectionPool(PoolSettings settings) {
+        this.settings = settings;
+        this.permits = new Semaphore(settings.maxSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-" + settings.name());
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1, settings.validationInterval().toMillis());
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /** Выдаёт соединение из пула; {@code close()} вернёт его обратно. */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool '" + settings.name() + "' is closed");
+        }
+
+        long started = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(settings.acquireTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                timeouts.increment();
+                throw new SQLTransientConnectionException("Timed out after " + settings.acquireTimeout().toMillis()
+                        + " ms waiting for a connection from pool '" + settings.name() + "' (" + stats() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        recordWait(System.nanoTime() - started);
+
+        try {
+            Slot slot = takeIdle();
+            if (slot == null) {
+                slot = open();
+            }
+            active.incrementAndGet();
+            acquisitions.increment();
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(slot));
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    public PoolStats stats() {
+        return new PoolStats(settings.name(),
+                active.get(),
+                idle.size(),
+                created.sum(),
+                acquisitions.sum(),
+                timeouts.sum(),
+                totalWaitNanos.sum() / 1_000_000.0,
+                maxWaitNanos.get() / 1_000_000.0);
+    }
+
+    public PoolSettings settings() {
+        return settings;
+    }
+
+    /** Устанавливает (или снимает, {@code null}) наблюдателя за запросами во всех пулах. */
+    public static void setStatementListener(StatementListener listener) {
+        statementListener = listener;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        Slot slot;
+        while ((slot = idle.pollFirst()) != null) {
+            closeQuietly(slot);
+        }
+    }
+
+    /* ---------------------------- internals ---------------------------- */
+
+    private Slot takeIdle() {
+        Slot slot;
+        while ((slot = idle.pollFirst()) != null) {
+            if (isExpired(slot)) {
+                closeQuietly(slot);
+                continue;
+            }
+            if (needsValidation(slot) && !isValid(slot)) {
+                closeQuietly(slot);
+                continue;
+            }
+            return slot;
+        }
+        return null;
+    }
+
+    private Slot open() throws SQLException {
+        Connection physical = DriverManager.getConnection(settings.url(), settings.connectionProperties());
+        created.increment();
+        return new Slot(physical);
+    }
+
+    private void release(Slot slot, boolean broken) {
+        active.decrementAndGet();
+        try {
+            if (closed || broken || isExpired(slot) || !reset(slot)) {
+                closeQuietly(slot);
+            } else {
+                slot.lastUsed = System.nanoTime();
+                idle.offerFirst(slot);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /** Возвращает соединение в исходное состояние перед повторной выдачей. */
+    private boolean reset(Slot slot) {
+        try {
+            Connection c = slot.physical;
+            if (c.isClosed()) {
+                return false;
+            }
+            if (!c.getAutoCommit()) {
+                c.rollback();
+                c.setAutoCommit(true);
+            }
+            if (c.isReadOnly()) {
+                c.setReadOnly(false);
+            }
+            c.clearWarnings();
+            return true;
+        } catch (SQLException ex) {
+            log.debug("Discarding connection that failed to reset", ex);
+            return false;
+        }
+    }
+
+    private void housekeep() {
+        if (closed) {
+            return;
+        }
+        try {
+            validateIdle();
+            fillToMinimum();
+        } catch (RuntimeException ex) {
+            log.warn("Connection pool '{}' housekeeping failed", settings.name(), ex);
+        }
+    }
+
+    private void validateIdle() {
+        List<Slot> snapshot = new ArrayList<>(idle);
+        for (Slot slot : snapshot) {
+            if (!isExpired(slot) && !needsValidation(slot)) {
+                continue;
+            }
+            if (!permits.tryAcquire()) {
+                return;
+            }
+            try {
+                if (!idle.remove(slot)) {
+                    continue;               // уже выдано DAO
+                }
+                if (isExpired(slot) || !isValid(slot)) {
+                    closeQuietly(slot);
+                } else {
+                    slot.lastUsed = System.nanoTime();
+                    idle.offerLast(slot);
+                }
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed && active.get() + idle.size() < settings.minIdle() && permits.tryAcquire()) {
+            try {
+                Slot slot = open();
+                slot.lastUsed = System.nanoTime();
+                idle.offerLast(slot);
+            } catch (SQLException ex) {
+                log.warn("Connection pool '{}' could not pre-open a connection: {}", settings.name(), ex.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private boolean isExpired(Slot slot) {
+        return System.nanoTime() - slot.createdAt > settings.maxLifetime().toNanos();
+    }
+
+    private boolean needsValidation(Slot slot) {
+        return System.nanoTime() - slot.lastUsed > settings.validationInterval().toNanos();
+    }
+
+    private boolean isValid(Slot slot) {
+        try {
+            return slot.physical.isValid(VALIDATION_TIMEOUT_SEC);
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private static void closeQuietly(Slot slot) {
+        try {
+            slot.physical.close();
+        } catch (SQLException ignored) {
+            // соединение уже недоступно
+        }
+    }
+
+    /** Физическое соединение и его «возраст». */
+    private static final class Slot {
+        final Connection physical;
+        final long createdAt = System.nanoTime();
+        volatile long lastUsed = createdAt;
+
+        Slot(Connection physical) {
+            this.physical = physical;
+        }
+    }
+
+    /** Прокси, который DAO видят как обычное {@link Connection}. */
+    private final class Handle implements InvocationHandler {
+        private Slot slot;
+        private boolean broken;
+
+        Handle(Slot slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (slot != null) {
+                        Slot s = slot;
+                        slot = null;
+                        release(s, broken);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    if (slot == null) {
+                        return true;
+                    }
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConnection[" + settings.name() + ", " + (slot == null ? "closed" : slot.physical) + "]";
+                }
+                default -> { }
+            }
+
+            if (slot == null) {
+                throw new SQLException("Connection is already returned to the pool");
+            }
+            try {
+                Object result = method.invoke(slot.physical, args);
+                if (result instanceof Statement statement) {
+                    applyStatementTimeout(statement);
+                    StatementListener listener = statementListener;
+                    if (listener != null) {
+                        String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                        return CapturingStatement.wrap(statement, method.getReturnType(), sql, listener);
+                    }
+                }
+                return result;
+            } catch (InvocationTargetException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof SQLException sql && isFatal(sql)) {
+                    broken = true;
+                }
+                throw cause;
+            }
+        }
+
+        private void applyStatementTimeout(Statement statement) throws SQLException {
+            long seconds = settings.statementTimeout().toSeconds();
+            if (seconds > 0) {
+                statement.setQueryTimeout((int) Math.min(Integer.MAX_VALUE, seconds));
+            }
+        }
+
+        private boolean isFatal(SQLException ex) {
+            String state = ex.getSQLState();
+            return state != null && state.startsWith("08");
+        }
+    }
+}
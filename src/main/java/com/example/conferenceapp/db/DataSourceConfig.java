@@ -0,0 +1,154 @@
+package com.example.conferenceapp.db;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Настройки подключения к БД.
+ * <p>
+ * Значения берутся (по возрастанию приоритета) из:
+ * <ol>
+ *   <li>{@code db.properties} в ресурсах приложения — значения по умолчанию;</li>
+ *   <li>внешнего файла: путь из {@code -Dconference.config} / {@code CONFERENCE_CONFIG},
+ *       иначе {@code conference-db.properties} в рабочем каталоге, если он есть;</li>
+ *   <li>переменных окружения: ключ в верхнем регистре, точки заменены на {@code _},
+ *       с префиксом {@code CONFERENCE_} ({@code db.bulk.pool.max → CONFERENCE_DB_BULK_POOL_MAX});</li>
+ *   <li>системных свойств с префиксом {@code conference.} ({@code -Dconference.db.url=...}).</li>
+ * </ol>
+ * Параметр профиля ищется сначала как {@code db.<профиль>.<имя>}, затем как {@code db.<имя>},
+ * поэтому общие значения (адрес, логин) задаются один раз.
+ */
+public final class DataSourceConfig {
+
+    private static final String DEFAULTS_RESOURCE = "/com/example/conferenceapp/db.properties";
+    private static final String CONFIG_PATH_PROPERTY = "conference.config";
+    private static final String CONFIG_PATH_ENV = "CONFERENCE_CONFIG";
+    private static final String DEFAULT_CONFIG_FILE = "conference-db.properties";
+    private static final String SYSTEM_PREFIX = "conference.";
+    private static final String ENV_PREFIX = "CONFERENCE_";
+
+    private final Properties values;
+
+    private DataSourceConfig(Properties values) {
+        this.values = values;
+    }
+
+    public static DataSourceConfig load() {
+        Properties props = new Properties();
+        try (InputStream in = DataSourceConfig.class.getResourceAsStream(DEFAULTS_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing " + DEFAULTS_RESOURCE + " on the classpath");
+            }
+            props.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + DEFAULTS_RESOURCE, e);
+        }
+
+        Path external = externalFile();
+        if (external != null) {
+            try (Reader reader = Files.newBufferedReader(external, StandardCharsets.UTF_8)) {
+                props.load(reader);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read database config " + external, e);
+            }
+        }
+        return new DataSourceConfig(props);
+    }
+
+    /** Собирает параметры пула для профиля. */
+    public PoolSettings poolSettings(DataSourceProfile profile) {
+        Properties driver = new Properties();
+        if (bool(profile, "statementCache")) {
+            driver.putAll(PoolSettings.statementCacheProperties());
+        }
+        driver.setProperty("rewriteBatchedStatements", String.valueOf(bool(profile, "rewriteBatchedStatements")));
+        driver.setProperty("connectTimeout", String.valueOf(integer(profile, "connectTimeoutMs")));
+        int socketTimeoutMs = integer(profile, "socketTimeoutMs");
+        int statementTimeoutSec = integer(profile, "statementTimeoutSec");
+        if (socketTimeoutMs > 0 && statementTimeoutSec > 0 && socketTimeoutMs <= statementTimeoutSec * 1000L) {
+            // по тайм-ауту сокета драйвер закрывает соединение, не отменив запрос на сервере
+            throw new IllegalStateException("Database setting db." + profile.key() + ".socketTimeoutMs ("
+                    + socketTimeoutMs + ") must exceed statementTimeoutSec (" + statementTimeoutSec + " s)");
+        }
+        driver.setProperty("socketTimeout", String.valueOf(socketTimeoutMs));
+
+        int fetchSize = integer(profile, "fetchSize");
+        if (fetchSize > 0) {
+            driver.setProperty("useCursorFetch", "true");
+            driver.setProperty("defaultFetchSize", String.valueOf(fetchSize));
+        }
+
+        return new PoolSettings(
+                profile.key(),
+                required(profile, "url"),
+                required(profile, "user"),
+                lookup(profile, "password"),
+                integer(profile, "pool.min"),
+                integer(profile, "pool.max"),
+                Duration.ofMillis(integer(profile, "pool.acquireTimeoutMs")),
+                Duration.ofMillis(integer(profile, "pool.validationIntervalMs")),
+                Duration.ofMillis(integer(profile, "pool.maxLifetimeMs")),
+                Duration.ofSeconds(statementTimeoutSec),
+                driver);
+    }
+
+    /* ---------------------------- lookup ---------------------------- */
+
+    private String lookup(DataSourceProfile profile, String name) {
+        String value = get("db." + profile.key() + "." + name);
+        return value != null ? value : get("db." + name);
+    }
+
+    private String get(String key) {
+        String value = System.getProperty(SYSTEM_PREFIX + key);
+        if (value == null) {
+            value = System.getenv(ENV_PREFIX + key.toUpperCase(Locale.ROOT).replace('.', '_'));
+        }
+        if (value == null) {
+            value = values.getProperty(key);
+        }
+        return value == null ? null : value.trim();
+    }
+
+    private String required(DataSourceProfile profile, String name) {
+        String value = lookup(profile, name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalStateException("Database setting db." + name + " is not configured for profile " + profile.key());
+        }
+        return value;
+    }
+
+    private int integer(DataSourceProfile profile, String name) {
+        String value = required(profile, name);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Database setting db." + profile.key() + "." + name
+                    + " must be an integer: " + value, e);
+        }
+    }
+
+    private boolean bool(DataSourceProfile profile, String name) {
+        return Boolean.parseBoolean(required(profile, name));
+    }
+
+    private static Path externalFile() {
+        String configured = System.getProperty(CONFIG_PATH_PROPERTY);
+        if (configured == null) {
+            configured = System.getenv(CONFIG_PATH_ENV);
+        }
+        if (configured != null && !configured.isBlank()) {
+            return Path.of(configured.trim());
+        }
+        Path local = Path.of(DEFAULT_CONFIG_FILE);
+        return Files.isRegularFile(local) ? local : null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.conferenceapp.db;
+
+/**
+ * Профили нагрузки. У каждого профиля свой пул соединений и свои настройки
+ * драйвера, поэтому тяжёлый импорт или отчёт не отнимает соединения
+ * у экранов входа и каталога.
+ */
+public enum DataSourceProfile {
+
+    /** Экраны приложения: короткие запросы, быстрый отказ. */
+    INTERACTIVE("interactive"),
+
+    /** Массовая загрузка данных: пакетные вставки, длинные транзакции. */
+    BULK_IMPORT("bulk"),
+
+    /** Отчёты и выгрузки: потоковое чтение больших выборок. */
+    REPORTING("reporting");
+
+    private final String key;
+
+    DataSourceProfile(String key) {
+        this.key = key;
+    }
+
+    /** Имя профиля в ключах конфигурации: {@code db.<key>.pool.max} и т.п. */
+    public String key() {
+        return key;
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.conferenceapp.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Версионные миграции схемы.
+ * <p>
+ * Скрипты лежат в ресурсах {@value #LOCATION} с именами {@code V<номер>__<описание>.sql}
+ * и перечислены в {@code migrations.list}. Применённые версии и SHA-256 их текста
+ * хранятся в таблице {@code schema_migration}; изменённый после применения скрипт
+ * останавливает запуск. База, созданная старым {@code schema.sql} (таблицы есть,
+ * журнала нет), помечается как V1 без выполнения скрипта.
+ * <p>
+ * DDL в MySQL не транзакционен: упавшая миграция не записывается в журнал,
+ * и её нужно довести вручную либо исправить скрипт до повторного запуска.
+ */
+public final class MigrationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MigrationRunner.class);
+
+    static final String LOCATION = "/com/example/conferenceapp/db/migration/";
+    private static final String INDEX = LOCATION + "migrations.list";
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final String LOCK_NAME = "conference_schema_migration";
+    private static final int LOCK_TIMEOUT_SEC = 60;
+    private static final int BASELINE_VERSION = 1;
+
+    /** Один скрипт миграции. */
+    public record Migration(int version, String description, String script, String checksum) {
+    }
+
+    private final Connection connection;
+
+    public MigrationRunner(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Применяет недостающие миграции по порядку.
+     *
+     * @return применённые в этом запуске версии (без учёта baseline)
+     */
+    public List<Migration> migrate() throws SQLException {
+        List<Migration> migrations = load();
+        List<Migration> applied = new ArrayList<>();
+
+        lock();
+        try {
+            createJournal();
+            Map<Integer, String> journal = journal();
+            if (journal.isEmpty() && schemaExists()) {
+                Migration baseline = migrations.get(0);
+                log.info("Existing schema without migration journal, baselining at V{}", baseline.version());
+                record(baseline, 0);
+                journal.put(baseline.version(), baseline.checksum());
+            }
+
+            for (Migration migration : migrations) {
+                String checksum = journal.get(migration.version());
+                if (checksum != null) {
+                    if (!checksum.equals(migration.checksum())) {
+                        throw new IllegalStateException("Migration V" + migration.version() + " ("
+                                + migration.description() + ") was modified after it had been applied");
+                    }
+                    continue;
+                }
+                apply(migration);
+                applied.add(migration);
+            }
+        } finally {
+            unlock();
+        }
+        return applied;
+    }
+
+    /* ---------- применение ---------- */
+
+    private void apply(Migration migration) throws SQLException {
+        log.info("Applying migration V{} {}", migration.version(), migration.description());
+        long started = System.nanoTime();
+        try (Statement st = connection.createStatement()) {
+            for (String sql : statements(migration.script())) {
+                try {
+                    st.execute(sql);
+                } catch (SQLException ex) {
+                    throw new SQLException("Migration V" + migration.version() + " failed on: " + sql,
+                            ex.getSQLState(), ex.getErrorCode(), ex);
+                }
+            }
+        }
+        record(migration, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void createJournal() throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("""
+                CREATE TABLE IF NOT EXISTS schema_migration (
+                    version      INT PRIMARY KEY,
+                    description  VARCHAR(200) NOT NULL,
+                    checksum     CHAR(64)     NOT NULL,
+                    applied_at   TIMESTAMP    DEFAULT CURRENT_TIMESTAMP,
+                    execution_ms BIGINT       NOT NULL
+                )
+            """);
+        }
+    }
+
+    private Map<Integer, String> journal() throws SQLException {
+        Map<Integer, String> journal = new TreeMap<>();
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT version, checksum FROM schema_migration")) {
+            while (rs.next()) {
+                journal.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+        return journal;
+    }
+
+    private void record(Migration migration, long executionMs) throws SQLException {
+        String sql = "INSERT INTO schema_migration(version, description, checksum, execution_ms) VALUES(?,?,?,?)";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, migration.version());
+            ps.setString(2, migration.description());
+            ps.setString(3, migration.checksum());
+            ps.setLong(4, executionMs);
+            ps.executeUpdate();
+        }
+    }
+
+    /** Схема уже создана старым schema.sql, если в ней есть таблица мероприятий. */
+    private boolean schemaExists() throws SQLException {
+        String sql = """
+            SELECT COUNT(*) FROM information_schema.tables
+             WHERE table_schema = DATABASE() AND table_name = 'event'
+        """;
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() && rs.getInt(1) > 0;
+        }
+    }
+
+    /* ---------- блокировка: два экземпляра приложения не мигрируют одновременно ---------- */
+
+    private void lock() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.setInt(2, LOCK_TIMEOUT_SEC);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Could not acquire schema migration lock within " + LOCK_TIMEOUT_SEC + " s");
+                }
+            }
+        }
+    }
+
+    private void unlock() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        }
+    }
+
+    /* ---------- чтение скриптов ---------- */
+
+    static List<Migration> load() {
+        List<Migration> migrations = new ArrayList<>();
+        for (String file : readLines(INDEX)) {
+            Matcher m = FILE_NAME.matcher(file);
+            if (!m.matches()) {
+                throw new IllegalStateException("Bad migration file name: " + file);
+            }
+            String script = String.join("\n", readLines(LOCATION + file));
+            migrations.add(new Migration(Integer.parseInt(m.group(1)), m.group(2).replace('_', ' '),
+                    script, sha256(script)));
+        }
+        migrations.sort((a, b) -> Integer.compare(a.version(), b.version()));
+        if (migrations.isEmpty() || migrations.get(0).version() != BASELINE_VERSION) {
+            throw new IllegalStateException("Migrations must start with V" + BASELINE_VERSION);
+        }
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version() == migrations.get(i - 1).version()) {
+                throw new IllegalStateException("Duplicate migration version V" + migrations.get(i).version());
+            }
+        }
+        return migrations;
+    }
+
+    /** Делит скрипт на выражения по {@code ;} в конце строки, пропуская строки-комментарии. */
+    static List<String> statements(String script) {
+        List<String> result = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : script.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String sql = current.toString().trim();
+                result.add(sql.substring(0, sql.length() - 1));
+                current.setLength(0);
+            }
+        }
+        if (!current.toString().isBlank()) {
+            result.add(current.toString().trim());
+        }
+        return result;
+    }
+
+    private static List<String> readLines(String resource) {
+        try (InputStream in = MigrationRunner.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing " + resource + " on the classpath");
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            // построчное чтение заодно нормализует CRLF, чтобы контрольная сумма не зависела от ОС
+            return reader.lines().filter(l -> !resource.equals(INDEX) || !l.isBlank()).toList();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + resource, e);
+        }
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.conferenceapp.db;
+
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Параметры пула соединений: адрес БД, размеры пула, тайм-ауты
+ * и свойства, которые передаются драйверу MySQL при открытии соединения.
+ * {@code statementTimeout} выставляется каждому выражению, созданному
+ * через соединение пула ({@link Duration#ZERO} — без ограничения).
+ */
+public record PoolSettings(String name,
+                           String url,
+                           String user,
+                           String password,
+                           int minIdle,
+                           int maxSize,
+                           Duration acquireTimeout,
+                           Duration validationInterval,
+                           Duration maxLifetime,
+                           Duration statementTimeout,
+                           Properties driverProperties) {
+
+    public PoolSettings {
+        if (minIdle < 0) {
+            throw new IllegalArgumentException("minIdle must be >= 0: " + minIdle);
+        }
+        if (maxSize < 1 || maxSize < minIdle) {
+            throw new IllegalArgumentException("maxSize must be >= max(1, minIdle): " + maxSize);
+        }
+        driverProperties = copy(driverProperties);
+    }
+
+    /** Свойства драйвера вместе с учётными данными — готовы для {@code DriverManager}. */
+    public Properties connectionProperties() {
+        Properties props = copy(driverProperties);
+        if (user != null) {
+            props.setProperty("user", user);
+        }
+        if (password != null) {
+            props.setProperty("password", password);
+        }
+        return props;
+    }
+
+    /** Кэш подготовленных выражений на стороне драйвера Connector/J. */
+    public static Properties statementCacheProperties() {
+        Properties props = new Properties();
+        props.setProperty("cachePrepStmts", "true");
+        props.setProperty("useServerPrepStmts", "true");
+        props.setProperty("prepStmtCacheSize", "250");
+        props.setProperty("prepStmtCacheSqlLimit", "2048");
+        props.setProperty("useLocalSessionState", "true");
+        return props;
+    }
+
+    private static Properties copy(Properties source) {
+        Properties props = new Properties();
+        if (source != null) {
+            props.putAll(source);
+        }
+        return props;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.conferenceapp.db;
+
+/**
+ * Снимок метрик пула соединений.
+ *
+ * @param active        соединения, выданные DAO и ещё не возвращённые
+ * @param idle          соединения, ожидающие в пуле
+ * @param created       сколько физических соединений открыто за всё время
+ * @param acquisitions  сколько раз соединение было выдано
+ * @param timeouts      сколько запросов не дождались соединения
+ * @param totalWaitMs   суммарное время ожидания соединения
+ * @param maxWaitMs     самое долгое ожидание соединения
+ */
+public record PoolStats(String pool,
+                        int active,
+                        int idle,
+                        long created,
+                        long acquisitions,
+                        long timeouts,
+                        double totalWaitMs,
+                        double maxWaitMs) {
+
+    public double averageWaitMs() {
+        return acquisitions == 0 ? 0 : totalWaitMs / acquisitions;
+    }
+
+    @Override
+    public String toString() {
+        return "%s: active=%d idle=%d created=%d acquired=%d timeouts=%d wait(avg/max)=%.2f/%.2f ms"
+                .formatted(pool, active, idle, created, acquisitions, timeouts, averageWaitMs(), maxWaitMs);
+    }
+}
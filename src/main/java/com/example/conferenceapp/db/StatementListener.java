@@ -0,0 +1,19 @@
+package com.example.conferenceapp.db;
+
+import java.util.List;
+
+/**
+ * Наблюдатель за выполняемыми запросами. Нужен инструментам (аудит планов запросов);
+ * пока наблюдатель не установлен через {@link ConnectionPool#setStatementListener},
+ * пул отдаёт выражения драйвера без обёрток.
+ */
+@FunctionalInterface
+public interface StatementListener {
+
+    /**
+     * Вызывается перед выполнением запроса.
+     *
+     * @param parameters значения параметров по порядку {@code ?}; пусто для {@link java.sql.Statement}
+     */
+    void executing(String sql, List<Object> parameters);
+}
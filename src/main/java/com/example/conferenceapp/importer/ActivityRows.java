@@ -0,0 +1,363 @@
+package com.example.conferenceapp.importer;
+
+import com.example.conferenceapp.service.ScheduleConflictService.Booking;
+import com.example.conferenceapp.service.ScheduleConflictService.Role;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code activities.csv}: «event_id;activity;day;start_time;moderator;jury1…jury5».
+ * Модератор и жюри ищутся по ФИО среди пользователей с этой ролью — уже
+ * бывших в БД и загруженных из {@code moderators.csv} / {@code jury.csv}.
+ * Активность длится {@value #DURATION_MINUTES} минут, как при создании
+ * мероприятия в форме; {@code start_at} / {@code end_at} считаются от даты
+ * мероприятия, как в {@code EventDao}.
+ * <p>
+ * Ключ — мероприятие, день, начало и название; изменение любого из них —
+ * это удаление старой активности и вставка новой. Изменение модератора
+ * или жюри — обновление. Модератор активности назначается и на её
+ * мероприятие ({@code moderator_assignment}), как при одобрении заявки;
+ * заменённый или удалённый модератор снимается с мероприятия, если там его
+ * больше не держат ни другая активность, ни одобренная заявка.
+ * <p>
+ * Попутно собирается всё, что нужно {@link ScheduleSweep}: мероприятия
+ * программы из файла, а при проверке без записи — занятость, которую
+ * загрузка создала бы.
+ */
+final class ActivityRows implements ChunkHandler<ActivityRows.ActivityRow> {
+
+    static final int DURATION_MINUTES = 90;
+    private static final int JURY_COLUMNS = 5;
+
+    static final class ActivityRow extends ImportRow {
+        final int eventId;
+        final String title;
+        final int dayNum;
+        final LocalTime start;
+        final LocalDate date;
+        final Integer moderatorId;
+        final List<Integer> juryIds;
+
+        ActivityRow(int eventId, String title, int dayNum, LocalTime start, LocalDate date,
+                    Integer moderatorId, List<Integer> juryIds) {
+            this.eventId = eventId;
+            this.title = title;
+            this.dayNum = dayNum;
+            this.start = start;
+            this.date = date;
+            this.moderatorId = moderatorId;
+            this.juryIds = juryIds;
+        }
+    }
+
+    private final References refs;
+    private final Set<Integer> events = new HashSet<>();
+    private final List<ScheduleSweep.Slot> pending = new ArrayList<>();
+    private final Set<Integer> replaced = new HashSet<>();
+
+    ActivityRows(References refs) {
+        this.refs = refs;
+    }
+
+    /** Мероприятия, чьи активности есть в файле, — загруженная программа. */
+    Set<Integer> events() {
+        return events;
+    }
+
+    /** Проверка без записи: занятость модераторов и жюри, которую создала бы загрузка. */
+    List<ScheduleSweep.Slot> pending() {
+        return pending;
+    }
+
+    /** Проверка без записи: активности БД, чей модератор и жюри были бы заменены. */
+    Set<Integer> replaced() {
+        return replaced;
+    }
+
+    @Override
+    public List<String> requiredColumns() {
+        return List.of("event_id", "activity", "day", "start_time");
+    }
+
+    @Override
+    public String key(CsvRow row) throws RowException {
+        int eventId = RowValues.integer(RowValues.required(row, "event_id"), "event_id");
+        events.add(eventId);
+        return References.activityKey(eventId,
+                RowValues.integer(RowValues.required(row, "day"), "day"),
+                RowValues.time(RowValues.required(row, "start_time"), "start_time"),
+                RowValues.required(row, "activity"));
+    }
+
+    @Override
+    public ActivityRow parse(CsvRow row) throws RowException {
+        int eventId = RowValues.integer(RowValues.required(row, "event_id"), "event_id");
+        String title = RowValues.limited(RowValues.required(row, "activity"), 512, "activity");
+        int dayNum = RowValues.integer(RowValues.required(row, "day"), "day");
+        LocalTime start = RowValues.time(RowValues.required(row, "start_time"), "start_time");
+
+        References.EventInfo event = refs.event(eventId);
+        if (event == null) {
+            throw new RowException("нет мероприятия с id " + eventId);
+        }
+        if (dayNum < 1 || dayNum > event.days()) {
+            throw new RowException("«day» " + dayNum + " вне дней мероприятия 1–" + event.days());
+        }
+        if (start.isAfter(LocalTime.MAX.minusMinutes(DURATION_MINUTES))) {
+            throw new RowException("активность не умещается в день: начало " + start);
+        }
+
+        String moderator = row.get("moderator");
+        Integer moderatorId = moderator != null ? person("moderator", moderator) : null;
+        Set<Integer> jury = new LinkedHashSet<>();
+        for (int i = 1; i <= JURY_COLUMNS; i++) {
+            String name = row.get("jury" + i);
+            if (name != null) {
+                jury.add(person("jury", name));
+            }
+        }
+
+        return new ActivityRow(eventId, title, dayNum, start, event.start().plusDays(dayNum - 1L),
+                moderatorId, new ArrayList<>(jury));
+    }
+
+    private int person(String roleCode, String fullName) throws RowException {
+        Integer id = refs.person(roleCode, fullName);
+        String role = "moderator".equals(roleCode) ? "модератора" : "члена жюри";
+        if (id == null) {
+            throw new RowException("нет " + role + " «" + fullName + "»");
+        }
+        if (id == References.AMBIGUOUS) {
+            throw new RowException("несколько пользователей с ФИО «" + fullName + "» (" + role + ")");
+        }
+        return id;
+    }
+
+    @Override
+    public Integer existing(ActivityRow activity) {
+        return refs.activity(References.activityKey(activity.eventId, activity.dayNum, activity.start, activity.title));
+    }
+
+    @Override
+    public void insert(Connection c, List<ActivityRow> chunk) throws SQLException {
+        String sql = """
+            INSERT INTO activity(event_id, title, day_num, start_time, end_time, start_at, end_at, moderator_id)
+            VALUES(?,?,?,?,?,?,?,?)
+        """;
+        try (PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (ActivityRow activity : chunk) {
+                LocalTime end = activity.start.plusMinutes(DURATION_MINUTES);
+                ps.setInt(1, activity.eventId);
+                ps.setString(2, activity.title);
+                ps.setInt(3, activity.dayNum);
+                ps.setTime(4, Time.valueOf(activity.start));
+                ps.setTime(5, Time.valueOf(end));
+                ps.setTimestamp(6, Timestamp.valueOf(activity.date.atTime(activity.start)));
+                ps.setTimestamp(7, Timestamp.valueOf(activity.date.atTime(end)));
+                if (activity.moderatorId != null) {
+                    ps.setInt(8, activity.moderatorId);
+                } else {
+                    ps.setNull(8, Types.INTEGER);
+                }
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            Keys.assign(ps, chunk, (activity, id) -> activity.id = id);
+        }
+        insertJury(c, chunk);
+        assignModerators(c, chunk);
+    }
+
+    @Override
+    public void update(Connection c, List<ActivityRow> rows) throws SQLException {
+        Map<Integer, Integer> newModerators = new HashMap<>();
+        for (ActivityRow activity : rows) {
+            newModerators.put(activity.id, activity.moderatorId);
+        }
+        List<Assignment> replacedModerators = new ArrayList<>();
+        for (Assignment previous : moderators(c, rows)) {
+            if (!previous.moderatorId().equals(newModerators.get(previous.activityId()))) {
+                replacedModerators.add(previous);
+            }
+        }
+
+        try (PreparedStatement ps = c.prepareStatement("UPDATE activity SET moderator_id = ? WHERE id = ?");
+             PreparedStatement clear = c.prepareStatement("DELETE FROM activity_jury WHERE activity_id = ?")) {
+            for (ActivityRow activity : rows) {
+                if (activity.moderatorId != null) {
+                    ps.setInt(1, activity.moderatorId);
+                } else {
+                    ps.setNull(1, Types.INTEGER);
+                }
+                ps.setInt(2, activity.id);
+                ps.addBatch();
+                clear.setInt(1, activity.id);
+                clear.addBatch();
+            }
+            ps.executeBatch();
+            clear.executeBatch();
+        }
+        insertJury(c, rows);
+        assignModerators(c, rows);
+        releaseModerators(c, replacedModerators);
+    }
+
+    /** Жюри удаляется вместе с активностью; задачи, материалы и заявки модераторов не трогаются — ошибка FK. */
+    @Override
+    public void delete(Connection c, int id) throws SQLException {
+        List<Assignment> moderator = new ArrayList<>();
+        try (PreparedStatement ps = c.prepareStatement(
+                "SELECT id, event_id, moderator_id FROM activity WHERE id = ? AND moderator_id IS NOT NULL")) {
+            ps.setInt(1, id);
+            readAssignments(ps, moderator);
+        }
+        for (String sql : List.of("DELETE FROM activity_jury WHERE activity_id = ?",
+                                  "DELETE FROM activity WHERE id = ?")) {
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                ps.setInt(1, id);
+                ps.executeUpdate();
+            }
+        }
+        releaseModerators(c, moderator);
+    }
+
+    @Override
+    public void committed(List<ActivityRow> rows, boolean dryRun) {
+        for (ActivityRow activity : rows) {
+            if (dryRun) {
+                if (activity.id > 0) {
+                    replaced.add(activity.id);
+                } else {
+                    activity.id = refs.simulatedId();
+                }
+                book(activity);
+            }
+            refs.addActivity(References.activityKey(activity.eventId, activity.dayNum, activity.start, activity.title),
+                    activity.id);
+        }
+    }
+
+    private void book(ActivityRow activity) {
+        LocalDateTime start = activity.date.atTime(activity.start);
+        LocalDateTime end = start.plusMinutes(DURATION_MINUTES);
+        String eventTitle = refs.event(activity.eventId).title();
+        if (activity.moderatorId != null) {
+            pending.add(new ScheduleSweep.Slot(activity.moderatorId, activity.eventId,
+                    new Booking(activity.id, activity.title, eventTitle, start, end, Role.MODERATOR)));
+        }
+        for (Integer juryId : activity.juryIds) {
+            pending.add(new ScheduleSweep.Slot(juryId, activity.eventId,
+                    new Booking(activity.id, activity.title, eventTitle, start, end, Role.JURY)));
+        }
+    }
+
+    /** Модератор активности закрепляется за мероприятием; повторное назначение не ошибка. */
+    private static void assignModerators(Connection c, List<ActivityRow> rows) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(
+                "INSERT IGNORE INTO moderator_assignment(user_id, event_id) VALUES(?,?)")) {
+            for (ActivityRow activity : rows) {
+                if (activity.moderatorId != null) {
+                    ps.setInt(1, activity.moderatorId);
+                    ps.setInt(2, activity.eventId);
+                    ps.addBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /** Модератор, стоявший на активности мероприятия. */
+    private record Assignment(int activityId, int eventId, Integer moderatorId) {
+    }
+
+    /** Текущие модераторы активностей {@code rows}, которые уже есть в БД. */
+    private static List<Assignment> moderators(Connection c, List<ActivityRow> rows) throws SQLException {
+        List<Assignment> result = new ArrayList<>();
+        if (rows.isEmpty()) {
+            return result;
+        }
+        String sql = "SELECT id, event_id, moderator_id FROM activity WHERE moderator_id IS NOT NULL AND id IN ("
+                + String.join(",", Collections.nCopies(rows.size(), "?")) + ")";
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            int idx = 1;
+            for (ActivityRow activity : rows) {
+                ps.setInt(idx++, activity.id);
+            }
+            readAssignments(ps, result);
+        }
+        return result;
+    }
+
+    private static void readAssignments(PreparedStatement ps, List<Assignment> result) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                result.add(new Assignment(rs.getInt("id"), rs.getInt("event_id"), rs.getInt("moderator_id")));
+            }
+        }
+    }
+
+    /**
+     * Снимает модераторов с мероприятий, где их больше не держат ни активность,
+     * ни одобренная заявка. Назначения из {@code moderators.csv} и формы
+     * регистрации от активностей не отличить — снимается только тот, кто сам
+     * стоял на заменённой или удалённой активности.
+     */
+    private static void releaseModerators(Connection c, List<Assignment> released) throws SQLException {
+        if (released.isEmpty()) {
+            return;
+        }
+        String sql = """
+            DELETE FROM moderator_assignment
+             WHERE user_id = ? AND event_id = ?
+               AND NOT EXISTS (SELECT 1 FROM activity a WHERE a.event_id = ? AND a.moderator_id = ?)
+               AND NOT EXISTS (SELECT 1
+                                 FROM moderator_application ma
+                                 JOIN activity a ON a.id = ma.activity_id
+                                WHERE ma.moderator_id = ? AND ma.status = 'APPROVED' AND a.event_id = ?)
+        """;
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (Assignment assignment : released) {
+                int moderatorId = assignment.moderatorId();
+                ps.setInt(1, moderatorId);
+                ps.setInt(2, assignment.eventId());
+                ps.setInt(3, assignment.eventId());
+                ps.setInt(4, moderatorId);
+                ps.setInt(5, moderatorId);
+                ps.setInt(6, assignment.eventId());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static void insertJury(Connection c, List<ActivityRow> rows) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("INSERT INTO activity_jury(activity_id, jury_id) VALUES(?,?)")) {
+            for (ActivityRow activity : rows) {
+                for (Integer juryId : activity.juryIds) {
+                    ps.setInt(1, activity.id);
+                    ps.setInt(2, juryId);
+                    ps.addBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.conferenceapp.importer;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Загрузка одного файла, разбитая на стадии {@link ChunkPipeline}.
+ *
+ * @param <T> разобранная строка
+ */
+interface ChunkHandler<T extends ImportRow> {
+
+    /** Колонки, без которых файл не загружается. */
+    List<String> requiredColumns();
+
+    /**
+     * Естественный ключ строки (почта, название страны, id мероприятия...):
+     * по нему повторная загрузка находит запись, созданную из этой строки
+     * в прошлый раз. Вычисляется для каждой строки файла, поэтому должен быть дешёвым.
+     *
+     * @throws RowException в строке нет значений, из которых строится ключ
+     */
+    String key(CsvRow row) throws RowException;
+
+    /**
+     * Разбор и проверка новой или изменившейся строки в потоке импорта, по порядку строк.
+     *
+     * @throws RowException строка ошибочна
+     */
+    T parse(CsvRow row) throws RowException, SQLException;
+
+    /**
+     * id записи с тем же естественным ключом, которая есть в БД, но не создана
+     * загрузкой (например, добавлена из формы) — строка обновит её вместо вставки.
+     */
+    Integer existing(T row);
+
+    /**
+     * Тяжёлая работа без обращения к БД (хэш пароля, фото). Вызывается
+     * параллельно для строк пакета, пока предыдущий пакет пишется в БД.
+     */
+    default void prepare(T row, boolean dryRun) throws RowException {
+    }
+
+    /** Вставляет строки и заполняет {@link ImportRow#id}; транзакцию фиксирует вызывающий. */
+    void insert(Connection c, List<T> rows) throws SQLException;
+
+    /** Обновляет записи {@link ImportRow#id} значениями строк. */
+    void update(Connection c, List<T> rows) throws SQLException;
+
+    /** Удаляет запись, чьей строки больше нет в файле. Ошибка внешнего ключа — запись оставляется. */
+    void delete(Connection c, int id) throws SQLException;
+
+    /**
+     * Пакет зафиксирован (или, при проверке без записи, «как бы» записан):
+     * новые записи можно добавлять в {@link References}.
+     */
+    default void committed(List<T> rows, boolean dryRun) {
+    }
+}
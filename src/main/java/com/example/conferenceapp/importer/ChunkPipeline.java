@@ -0,0 +1,412 @@
+package com.example.conferenceapp.importer;
+
+import com.example.conferenceapp.db.DataSourceProfile;
+import com.example.conferenceapp.util.DBUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Конвейер загрузки файла пакетами по {@link ImportOptions#chunkSize()} строк:
+ * <ol>
+ *     <li>чтение строк и сравнение с прошлой загрузкой — в потоке импорта,
+ *         по порядку: строка, чей ключ и хэш уже есть в {@code import_row},
+ *         дальше не разбирается;</li>
+ *     <li>подготовка новых и изменённых строк (хэши паролей, фото) —
+ *         параллельно в пуле {@link ImportOptions#hashThreads()} потоков, пока
+ *         в БД пишется предыдущий пакет;</li>
+ *     <li>запись — пакетными INSERT/UPDATE вместе с {@code import_row} и
+ *         контрольной точкой, одна транзакция на пакет;</li>
+ *     <li>в конце файла — удаление записей, чьих ключей в файле больше нет.</li>
+ * </ol>
+ * Если файл не менялся с прошлой полной загрузки, он пропускается целиком;
+ * если прошлая загрузка прервалась, строки до контрольной точки только
+ * перечисляются (для поиска удалённых) без хэширования и разбора.
+ * <p>
+ * Ошибка БД откатывает только свой пакет: его строки попадают в отчёт,
+ * загрузка продолжается со следующего, а контрольная точка дальше этого
+ * пакета не сдвигается. Если после ошибки соединение потеряно, загрузка
+ * прерывается.
+ */
+final class ChunkPipeline implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkPipeline.class);
+    private static final long PROGRESS_EVERY_NANOS = 1_000_000_000L;
+
+    private static final class Item<T> {
+        final int line;
+        final String key;
+        final String keyHash;
+        final String rowHash;
+        final T value;
+        final boolean update;
+        String error;
+
+        Item(int line, String key, String keyHash, String rowHash, T value, boolean update) {
+            this.line = line;
+            this.key = key;
+            this.keyHash = keyHash;
+            this.rowHash = rowHash;
+            this.value = value;
+            this.update = update;
+        }
+    }
+
+    /** Пакет строк и позиция в файле после его последней строки. */
+    private record Chunk<T>(List<Item<T>> items, CsvReader.Position end, long lastRowOffset, String lastRowHash) {
+    }
+
+    private final ImportOptions options;
+    private final ImportReport report;
+    private final ImportProgress progress;
+    private final ForkJoinPool workers;
+    private Connection connection;
+
+    ChunkPipeline(ImportOptions options, ImportReport report, ImportProgress progress) {
+        this.options = options;
+        this.report = report;
+        this.progress = progress;
+        this.workers = new ForkJoinPool(options.hashThreads());
+    }
+
+    /**
+     * Загружает изменения файла.
+     *
+     * @throws IOException  файл не читается или в нём нет обязательных колонок
+     * @throws SQLException соединение с БД потеряно
+     */
+    <T extends ImportRow> void run(ImportFile file, Path csv, ChunkHandler<T> handler) throws IOException, SQLException {
+        new FileRun<>(file, csv, handler).run();
+    }
+
+    private final class FileRun<T extends ImportRow> {
+        final ImportFile file;
+        final Path csv;
+        final ChunkHandler<T> handler;
+        final Set<String> seen = new HashSet<>();
+        final long started = System.nanoTime();
+        long reportedAt = started;
+        ImportState.Stamp stamp;
+        Map<String, ImportState.Known> known;
+        CsvReader.Position resumeAt;
+        long lastRowOffset;
+        String lastRowHash;
+        boolean frozen;                                 // пакет откатился — точку дальше не двигаем
+        int keyFailures;
+        long read;
+        long inserted;
+        long updated;
+        long deleted;
+        long unchanged;
+        long failed;
+
+        FileRun(ImportFile file, Path csv, ChunkHandler<T> handler) {
+            this.file = file;
+            this.csv = csv;
+            this.handler = handler;
+        }
+
+        void run() throws IOException, SQLException {
+            try {
+                stamp = ImportState.Stamp.of(csv);
+                Connection c = connection();
+                ImportState.Checkpoint checkpoint = options.rescan() ? null : ImportState.checkpoint(c, file);
+                if (checkpoint != null && checkpoint.done() && checkpoint.stamp().equals(stamp)) {
+                    log.info("{} unchanged since the last import, skipped", file.fileName());
+                    return;
+                }
+                known = ImportState.rows(c, file);
+                c.commit();
+                if (checkpoint != null && !checkpoint.done() && checkpoint.stamp().equals(stamp)
+                        && verify(checkpoint)) {
+                    resumeAt = checkpoint.position();
+                    log.info("{}: resuming at line {}", file.fileName(), resumeAt.line());
+                }
+                load();
+            } finally {
+                long now = System.nanoTime();
+                progress.update(file, read, rate(read, started, now), true);
+                report.add(new ImportReport.FileStats(file, read, inserted, updated, deleted,
+                        unchanged, failed, (now - started) / 1_000_000));
+            }
+        }
+
+        /** Контрольная точка указывает на конец той же строки, что и при записи: файл не подменён. */
+        private boolean verify(ImportState.Checkpoint checkpoint) throws IOException {
+            if (checkpoint.lastRowHash() == null) {
+                return false;
+            }
+            try (CsvReader reader = CsvReader.open(csv)) {
+                CsvRow row;
+                while ((row = reader.next()) != null && row.offset() < checkpoint.lastRowOffset()) {
+                    // пропускаем до последней записанной строки
+                }
+                return row != null
+                        && row.offset() == checkpoint.lastRowOffset()
+                        && row.hash().equals(checkpoint.lastRowHash())
+                        && reader.position().equals(checkpoint.position());
+            }
+        }
+
+        private void load() throws IOException, SQLException {
+            CsvReader.Position end;
+            try (CsvReader reader = CsvReader.open(csv)) {
+                for (String column : handler.requiredColumns()) {
+                    if (!reader.hasColumn(column)) {
+                        throw new IOException("нет колонки «" + column + "»");
+                    }
+                }
+
+                CompletableFuture<Chunk<T>> inFlight = null;
+                Chunk<T> chunk;
+                while ((chunk = readChunk(reader)) != null) {
+                    Chunk<T> parsed = chunk;
+                    CompletableFuture<Chunk<T>> next = CompletableFuture.supplyAsync(() -> prepare(parsed), workers);
+                    if (inFlight != null) {
+                        write(inFlight.join());
+                    }
+                    inFlight = next;
+
+                    long now = System.nanoTime();
+                    if (now - reportedAt >= PROGRESS_EVERY_NANOS) {
+                        reportedAt = now;
+                        progress.update(file, read, rate(read, started, now), false);
+                    }
+                }
+                if (inFlight != null) {
+                    write(inFlight.join());
+                }
+                end = reader.position();
+            }
+
+            deleteMissing();
+            if (!options.dryRun() && !frozen) {
+                Connection c = connection();
+                ImportState.saveCheckpoint(c, file, ImportState.DONE, stamp, end, lastRowOffset, lastRowHash, read);
+                c.commit();
+            }
+        }
+
+        /** Следующие строки файла, пока не наберётся пакет новых и изменённых; {@code null} — файл кончился. */
+        private Chunk<T> readChunk(CsvReader reader) throws IOException, SQLException {
+            List<Item<T>> items = new ArrayList<>(options.chunkSize());
+            CsvRow row = null;
+            while (items.size() < options.chunkSize() && (row = reader.next()) != null) {
+                read++;
+                String key;
+                try {
+                    key = handler.key(row);
+                } catch (RowException ex) {
+                    keyFailures++;
+                    failed++;
+                    report.error(file, row.line(), ex.getMessage());
+                    continue;
+                }
+                String keyHash = RowValues.sha256Hex(key);
+                if (!seen.add(keyHash)) {
+                    failed++;
+                    report.error(file, row.line(), "ключ «" + key + "» уже встречался выше — строка пропущена");
+                    continue;
+                }
+                if (resumeAt != null && row.offset() < resumeAt.offset()) {
+                    unchanged++;                        // загружена до прерывания
+                    continue;
+                }
+
+                String rowHash = row.hash();
+                lastRowOffset = row.offset();
+                lastRowHash = rowHash;
+                ImportState.Known previous = known.get(keyHash);
+                if (previous != null && previous.rowHash().equals(rowHash)) {
+                    unchanged++;
+                    continue;
+                }
+                try {
+                    T value = handler.parse(row);
+                    Integer target = previous != null ? Integer.valueOf(previous.targetId()) : handler.existing(value);
+                    if (target != null) {
+                        value.id = target;
+                    }
+                    items.add(new Item<>(row.line(), key, keyHash, rowHash, value, target != null));
+                } catch (RowException ex) {
+                    failed++;
+                    report.error(file, row.line(), ex.getMessage());
+                }
+            }
+            if (row == null && items.isEmpty()) {
+                return null;
+            }
+            return new Chunk<>(items, reader.position(), lastRowOffset, lastRowHash);
+        }
+
+        private Chunk<T> prepare(Chunk<T> chunk) {
+            chunk.items().parallelStream().forEach(item -> {
+                try {
+                    handler.prepare(item.value, options.dryRun());
+                } catch (RowException ex) {
+                    item.error = ex.getMessage();
+                } catch (RuntimeException ex) {
+                    item.error = ex.toString();
+                }
+            });
+            return chunk;
+        }
+
+        private void write(Chunk<T> chunk) throws SQLException {
+            List<Item<T>> ok = new ArrayList<>(chunk.items().size());
+            List<T> inserts = new ArrayList<>();
+            List<T> updates = new ArrayList<>();
+            for (Item<T> item : chunk.items()) {
+                if (item.error != null) {
+                    failed++;
+                    report.error(file, item.line, item.error);
+                } else {
+                    ok.add(item);
+                    (item.update ? updates : inserts).add(item.value);
+                }
+            }
+            if (ok.isEmpty()) {
+                return;
+            }
+            List<T> values = ok.stream().map(item -> item.value).toList();
+            if (options.dryRun()) {
+                handler.committed(values, true);
+                inserted += inserts.size();
+                updated += updates.size();
+                return;
+            }
+
+            Connection c = connection();
+            try {
+                if (!inserts.isEmpty()) {
+                    handler.insert(c, inserts);
+                }
+                if (!updates.isEmpty()) {
+                    handler.update(c, updates);
+                }
+                ImportState.saveRows(c, file, ok.stream()
+                        .map(item -> new ImportState.Entry(item.keyHash, item.key, item.rowHash, item.value.id))
+                        .toList());
+                if (!frozen) {
+                    ImportState.saveCheckpoint(c, file, ImportState.RUNNING, stamp, chunk.end(),
+                            chunk.lastRowOffset(), chunk.lastRowHash(), read);
+                }
+                c.commit();
+            } catch (SQLException ex) {
+                rollback(c);
+                frozen = true;
+                failed += ok.size();
+                int first = ok.get(0).line;
+                int last = ok.get(ok.size() - 1).line;
+                report.error(file, first, "строки " + first + "–" + last + " не записаны: " + ex.getMessage());
+                log.warn("{}: chunk at lines {}-{} rolled back: {}", file.fileName(), first, last, ex.getMessage());
+                ensureValid(c, ex);
+                return;
+            }
+            handler.committed(values, false);
+            inserted += inserts.size();
+            updated += updates.size();
+        }
+
+        /**
+         * Удаляет записи, чьих ключей в файле больше нет. Не выполняется, если
+         * у части строк не удалось вычислить ключ или файл пуст: иначе
+         * испорченная выгрузка удалила бы настоящие данные.
+         */
+        private void deleteMissing() throws SQLException {
+            List<Map.Entry<String, ImportState.Known>> missing = known.entrySet().stream()
+                    .filter(entry -> !seen.contains(entry.getKey()))
+                    .toList();
+            if (missing.isEmpty()) {
+                return;
+            }
+            if (keyFailures > 0 || seen.isEmpty()) {
+                report.error(file, 0, "удаление " + missing.size() + " записей, которых нет в файле, пропущено: "
+                        + (seen.isEmpty() ? "в файле нет строк" : "не у всех строк есть ключ"));
+                return;
+            }
+            if (options.dryRun()) {
+                deleted += missing.size();
+                return;
+            }
+
+            Connection c = connection();
+            for (int from = 0; from < missing.size(); from += options.chunkSize()) {
+                for (Map.Entry<String, ImportState.Known> entry : missing.subList(from,
+                        Math.min(from + options.chunkSize(), missing.size()))) {
+                    ImportState.Known row = entry.getValue();
+                    Savepoint savepoint = c.setSavepoint();
+                    try {
+                        handler.delete(c, row.targetId());
+                        ImportState.deleteRow(c, file, entry.getKey());
+                        deleted++;
+                    } catch (SQLException ex) {
+                        c.rollback(savepoint);
+                        failed++;
+                        report.error(file, 0, "«" + row.naturalKey() + "» (id " + row.targetId()
+                                + ") нет в файле, но запись не удалена: " + ex.getMessage());
+                        ensureValid(c, ex);
+                    }
+                }
+                c.commit();
+            }
+        }
+    }
+
+    private Connection connection() throws SQLException {
+        if (connection == null) {
+            connection = DBUtil.getConnection(DataSourceProfile.BULK_IMPORT);
+            connection.setAutoCommit(false);
+        }
+        return connection;
+    }
+
+    /** После ошибки: если соединение живо — продолжаем, иначе прерываем загрузку. */
+    private void ensureValid(Connection c, SQLException cause) throws SQLException {
+        if (!c.isValid(5)) {
+            connection = null;
+            c.close();
+            throw cause;
+        }
+    }
+
+    private static void rollback(Connection c) {
+        try {
+            c.rollback();
+        } catch (SQLException ex) {
+            log.warn("Rollback failed: {}", ex.getMessage());
+        }
+    }
+
+    private static double rate(long rows, long started, long now) {
+        long elapsed = Math.max(1, now - started);
+        return rows * 1_000_000_000.0 / elapsed;
+    }
+
+    @Override
+    public void close() {
+        workers.shutdown();
+        if (connection != null) {
+            try {
+                connection.rollback();
+                connection.setAutoCommit(true);
+                connection.close();
+            } catch (SQLException ex) {
+                log.warn("Cannot release import connection: {}", ex.getMessage());
+            }
+            connection = null;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.conferenceapp.importer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * {@code cities.csv}: «id;name». Ключ — id: на него ссылается
+ * {@code events.csv}, поэтому он сохраняется как в файле. Страны в файле
+ * нет, а {@code city.country_id} обязателен — берётся колонка «страна»,
+ * если она есть, иначе страна по умолчанию, как при создании города из формы.
+ */
+final class CityRows implements ChunkHandler<CityRows.City> {
+
+    static final class City extends ImportRow {
+        final String name;
+        final int countryId;
+
+        City(int id, String name, int countryId) {
+            this.id = id;
+            this.name = name;
+            this.countryId = countryId;
+        }
+    }
+
+    private final References refs;
+
+    CityRows(References refs) {
+        this.refs = refs;
+    }
+
+    @Override
+    public List<String> requiredColumns() {
+        return List.of("id", "name");
+    }
+
+    @Override
+    public String key(CsvRow row) throws RowException {
+        return String.valueOf(RowValues.integer(RowValues.required(row, "id"), "id"));
+    }
+
+    @Override
+    public City parse(CsvRow row) throws RowException {
+        int id = RowValues.integer(RowValues.required(row, "id"), "id");
+        String name = RowValues.limited(RowValues.required(row, "name"), 128, "name");
+
+        String countryName = row.get("страна", "country");
+        Integer countryId = countryName != null ? refs.country(countryName) : refs.defaultCountry();
+        if (countryId == null) {
+            throw new RowException(countryName != null
+                    ? "неизвестная страна «" + countryName + "»"
+                    : "в БД нет ни одной страны — загрузите countries.csv");
+        }
+        return new City(id, name, countryId);
+    }
+
+    @Override
+    public Integer existing(City city) {
+        return refs.hasCity(city.id) ? city.id : null;
+    }
+
+    @Override
+    public void insert(Connection c, List<City> rows) throws SQLException {
+        write(c, rows, "INSERT INTO city(country_id, name, id) VALUES(?,?,?)");
+    }
+
+    @Override
+    public void update(Connection c, List<City> rows) throws SQLException {
+        write(c, rows, "UPDATE city SET country_id = ?, name = ? WHERE id = ?");
+    }
+
+    @Override
+    public void delete(Connection c, int id) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("DELETE FROM city WHERE id = ?")) {
+            ps.setInt(1, id);
+            ps.executeUpdate();
+        }
+    }
+
+    @Override
+    public void committed(List<City> rows, boolean dryRun) {
+        rows.forEach(city -> refs.addCity(city.id));
+    }
+
+    private static void write(Connection c, List<City> rows, String sql) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (City city : rows) {
+                ps.setInt(1, city.countryId);
+                ps.setString(2, city.name);
+                ps.setInt(3, city.id);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+}
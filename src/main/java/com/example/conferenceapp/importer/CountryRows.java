@@ -0,0 +1,124 @@
+package com.example.conferenceapp.importer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * {@code countries.csv}: «Название страны;Английское название;Код;Код2».
+ * Ключ — русское название. Какая из колонок кода буквенная, а какая
+ * числовая, в выгрузках бывает по-разному, поэтому это определяется по значению.
+ */
+final class CountryRows implements ChunkHandler<CountryRows.Country> {
+
+    static final class Country extends ImportRow {
+        final String nameRu;
+        final String nameEn;
+        final String alpha2;
+        final Integer numeric;
+
+        Country(String nameRu, String nameEn, String alpha2, Integer numeric) {
+            this.nameRu = nameRu;
+            this.nameEn = nameEn;
+            this.alpha2 = alpha2;
+            this.numeric = numeric;
+        }
+    }
+
+    private final References refs;
+
+    CountryRows(References refs) {
+        this.refs = refs;
+    }
+
+    @Override
+    public List<String> requiredColumns() {
+        return List.of("Название страны");
+    }
+
+    @Override
+    public String key(CsvRow row) throws RowException {
+        return RowValues.nameKey(RowValues.required(row, "Название страны"));
+    }
+
+    @Override
+    public Country parse(CsvRow row) throws RowException {
+        String nameRu = RowValues.limited(RowValues.required(row, "Название страны"), 128, "Название страны");
+        String nameEn = RowValues.limited(row.get("Английское название"), 128, "Английское название");
+
+        String alpha2 = null;
+        Integer numeric = null;
+        for (String column : List.of("Код", "Код2")) {
+            String code = row.get(column);
+            if (code == null) {
+                continue;
+            }
+            if (code.matches("\\d{1,3}")) {
+                numeric = Integer.valueOf(code);
+            } else if (code.matches("[A-Za-z]{2}")) {
+                alpha2 = code.toUpperCase();
+            }
+        }
+        return new Country(nameRu, nameEn, alpha2, numeric);
+    }
+
+    @Override
+    public Integer existing(Country country) {
+        return refs.country(country.nameRu);
+    }
+
+    @Override
+    public void insert(Connection c, List<Country> rows) throws SQLException {
+        String sql = "INSERT INTO country(name_ru, name_en, iso_alpha2, iso_num) VALUES(?,?,?,?)";
+        try (PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (Country country : rows) {
+                bind(ps, country);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            Keys.assign(ps, rows, (country, id) -> country.id = id);
+        }
+    }
+
+    @Override
+    public void update(Connection c, List<Country> rows) throws SQLException {
+        String sql = "UPDATE country SET name_ru = ?, name_en = ?, iso_alpha2 = ?, iso_num = ? WHERE id = ?";
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (Country country : rows) {
+                bind(ps, country);
+                ps.setInt(5, country.id);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    @Override
+    public void delete(Connection c, int id) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("DELETE FROM country WHERE id = ?")) {
+            ps.setInt(1, id);
+            ps.executeUpdate();
+        }
+    }
+
+    @Override
+    public void committed(List<Country> rows, boolean dryRun) {
+        for (Country country : rows) {
+            refs.addCountry(dryRun && country.id == 0 ? refs.simulatedId() : country.id, country.nameRu, country.nameEn);
+        }
+    }
+
+    private static void bind(PreparedStatement ps, Country country) throws SQLException {
+        ps.setString(1, country.nameRu);
+        ps.setString(2, country.nameEn);
+        ps.setString(3, country.alpha2);
+        if (country.numeric != null) {
+            ps.setInt(4, country.numeric);
+        } else {
+            ps.setNull(4, Types.INTEGER);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.conferenceapp.importer;
+
+import com.example.conferenceapp.db.DataSourceProfile;
+import com.example.conferenceapp.util.DBUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Загрузка CSV-файлов каталога {@code data/} в БД.
+ * <p>
+ * Файлы читаются потоково, в порядке {@link ImportFile}, через
+ * {@link ChunkPipeline}: пакет строк — одна транзакция на соединении
+ * профиля {@link DataSourceProfile#BULK_IMPORT}. Ссылки (страны,
+ * направления, мероприятия, модераторы и жюри по ФИО) разрешаются по
+ * справочникам в памяти, см. {@link References}.
+ * <p>
+ * Загрузка инкрементальная: в {@code import_row} запоминается хэш каждой
+ * строки, и повторный запуск пишет только новые, изменённые и удалённые
+ * строки, а контрольная точка в {@code import_checkpoint} позволяет
+ * продолжить прерванную загрузку — достаточно запустить её снова.
+ * <p>
+ * После {@code activities.csv} вся программа проверяется на пересечения
+ * ({@link ScheduleSweep}); они попадают в отчёт предупреждениями.
+ * <p>
+ * Загрузка идёт в отдельном процессе ({@code tools.CsvImportTool}), поэтому
+ * индексы запущенного приложения она не трогает: их догоняет фоновая сверка
+ * самого приложения — расписание по меткам {@code updated_at} (миграция V7)
+ * в {@code ScheduleConflictService}, люди и глобальный поиск — очередной
+ * пересборкой {@code PeopleSearchIndex} и {@code GlobalSearchIndex}.
+ * <pre>
+ * ImportReport report = new CsvImporter(Path.of("data"), ImportOptions.defaults(), ImportProgress.NONE).run();
+ * </pre>
+ */
+public final class CsvImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(CsvImporter.class);
+
+    private final Path dataDir;
+    private final ImportOptions options;
+    private final ImportProgress progress;
+
+    public CsvImporter(Path dataDir, ImportOptions options, ImportProgress progress) {
+        this.dataDir = dataDir;
+        this.options = options;
+        this.progress = progress != null ? progress : ImportProgress.NONE;
+    }
+
+    /**
+     * Загружает выбранные файлы. Ошибки отдельных строк и пакетов попадают
+     * в отчёт, не прерывая загрузку.
+     *
+     * @throws SQLException нет соединения с БД или оно потеряно посреди загрузки
+     */
+    public ImportReport run() throws SQLException {
+        ImportReport report = new ImportReport(options.dryRun());
+        References refs;
+        try (Connection c = DBUtil.getConnection(DataSourceProfile.BULK_IMPORT)) {
+            refs = References.load(c, options.dryRun(), options.files().contains(ImportFile.ACTIVITIES));
+        }
+
+        ActivityRows activities = null;
+        try (ChunkPipeline pipeline = new ChunkPipeline(options, report, progress)) {
+            for (ImportFile file : options.files()) {
+                Path csv = dataDir.resolve(file.fileName());
+                if (!Files.isRegularFile(csv)) {
+                    log.warn("{} not found in {}, skipped", file.fileName(), dataDir);
+                    continue;
+                }
+                ChunkHandler<?> handler = handler(file, refs);
+                try {
+                    pipeline.run(file, csv, handler);
+                } catch (IOException ex) {
+                    report.error(file, 0, ex.getMessage());
+                    log.warn("{}: {}", file.fileName(), ex.getMessage());
+                }
+                if (handler instanceof ActivityRows rows) {
+                    activities = rows;
+                }
+            }
+        }
+        if (activities != null) {
+            checkSchedule(activities, refs, report);
+        }
+        return report;
+    }
+
+    /** Пересечения — предупреждение: данные уже загружены, сбой проверки их не откатывает. */
+    private void checkSchedule(ActivityRows activities, References refs, ImportReport report) {
+        long started = System.nanoTime();
+        try (Connection c = DBUtil.getConnection(DataSourceProfile.BULK_IMPORT)) {
+            report.addOverlaps(ScheduleSweep.run(c, refs, activities.events(),
+                    activities.pending(), activities.replaced()));
+        } catch (SQLException ex) {
+            report.error(ImportFile.ACTIVITIES, 0, "проверка пересечений не выполнена: " + ex.getMessage());
+            log.warn("Schedule overlap check failed", ex);
+            return;
+        }
+        log.info("Schedule of {} events checked in {} ms: {} overlaps", activities.events().size(),
+                (System.nanoTime() - started) / 1_000_000, report.overlaps().size());
+    }
+
+    private ChunkHandler<?> handler(ImportFile file, References refs) {
+        return switch (file) {
+            case COUNTRIES -> new CountryRows(refs);
+            case CITIES -> new CityRows(refs);
+            case EVENTS -> new EventRows(refs, options.defaultDirection());
+            case ORGANIZERS, PARTICIPANTS, JURY, MODERATORS -> new PersonRows(refs, file, options.photosDir());
+            case ACTIVITIES -> new ActivityRows(refs);
+        };
+    }
+}
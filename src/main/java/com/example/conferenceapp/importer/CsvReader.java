@@ -0,0 +1,217 @@
+package com.example.conferenceapp.importer;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Потоковое чтение CSV из каталога {@code data/}: разделитель {@code ;},
+ * первая строка — заголовок, кодировка UTF-8 (BOM от Excel пропускается).
+ * Значения в кавычках могут содержать {@code ;}, переводы строк и
+ * удвоенные кавычки. В памяти держится только текущая запись.
+ * <p>
+ * Читатель считает байтовое смещение в файле: {@link #position()} после
+ * записи — то, что сохраняется в контрольной точке загрузки.
+ */
+public final class CsvReader implements Closeable {
+
+    private static final char SEPARATOR = ';';
+    private static final char QUOTE = '"';
+    private static final int MAX_FIELD = 64 * 1024;
+
+    private final Reader in;
+    private final String name;
+    private final Map<String, Integer> header;
+    private final StringBuilder field = new StringBuilder();
+    private int line = 1;
+    private long offset;
+    private int pushedBack = -1;
+
+    /** Место в файле: смещение в байтах UTF-8 и номер строки, с которой начнётся следующая запись. */
+    public record Position(long offset, int line) {
+    }
+
+    private CsvReader(Reader in, String name) throws IOException {
+        this.in = in;
+        this.name = name;
+        int first = read();
+        if (first != '\uFEFF') {
+            unread(first);
+        }
+        List<String> columns = readRecord();
+        if (columns == null) {
+            throw new IOException(name + ": файл пуст, нет строки заголовка");
+        }
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            index.putIfAbsent(normalize(columns.get(i)), i);
+        }
+        this.header = Collections.unmodifiableMap(index);
+    }
+
+    public static CsvReader open(Path file) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        try {
+            return new CsvReader(reader, file.getFileName().toString());
+        } catch (IOException | RuntimeException ex) {
+            reader.close();
+            throw ex;
+        }
+    }
+
+    /** Для чтения из памяти, например в отладочных утилитах. */
+    public static CsvReader of(Reader reader, String name) throws IOException {
+        return new CsvReader(reader instanceof BufferedReader ? reader : new BufferedReader(reader), name);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /** Позиция сразу после последней прочитанной записи. */
+    public Position position() {
+        return new Position(offset, line);
+    }
+
+    /** Есть ли колонка (регистр и пробелы по краям не важны). */
+    public boolean hasColumn(String column) {
+        return header.containsKey(normalize(column));
+    }
+
+    /**
+     * Следующая непустая запись или {@code null} в конце файла.
+     *
+     * @throws IOException ошибка чтения или незакрытая кавычка
+     */
+    public CsvRow next() throws IOException {
+        while (true) {
+            int startLine = line;
+            long startOffset = offset;
+            List<String> values = readRecord();
+            if (values == null) {
+                return null;
+            }
+            if (values.size() == 1 && values.get(0).isBlank()) {
+                continue;                               // пустые строки в конце файла
+            }
+            return new CsvRow(startLine, startOffset, values, header);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /* ---------- разбор ---------- */
+
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        int startLine = line;
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        field.setLength(0);
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException(name + ", строка " + startLine + ": не закрыта кавычка");
+                }
+                if (c == QUOTE) {
+                    int following = read();
+                    if (following == QUOTE) {
+                        append(c, startLine);
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    append(c, startLine);
+                }
+            } else if (c == -1 || c == '\n' || c == '\r') {
+                values.add(wasQuoted ? field.toString() : field.toString().strip());
+                if (c == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        unread(following);
+                    }
+                }
+                if (c != -1) {
+                    line++;
+                }
+                return values;
+            } else if (c == SEPARATOR) {
+                values.add(wasQuoted ? field.toString() : field.toString().strip());
+                field.setLength(0);
+                wasQuoted = false;
+            } else if (c == QUOTE && field.toString().isBlank()) {
+                field.setLength(0);
+                quoted = true;
+                wasQuoted = true;
+            } else {
+                append(c, startLine);
+            }
+            c = read();
+        }
+    }
+
+    private void append(int c, int startLine) throws IOException {
+        if (field.length() >= MAX_FIELD) {
+            throw new IOException(name + ", строка " + startLine + ": значение длиннее " + MAX_FIELD + " символов");
+        }
+        field.append((char) c);
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pushedBack != -1) {
+            c = pushedBack;
+            pushedBack = -1;
+        } else {
+            c = in.read();
+        }
+        offset += utf8Length(c);
+        return c;
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+        offset -= utf8Length(c);
+    }
+
+    /** Половинка суррогатной пары — 2 байта, пара целиком — 4, как в UTF-8. */
+    private static int utf8Length(int c) {
+        if (c < 0) {
+            return 0;
+        }
+        if (c < 0x80) {
+            return 1;
+        }
+        if (c < 0x800 || Character.isSurrogate((char) c)) {
+            return 2;
+        }
+        return 3;
+    }
+
+    static String normalize(String column) {
+        return column.strip().toLowerCase(Locale.ROOT);
+    }
+}
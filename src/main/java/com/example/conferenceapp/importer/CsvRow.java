@@ -0,0 +1,62 @@
+package com.example.conferenceapp.importer;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Одна запись CSV. Значения берутся по имени колонки из заголовка;
+ * пустая строка и отсутствующая колонка одинаково дают {@code null}.
+ */
+public final class CsvRow {
+
+    private final int line;
+    private final long offset;
+    private final List<String> values;
+    private final Map<String, Integer> header;
+
+    CsvRow(int line, long offset, List<String> values, Map<String, Integer> header) {
+        this.line = line;
+        this.offset = offset;
+        this.values = values;
+        this.header = header;
+    }
+
+    /** Номер строки файла, с которой началась запись (заголовок — строка 1). */
+    public int line() {
+        return line;
+    }
+
+    /** Смещение начала записи в байтах от начала файла. */
+    public long offset() {
+        return offset;
+    }
+
+    /**
+     * SHA-256 значений записи: по нему повторная загрузка понимает, что
+     * строка не изменилась. Порядок колонок в хэш входит — перестановка
+     * колонок в файле сделает изменёнными все строки.
+     */
+    public String hash() {
+        return RowValues.sha256Hex(String.join("\u001F", values));
+    }
+
+    public String get(String column) {
+        Integer index = header.get(CsvReader.normalize(column));
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index);
+        return value.isBlank() ? null : value;
+    }
+
+    /** Значение первой из колонок, которая есть в файле: заголовки пишут по-разному. */
+    public String get(String column, String alternative) {
+        String value = get(column);
+        return value != null ? value : get(alternative);
+    }
+
+    @Override
+    public String toString() {
+        return "CsvRow[line " + line + ", " + values + "]";
+    }
+}
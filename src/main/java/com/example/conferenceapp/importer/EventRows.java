@@ -0,0 +1,155 @@
+package com.example.conferenceapp.importer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * {@code events.csv}: «id;title;date;days;city_id». Ключ — id: по нему
+ * ссылаются {@code activities.csv} и {@code moderators.csv}, поэтому он
+ * сохраняется как в файле. Мероприятие идёт с {@value #DAY_START_HOUR}:00
+ * первого дня до {@value #DAY_END_HOUR}:00 последнего. Направления в файле
+ * нет: новые мероприятия получают {@link ImportOptions#defaultDirection()},
+ * у существующих направление не меняется.
+ */
+final class EventRows implements ChunkHandler<EventRows.EventRow> {
+
+    static final int DAY_START_HOUR = 9;
+    static final int DAY_END_HOUR = 18;
+
+    static final class EventRow extends ImportRow {
+        final String title;
+        final LocalDate start;
+        final int days;
+        final Integer cityId;
+
+        EventRow(int id, String title, LocalDate start, int days, Integer cityId) {
+            this.id = id;
+            this.title = title;
+            this.start = start;
+            this.days = days;
+            this.cityId = cityId;
+        }
+    }
+
+    private final References refs;
+    private final String directionName;
+    private Integer directionId;
+
+    EventRows(References refs, String directionName) {
+        this.refs = refs;
+        this.directionName = directionName;
+    }
+
+    @Override
+    public List<String> requiredColumns() {
+        return List.of("id", "title", "date");
+    }
+
+    @Override
+    public String key(CsvRow row) throws RowException {
+        return String.valueOf(RowValues.integer(RowValues.required(row, "id"), "id"));
+    }
+
+    @Override
+    public EventRow parse(CsvRow row) throws RowException, SQLException {
+        int id = RowValues.integer(RowValues.required(row, "id"), "id");
+        String title = RowValues.limited(RowValues.required(row, "title"), 512, "title");
+        LocalDate start = RowValues.date(RowValues.required(row, "date"), "date");
+        Integer days = RowValues.integer(row.get("days"), "days");
+        Integer cityId = RowValues.integer(row.get("city_id"), "city_id");
+        if (days == null) {
+            days = 1;
+        }
+        if (days < 1 || days > 366) {
+            throw new RowException("«days» вне диапазона 1–366: " + days);
+        }
+        if (cityId != null && !refs.hasCity(cityId)) {
+            throw new RowException("нет города с id " + cityId);
+        }
+        if (directionId == null) {
+            directionId = refs.direction(directionName);
+        }
+        return new EventRow(id, title, start, days, cityId);
+    }
+
+    @Override
+    public Integer existing(EventRow event) {
+        return refs.event(event.id) != null ? event.id : null;
+    }
+
+    @Override
+    public void insert(Connection c, List<EventRow> rows) throws SQLException {
+        String sql = """
+            INSERT INTO event(title, start_datetime, end_datetime, city_id, id, direction_id)
+            VALUES(?,?,?,?,?,?)
+        """;
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (EventRow event : rows) {
+                bind(ps, event);
+                ps.setInt(6, directionId);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /** Вместе с датами мероприятия сдвигаются {@code start_at} / {@code end_at} его активностей, как в EventDao. */
+    @Override
+    public void update(Connection c, List<EventRow> rows) throws SQLException {
+        String sql = "UPDATE event SET title = ?, start_datetime = ?, end_datetime = ?, city_id = ? WHERE id = ?";
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (EventRow event : rows) {
+                bind(ps, event);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+
+        String shift = """
+            UPDATE activity a
+               JOIN event e ON e.id = a.event_id
+               SET a.start_at = TIMESTAMP(DATE(e.start_datetime) + INTERVAL (a.day_num-1) DAY, a.start_time),
+                   a.end_at   = TIMESTAMP(DATE(e.start_datetime) + INTERVAL (a.day_num-1) DAY, a.end_time)
+             WHERE a.event_id = ?
+        """;
+        try (PreparedStatement ps = c.prepareStatement(shift)) {
+            for (EventRow event : rows) {
+                ps.setInt(1, event.id);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    @Override
+    public void delete(Connection c, int id) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("DELETE FROM event WHERE id = ?")) {
+            ps.setInt(1, id);
+            ps.executeUpdate();
+        }
+    }
+
+    @Override
+    public void committed(List<EventRow> rows, boolean dryRun) {
+        for (EventRow event : rows) {
+            refs.addEvent(event.id, event.title, event.start, event.days);
+        }
+    }
+
+    private static void bind(PreparedStatement ps, EventRow event) throws SQLException {
+        ps.setString(1, event.title);
+        ps.setTimestamp(2, Timestamp.valueOf(event.start.atTime(DAY_START_HOUR, 0)));
+        ps.setTimestamp(3, Timestamp.valueOf(event.start.plusDays(event.days - 1L).atTime(DAY_END_HOUR, 0)));
+        if (event.cityId != null) {
+            ps.setInt(4, event.cityId);
+        } else {
+            ps.setNull(4, Types.INTEGER);
+        }
+        ps.setInt(5, event.id);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.conferenceapp.importer;
+
+/**
+ * Файлы каталога {@code data/} в порядке загрузки: каждый следующий
+ * ссылается на записи предыдущих (город — на страну, модератор — на
+ * мероприятие, активность — на модератора и жюри).
+ */
+public enum ImportFile {
+
+    COUNTRIES("countries.csv"),
+    CITIES("cities.csv"),
+    EVENTS("events.csv"),
+    ORGANIZERS("organizers.csv"),
+    PARTICIPANTS("participants.csv"),
+    JURY("jury.csv"),
+    MODERATORS("moderators.csv"),
+    ACTIVITIES("activities.csv");
+
+    private final String fileName;
+
+    ImportFile(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String fileName() {
+        return fileName;
+    }
+
+    /** Имя для {@code --only=}: {@code participants}, {@code jury} и т.д. */
+    public String key() {
+        return fileName.substring(0, fileName.length() - ".csv".length());
+    }
+
+    public static ImportFile byKey(String key) {
+        for (ImportFile file : values()) {
+            if (file.key().equalsIgnoreCase(key.strip())) {
+                return file;
+            }
+        }
+        throw new IllegalArgumentException("Unknown data file: " + key);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.conferenceapp.importer;
+
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Параметры загрузки.
+ *
+ * @param dryRun           только разобрать и проверить файлы, ничего не записывая
+ * @param chunkSize        строк в одной транзакции
+ * @param hashThreads      потоков для хэширования паролей и обработки фото
+ * @param photosDir        откуда брать файлы из колонки «фото»; {@code null} —
+ *                         сохранять значение колонки как есть
+ * @param defaultDirection направление для мероприятий: в {@code events.csv} его нет,
+ *                         а в схеме {@code event.direction_id} обязателен
+ * @param files            какие файлы загружать
+ * @param rescan           не доверять контрольным точкам: перечитать все файлы
+ *                         с начала (в БД всё равно пишутся только изменения)
+ */
+public record ImportOptions(boolean dryRun, int chunkSize, int hashThreads, Path photosDir,
+                            String defaultDirection, Set<ImportFile> files, boolean rescan) {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1_000;
+    public static final String DEFAULT_DIRECTION = "Без направления";
+
+    public ImportOptions {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        if (hashThreads <= 0) {
+            throw new IllegalArgumentException("hashThreads must be positive: " + hashThreads);
+        }
+        if (defaultDirection == null || defaultDirection.isBlank()) {
+            defaultDirection = DEFAULT_DIRECTION;
+        }
+        files = files == null || files.isEmpty() ? EnumSet.allOf(ImportFile.class) : EnumSet.copyOf(files);
+    }
+
+    public static ImportOptions defaults() {
+        return new ImportOptions(false, DEFAULT_CHUNK_SIZE, Runtime.getRuntime().availableProcessors(),
+                null, DEFAULT_DIRECTION, null, false);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.conferenceapp.importer;
+
+/**
+ * Ход загрузки одного файла. Вызывается из потока импорта не чаще раза
+ * в секунду и ещё раз по окончании файла.
+ */
+@FunctionalInterface
+public interface ImportProgress {
+
+    ImportProgress NONE = (file, rows, rowsPerSecond, finished) -> { };
+
+    /**
+     * @param rows          сколько строк файла уже разобрано
+     * @param rowsPerSecond средняя скорость с начала файла
+     * @param finished      файл дочитан до конца
+     */
+    void update(ImportFile file, long rows, double rowsPerSecond, boolean finished);
+}
@@ -0,0 +1,153 @@
+package com.example.conferenceapp.importer;
+
+import com.example.conferenceapp.service.ScheduleConflictService.Booking;
+import com.example.conferenceapp.service.ScheduleConflictService.Role;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Итог загрузки: счётчики по файлам, ошибки строк и пересечения
+ * в расписании загруженной программы. Хранится не больше
+ * {@value #MAX_ERRORS} ошибок — при испорченном файле их могут быть
+ * десятки тысяч, общее число всё равно считается.
+ */
+public final class ImportReport {
+
+    static final int MAX_ERRORS = 1_000;
+
+    /** Строка, которую не удалось загрузить. {@code line == 0} — ошибка файла целиком. */
+    public record RowError(ImportFile file, int line, String message) {
+
+        @Override
+        public String toString() {
+            return line > 0 ? file.fileName() + ":" + line + ": " + message : file.fileName() + ": " + message;
+        }
+    }
+
+    /**
+     * Модератор или член жюри занят на двух активностях одновременно;
+     * {@code first} начинается не позже {@code second}.
+     */
+    public record Overlap(int personId, String personName, Booking first, Booking second) {
+
+        private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+        private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+
+        /** Обе активности, без ФИО, — для отчёта, сгруппированного по людям. */
+        public String activities() {
+            return describe(first) + " и " + describe(second);
+        }
+
+        private static String describe(Booking booking) {
+            return "«" + booking.activityTitle() + "» (" + booking.eventTitle() + ", "
+                    + (booking.role() == Role.MODERATOR ? "модератор" : "жюри") + ", "
+                    + DAY.format(booking.start()) + "–" + TIME.format(booking.end()) + ")";
+        }
+
+        @Override
+        public String toString() {
+            return personName + ": " + activities();
+        }
+    }
+
+    /**
+     * @param read      записей в файле, дочитанных в этот раз
+     * @param inserted  новых записей (при проверке без записи — было бы вставлено)
+     * @param updated   записей, чья строка изменилась с прошлой загрузки
+     * @param deleted   записей, чьих строк в файле больше нет
+     * @param unchanged строк без изменений — в БД не записывались
+     * @param failed    отклонены проверкой, откатились вместе с пакетом или не удалились
+     */
+    public record FileStats(ImportFile file, long read, long inserted, long updated, long deleted,
+                            long unchanged, long failed, long elapsedMs) {
+
+        public long changed() {
+            return inserted + updated + deleted;
+        }
+
+        public double rowsPerSecond() {
+            return elapsedMs > 0 ? read * 1000.0 / elapsedMs : read;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-17s %7d read, %6d new, %6d changed, %6d deleted, %7d unchanged, %6d failed, "
+                            + "%6.1f s, %8.0f rows/s",
+                    file.fileName(), read, inserted, updated, deleted, unchanged, failed,
+                    elapsedMs / 1000.0, rowsPerSecond());
+        }
+    }
+
+    private final boolean dryRun;
+    private final List<FileStats> files = new ArrayList<>();
+    private final List<RowError> errors = new ArrayList<>();
+    private final List<Overlap> overlaps = new ArrayList<>();
+    private long errorCount;
+
+    ImportReport(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    public boolean dryRun() {
+        return dryRun;
+    }
+
+    public synchronized List<FileStats> files() {
+        return List.copyOf(files);
+    }
+
+    /** Первые {@value #MAX_ERRORS} ошибок в порядке появления. */
+    public synchronized List<RowError> errors() {
+        return Collections.unmodifiableList(new ArrayList<>(errors));
+    }
+
+    public synchronized long errorCount() {
+        return errorCount;
+    }
+
+    public synchronized boolean hasErrors() {
+        return errorCount > 0;
+    }
+
+    /** Пересечения, отсортированные по человеку и времени. */
+    public synchronized List<Overlap> overlaps() {
+        return List.copyOf(overlaps);
+    }
+
+    /** Сколько записей файла вставлено, обновлено или удалено. */
+    public synchronized long changed(ImportFile file) {
+        return files.stream().filter(s -> s.file() == file).mapToLong(FileStats::changed).sum();
+    }
+
+    synchronized void error(ImportFile file, int line, String message) {
+        errorCount++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(file, line, message));
+        }
+    }
+
+    synchronized void add(FileStats stats) {
+        files.add(stats);
+    }
+
+    synchronized void addOverlaps(List<Overlap> found) {
+        overlaps.addAll(found);
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder(dryRun ? "Проверка без записи:" : "Загрузка:");
+        files.forEach(stats -> sb.append(System.lineSeparator()).append("  ").append(stats));
+        sb.append(System.lineSeparator()).append("  ошибок: ").append(errorCount);
+        if (errorCount > errors.size()) {
+            sb.append(" (показаны первые ").append(errors.size()).append(')');
+        }
+        if (!overlaps.isEmpty()) {
+            sb.append(System.lineSeparator()).append("  пересечений в расписании: ").append(overlaps.size());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.conferenceapp.importer;
+
+/** Разобранная строка CSV. */
+abstract class ImportRow {
+
+    /** Запись БД, которую строка создала или обновляет. */
+    int id;
+}
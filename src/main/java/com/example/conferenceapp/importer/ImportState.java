@@ -0,0 +1,145 @@
+package com.example.conferenceapp.importer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Таблицы {@code import_checkpoint} и {@code import_row} (миграция V4):
+ * докуда дочитан файл и из какой строки создана какая запись. Пишутся в
+ * транзакции пакета строк, поэтому совпадают с тем, что реально записано.
+ */
+final class ImportState {
+
+    static final String RUNNING = "RUNNING";
+    static final String DONE = "DONE";
+
+    /** Размер и время изменения файла: по ним видно, что файл с прошлой загрузки не трогали. */
+    record Stamp(long size, long modified) {
+
+        static Stamp of(Path file) throws IOException {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            return new Stamp(attrs.size(), attrs.lastModifiedTime().toMillis());
+        }
+    }
+
+    record Checkpoint(String status, Stamp stamp, CsvReader.Position position,
+                      long lastRowOffset, String lastRowHash) {
+
+        boolean done() {
+            return DONE.equals(status);
+        }
+    }
+
+    /** Что было загружено из строки с данным ключом. */
+    record Known(String naturalKey, String rowHash, int targetId) {
+    }
+
+    record Entry(String keyHash, String naturalKey, String rowHash, int targetId) {
+    }
+
+    private ImportState() {
+    }
+
+    static Checkpoint checkpoint(Connection c, ImportFile file) throws SQLException {
+        String sql = """
+            SELECT status, file_size, file_modified, byte_offset, line_no, last_row_offset, last_row_hash
+              FROM import_checkpoint
+             WHERE file_name = ?
+        """;
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, file.fileName());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                return new Checkpoint(rs.getString(1), new Stamp(rs.getLong(2), rs.getLong(3)),
+                        new CsvReader.Position(rs.getLong(4), rs.getInt(5)), rs.getLong(6), rs.getString(7));
+            }
+        }
+    }
+
+    static void saveCheckpoint(Connection c, ImportFile file, String status, Stamp stamp,
+                               CsvReader.Position position, long lastRowOffset, String lastRowHash,
+                               long rowsDone) throws SQLException {
+        String sql = """
+            INSERT INTO import_checkpoint(file_name, status, file_size, file_modified, byte_offset, line_no,
+                                          last_row_offset, last_row_hash, rows_done)
+            VALUES(?,?,?,?,?,?,?,?,?)
+            ON DUPLICATE KEY UPDATE status = VALUES(status), file_size = VALUES(file_size),
+                                    file_modified = VALUES(file_modified), byte_offset = VALUES(byte_offset),
+                                    line_no = VALUES(line_no), last_row_offset = VALUES(last_row_offset),
+                                    last_row_hash = VALUES(last_row_hash), rows_done = VALUES(rows_done)
+        """;
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, file.fileName());
+            ps.setString(2, status);
+            ps.setLong(3, stamp.size());
+            ps.setLong(4, stamp.modified());
+            ps.setLong(5, position.offset());
+            ps.setInt(6, position.line());
+            if (lastRowHash != null) {
+                ps.setLong(7, lastRowOffset);
+                ps.setString(8, lastRowHash);
+            } else {
+                ps.setNull(7, Types.BIGINT);
+                ps.setNull(8, Types.CHAR);
+            }
+            ps.setLong(9, rowsDone);
+            ps.executeUpdate();
+        }
+    }
+
+    /** Ключ строки → что из неё загружено. Хэши ключей, чтобы в памяти и в индексе были строки одной длины. */
+    static Map<String, Known> rows(Connection c, ImportFile file) throws SQLException {
+        Map<String, Known> rows = new HashMap<>();
+        String sql = "SELECT key_hash, natural_key, row_hash, target_id FROM import_row WHERE file_name = ?";
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, file.fileName());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.put(rs.getString(1), new Known(rs.getString(2), rs.getString(3), rs.getInt(4)));
+                }
+            }
+        }
+        return rows;
+    }
+
+    static void saveRows(Connection c, ImportFile file, List<Entry> entries) throws SQLException {
+        String sql = """
+            INSERT INTO import_row(file_name, key_hash, natural_key, row_hash, target_id)
+            VALUES(?,?,?,?,?)
+            ON DUPLICATE KEY UPDATE natural_key = VALUES(natural_key), row_hash = VALUES(row_hash),
+                                    target_id = VALUES(target_id)
+        """;
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (Entry entry : entries) {
+                ps.setString(1, file.fileName());
+                ps.setString(2, entry.keyHash());
+                ps.setString(3, entry.naturalKey().length() > 512
+                        ? entry.naturalKey().substring(0, 512) : entry.naturalKey());
+                ps.setString(4, entry.rowHash());
+                ps.setInt(5, entry.targetId());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    static void deleteRow(Connection c, ImportFile file, String keyHash) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("DELETE FROM import_row WHERE file_name = ? AND key_hash = ?")) {
+            ps.setString(1, file.fileName());
+            ps.setString(2, keyHash);
+            ps.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.conferenceapp.importer;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+/** Сгенерированные ключи пакетного INSERT — по порядку строк пакета. */
+final class Keys {
+
+    private Keys() {
+    }
+
+    static <T> void assign(PreparedStatement ps, List<T> rows, ObjIntConsumer<T> setter) throws SQLException {
+        int i = 0;
+        try (ResultSet rs = ps.getGeneratedKeys()) {
+            while (rs.next() && i < rows.size()) {
+                setter.accept(rows.get(i++), rs.getInt(1));
+            }
+        }
+        if (i != rows.size()) {
+            throw new SQLException("Expected " + rows.size() + " generated keys, got " + i);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.conferenceapp.importer;
+
+import com.example.conferenceapp.service.MediaStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * {@code organizers.csv}, {@code participants.csv}, {@code jury.csv} и
+ * {@code moderators.csv}: «ФИО;пол;почта;дата рождения;страна;телефон;
+ * направление;мероприятие;пароль;фото» — набор и порядок колонок в файлах
+ * разный, значения берутся по заголовку.
+ * <p>
+ * Пароль хэшируется так же, как {@code SHA2(?,256)} при регистрации, но
+ * на стадии подготовки, параллельно для всего пакета. Фото, если задан
+ * {@link ImportOptions#photosDir()}, кладётся в {@link MediaStore} там же.
+ * <p>
+ * Ключ строки — почта, а если её нет — ФИО. Пользователь с той же почтой,
+ * заведённый не загрузкой, обновляется, а не дублируется; номер
+ * {@code id_number} и роль при обновлении не меняются.
+ */
+final class PersonRows implements ChunkHandler<PersonRows.Person> {
+
+    static final class Person extends ImportRow {
+        final String fullName;
+        final String gender;
+        final String email;
+        final LocalDate birthDate;
+        final Integer countryId;
+        final String phone;
+        final Integer directionId;
+        final Integer eventId;
+        String password;
+        String passwordHash;
+        String photo;
+        String idNumber;
+
+        Person(String fullName, String gender, String email, LocalDate birthDate, Integer countryId,
+               String phone, Integer directionId, Integer eventId, String password, String photo) {
+            this.fullName = fullName;
+            this.gender = gender;
+            this.email = email;
+            this.birthDate = birthDate;
+            this.countryId = countryId;
+            this.phone = phone;
+            this.directionId = directionId;
+            this.eventId = eventId;
+            this.password = password;
+            this.photo = photo;
+        }
+    }
+
+    private final References refs;
+    private final String roleCode;
+    private final String idPrefix;
+    private final Path photosDir;
+
+    PersonRows(References refs, ImportFile file, Path photosDir) {
+        this.refs = refs;
+        this.photosDir = photosDir;
+        switch (file) {
+            case ORGANIZERS -> { roleCode = "organizer"; idPrefix = "OR-"; }
+            case PARTICIPANTS -> { roleCode = "participant"; idPrefix = "PT-"; }
+            case JURY -> { roleCode = "jury"; idPrefix = "JR-"; }
+            case MODERATORS -> { roleCode = "moderator"; idPrefix = "MD-"; }
+            default -> throw new IllegalArgumentException("Not a people file: " + file);
+        }
+    }
+
+    @Override
+    public List<String> requiredColumns() {
+        return List.of("ФИО", "пароль");
+    }
+
+    @Override
+    public String key(CsvRow row) throws RowException {
+        String email = row.get("почта");
+        return email != null
+                ? "email:" + References.emailKey(email)
+                : "name:" + RowValues.nameKey(RowValues.required(row, "ФИО"));
+    }
+
+    @Override
+    public Person parse(CsvRow row) throws RowException, SQLException {
+        if (refs.role(roleCode) == null) {
+            throw new RowException("в справочнике ролей нет «" + roleCode + "»");
+        }
+        String fullName = RowValues.limited(RowValues.required(row, "ФИО").replaceAll("\\s+", " "), 255, "ФИО");
+        String password = RowValues.required(row, "пароль");
+        String gender = RowValues.gender(row.get("пол"));
+        String email = RowValues.limited(row.get("почта"), 255, "почта");
+        LocalDate birthDate = RowValues.date(row.get("дата рождения"), "дата рождения");
+        String phone = RowValues.limited(row.get("телефон"), 64, "телефон");
+        String photo = row.get("фото");
+        if (photosDir == null) {
+            RowValues.limited(photo, 128, "фото");
+        }
+
+        Integer countryId = null;
+        String country = row.get("страна");
+        if (country != null) {
+            countryId = refs.country(country);
+            if (countryId == null) {
+                throw new RowException("неизвестная страна «" + country + "»");
+            }
+        }
+
+        Integer eventId = null;
+        String event = "moderator".equals(roleCode) ? row.get("мероприятие") : null;
+        if (event != null) {
+            eventId = refs.eventByIdOrTitle(event);
+            if (eventId == null) {
+                throw new RowException("неизвестное мероприятие «" + event + "»");
+            }
+            if (eventId == References.AMBIGUOUS) {
+                throw new RowException("несколько мероприятий с названием «" + event + "» — укажите id");
+            }
+        }
+
+        String direction = row.get("направление");
+        Integer directionId = direction != null ? refs.direction(direction) : null;
+        return new Person(fullName, gender, email, birthDate, countryId, phone,
+                directionId, eventId, password, photo);
+    }
+
+    @Override
+    public void prepare(Person person, boolean dryRun) throws RowException {
+        person.passwordHash = RowValues.sha256Hex(person.password);
+        person.password = null;
+
+        if (person.photo == null || photosDir == null || MediaStore.isKey(person.photo)) {
+            return;
+        }
+        Path file;
+        try {
+            file = photosDir.resolve(person.photo);
+        } catch (InvalidPathException ex) {
+            throw new RowException("«фото»: недопустимое имя файла — " + person.photo);
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new RowException("«фото»: нет файла " + file);
+        }
+        if (dryRun) {
+            return;
+        }
+        try {
+            person.photo = MediaStore.getInstance().ingest(file);
+        } catch (IOException ex) {
+            throw new RowException("«фото»: " + person.photo + " — " + ex.getMessage());
+        }
+    }
+
+    @Override
+    public Integer existing(Person person) {
+        return person.email != null ? refs.userByEmail(person.email) : null;
+    }
+
+    @Override
+    public void insert(Connection c, List<Person> rows) throws SQLException {
+        for (Person person : rows) {
+            person.idNumber = refs.nextIdNumber(idPrefix);
+        }
+
+        String sql = """
+            INSERT INTO user(full_name, gender, birth_date, direction_id, country_id, email, phone,
+                             password_hash, photo, id_number, role_id)
+            VALUES(?,?,?,?,?,?,?,?,?,?,?)
+        """;
+        try (PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (Person person : rows) {
+                bind(ps, person);
+                ps.setString(10, person.idNumber);
+                ps.setInt(11, refs.role(roleCode));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            Keys.assign(ps, rows, (person, id) -> person.id = id);
+        }
+        assignEvents(c, rows);
+    }
+
+    @Override
+    public void update(Connection c, List<Person> rows) throws SQLException {
+        String sql = """
+            UPDATE user
+               SET full_name = ?, gender = ?, birth_date = ?, direction_id = ?, country_id = ?,
+                   email = ?, phone = ?, password_hash = ?, photo = ?
+             WHERE id = ?
+        """;
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (Person person : rows) {
+                bind(ps, person);
+                ps.setInt(10, person.id);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        assignEvents(c, rows);
+    }
+
+    /** Связи с мероприятиями удаляются вместе с пользователем; на остальное (активности, заявки) — ошибка FK. */
+    @Override
+    public void delete(Connection c, int id) throws SQLException {
+        for (String sql : List.of("DELETE FROM moderator_assignment WHERE user_id = ?",
+                                  "DELETE FROM participant_event WHERE participant_id = ?",
+                                  "DELETE FROM user WHERE id = ?")) {
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                ps.setInt(1, id);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    @Override
+    public void committed(List<Person> rows, boolean dryRun) {
+        for (Person person : rows) {
+            int id = dryRun && person.id == 0 ? refs.simulatedId() : person.id;
+            refs.addPerson(roleCode, person.fullName, id);
+            if (person.email != null) {
+                refs.addEmail(person.email, id);
+            }
+        }
+    }
+
+    private void assignEvents(Connection c, List<Person> rows) throws SQLException {
+        if (rows.stream().noneMatch(person -> person.eventId != null)) {
+            return;
+        }
+        String sql = "INSERT IGNORE INTO moderator_assignment(user_id, event_id) VALUES(?,?)";
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (Person person : rows) {
+                if (person.eventId != null) {
+                    ps.setInt(1, person.id);
+                    ps.setInt(2, person.eventId);
+                    ps.addBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static void bind(PreparedStatement ps, Person person) throws SQLException {
+        ps.setString(1, person.fullName);
+        ps.setString(2, person.gender);
+        if (person.birthDate != null) {
+            ps.setDate(3, Date.valueOf(person.birthDate));
+        } else {
+            ps.setNull(3, Types.DATE);
+        }
+        setInteger(ps, 4, person.directionId);
+        setInteger(ps, 5, person.countryId);
+        ps.setString(6, person.email);
+        ps.setString(7, person.phone);
+        ps.setString(8, person.passwordHash);
+        ps.setString(9, person.photo);
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+}
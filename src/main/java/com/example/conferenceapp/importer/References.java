@@ -0,0 +1,256 @@
+package com.example.conferenceapp.importer;
+
+import com.example.conferenceapp.dao.ReferenceDao;
+import com.example.conferenceapp.db.DataSourceProfile;
+import com.example.conferenceapp.service.IdNumberSequence;
+import com.example.conferenceapp.util.DBUtil;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Справочники, по которым разрешаются ссылки в CSV: страны и направления
+ * по названию, мероприятия по id, модераторы и жюри по ФИО. Читаются из БД
+ * один раз в начале загрузки и пополняются записями, которые загрузка
+ * добавила, — отдельных запросов на строку нет.
+ * <p>
+ * При проверке без записи новые записи получают временные отрицательные id,
+ * чтобы ссылки между файлами проверялись так же, как при настоящей загрузке.
+ */
+final class References {
+
+    /** Значение в картах имён: под этим ФИО или названием больше одной записи. */
+    static final int AMBIGUOUS = Integer.MIN_VALUE;
+
+    /** Роли, на которых ссылаются по ФИО (модератор и жюри активности). */
+    private static final Set<String> NAMED_ROLES = Set.of("moderator", "jury");
+
+    record EventInfo(String title, LocalDate start, int days) {
+    }
+
+    private final boolean dryRun;
+    private final Map<String, Integer> countries = new HashMap<>();
+    private final Map<String, Integer> directions = new HashMap<>();
+    private final Set<Integer> cities = new HashSet<>();
+    private final Map<Integer, EventInfo> events = new HashMap<>();
+    private final Map<String, Integer> eventsByTitle = new HashMap<>();
+    private final Map<String, Map<String, Integer>> people = new HashMap<>();
+    private final Map<Integer, String> personNames = new HashMap<>();
+    private final Map<String, Integer> usersByEmail = new HashMap<>();
+    private final Map<String, Integer> activities = new HashMap<>();
+    private final Map<String, Integer> roles = new HashMap<>();
+    private Integer defaultCountry;
+    private int simulatedId;
+
+    private References(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    static References load(Connection c, boolean dryRun, boolean withActivities) throws SQLException {
+        References refs = new References(dryRun);
+        try (Statement st = c.createStatement()) {
+            try (ResultSet rs = st.executeQuery("SELECT id, code FROM role")) {
+                while (rs.next()) {
+                    refs.roles.put(rs.getString(2), rs.getInt(1));
+                }
+            }
+            try (ResultSet rs = st.executeQuery("SELECT id, name_ru, name_en FROM country ORDER BY id")) {
+                while (rs.next()) {
+                    refs.addCountry(rs.getInt(1), rs.getString(2), rs.getString(3));
+                }
+            }
+            try (ResultSet rs = st.executeQuery("SELECT id, name FROM direction")) {
+                while (rs.next()) {
+                    refs.directions.put(RowValues.nameKey(rs.getString(2)), rs.getInt(1));
+                }
+            }
+            try (ResultSet rs = st.executeQuery("SELECT id FROM city")) {
+                while (rs.next()) {
+                    refs.cities.add(rs.getInt(1));
+                }
+            }
+            try (ResultSet rs = st.executeQuery("SELECT id, title, start_datetime, end_datetime FROM event")) {
+                while (rs.next()) {
+                    LocalDate start = rs.getTimestamp(3).toLocalDateTime().toLocalDate();
+                    LocalDate end = rs.getTimestamp(4).toLocalDateTime().toLocalDate();
+                    refs.addEvent(rs.getInt(1), rs.getString(2), start,
+                            (int) ChronoUnit.DAYS.between(start, end) + 1);
+                }
+            }
+            try (ResultSet rs = st.executeQuery("""
+                    SELECT u.id, u.full_name, u.email, r.code
+                      FROM user u
+                      JOIN role r ON r.id = u.role_id
+                 """)) {
+                while (rs.next()) {
+                    if (rs.getString(2) != null) {
+                        refs.addPerson(rs.getString(4), rs.getString(2), rs.getInt(1));
+                    }
+                    if (rs.getString(3) != null) {
+                        refs.addEmail(rs.getString(3), rs.getInt(1));
+                    }
+                }
+            }
+            if (withActivities) {
+                try (ResultSet rs = st.executeQuery("SELECT id, event_id, day_num, start_time, title FROM activity")) {
+                    while (rs.next()) {
+                        refs.activities.put(activityKey(rs.getInt(2), rs.getInt(3),
+                                rs.getTime(4) != null ? rs.getTime(4).toLocalTime() : null, rs.getString(5)),
+                                rs.getInt(1));
+                    }
+                }
+            }
+        }
+        return refs;
+    }
+
+    /** Временный id для записи, которая при проверке без записи «как бы» вставлена. */
+    int simulatedId() {
+        return --simulatedId;
+    }
+
+    /* ---------- страны и города ---------- */
+
+    Integer country(String name) {
+        return countries.get(RowValues.nameKey(name));
+    }
+
+    /** Страна по умолчанию для городов без страны — как в {@link ReferenceDao#ensureCity}. */
+    Integer defaultCountry() {
+        return defaultCountry;
+    }
+
+    void addCountry(int id, String nameRu, String nameEn) {
+        countries.putIfAbsent(RowValues.nameKey(nameRu), id);
+        if (nameEn != null && !nameEn.isBlank()) {
+            countries.putIfAbsent(RowValues.nameKey(nameEn), id);
+        }
+        if (defaultCountry == null) {
+            defaultCountry = id;
+        }
+    }
+
+    boolean hasCity(int id) {
+        return cities.contains(id);
+    }
+
+    void addCity(int id) {
+        cities.add(id);
+    }
+
+    /**
+     * Направление по названию; отсутствующее создаётся отдельной короткой
+     * транзакцией, чтобы откат пакета строк не оставил в кэше чужой id.
+     */
+    int direction(String name) throws SQLException {
+        String key = RowValues.nameKey(name);
+        Integer id = directions.get(key);
+        if (id != null) {
+            return id;
+        }
+        if (dryRun) {
+            id = simulatedId();
+        } else {
+            try (Connection c = DBUtil.getConnection(DataSourceProfile.BULK_IMPORT)) {
+                c.setAutoCommit(true);
+                id = new ReferenceDao().ensureDirection(c, name.strip());
+            }
+        }
+        directions.put(key, id);
+        return id;
+    }
+
+    /* ---------- мероприятия и активности ---------- */
+
+    EventInfo event(int id) {
+        return events.get(id);
+    }
+
+    /** Мероприятие по id или, если значение не число, по точному названию. */
+    Integer eventByIdOrTitle(String value) {
+        try {
+            int id = Integer.parseInt(value.strip());
+            return events.containsKey(id) ? id : null;
+        } catch (NumberFormatException ex) {
+            return eventsByTitle.get(RowValues.nameKey(value));
+        }
+    }
+
+    void addEvent(int id, String title, LocalDate start, int days) {
+        events.put(id, new EventInfo(title, start, days));
+        eventsByTitle.merge(RowValues.nameKey(title), id, (a, b) -> a.equals(b) ? a : AMBIGUOUS);
+    }
+
+    /** Активность с ключом {@link #activityKey}, которая есть в БД. */
+    Integer activity(String key) {
+        return activities.get(key);
+    }
+
+    void addActivity(String key, int id) {
+        activities.put(key, id);
+    }
+
+    /** Естественный ключ активности: мероприятие, день, начало и название. */
+    static String activityKey(int eventId, int dayNum, LocalTime start, String title) {
+        return eventId + "|" + dayNum + "|" + start + "|" + RowValues.nameKey(title);
+    }
+
+    /* ---------- люди ---------- */
+
+    /** id роли по коду; {@code null}, если справочник ролей не заполнен. */
+    Integer role(String roleCode) {
+        return roles.get(roleCode);
+    }
+
+    /** id пользователя роли {@code roleCode} по ФИО, {@link #AMBIGUOUS} или {@code null}. */
+    Integer person(String roleCode, String fullName) {
+        Map<String, Integer> byName = people.get(roleCode);
+        return byName != null ? byName.get(RowValues.nameKey(fullName)) : null;
+    }
+
+    void addPerson(String roleCode, String fullName, int id) {
+        if (!NAMED_ROLES.contains(roleCode)) {
+            return;
+        }
+        people.computeIfAbsent(roleCode, r -> new HashMap<>())
+              .merge(RowValues.nameKey(fullName), id, (a, b) -> a.equals(b) ? a : AMBIGUOUS);
+        personNames.put(id, fullName.strip());
+    }
+
+    /** ФИО модератора или члена жюри по id — для отчёта о пересечениях. */
+    String personName(int id) {
+        return personNames.getOrDefault(id, "#" + id);
+    }
+
+    /** Пользователь с такой почтой (регистр не важен). */
+    Integer userByEmail(String email) {
+        return usersByEmail.get(emailKey(email));
+    }
+
+    void addEmail(String email, int id) {
+        usersByEmail.putIfAbsent(emailKey(email), id);
+    }
+
+    static String emailKey(String email) {
+        return email.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Следующий номер вида {@code PT-000123} из {@link IdNumberSequence}:
+     * номера не пересекаются с регистрацией через приложение, которая может
+     * идти во время загрузки.
+     */
+    String nextIdNumber(String prefix) throws SQLException {
+        return IdNumberSequence.getInstance().next(prefix);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.conferenceapp.importer;
+
+/** Строка CSV не прошла проверку; сообщение попадает в отчёт как есть. */
+final class RowException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    RowException(String message) {
+        super(message, null, false, false);
+    }
+}
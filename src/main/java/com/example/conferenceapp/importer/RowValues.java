@@ -0,0 +1,113 @@
+package com.example.conferenceapp.importer;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+/** Разбор значений колонок: даты в русском и ISO-формате, пол, числа, пароли. */
+final class RowValues {
+
+    private static final List<DateTimeFormatter> DATES = List.of(
+            DateTimeFormatter.ofPattern("d.M.uuuu"),
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("d/M/uuuu"));
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("H:mm[:ss]");
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private RowValues() {
+    }
+
+    static String required(CsvRow row, String column) throws RowException {
+        String value = row.get(column);
+        if (value == null) {
+            throw new RowException("не заполнено «" + column + "»");
+        }
+        return value;
+    }
+
+    static String limited(String value, int maxLength, String column) throws RowException {
+        if (value != null && value.length() > maxLength) {
+            throw new RowException("«" + column + "» длиннее " + maxLength + " символов");
+        }
+        return value;
+    }
+
+    static Integer integer(String value, String column) throws RowException {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.strip());
+        } catch (NumberFormatException ex) {
+            throw new RowException("«" + column + "»: не число — " + value);
+        }
+    }
+
+    /** {@code 05.03.1990}, {@code 1990-03-05}; время после даты ({@code 05.03.2024 10:00}) отбрасывается. */
+    static LocalDate date(String value, String column) throws RowException {
+        if (value == null) {
+            return null;
+        }
+        String datePart = value.strip().split("[ T]", 2)[0];
+        for (DateTimeFormatter format : DATES) {
+            try {
+                return LocalDate.parse(datePart, format);
+            } catch (DateTimeParseException ignored) {
+                // пробуем следующий формат
+            }
+        }
+        throw new RowException("«" + column + "»: не дата — " + value);
+    }
+
+    static LocalTime time(String value, String column) throws RowException {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalTime.parse(value.strip().replace('.', ':'), TIME);
+        } catch (DateTimeParseException ex) {
+            throw new RowException("«" + column + "»: не время — " + value);
+        }
+    }
+
+    /** Значение для {@code user.gender}: {@code male} / {@code female}. */
+    static String gender(String value) throws RowException {
+        if (value == null) {
+            return null;
+        }
+        String v = value.strip().toLowerCase(Locale.ROOT);
+        if (v.startsWith("м") || v.equals("male") || v.equals("m")) {
+            return "male";
+        }
+        if (v.startsWith("ж") || v.equals("female") || v.equals("f")) {
+            return "female";
+        }
+        throw new RowException("«пол»: неизвестное значение — " + value);
+    }
+
+    /** Как {@code SHA2(?,256)} в MySQL: SHA-256 от UTF-8, строчные hex-цифры. */
+    static String sha256Hex(String password) {
+        MessageDigest digest = SHA256.get();
+        digest.reset();
+        return HexFormat.of().formatHex(digest.digest(password.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /** Ключ для сравнения имён: регистр, лишние пробелы и «ё» не важны. */
+    static String nameKey(String name) {
+        return name.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.conferenceapp.importer;
+
+import com.example.conferenceapp.service.ScheduleConflictService;
+import com.example.conferenceapp.service.ScheduleConflictService.Booking;
+import com.example.conferenceapp.service.ScheduleConflictService.Role;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Пересечения в расписании всей загруженной программы за один проход.
+ * <p>
+ * {@link ScheduleConflictService} проверяет одну активность за раз, а после
+ * загрузки нужны все пересечения сразу. Поэтому занятость всех модераторов
+ * и членов жюри программы читается одним запросом (вместе с их активностями
+ * в других мероприятиях), сортируется по человеку и началу, и расписание
+ * каждого человека проходится один раз: активность сравнивается только
+ * с предыдущими, которые к её началу ещё не закончились.
+ * <p>
+ * В отчёт попадают пары, где хотя бы одна активность — из мероприятий
+ * {@code activities.csv}: старые пересечения в чужих мероприятиях не
+ * повторяются при каждой загрузке. При проверке без записи к занятости
+ * из БД добавляется та, что создала бы загрузка.
+ */
+final class ScheduleSweep {
+
+    /** Занятость человека на активности мероприятия {@code eventId}. */
+    record Slot(int personId, int eventId, Booking booking) {
+    }
+
+    private static final Comparator<Slot> ORDER = Comparator.comparingInt(Slot::personId)
+            .thenComparing(slot -> slot.booking().start())
+            .thenComparing(slot -> slot.booking().end());
+
+    private ScheduleSweep() {
+    }
+
+    /**
+     * @param eventIds мероприятия загруженной программы
+     * @param pending  занятость, ещё не записанная в БД (проверка без записи)
+     * @param replaced активности БД, чья занятость заменена на {@code pending}
+     */
+    static List<ImportReport.Overlap> run(Connection c, References refs, Set<Integer> eventIds,
+                                          List<Slot> pending, Set<Integer> replaced) throws SQLException {
+        if (eventIds.isEmpty()) {
+            return List.of();
+        }
+        Set<Integer> people = people(c, eventIds);
+        for (Slot slot : pending) {
+            if (slot.personId() > 0) {
+                people.add(slot.personId());
+            }
+        }
+
+        List<Slot> slots = new ArrayList<>(pending);
+        if (!people.isEmpty()) {
+            for (Slot slot : load(c, people)) {
+                if (!replaced.contains(slot.booking().activityId())) {
+                    slots.add(slot);
+                }
+            }
+        }
+        slots.sort(ORDER);
+        return sweep(slots, eventIds, refs);
+    }
+
+    private static List<ImportReport.Overlap> sweep(List<Slot> slots, Set<Integer> eventIds, References refs) {
+        List<ImportReport.Overlap> overlaps = new ArrayList<>();
+        List<Slot> open = new ArrayList<>();
+        int person = 0;
+        for (Slot slot : slots) {
+            if (open.isEmpty() || slot.personId() != person) {
+                open.clear();
+                person = slot.personId();
+            }
+            LocalDateTime start = slot.booking().start();
+            open.removeIf(earlier -> !earlier.booking().end().isAfter(start));
+            for (Slot earlier : open) {
+                // модератор и член жюри одной активности — не пересечение двух активностей
+                if (earlier.booking().activityId() == slot.booking().activityId()) {
+                    continue;
+                }
+                if (eventIds.contains(earlier.eventId()) || eventIds.contains(slot.eventId())) {
+                    overlaps.add(new ImportReport.Overlap(person, refs.personName(person),
+                            earlier.booking(), slot.booking()));
+                }
+            }
+            open.add(slot);
+        }
+        return overlaps;
+    }
+
+    /* ---------- SQL ---------- */
+
+    /** Модераторы и члены жюри активностей программы. */
+    private static Set<Integer> people(Connection c, Set<Integer> eventIds) throws SQLException {
+        String events = inList(eventIds);
+        String sql = """
+            SELECT a.moderator_id
+              FROM activity a
+             WHERE a.moderator_id IS NOT NULL
+               AND a.event_id IN (%s)
+            UNION
+            SELECT aj.jury_id
+              FROM activity_jury aj
+              JOIN activity a ON a.id = aj.activity_id
+             WHERE a.event_id IN (%s)
+        """.formatted(events, events);
+        Set<Integer> people = new HashSet<>();
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                people.add(rs.getInt(1));
+            }
+        }
+        return people;
+    }
+
+    /** Вся занятость этих людей — модераторство и жюри, в любых мероприятиях. */
+    private static List<Slot> load(Connection c, Set<Integer> people) throws SQLException {
+        String ids = inList(people);
+        String sql = """
+            SELECT b.person_id, b.role, a.id, a.title, a.event_id, e.title, a.start_at, a.end_at
+              FROM (SELECT id AS activity_id, moderator_id AS person_id, 'MODERATOR' AS role
+                      FROM activity
+                     WHERE moderator_id IN (%s)
+                    UNION ALL
+                    SELECT activity_id, jury_id, 'JURY'
+                      FROM activity_jury
+                     WHERE jury_id IN (%s)) b
+              JOIN activity a ON a.id = b.activity_id
+              JOIN event e    ON e.id = a.event_id
+             WHERE a.start_at IS NOT NULL
+               AND a.end_at IS NOT NULL
+        """.formatted(ids, ids);
+        List<Slot> slots = new ArrayList<>();
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                Booking booking = new Booking(rs.getInt(3), rs.getString(4), rs.getString(6),
+                        rs.getTimestamp(7).toLocalDateTime(), rs.getTimestamp(8).toLocalDateTime(),
+                        Role.valueOf(rs.getString(2)));
+                slots.add(new Slot(rs.getInt(1), rs.getInt(5), booking));
+            }
+        }
+        return slots;
+    }
+
+    /** id — целые числа из БД и файла, их можно подставить в текст запроса. */
+    private static String inList(Collection<Integer> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+}
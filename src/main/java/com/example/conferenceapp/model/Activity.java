@@ -18,6 +18,7 @@ public class Activity {
     private String moderatorName;
 
     private final List<String> jury = new ArrayList<>();
+    private final List<Integer> juryIds = new ArrayList<>();   // для сохранения новых активностей
     private final List<ActivityTask> tasks = new ArrayList<>();
     private LocalDate date;   // удобство для Kanban
 
@@ -44,6 +45,11 @@ public class Activity {
         return this;
     }
 
+    public Activity withJuryId(int juryId) {
+        this.juryIds.add(juryId);
+        return this;
+    }
+
     public Activity withTask(ActivityTask task) {
         this.tasks.add(task);
         return this;
@@ -85,6 +91,10 @@ public class Activity {
         return Collections.unmodifiableList(jury);
     }
 
+    public List<Integer> getJuryIds() {
+        return Collections.unmodifiableList(juryIds);
+    }
+
     public List<ActivityTask> getTasks() {
         return Collections.unmodifiableList(tasks);
     }
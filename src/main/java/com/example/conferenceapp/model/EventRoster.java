@@ -0,0 +1,20 @@
+package com.example.conferenceapp.model;
+
+/**
+ * Список участников мероприятия, общий для всех его активностей: при
+ * загрузке расписания читается только число участников, а сами имена —
+ * страницами, когда список показывают ({@code ActivityDao.findRosterPage}).
+ */
+public final class EventRoster {
+
+    private final int eventId;
+    private final int size;
+
+    public EventRoster(int eventId, int size) {
+        this.eventId = eventId;
+        this.size = size;
+    }
+
+    public int getEventId() { return eventId; }
+    public int getSize() { return size; }
+}
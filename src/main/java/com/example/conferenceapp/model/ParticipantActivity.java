@@ -1,10 +1,11 @@
 package com.example.conferenceapp.model;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 
+/**
+ * Активность в расписании участника — только то, что видно в списке;
+ * материалы и участники читаются при выборе активности.
+ */
 public class ParticipantActivity {
 
     private final int activityId;
@@ -13,8 +14,6 @@ public class ParticipantActivity {
     private final String eventTitle;
     private final LocalDateTime start;
     private final LocalDateTime end;
-    private final List<String> participants = new ArrayList<>();
-    private final List<ResourceItem> resources = new ArrayList<>();
 
     public ParticipantActivity(int activityId, int eventId, String activityTitle,
                                String eventTitle, LocalDateTime start, LocalDateTime end) {
@@ -32,21 +31,4 @@ public class ParticipantActivity {
     public String getEventTitle() { return eventTitle; }
     public LocalDateTime getStart() { return start; }
     public LocalDateTime getEnd() { return end; }
-
-    public List<String> getParticipants() { return Collections.unmodifiableList(participants); }
-    public List<ResourceItem> getResources() { return Collections.unmodifiableList(resources); }
-
-    public ParticipantActivity withParticipant(String participant) {
-        if (participant != null) {
-            participants.add(participant);
-        }
-        return this;
-    }
-
-    public ParticipantActivity withResource(ResourceItem resource) {
-        if (resource != null) {
-            resources.add(resource);
-        }
-        return this;
-    }
 }
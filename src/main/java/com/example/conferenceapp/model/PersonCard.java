@@ -1,5 +1,8 @@
 package com.example.conferenceapp.model;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public class PersonCard {
 
     private final int id;
@@ -10,11 +13,20 @@ public class PersonCard {
     private final String role;
     private final String direction;
     private final String eventTitle;
+    private final List<String> eventTitles;
     private final String photoPath;
+    private final LocalDateTime registeredAt;
 
     public PersonCard(int id, String idNumber, String fullName,
                       String email, String phone, String role,
                       String direction, String eventTitle, String photoPath) {
+        this(id, idNumber, fullName, email, phone, role, direction, eventTitle, photoPath, null);
+    }
+
+    public PersonCard(int id, String idNumber, String fullName,
+                      String email, String phone, String role,
+                      String direction, String eventTitle, String photoPath,
+                      LocalDateTime registeredAt) {
         this.id         = id;
         this.idNumber   = idNumber;
         this.fullName   = fullName;
@@ -23,7 +35,26 @@ public class PersonCard {
         this.role       = role;
         this.direction  = direction;
         this.eventTitle = eventTitle;
+        this.eventTitles = eventTitle == null ? List.of() : List.of(eventTitle);
         this.photoPath  = photoPath;
+        this.registeredAt = registeredAt;
+    }
+
+    /** Карточка жюри или модератора со всеми его мероприятиями. */
+    public PersonCard(int id, String idNumber, String fullName,
+                      String email, String phone, String role,
+                      String direction, List<String> eventTitles, String photoPath) {
+        this.id         = id;
+        this.idNumber   = idNumber;
+        this.fullName   = fullName;
+        this.email      = email;
+        this.phone      = phone;
+        this.role       = role;
+        this.direction  = direction;
+        this.eventTitles = List.copyOf(eventTitles);
+        this.eventTitle = eventTitles.isEmpty() ? null : String.join("; ", eventTitles);
+        this.photoPath  = photoPath;
+        this.registeredAt = null;
     }
 
     public int getId() {
@@ -54,11 +85,22 @@ public class PersonCard {
         return direction;
     }
 
+    /** Мероприятие; у жюри и модераторов — все их мероприятия через «; ». */
     public String getEventTitle() {
         return eventTitle;
     }
 
+    /** Мероприятия по отдельности; пустой список, если их нет. */
+    public List<String> getEventTitles() {
+        return eventTitles;
+    }
+
     public String getPhotoPath() {
         return photoPath;
     }
+
+    /** Когда пользователь зарегистрирован; {@code null}, если запрос его не читал. */
+    public LocalDateTime getRegisteredAt() {
+        return registeredAt;
+    }
 }
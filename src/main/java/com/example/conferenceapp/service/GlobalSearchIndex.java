@@ -0,0 +1,461 @@
+package com.example.conferenceapp.service;
+
+import com.example.conferenceapp.db.DataSourceProfile;
+import com.example.conferenceapp.util.DBUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Общий поиск главного экрана: мероприятия (название и описание),
+ * активности, задачи активностей, материалы и люди.
+ * <p>
+ * Индекс — инвертированный, в памяти: слова текста приводятся
+ * {@link RussianTokenizer} к основам, для каждой основы хранится
+ * отсортированный {@code int[]} документов, в младшем бите — «слово из
+ * названия». Сами документы — параллельные массивы, повторяющиеся строки
+ * (название мероприятия у всех его активностей) хранятся один раз;
+ * описания мероприятий только разбиваются на слова и в памяти не остаются.
+ * <p>
+ * Индекс состоит из сегментов. Полная сборка идёт в фоне при
+ * {@link #start()} и затем раз в {@value #REBUILD_MINUTES} минут; между
+ * ними {@link #refreshSoon()} (не чаще раза в {@value #REFRESH_SECONDS} с)
+ * дочитывает только строки с id больше уже прочитанных и добавляет их
+ * отдельным сегментом. Правки и удаления старых строк видны после
+ * ближайшей полной сборки.
+ * <p>
+ * Слово запроса совпадает с основой целиком или, от двух букв, с её
+ * началом; должны совпасть все слова. Выдача сгруппирована по типу
+ * ({@link Kind}), внутри — по весу совпадений и названию.
+ */
+public final class GlobalSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(GlobalSearchIndex.class);
+
+    private static final GlobalSearchIndex INSTANCE = new GlobalSearchIndex();
+
+    private static final int REBUILD_MINUTES = 10;
+    private static final int REFRESH_SECONDS = 30;
+    /** Сколько дочитанных сегментов терпим до внеочередной полной сборки. */
+    private static final int MAX_SEGMENTS = 8;
+    private static final int MIN_PREFIX = 2;
+
+    private static final int SCORE_EXACT = 3;
+    private static final int SCORE_PREFIX = 1;
+
+    /** Тип найденного; порядок констант — порядок групп в выдаче. */
+    public enum Kind {
+        EVENT("Мероприятие"),
+        ACTIVITY("Активность"),
+        PERSON("Пользователь"),
+        TASK("Задача"),
+        RESOURCE("Материал");
+
+        private final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    /**
+     * Строка, как она попадает в индекс.
+     *
+     * @param eventId мероприятие, к которому ведёт результат; 0 — никакое (люди)
+     * @param context что показать рядом с названием: дата, мероприятие, активность, роль
+     * @param text    дополнительный текст для поиска (описание мероприятия), может быть {@code null}
+     */
+    public record Document(Kind kind, int id, int eventId, String title, String context, String text) {
+    }
+
+    /** Найденное; {@code score} — сумма весов совпавших слов. */
+    public record Hit(Kind kind, int id, int eventId, String title, String context, int score) {
+    }
+
+    private final boolean fromDatabase;
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    private volatile List<Segment> segments = List.of();
+    private volatile int[] lastIds = new int[Kind.values().length];
+    private volatile long refreshedAt;
+    private ScheduledExecutorService executor;
+
+    /* рабочие массивы поиска, по ординалу сегмента; метка отличает текущий проход от прошлых */
+    private int[] queryMark = new int[0];
+    private int[] matched = new int[0];
+    private int[] total = new int[0];
+    private int[] tokenMark = new int[0];
+    private int[] tokenBest = new int[0];
+    private int mark;
+
+    private GlobalSearchIndex() {
+        this.fromDatabase = true;
+    }
+
+    private GlobalSearchIndex(Collection<Document> documents) {
+        this.fromDatabase = false;
+        SegmentBuilder builder = new SegmentBuilder();
+        documents.forEach(builder::add);
+        this.segments = List.of(builder.build());
+    }
+
+    public static GlobalSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /** Отдельный индекс по готовому списку, без БД, — для бенчмарка. */
+    public static GlobalSearchIndex of(Collection<Document> documents) {
+        return new GlobalSearchIndex(documents);
+    }
+
+    /* ---------- фоновое обновление ---------- */
+
+    /** Запускает фоновую полную сборку и её повтор по расписанию; повторный вызов ничего не делает. */
+    public synchronized void start() {
+        if (executor != null || !fromDatabase) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "search-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::rebuild, 0, REBUILD_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /** Дочитать новые строки, если с прошлого раза прошло больше {@value #REFRESH_SECONDS} с. */
+    public void refreshSoon() {
+        start();
+        if (executor == null
+                || System.currentTimeMillis() - refreshedAt < TimeUnit.SECONDS.toMillis(REFRESH_SECONDS)
+                || !refreshQueued.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            refreshQueued.set(false);
+            refresh();
+        });
+    }
+
+    /** Индекс хотя бы раз собран. */
+    public boolean isReady() {
+        return !segments.isEmpty();
+    }
+
+    private void rebuild() {
+        long started = System.nanoTime();
+        int[] fromIds = new int[Kind.values().length];
+        Segment segment = read(fromIds);
+        if (segment == null) {
+            return;
+        }
+        segments = List.of(segment);
+        lastIds = fromIds;
+        refreshedAt = System.currentTimeMillis();
+        log.debug("Search index built for {} documents, {} terms in {} ms",
+                segment.size, segment.terms.length, Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    private void refresh() {
+        if (segments.isEmpty()) {
+            return;                         // первая полная сборка ещё идёт
+        }
+        if (segments.size() >= MAX_SEGMENTS) {
+            rebuild();
+            return;
+        }
+        int[] fromIds = lastIds.clone();
+        Segment segment = read(fromIds);
+        if (segment == null) {
+            return;
+        }
+        if (segment.size > 0) {
+            List<Segment> grown = new ArrayList<>(segments);
+            grown.add(segment);
+            segments = List.copyOf(grown);
+            log.debug("Search index refreshed with {} new documents", segment.size);
+        }
+        lastIds = fromIds;
+        refreshedAt = System.currentTimeMillis();
+    }
+
+    /** Читает строки с id больше {@code fromIds[kind]} и сдвигает {@code fromIds} на прочитанные; {@code null} — ошибка. */
+    private Segment read(int[] fromIds) {
+        SegmentBuilder builder = new SegmentBuilder();
+        try (Connection c = DBUtil.getConnection(DataSourceProfile.REPORTING)) {
+            for (Kind kind : Kind.values()) {
+                try (PreparedStatement ps = c.prepareStatement(sql(kind))) {
+                    ps.setInt(1, fromIds[kind.ordinal()]);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            int id = rs.getInt(1);
+                            builder.add(new Document(kind, id, rs.getInt(2), rs.getString(3), rs.getString(4),
+                                    rs.getString(5)));
+                            fromIds[kind.ordinal()] = Math.max(fromIds[kind.ordinal()], id);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException ex) {
+            ex.printStackTrace();
+            return null;
+        }
+        return builder.build();
+    }
+
+    /** id, мероприятие, название, контекст, доп. текст — для строк с id больше параметра. */
+    private static String sql(Kind kind) {
+        return switch (kind) {
+            case EVENT -> """
+                SELECT e.id, e.id, e.title, DATE_FORMAT(e.start_datetime, '%d.%m.%Y'), e.description
+                  FROM event e
+                 WHERE e.id > ?
+            """;
+            case ACTIVITY -> """
+                SELECT a.id, a.event_id, a.title, e.title, NULL
+                  FROM activity a
+                  JOIN event e ON e.id = a.event_id
+                 WHERE a.id > ?
+            """;
+            case PERSON -> """
+                SELECT u.id, 0, u.full_name, r.label_ru, NULL
+                  FROM user u
+                  JOIN role r ON r.id = u.role_id
+                 WHERE u.id > ?
+            """;
+            case TASK -> """
+                SELECT t.id, a.event_id, t.title, a.title, NULL
+                  FROM activity_task t
+                  JOIN activity a ON a.id = t.activity_id
+                 WHERE t.id > ?
+            """;
+            case RESOURCE -> """
+                SELECT r.id, a.event_id, r.name, a.title, NULL
+                  FROM resource r
+                  JOIN activity a ON a.id = r.activity_id
+                 WHERE r.id > ?
+            """;
+        };
+    }
+
+    /* ---------- поиск ---------- */
+
+    /**
+     * @param perKind сколько лучших результатов каждого типа вернуть
+     * @return результаты по группам {@link Kind}, внутри группы — лучшие раньше
+     */
+    public List<Hit> search(String query, int perKind) {
+        if (fromDatabase) {
+            refreshSoon();
+        }
+        List<String> tokens = RussianTokenizer.stems(query);
+        if (tokens.isEmpty() || perKind <= 0) {
+            return List.of();
+        }
+        List<Hit> found = new ArrayList<>();
+        synchronized (this) {
+            for (Segment segment : segments) {
+                match(segment, tokens, found);
+            }
+        }
+        found.sort(Comparator.comparing(Hit::kind)
+                .thenComparing(Comparator.comparingInt(Hit::score).reversed())
+                .thenComparing(Hit::title, String.CASE_INSENSITIVE_ORDER));
+
+        List<Hit> hits = new ArrayList<>();
+        int[] taken = new int[Kind.values().length];
+        for (Hit hit : found) {
+            if (taken[hit.kind().ordinal()]++ < perKind) {
+                hits.add(hit);
+            }
+        }
+        return hits;
+    }
+
+    private void match(Segment segment, List<String> tokens, List<Hit> found) {
+        growScratch(segment.size);
+        int queryId = ++mark;
+        IntList touched = new IntList();
+        for (int t = 0; t < tokens.size(); t++) {
+            String token = tokens.get(t);
+            int tokenId = ++mark;
+            touched.size = 0;
+            int from = Arrays.binarySearch(segment.terms, token);
+            for (int i = from >= 0 ? from : -from - 1;
+                 i < segment.terms.length && segment.terms[i].startsWith(token); i++) {
+                boolean exact = segment.terms[i].length() == token.length();
+                if (!exact && token.length() < MIN_PREFIX) {
+                    break;
+                }
+                int base = exact ? SCORE_EXACT : SCORE_PREFIX;
+                for (int posting : segment.postings[i]) {
+                    int ordinal = posting >>> 1;
+                    int score = (posting & 1) != 0 ? base * 2 : base;
+                    if (tokenMark[ordinal] != tokenId) {
+                        tokenMark[ordinal] = tokenId;
+                        tokenBest[ordinal] = score;
+                        touched.add(ordinal);
+                    } else if (tokenBest[ordinal] < score) {
+                        tokenBest[ordinal] = score;
+                    }
+                }
+            }
+            for (int k = 0; k < touched.size; k++) {
+                int ordinal = touched.values[k];
+                if (t == 0) {
+                    queryMark[ordinal] = queryId;
+                    matched[ordinal] = 1;
+                    total[ordinal] = tokenBest[ordinal];
+                } else if (queryMark[ordinal] == queryId && matched[ordinal] == t) {
+                    matched[ordinal]++;
+                    total[ordinal] += tokenBest[ordinal];
+                }
+            }
+        }
+        // совпавшие со всеми словами есть среди совпавших с последним
+        for (int k = 0; k < touched.size; k++) {
+            int ordinal = touched.values[k];
+            if (queryMark[ordinal] == queryId && matched[ordinal] == tokens.size()) {
+                found.add(segment.hit(ordinal, total[ordinal]));
+            }
+        }
+    }
+
+    private void growScratch(int size) {
+        if (queryMark.length < size) {
+            int capacity = Math.max(size, queryMark.length * 3 / 2);
+            queryMark = Arrays.copyOf(queryMark, capacity);
+            matched = Arrays.copyOf(matched, capacity);
+            total = Arrays.copyOf(total, capacity);
+            tokenMark = Arrays.copyOf(tokenMark, capacity);
+            tokenBest = Arrays.copyOf(tokenBest, capacity);
+        }
+    }
+
+    /* ---------- сегмент ---------- */
+
+    /** Неизменяемая часть индекса; документы — по ординалам {@code 0..size-1}. */
+    private static final class Segment {
+        final int size;
+        final byte[] kinds;
+        final int[] ids;
+        final int[] eventIds;
+        final String[] titles;
+        final String[] contexts;
+        /** Основы по возрастанию и для каждой — {@code ординал << 1 | слово из названия}, по возрастанию. */
+        final String[] terms;
+        final int[][] postings;
+
+        Segment(int size, byte[] kinds, int[] ids, int[] eventIds, String[] titles, String[] contexts,
+                String[] terms, int[][] postings) {
+            this.size = size;
+            this.kinds = kinds;
+            this.ids = ids;
+            this.eventIds = eventIds;
+            this.titles = titles;
+            this.contexts = contexts;
+            this.terms = terms;
+            this.postings = postings;
+        }
+
+        Hit hit(int ordinal, int score) {
+            return new Hit(Kind.values()[kinds[ordinal]], ids[ordinal], eventIds[ordinal],
+                    titles[ordinal], contexts[ordinal], score);
+        }
+    }
+
+    private static final class SegmentBuilder {
+        private final Map<String, String> strings = new HashMap<>();
+        private final Map<String, IntList> terms = new HashMap<>();
+        private byte[] kinds = new byte[1024];
+        private int[] ids = new int[1024];
+        private int[] eventIds = new int[1024];
+        private String[] titles = new String[1024];
+        private String[] contexts = new String[1024];
+        private int size;
+
+        void add(Document document) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                kinds = Arrays.copyOf(kinds, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+                eventIds = Arrays.copyOf(eventIds, capacity);
+                titles = Arrays.copyOf(titles, capacity);
+                contexts = Arrays.copyOf(contexts, capacity);
+            }
+            int ordinal = size++;
+            kinds[ordinal] = (byte) document.kind().ordinal();
+            ids[ordinal] = document.id();
+            eventIds[ordinal] = document.eventId();
+            titles[ordinal] = intern(document.title());
+            contexts[ordinal] = intern(document.context());
+            index(document.title(), ordinal, true);
+            index(document.text(), ordinal, false);
+        }
+
+        private void index(String text, int ordinal, boolean title) {
+            int posting = ordinal << 1 | (title ? 1 : 0);
+            for (String stem : RussianTokenizer.stems(text)) {
+                IntList list = terms.computeIfAbsent(intern(stem), k -> new IntList());
+                int last = list.size - 1;
+                if (last < 0 || list.values[last] >>> 1 != ordinal) {
+                    list.add(posting);
+                } else {
+                    list.values[last] |= posting & 1;   // слово и в названии, и в описании
+                }
+            }
+        }
+
+        private String intern(String value) {
+            if (value == null) {
+                return "";
+            }
+            return strings.computeIfAbsent(value, v -> v);
+        }
+
+        Segment build() {
+            String[] sorted = terms.keySet().toArray(new String[0]);
+            Arrays.sort(sorted);
+            int[][] postings = new int[sorted.length][];
+            for (int i = 0; i < sorted.length; i++) {
+                IntList list = terms.get(sorted[i]);
+                postings[i] = Arrays.copyOf(list.values, list.size);
+            }
+            return new Segment(size, Arrays.copyOf(kinds, size), Arrays.copyOf(ids, size),
+                    Arrays.copyOf(eventIds, size), Arrays.copyOf(titles, size), Arrays.copyOf(contexts, size),
+                    sorted, postings);
+        }
+    }
+
+    /** Растущий массив {@code int} без упаковки. */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
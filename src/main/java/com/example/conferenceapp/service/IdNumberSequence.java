@@ -0,0 +1,145 @@
+package com.example.conferenceapp.service;
+
+import com.example.conferenceapp.util.DBUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Номера пользователей вида {@code PT-000123}.
+ * <p>
+ * Следующий свободный номер по каждому префиксу хранится в таблице
+ * {@code id_sequence}. Процесс забирает себе сразу блок номеров одним
+ * атомарным {@code UPDATE} и раздаёт его из памяти без блокировок; за новым
+ * блоком идёт только тот поток, которому не хватило текущего. Блок
+ * начинается с {@value #MIN_BLOCK} номеров и удваивается до
+ * {@value #MAX_BLOCK}, если предыдущий кончился быстрее чем за минуту, —
+ * форма регистрации тратит один запрос на десяток человек, загрузка CSV —
+ * один на тысячу строк.
+ * <p>
+ * Два процесса (приложение и загрузка, два рабочих места) получают
+ * непересекающиеся блоки, поэтому номера не повторяются. Номера, не
+ * выданные до закрытия процесса, и номера открытой, но не сохранённой
+ * формы пропадают: в нумерации бывают пропуски.
+ * <p>
+ * Блок берётся на отдельном соединении в автокоммите: откат транзакции
+ * загрузки не возвращает номера, которые уже могли уйти другим.
+ */
+public final class IdNumberSequence {
+
+    private static final Logger log = LoggerFactory.getLogger(IdNumberSequence.class);
+
+    static final int MIN_BLOCK = 10;
+    static final int MAX_BLOCK = 1000;
+    /** Блок кончился быстрее — следующий берётся вдвое больше. */
+    private static final long GROW_WITHIN_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    /** Новое значение счётчика запоминается в LAST_INSERT_ID соединения. */
+    private static final String RESERVE_SQL = """
+            UPDATE id_sequence
+               SET next_value = LAST_INSERT_ID(next_value + ?)
+             WHERE prefix = ?
+            """;
+
+    /** Префикс, которого нет в миграции: счётчик начинается после уже выданных номеров. */
+    private static final String SEED_SQL = """
+            INSERT IGNORE INTO id_sequence(prefix, next_value)
+            SELECT ?, COALESCE(MAX(CAST(SUBSTRING(id_number, ?) AS UNSIGNED)), 0) + 1
+              FROM user
+             WHERE id_number LIKE ?
+            """;
+
+    private static final IdNumberSequence INSTANCE = new IdNumberSequence();
+
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    private IdNumberSequence() {
+    }
+
+    public static IdNumberSequence getInstance() {
+        return INSTANCE;
+    }
+
+    /** Следующий номер с префиксом {@code prefix}, например {@code PT-}. */
+    public String next(String prefix) throws SQLException {
+        Counter counter = counters.computeIfAbsent(prefix, Counter::new);
+        while (true) {
+            Block block = counter.block.get();
+            if (block != null) {
+                long value = block.next.getAndIncrement();
+                if (value < block.end) {
+                    return prefix + String.format("%06d", value);
+                }
+            }
+            counter.refill(block);
+        }
+    }
+
+    /* ---------- блоки ---------- */
+
+    /** Номера {@code [next, end)}; {@code next} может уйти за {@code end} — это значит «кончился». */
+    private record Block(AtomicLong next, long end) {
+    }
+
+    private static final class Counter {
+
+        private final String prefix;
+        private final AtomicReference<Block> block = new AtomicReference<>();
+        private int size = MIN_BLOCK;
+        private long refilledAt;
+
+        Counter(String prefix) {
+            this.prefix = prefix;
+        }
+
+        /** Берёт новый блок, если {@code exhausted} всё ещё текущий; иначе его уже сменил другой поток. */
+        synchronized void refill(Block exhausted) throws SQLException {
+            if (block.get() != exhausted) {
+                return;
+            }
+            long now = System.nanoTime();
+            if (exhausted != null) {
+                size = now - refilledAt < GROW_WITHIN_NANOS ? Math.min(size * 2, MAX_BLOCK) : MIN_BLOCK;
+            }
+            long end = reserve(prefix, size);
+            refilledAt = now;
+            block.set(new Block(new AtomicLong(end - size), end));
+            log.debug("id numbers {}: reserved [{}, {})", prefix, end - size, end);
+        }
+    }
+
+    /** Сдвигает счётчик на {@code size} и возвращает его новое значение — конец блока. */
+    private static long reserve(String prefix, int size) throws SQLException {
+        try (Connection c = DBUtil.getConnection()) {
+            for (int attempt = 0; attempt < 2; attempt++) {
+                try (PreparedStatement ps = c.prepareStatement(RESERVE_SQL)) {
+                    ps.setInt(1, size);
+                    ps.setString(2, prefix);
+                    if (ps.executeUpdate() > 0) {
+                        try (Statement st = c.createStatement();
+                             ResultSet rs = st.executeQuery("SELECT LAST_INSERT_ID()")) {
+                            rs.next();
+                            return rs.getLong(1);
+                        }
+                    }
+                }
+                try (PreparedStatement ps = c.prepareStatement(SEED_SQL)) {
+                    ps.setString(1, prefix);
+                    ps.setInt(2, prefix.length() + 1);
+                    ps.setString(3, prefix + "%");
+                    ps.executeUpdate();
+                }
+            }
+        }
+        throw new SQLException("Нет счётчика номеров для префикса " + prefix);
+    }
+}
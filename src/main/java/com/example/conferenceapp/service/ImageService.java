@@ -0,0 +1,230 @@
+package com.example.conferenceapp.service;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingDeque;
+
+/**
+ * Миниатюры фотографий и логотипов для таблиц.
+ * <p>
+ * Значение ячейки — путь к файлу или ключ {@link MediaStore}. Картинка
+ * декодируется в фоновом потоке сразу в нужный размер — из уменьшенной
+ * копии ({@link ThumbnailStore} или вариант из хранилища), а не из оригинала, — и
+ * кладётся в общий LRU-кэш, ограниченный по объёму пикселей
+ * ({@value #MAX_BYTES} байт), — одна и та же аватарка в разных окнах
+ * декодируется один раз. Ключ кэша — путь и размер; запись помнит mtime
+ * файла и перепроверяет его не чаще раза в {@value #REVALIDATE_AFTER_MS} мс,
+ * так что заменённая фотография подхватывается без перезапуска.
+ * <p>
+ * Очередь декодирования — стек: при быстрой прокрутке первыми грузятся
+ * строки, видимые сейчас, а самые старые запросы сверх {@value #MAX_PENDING}
+ * отбрасываются.
+ */
+public final class ImageService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageService.class);
+    private static final ImageService INSTANCE = new ImageService();
+
+    private static final long MAX_BYTES = 48L * 1024 * 1024;
+    private static final int MAX_PENDING = 256;
+    private static final long REVALIDATE_AFTER_MS = 30_000;
+    private static final int THREADS = 2;
+    private static final String PLACEHOLDER = "/com/example/conferenceapp/images/logo.png";
+
+    private record Key(String path, int size) {
+    }
+
+    /** Декодированная картинка; {@code image == null} — файл не читается, повторно не пробуем до перепроверки. */
+    private record Entry(Image image, long modified, long bytes, long checkedAt) {
+    }
+
+    private final class LoadTask implements Runnable {
+        final Key key;
+        final CompletableFuture<Image> result = new CompletableFuture<>();
+
+        LoadTask(Key key) {
+            this.key = key;
+        }
+
+        @Override
+        public void run() {
+            Image image = decode(key);
+            Platform.runLater(() -> result.complete(image));
+        }
+    }
+
+    private final ThumbnailStore thumbnails = ThumbnailStore.getInstance();
+    private final MediaStore media = MediaStore.getInstance();
+    private final LinkedHashMap<Key, Entry> cache = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<Key, LoadTask> pending = new HashMap<>();
+    private final Map<Integer, Image> placeholders = new HashMap<>();
+    private final LinkedBlockingDeque<LoadTask> queue = new LinkedBlockingDeque<>();
+    private long bytes;
+
+    private ImageService() {
+        for (int i = 1; i <= THREADS; i++) {
+            Thread worker = new Thread(this::work, "image-loader-" + i);
+            worker.setDaemon(true);
+            worker.setPriority(Thread.NORM_PRIORITY - 1);
+            worker.start();
+        }
+    }
+
+    public static ImageService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Миниатюра из кэша или {@code null}, если её ещё нет. Устаревшая запись
+     * возвращается как есть и перепроверяется в фоне.
+     */
+    public synchronized Image cached(String path, int size) {
+        Key key = new Key(path, size);
+        Entry entry = cache.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.checkedAt() > REVALIDATE_AFTER_MS) {
+            enqueue(key);
+        }
+        return entry.image();
+    }
+
+    /**
+     * Загружает миниатюру в фоне. Future завершается в потоке JavaFX;
+     * значение {@code null} — файл отсутствует или не является картинкой.
+     * Повторные запросы того же файла, пока он в очереди, получают тот же результат.
+     */
+    public synchronized CompletableFuture<Image> load(String path, int size) {
+        Key key = new Key(path, size);
+        Entry entry = cache.get(key);
+        if (entry != null && System.currentTimeMillis() - entry.checkedAt() <= REVALIDATE_AFTER_MS) {
+            return CompletableFuture.completedFuture(entry.image());
+        }
+        return enqueue(key).copy();
+    }
+
+    /** Заглушка: логотип приложения нужного размера. */
+    public synchronized Image placeholder(int size) {
+        return placeholders.computeIfAbsent(size, s -> {
+            URL url = ImageService.class.getResource(PLACEHOLDER);
+            return url != null ? new Image(url.toExternalForm(), s, s, true, true) : null;
+        });
+    }
+
+    /* ---------- очередь ---------- */
+
+    private CompletableFuture<Image> enqueue(Key key) {
+        LoadTask task = pending.get(key);
+        if (task != null) {
+            // снова нужна — поднимаем наверх стека
+            if (queue.remove(task)) {
+                queue.offerFirst(task);
+            }
+            return task.result;
+        }
+        task = new LoadTask(key);
+        pending.put(key, task);
+        task.result.whenComplete((image, ex) -> {
+            synchronized (ImageService.this) {
+                pending.remove(key);
+            }
+        });
+        queue.offerFirst(task);
+        while (queue.size() > MAX_PENDING) {
+            LoadTask dropped = queue.pollLast();
+            if (dropped != null) {
+                pending.remove(dropped.key);
+                dropped.result.cancel(false);
+            }
+        }
+        return task.result;
+    }
+
+    private void work() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                queue.takeFirst().run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException ex) {
+                log.warn("Thumbnail loader failed", ex);
+            }
+        }
+    }
+
+    /* ---------- декодирование и кэш ---------- */
+
+    private Image decode(Key key) {
+        Path file;
+        long modified;
+        boolean managed = MediaStore.isKey(key.path());
+        try {
+            file = managed ? media.original(key.path()) : Path.of(key.path());
+            if (file == null) {
+                throw new IOException("Malformed media key " + key.path());
+            }
+            modified = Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException | InvalidPathException ex) {
+            remember(key, null, -1);
+            return null;
+        }
+
+        synchronized (this) {
+            Entry entry = cache.get(key);
+            if (entry != null && entry.modified() == modified) {
+                cache.put(key, new Entry(entry.image(), modified, entry.bytes(), System.currentTimeMillis()));
+                return entry.image();
+            }
+        }
+
+        // формат, который не читает ImageIO, JavaFX ещё может декодировать из оригинала
+        Path thumbnail = managed ? media.variant(key.path(), key.size()) : thumbnails.thumbnail(file, key.size());
+        if (thumbnail != null && !Files.isRegularFile(thumbnail)) {
+            thumbnail = null;
+        }
+        Path source = thumbnail != null ? thumbnail : file;
+        Image image = new Image(source.toUri().toString(), key.size(), key.size(), true, true, false);
+        if (image.isError()) {
+            log.debug("Cannot decode {}: {}", key.path(), image.getException() != null
+                    ? image.getException().getMessage() : "unknown error");
+            image = null;
+        }
+        remember(key, image, modified);
+        return image;
+    }
+
+    private synchronized void remember(Key key, Image image, long modified) {
+        long size = image == null ? 64 : (long) image.getWidth() * (long) image.getHeight() * 4;
+        Entry previous = cache.put(key, new Entry(image, modified, size, System.currentTimeMillis()));
+        if (previous != null) {
+            bytes -= previous.bytes();
+        }
+        bytes += size;
+
+        Iterator<Entry> eldest = cache.values().iterator();
+        while (bytes > MAX_BYTES && eldest.hasNext()) {
+            bytes -= eldest.next().bytes();
+            eldest.remove();
+        }
+    }
+
+    /** Для отладки: сколько миниатюр и байт пикселей держит кэш. */
+    @Override
+    public synchronized String toString() {
+        return "ImageService[" + cache.size() + " images, " + bytes / 1024 + " KiB, " + queue.size() + " pending]";
+    }
+}
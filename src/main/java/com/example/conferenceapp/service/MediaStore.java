@@ -0,0 +1,376 @@
+package com.example.conferenceapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Локальное хранилище загруженных пользователями картинок.
+ * <p>
+ * Выбранный файл копируется каналами ({@link FileChannel#transferTo}) во
+ * временный файл хранилища, хэшируется и, если такого содержимого ещё нет,
+ * нормализуется: поворот по EXIF, уменьшение до {@value #MAX_EDGE} px по
+ * длинной стороне. Рядом параллельно пишутся варианты
+ * {@link ThumbnailStore#SIZES}. В БД сохраняется ключ вида
+ * {@code media:<sha256>.jpg}, а не путь к исходному файлу.
+ * <p>
+ * Раскладка: {@code <каталог данных>/media/<xx>/<sha256>.jpg} и
+ * {@code <sha256>-<размер>.png}.
+ */
+public final class MediaStore {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaStore.class);
+
+    public static final String KEY_PREFIX = "media:";
+
+    /** Больше — почти наверняка не фотография для профиля. */
+    private static final long MAX_SOURCE_BYTES = 25L * 1024 * 1024;
+    /** Защита от «бомб»: маленький PNG, который разворачивается в гигабайты пикселей. */
+    private static final long MAX_SOURCE_PIXELS = 50_000_000L;
+    private static final int MAX_EDGE = 1600;
+
+    private static final Pattern KEY = Pattern.compile("media:([0-9a-f]{64})\\.(jpg|png)");
+
+    private static final MediaStore INSTANCE = new MediaStore(ThumbnailStore.defaultRoot().resolve("media"));
+
+    private final Path root;
+    private final ExecutorService executor;
+
+    MediaStore(Path root) {
+        this.root = root;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "media-ingest-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static MediaStore getInstance() {
+        return INSTANCE;
+    }
+
+    public static boolean isKey(String value) {
+        return value != null && value.startsWith(KEY_PREFIX);
+    }
+
+    /** Нормализованный файл по ключу; {@code null}, если ключ некорректен. */
+    public Path original(String key) {
+        var m = KEY.matcher(key);
+        return m.matches() ? dir(m.group(1)).resolve(m.group(1) + "." + m.group(2)) : null;
+    }
+
+    /** Вариант не меньше {@code size} px; {@code null}, если ключ некорректен. */
+    public Path variant(String key, int size) {
+        var m = KEY.matcher(key);
+        return m.matches() ? variantPath(m.group(1), ThumbnailStore.variantFor(size)) : null;
+    }
+
+    /** {@link #ingest(Path)} в фоновом потоке хранилища. */
+    public CompletableFuture<String> ingestAsync(Path source) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return ingest(source);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }, executor);
+    }
+
+    /**
+     * Кладёт картинку в хранилище и возвращает её ключ. Повторная загрузка
+     * того же содержимого ничего не пишет и возвращает прежний ключ.
+     *
+     * @throws IOException файл недоступен, слишком велик или не является картинкой
+     */
+    public String ingest(Path source) throws IOException {
+        long started = System.nanoTime();
+        long length = Files.size(source);
+        if (length > MAX_SOURCE_BYTES) {
+            throw new IOException("Файл больше " + MAX_SOURCE_BYTES / (1024 * 1024) + " МБ");
+        }
+
+        Files.createDirectories(root);
+        Path copy = Files.createTempFile(root, "ingest", ".tmp");
+        try {
+            copy(source, copy);
+            String hash = sha256(copy);
+
+            for (String ext : List.of("jpg", "png")) {
+                Path existing = dir(hash).resolve(hash + "." + ext);
+                if (Files.isRegularFile(existing)) {
+                    String key = KEY_PREFIX + hash + "." + ext;
+                    ensureVariants(hash, existing);
+                    return key;
+                }
+            }
+
+            BufferedImage image = normalize(read(copy), orientation(copy));
+            String ext = image.getColorModel().hasAlpha() ? "png" : "jpg";
+            Files.createDirectories(dir(hash));
+            writeAll(hash, ext, image);
+
+            log.info("Ingested {} ({} KiB) as {} in {} ms", source.getFileName(), length / 1024,
+                    hash.substring(0, 12), (System.nanoTime() - started) / 1_000_000);
+            return KEY_PREFIX + hash + "." + ext;
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    /* ---------- копирование и хэш ---------- */
+
+    /** Копирование без буфера в куче: ядро переносит данные между каналами. */
+    private static void copy(Path from, Path to) throws IOException {
+        try (FileChannel in = FileChannel.open(from, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(to, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                long sent = in.transferTo(position, size - position, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+            }
+            if (position != size) {
+                throw new IOException("Copy of " + from + " stopped at " + position + " of " + size + " bytes");
+            }
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /* ---------- декодирование и нормализация ---------- */
+
+    /** Декодирует, предварительно проверив размеры по заголовку. */
+    private static BufferedImage read(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IOException("Файл не является изображением");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > MAX_SOURCE_PIXELS) {
+                    throw new IOException("Изображение слишком большое: " + reader.getWidth(0) + "×" + reader.getHeight(0));
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /** Поворот/отражение по тегу Orientation и уменьшение до {@link #MAX_EDGE}. */
+    static BufferedImage normalize(BufferedImage image, int orientation) {
+        if (orientation > 1 && orientation <= 8) {
+            image = orient(image, orientation);
+        }
+        if (Math.max(image.getWidth(), image.getHeight()) > MAX_EDGE) {
+            image = ThumbnailStore.scale(image, MAX_EDGE);
+        }
+        return opaqueIfPossible(image);
+    }
+
+    private static BufferedImage orient(BufferedImage image, int orientation) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        boolean swap = orientation >= 5;
+        AffineTransform t = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { t.translate(w, 0); t.scale(-1, 1); }
+            case 3 -> { t.translate(w, h); t.rotate(Math.PI); }
+            case 4 -> { t.translate(0, h); t.scale(1, -1); }
+            case 5 -> t.setTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> { t.translate(h, 0); t.rotate(Math.PI / 2); }
+            case 7 -> t.setTransform(0, -1, -1, 0, h, w);
+            case 8 -> { t.translate(0, w); t.rotate(-Math.PI / 2); }
+            default -> { }
+        }
+        BufferedImage result = new BufferedImage(swap ? h : w, swap ? w : h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = result.createGraphics();
+        try {
+            g.drawImage(image, t, null);
+        } finally {
+            g.dispose();
+        }
+        return result;
+    }
+
+    /** JPEG не хранит альфа-канал: непрозрачную картинку переводим в RGB. */
+    private static BufferedImage opaqueIfPossible(BufferedImage image) {
+        if (!image.getColorModel().hasAlpha()) {
+            return image;
+        }
+        int[] argb = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+        for (int pixel : argb) {
+            if ((pixel >>> 24) != 0xFF) {
+                return image;
+            }
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        rgb.setRGB(0, 0, image.getWidth(), image.getHeight(), argb, 0, image.getWidth());
+        return rgb;
+    }
+
+    /**
+     * Значение EXIF-тега Orientation (0x0112) из JPEG; 1 — если тега нет.
+     * Разбирается только IFD0 сегмента APP1, этого достаточно для фото с камер и телефонов.
+     */
+    static int orientation(Path file) throws IOException {
+        byte[] head;
+        try (InputStream in = Files.newInputStream(file)) {
+            head = in.readNBytes(128 * 1024);
+        }
+        ByteBuffer buf = ByteBuffer.wrap(head);
+        if (head.length < 4 || (buf.getShort(0) & 0xFFFF) != 0xFFD8) {
+            return 1;                                   // не JPEG
+        }
+        int pos = 2;
+        while (pos + 4 <= head.length && (head[pos] & 0xFF) == 0xFF) {
+            int marker = head[pos + 1] & 0xFF;
+            int length = buf.getShort(pos + 2) & 0xFFFF;
+            if (marker == 0xDA) {
+                break;                                  // дальше идут данные изображения
+            }
+            if (marker == 0xE1 && pos + 10 <= head.length
+                    && new String(head, pos + 4, 6, StandardCharsets.ISO_8859_1).equals("Exif\0\0")) {
+                return tiffOrientation(buf, pos + 10, Math.min(head.length, pos + 2 + length));
+            }
+            pos += 2 + length;
+        }
+        return 1;
+    }
+
+    private static int tiffOrientation(ByteBuffer buf, int tiff, int end) {
+        if (tiff + 8 > end) {
+            return 1;
+        }
+        buf.order(buf.get(tiff) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int ifd = tiff + buf.getInt(tiff + 4);
+        if (ifd + 2 > end) {
+            return 1;
+        }
+        int entries = buf.getShort(ifd) & 0xFFFF;
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > end) {
+                break;
+            }
+            if ((buf.getShort(entry) & 0xFFFF) == 0x0112) {
+                int value = buf.getShort(entry + 8) & 0xFFFF;
+                return value >= 1 && value <= 8 ? value : 1;
+            }
+        }
+        return 1;
+    }
+
+    /* ---------- запись ---------- */
+
+    /** Нормализованный оригинал и все варианты пишутся параллельно. */
+    private void writeAll(String hash, String ext, BufferedImage image) throws IOException {
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        writes.add(CompletableFuture.runAsync(() -> write(image, ext, dir(hash).resolve(hash + "." + ext))));
+        for (int size : ThumbnailStore.SIZES) {
+            writes.add(CompletableFuture.runAsync(() ->
+                    write(ThumbnailStore.scale(image, size), "png", variantPath(hash, size))));
+        }
+        try {
+            CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    /** Досоздаёт варианты, если их удалили вручную. */
+    private void ensureVariants(String hash, Path original) throws IOException {
+        BufferedImage image = null;
+        for (int size : ThumbnailStore.SIZES) {
+            Path target = variantPath(hash, size);
+            if (Files.isRegularFile(target)) {
+                continue;
+            }
+            if (image == null) {
+                image = read(original);
+            }
+            write(ThumbnailStore.scale(image, size), "png", target);
+        }
+    }
+
+    private static void write(BufferedImage image, String format, Path target) {
+        try {
+            Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            try {
+                if (!ImageIO.write(image, format, tmp.toFile())) {
+                    throw new IOException("No ImageIO writer for " + format);
+                }
+                try {
+                    Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private Path dir(String hash) {
+        return root.resolve(hash.substring(0, 2));
+    }
+
+    private Path variantPath(String hash, int size) {
+        return dir(hash).resolve(hash + "-" + size + ".png");
+    }
+}
@@ -0,0 +1,545 @@
+package com.example.conferenceapp.service;
+
+import com.example.conferenceapp.db.DataSourceProfile;
+import com.example.conferenceapp.util.DBUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск людей по мере ввода: по ФИО, почте и номеру {@code id_number}.
+ * <p>
+ * Индекс строится в памяти по всей таблице {@code user} в фоновом потоке
+ * ({@link #startLoading()}), заново — раз в {@value #REBUILD_MINUTES} минут,
+ * чтобы находились и люди, зарегистрированные на других рабочих местах, —
+ * и между сборками обновляется точечно: при регистрации
+ * ({@code PersonDao.register}) и правке профиля ({@code UserDao.update}).
+ * Новая сборка читается и строится без блокировки и подменяет прежнюю
+ * целиком; поиск к БД не обращается никогда и до первой сборки возвращает
+ * пустой результат — см. {@link #isReady()} и {@link #whenReady(Runnable)}. ФИО приводятся {@link SearchText#fold}, так что
+ * кириллица и латиница ищут друг друга. Слово запроса совпадает:
+ * <ul>
+ *   <li>со словом ФИО целиком или его началом — «иван», «ivanov»;</li>
+ *   <li>с началом почты или номера — «petrov@», «pt-0001»;</li>
+ *   <li>с серединой слова или с одной опечаткой — по триграммам.</li>
+ * </ul>
+ * Все слова запроса должны совпасть; порядок — по сумме лучших совпадений
+ * слов, при равенстве — по ФИО. Поиск по 100 тыс. пользователей занимает
+ * единицы миллисекунд (см. {@code tools.PeopleSearchBenchmark}), поэтому
+ * вызывается прямо из потока JavaFX на каждое нажатие: монитор индекса
+ * держат только поиск и точечные изменения, но не чтение из БД.
+ */
+public final class PeopleSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PeopleSearchIndex.class);
+
+    private static final PeopleSearchIndex INSTANCE = new PeopleSearchIndex(true);
+
+    private static final int REBUILD_MINUTES = 10;
+    /** Первая сборка не удалась — следующая попытка через столько секунд, а не через {@value #REBUILD_MINUTES} минут. */
+    private static final int RETRY_SECONDS = 30;
+
+    private static final int SCORE_EXACT = 100;
+    private static final int SCORE_PREFIX = 70;
+    private static final int SCORE_CONTACT = 60;
+    private static final int SCORE_GRAMS = 40;
+
+    /** Символы триграммы: пробел, a–z, 0–9. */
+    private static final int GRAM_BASE = 37;
+
+    /** Пользователь, как он попадает в индекс. */
+    public record Person(int id, String idNumber, String fullName, String email, String roleCode) {
+    }
+
+    /** Найденный пользователь и его вес; больше — выше в списке. */
+    public record Hit(int userId, int score) {
+    }
+
+    private record Entry(Person person, int roleBit) {
+    }
+
+    private final boolean fromDatabase;
+    /* данные индекса; при пересборке заменяются данными новой сборки ({@link #adopt}) */
+    private List<Entry> entries = new ArrayList<>();
+    private Map<Integer, Integer> ordinalById = new HashMap<>();
+    private Map<String, Integer> roleBits = new HashMap<>();
+    private IntList[] grams = new IntList[GRAM_BASE * GRAM_BASE * GRAM_BASE];
+    private NavigableMap<String, IntList> words = new TreeMap<>();
+    private NavigableMap<String, IntList> contacts = new TreeMap<>();
+    private int dead;
+    private boolean loaded;
+
+    private ScheduledExecutorService executor;
+    /** Идёт чтение новой сборки: точечные изменения повторяются на ней после подмены. */
+    private boolean building;
+    private final List<Runnable> pending = new ArrayList<>();
+    private final List<Runnable> readyActions = new ArrayList<>();
+
+    /* рабочие массивы поиска, по ординалу; метка отличает текущий проход от прошлых */
+    private int[] queryMark = new int[0];
+    private int[] tokenMark = new int[0];
+    private int[] tokenBest = new int[0];
+    private int[] total = new int[0];
+    private int[] matched = new int[0];
+    private int[] gramMark = new int[0];
+    private int[] gramHits = new int[0];
+    private int mark;
+
+    private PeopleSearchIndex(boolean fromDatabase) {
+        this.fromDatabase = fromDatabase;
+    }
+
+    public static PeopleSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /** Отдельный индекс по готовому списку, без БД, — для бенчмарка. */
+    public static PeopleSearchIndex of(Collection<Person> people) {
+        PeopleSearchIndex index = new PeopleSearchIndex(false);
+        people.forEach(index::add);
+        index.loaded = true;
+        return index;
+    }
+
+    /** Запускает фоновую сборку и периодическую пересборку; повторный вызов ничего не делает. */
+    public synchronized void startLoading() {
+        if (executor != null || !fromDatabase) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "people-index");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::rebuild, 0, REBUILD_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /** Индекс хотя бы раз собран. */
+    public synchronized boolean isReady() {
+        return loaded;
+    }
+
+    /**
+     * Выполняет {@code action} после первой сборки — в потоке сборки, так что
+     * контроллеру нужен {@code Platform.runLater}; если индекс готов — сразу.
+     */
+    public void whenReady(Runnable action) {
+        synchronized (this) {
+            if (!loaded) {
+                readyActions.add(action);
+                startLoading();
+                return;
+            }
+        }
+        action.run();
+    }
+
+    /* ---------- поиск ---------- */
+
+    /**
+     * Пока индекс не собран — пустой список; отличить от «никого не нашлось»
+     * можно по {@link #isReady()}.
+     *
+     * @param roles коды ролей ({@code jury}, {@code moderator}, …); {@code null} — все
+     * @param limit сколько лучших вернуть
+     */
+    public synchronized List<Hit> search(String query, Set<String> roles, int limit) {
+        String[] tokens = tokens(query);
+        if (!loaded || tokens.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        int roleMask = roleMask(roles);
+        if (roleMask == 0) {
+            return List.of();
+        }
+        growScratch();
+        int queryId = ++mark;
+        IntList touched = new IntList();
+
+        for (String raw : tokens) {
+            int tokenId = ++mark;
+            String folded = SearchText.fold(raw).replace(" ", "");
+            if (!folded.isEmpty()) {
+                matchWords(folded, queryId, tokenId, touched);
+                if (folded.length() >= 3) {
+                    matchGrams(folded, queryId, tokenId, touched);
+                }
+            }
+            matchPrefix(contacts, raw, SCORE_CONTACT, queryId, tokenId, touched);
+        }
+
+        long[] order = new long[touched.size];
+        int found = 0;
+        for (int i = 0; i < touched.size; i++) {
+            int ordinal = touched.values[i];
+            Entry entry = entries.get(ordinal);
+            if (entry != null && matched[ordinal] == tokens.length && (entry.roleBit() & roleMask) != 0) {
+                // больший вес — меньший ключ; при равном весе раньше меньший ординал (порядок ФИО при загрузке)
+                order[found++] = ((long) (Integer.MAX_VALUE - total[ordinal]) << 32) | ordinal;
+            }
+        }
+        Arrays.sort(order, 0, found);
+
+        int size = Math.min(found, limit);
+        List<Hit> hits = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int ordinal = (int) order[i];
+            hits.add(new Hit(entries.get(ordinal).person().id(), total[ordinal]));
+        }
+        return hits;
+    }
+
+    /** Все найденные: id пользователя → место в выдаче (0 — лучший). */
+    public synchronized Map<Integer, Integer> positions(String query, Set<String> roles) {
+        List<Hit> hits = search(query, roles, Integer.MAX_VALUE);
+        Map<Integer, Integer> positions = new HashMap<>(hits.size() * 2);
+        for (int i = 0; i < hits.size(); i++) {
+            positions.put(hits.get(i).userId(), i);
+        }
+        return positions;
+    }
+
+    private void matchWords(String token, int queryId, int tokenId, IntList touched) {
+        for (Map.Entry<String, IntList> word : words.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            int score = word.getKey().length() == token.length() ? SCORE_EXACT : SCORE_PREFIX;
+            IntList list = word.getValue();
+            for (int i = 0; i < list.size; i++) {
+                hit(list.values[i], score, queryId, tokenId, touched);
+            }
+        }
+    }
+
+    private void matchPrefix(NavigableMap<String, IntList> map, String token, int score,
+                             int queryId, int tokenId, IntList touched) {
+        for (IntList list : map.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+            for (int i = 0; i < list.size; i++) {
+                hit(list.values[i], score, queryId, tokenId, touched);
+            }
+        }
+    }
+
+    /**
+     * Слово внутри ФИО или с опечаткой: сколько триграмм слова запроса есть
+     * у человека. Для слов от 5 букв прощается одна несовпавшая триграмма.
+     */
+    private void matchGrams(String token, int queryId, int tokenId, IntList touched) {
+        int count = token.length() - 2;
+        int needed = count >= 3 ? count - 1 : count;
+        int gramId = ++mark;
+        IntList candidates = new IntList();
+        for (int i = 0; i < count; i++) {
+            IntList list = grams[gram(token.charAt(i), token.charAt(i + 1), token.charAt(i + 2))];
+            if (list == null) {
+                continue;
+            }
+            int previous = -1;
+            for (int k = 0; k < list.size; k++) {
+                int ordinal = list.values[k];
+                if (ordinal == previous) {
+                    continue;           // триграмма дважды в одном ФИО
+                }
+                previous = ordinal;
+                if (gramMark[ordinal] != gramId) {
+                    gramMark[ordinal] = gramId;
+                    gramHits[ordinal] = 0;
+                    candidates.add(ordinal);
+                }
+                gramHits[ordinal]++;
+            }
+        }
+        for (int i = 0; i < candidates.size; i++) {
+            int ordinal = candidates.values[i];
+            if (gramHits[ordinal] >= needed) {
+                hit(ordinal, SCORE_GRAMS * Math.min(gramHits[ordinal], count) / count, queryId, tokenId, touched);
+            }
+        }
+    }
+
+    /** Совпадение слова запроса у человека; у слова считается лучшее из совпадений. */
+    private void hit(int ordinal, int score, int queryId, int tokenId, IntList touched) {
+        if (queryMark[ordinal] != queryId) {
+            queryMark[ordinal] = queryId;
+            total[ordinal] = 0;
+            matched[ordinal] = 0;
+            touched.add(ordinal);
+        }
+        if (tokenMark[ordinal] != tokenId) {
+            tokenMark[ordinal] = tokenId;
+            tokenBest[ordinal] = score;
+            total[ordinal] += score;
+            matched[ordinal]++;
+        } else if (score > tokenBest[ordinal]) {
+            total[ordinal] += score - tokenBest[ordinal];
+            tokenBest[ordinal] = score;
+        }
+    }
+
+    /* ---------- обновления ---------- */
+
+    /** Новый или изменённый пользователь. */
+    public synchronized void userSaved(Person person) {
+        if (building) {
+            pending.add(() -> save(person));
+        }
+        if (loaded) {
+            save(person);
+        }
+    }
+
+    /** Правка профиля: роль и номер не меняются, берутся из индекса. */
+    public synchronized void profileChanged(int userId, String fullName, String email) {
+        if (building) {
+            pending.add(() -> changeProfile(userId, fullName, email));
+        }
+        if (loaded) {
+            changeProfile(userId, fullName, email);
+        }
+    }
+
+    private void save(Person person) {
+        remove(person.id());
+        add(person);
+    }
+
+    private void changeProfile(int userId, String fullName, String email) {
+        Integer ordinal = ordinalById.get(userId);
+        if (ordinal == null) {
+            return;
+        }
+        Person old = entries.get(ordinal).person();
+        save(new Person(userId, old.idNumber(), fullName, email, old.roleCode()));
+    }
+
+    private void add(Person person) {
+        int ordinal = entries.size();
+        String role = person.roleCode() != null ? person.roleCode() : "";
+        int bit = roleBits.computeIfAbsent(role, r -> 1 << Math.min(roleBits.size(), 30));
+        entries.add(new Entry(person, bit));
+        ordinalById.put(person.id(), ordinal);
+
+        String name = SearchText.fold(person.fullName());
+        for (String word : name.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            words.computeIfAbsent(word, w -> new IntList()).addOnce(ordinal);
+            String padded = " " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                int code = gram(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2));
+                IntList list = grams[code];
+                if (list == null) {
+                    list = grams[code] = new IntList();
+                }
+                list.add(ordinal);
+            }
+        }
+        if (person.email() != null && !person.email().isBlank()) {
+            contacts.computeIfAbsent(person.email().strip().toLowerCase(Locale.ROOT), k -> new IntList()).addOnce(ordinal);
+        }
+        if (person.idNumber() != null && !person.idNumber().isBlank()) {
+            contacts.computeIfAbsent(person.idNumber().strip().toLowerCase(Locale.ROOT), k -> new IntList()).addOnce(ordinal);
+        }
+    }
+
+    /**
+     * Запись помечается удалённой, а её ординал остаётся в списках и
+     * отсеивается при поиске. Когда удалённых больше четверти, индекс
+     * пересобирается из памяти.
+     */
+    private void remove(int userId) {
+        Integer ordinal = ordinalById.remove(userId);
+        if (ordinal == null) {
+            return;
+        }
+        entries.set(ordinal, null);
+        dead++;
+        if (dead > 1_000 && dead > entries.size() / 4) {
+            List<Person> alive = new ArrayList<>(entries.size() - dead);
+            for (Entry entry : entries) {
+                if (entry != null) {
+                    alive.add(entry.person());
+                }
+            }
+            clear();
+            alive.forEach(this::add);
+        }
+    }
+
+    private void clear() {
+        entries.clear();
+        ordinalById.clear();
+        Arrays.fill(grams, null);
+        words.clear();
+        contacts.clear();
+        dead = 0;
+    }
+
+    /* ---------- загрузка ---------- */
+
+    /**
+     * Сборка по расписанию. Исключение из задачи {@code scheduleWithFixedDelay}
+     * отменило бы все следующие пересборки, поэтому сбой только пишется в лог,
+     * а поиск продолжает работать по прежнему индексу.
+     */
+    private void rebuild() {
+        try {
+            build();
+        } catch (RuntimeException ex) {
+            log.warn("People index rebuild failed", ex);
+            synchronized (this) {
+                building = false;
+                pending.clear();
+                if (!loaded) {
+                    executor.schedule(this::rebuild, RETRY_SECONDS, TimeUnit.SECONDS);
+                }
+            }
+        }
+    }
+
+    /** Читает таблицу и строит новый индекс без блокировки, затем подменяет им текущий. */
+    private void build() {
+        synchronized (this) {
+            building = true;
+            pending.clear();
+        }
+        long started = System.nanoTime();
+        List<Person> people = read();
+        PeopleSearchIndex built = people != null ? of(people) : null;
+
+        List<Runnable> actions;
+        synchronized (this) {
+            building = false;
+            if (built == null) {
+                pending.clear();
+                if (!loaded) {
+                    executor.schedule(this::rebuild, RETRY_SECONDS, TimeUnit.SECONDS);
+                }
+                return;
+            }
+            adopt(built);
+            pending.forEach(Runnable::run);     // изменения, которые чтение могло не застать
+            pending.clear();
+            loaded = true;
+            actions = new ArrayList<>(readyActions);
+            readyActions.clear();
+        }
+        log.debug("People index built for {} users in {} ms",
+                people.size(), Duration.ofNanos(System.nanoTime() - started).toMillis());
+        actions.forEach(Runnable::run);
+    }
+
+    /** Все пользователи в порядке ФИО; {@code null} — ошибка чтения. */
+    private static List<Person> read() {
+        String sql = """
+            SELECT u.id, u.id_number, u.full_name, u.email, r.code
+              FROM user u
+              JOIN role r ON r.id = u.role_id
+             ORDER BY u.full_name, u.id
+        """;
+        List<Person> people = new ArrayList<>();
+        try (Connection c = DBUtil.getConnection(DataSourceProfile.REPORTING);
+             Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                people.add(new Person(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5)));
+            }
+        } catch (SQLException ex) {
+            log.warn("People index build failed", ex);
+            return null;
+        }
+        return people;
+    }
+
+    /** Забирает данные готовой сборки; рабочие массивы поиска остаются — они лишь растут. */
+    private void adopt(PeopleSearchIndex built) {
+        entries = built.entries;
+        ordinalById = built.ordinalById;
+        roleBits = built.roleBits;
+        grams = built.grams;
+        words = built.words;
+        contacts = built.contacts;
+        dead = built.dead;
+    }
+
+    /* ---------- вспомогательное ---------- */
+
+    private static String[] tokens(String query) {
+        if (query == null || query.isBlank()) {
+            return new String[0];
+        }
+        return query.strip().toLowerCase(Locale.ROOT).split("\\s+");
+    }
+
+    private int roleMask(Set<String> roles) {
+        if (roles == null) {
+            return -1;
+        }
+        int mask = 0;
+        for (String role : roles) {
+            mask |= roleBits.getOrDefault(role, 0);
+        }
+        return mask;
+    }
+
+    private static int gram(char a, char b, char c) {
+        return (symbol(a) * GRAM_BASE + symbol(b)) * GRAM_BASE + symbol(c);
+    }
+
+    private static int symbol(char ch) {
+        if (ch >= 'a' && ch <= 'z') return ch - 'a' + 1;
+        if (ch >= '0' && ch <= '9') return ch - '0' + 27;
+        return 0;
+    }
+
+    private void growScratch() {
+        int size = entries.size();
+        if (queryMark.length >= size) {
+            return;
+        }
+        int capacity = Math.max(size, queryMark.length * 3 / 2);
+        queryMark = Arrays.copyOf(queryMark, capacity);
+        tokenMark = Arrays.copyOf(tokenMark, capacity);
+        tokenBest = Arrays.copyOf(tokenBest, capacity);
+        total = Arrays.copyOf(total, capacity);
+        matched = Arrays.copyOf(matched, capacity);
+        gramMark = Arrays.copyOf(gramMark, capacity);
+        gramHits = Arrays.copyOf(gramHits, capacity);
+    }
+
+    /** Растущий массив ординалов; ординалы добавляются по возрастанию. */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addOnce(int value) {
+            if (size == 0 || values[size - 1] != value) {
+                add(value);
+            }
+        }
+    }
+}
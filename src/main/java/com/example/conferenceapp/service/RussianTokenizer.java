@@ -0,0 +1,68 @@
+package com.example.conferenceapp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Разбиение текста на слова для полнотекстового поиска с отсечением
+ * русских окончаний: «конференция», «конференции», «конференцию» дают
+ * одну основу {@code конференц}, так что запрос в любой форме находит
+ * любую. Это не полноценный морфологический разбор, а отсечение самого
+ * длинного окончания из списка при условии, что основа остаётся не короче
+ * {@value #MIN_STEM} букв; латиница и числа не меняются.
+ */
+public final class RussianTokenizer {
+
+    private static final int MIN_STEM = 3;
+
+    /** Окончания существительных, прилагательных и глаголов — длинные раньше. */
+    private static final String[] ENDINGS = {
+            "ующими", "ающими",
+            "иями", "иях", "ями", "ами", "ией", "ием", "иям", "ого", "его", "ому", "ему", "ыми", "ими",
+            "ать", "ять", "ить", "еть", "ует", "ают", "яют", "ишь", "ешь",
+            "ая", "яя", "ое", "ее", "ые", "ие", "ый", "ий", "ой", "ей", "ом", "ем", "ам", "ям", "ах", "ях",
+            "ую", "юю", "ов", "ев", "ия", "ию", "ии", "ья", "ье", "ью", "ет", "ит", "ут", "ют",
+            "а", "я", "о", "е", "ы", "и", "у", "ю", "ь", "й"
+    };
+
+    private RussianTokenizer() {
+    }
+
+    /** Основы слов текста по порядку; повторы сохраняются. */
+    public static List<String> stems(String text) {
+        List<String> result = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return result;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean letter = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                result.add(stem(lower.substring(start, i).replace('ё', 'е')));
+                start = -1;
+            }
+        }
+        return result;
+    }
+
+    /** Основа одного слова в нижнем регистре. */
+    public static String stem(String word) {
+        if (word.length() <= MIN_STEM || !isCyrillic(word.charAt(word.length() - 1))) {
+            return word;
+        }
+        for (String ending : ENDINGS) {
+            if (word.length() - ending.length() >= MIN_STEM && word.endsWith(ending)) {
+                return word.substring(0, word.length() - ending.length());
+            }
+        }
+        return word;
+    }
+
+    private static boolean isCyrillic(char ch) {
+        return ch >= 'а' && ch <= 'я';
+    }
+}
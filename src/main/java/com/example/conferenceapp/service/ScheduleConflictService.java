@@ -0,0 +1,493 @@
+package com.example.conferenceapp.service;
+
+import com.example.conferenceapp.util.DBUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Проверка пересечений в расписании модераторов и жюри.
+ * <p>
+ * Для каждого человека держится интервальный индекс его занятости: модерирование
+ * ({@code activity.moderator_id}), заявки в статусе SENT/APPROVED
+ * ({@code moderator_application}) и участие в жюри ({@code activity_jury}).
+ * Проверка читает только этот индекс и к БД не обращается.
+ * <p>
+ * Индекс строится и сверяется с БД в фоновом потоке ({@link #start()}): раз в
+ * {@value #SYNC_SECONDS} с по меткам {@code updated_at}/{@code created_at}
+ * (миграция V7) читаются активности, изменённые с прошлой сверки, — так
+ * доходят изменения других рабочих мест и загрузки CSV. Удаления меток не
+ * оставляют — ложный конфликт от удалённой записи живёт не дольше
+ * {@link #MAX_AGE}, после чего индекс строится заново. Изменения этого же
+ * процесса DAO сообщают сразу ({@link #activitiesChanged(Collection)}).
+ * <p>
+ * Запросы к БД выполняются вне монитора индекса: новые данные читаются в
+ * отдельную структуру и подменяются под коротким захватом, поэтому проверка
+ * не ждёт JDBC. Пишущие в индекс (фоновый поток и DAO) упорядочены отдельной
+ * блокировкой. Если сверка не удаётся дольше {@link #MAX_AGE}, проверка
+ * сообщает об ошибке, а не отвечает по устаревшему индексу.
+ */
+public final class ScheduleConflictService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleConflictService.class);
+    private static final ScheduleConflictService INSTANCE = new ScheduleConflictService();
+
+    /** Больше стольких активностей дешевле перечитать всё расписание, чем строить IN (...). */
+    private static final int PARTIAL_REFRESH_LIMIT = 500;
+    /** Как часто фоновый поток сверяет индекс с БД. */
+    static final int SYNC_SECONDS = 10;
+    /** Индекс старше — строится заново целиком. */
+    private static final Duration MAX_AGE = Duration.ofMinutes(10);
+    /** Сколько проверка ждёт первой сборки индекса, прежде чем сообщить об ошибке. */
+    private static final Duration READY_TIMEOUT = Duration.ofSeconds(30);
+    /**
+     * Запас при сверке: транзакция может записать метку раньше, чем станет
+     * видна, поэтому изменения за последнюю минуту перечитываются повторно.
+     */
+    private static final Duration COMMIT_LAG = Duration.ofMinutes(1);
+
+    private static final String CHANGED_SQL = """
+            SELECT id AS activity_id, updated_at AS changed_at FROM activity WHERE updated_at >= ?
+            UNION ALL
+            SELECT activity_id, updated_at FROM moderator_application WHERE updated_at >= ?
+            UNION ALL
+            SELECT activity_id, created_at FROM activity_jury WHERE created_at >= ?
+            """;
+
+    public enum Role { MODERATOR, APPLICATION_APPROVED, APPLICATION_SENT, JURY }
+
+    /** Занятость человека на конкретной активности. */
+    public record Booking(int activityId, String activityTitle, String eventTitle,
+                          LocalDateTime start, LocalDateTime end, Role role) {
+
+        boolean overlaps(LocalDateTime from, LocalDateTime to) {
+            return start.isBefore(to) && end.isAfter(from);
+        }
+    }
+
+    /** Текущий индекс; читается и подменяется под монитором сервиса. */
+    private Index index = new Index();
+    private boolean loaded;
+    /** Индекс нужно построить заново при ближайшей сверке. */
+    private boolean stale;
+    private final CountDownLatch ready = new CountDownLatch(1);
+    /** Когда индекс последний раз успешно сверен с БД ({@link System#nanoTime()}). */
+    private volatile long syncedAt;
+
+    /** Упорядочивает пишущих: чтение из БД и подмену данных. Монитор индекса при этом свободен. */
+    private final Object writeLock = new Object();
+    /** Под {@link #writeLock}. */
+    private long loadedAt;
+    /** Под {@link #writeLock}: изменения с этой метки (время БД) ещё не наверняка учтены. */
+    private Timestamp watermark;
+
+    private ScheduledExecutorService executor;
+
+    private ScheduleConflictService() {
+    }
+
+    public static ScheduleConflictService getInstance() {
+        return INSTANCE;
+    }
+
+    /** Запускает фоновую сборку и сверку индекса; повторный вызов ничего не делает. */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "schedule-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::sync, 0, SYNC_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Активности человека, пересекающиеся с интервалом {@code [start, end)}.
+     * Если индекс ещё не построен, ждёт первой сборки до {@link #READY_TIMEOUT}.
+     *
+     * @param excludeActivityId активность, которую не считать конфликтом (проверяемая сама)
+     * @throws IllegalStateException расписание не удалось прочитать — отвечать «конфликтов
+     *                               нет» без индекса нельзя
+     */
+    public List<Booking> findConflicts(int personId, LocalDateTime start, LocalDateTime end,
+                                       int excludeActivityId) {
+        awaitReady();
+        if (System.nanoTime() - syncedAt > MAX_AGE.toNanos()) {
+            throw new IllegalStateException("Расписание давно не сверялось с БД");
+        }
+        synchronized (this) {
+            PersonSchedule schedule = index.byPerson.get(personId);
+            if (schedule == null) {
+                return List.of();
+            }
+            return schedule.overlapping(start, end, excludeActivityId);
+        }
+    }
+
+    private void awaitReady() {
+        start();
+        try {
+            if (ready.await(READY_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        throw new IllegalStateException("Расписание ещё не загружено");
+    }
+
+    /* ---------- точечные обновления ---------- */
+
+    public void applicationSubmitted(int activityId, int moderatorId) {
+        refresh(List.of(activityId));
+    }
+
+    /** Отмена всех заявок модератора в статусе SENT (см. {@code ModeratorDao.cancelApplications}). */
+    public synchronized void applicationsCancelled(int moderatorId) {
+        PersonSchedule schedule = index.byPerson.get(moderatorId);
+        if (schedule != null) {
+            for (Integer activityId : schedule.remove(role -> role == Role.APPLICATION_SENT)) {
+                Set<Integer> people = index.peopleByActivity.get(activityId);
+                if (people != null) {
+                    people.remove(moderatorId);
+                }
+            }
+        }
+    }
+
+    /** Активности созданы или изменены (время, модератор, жюри) — перечитать только их. */
+    public void activitiesChanged(Collection<Integer> activityIds) {
+        refresh(activityIds);
+    }
+
+    /**
+     * Построить индекс заново. До конца сборки проверки отвечают по прежнему
+     * индексу, как и между сверками.
+     */
+    public void invalidate() {
+        synchronized (this) {
+            stale = true;
+            start();
+        }
+        executor.execute(this::sync);
+    }
+
+    /* ---------- сверка с БД ---------- */
+
+    /** Шаг фонового потока: полная сборка или дочитывание изменений. Исключения не должны остановить расписание. */
+    private void sync() {
+        try {
+            synchronized (writeLock) {
+                boolean rebuild;
+                synchronized (this) {
+                    rebuild = !loaded || stale;
+                }
+                if (rebuild || System.nanoTime() - loadedAt > MAX_AGE.toNanos() || !catchUp()) {
+                    rebuild();
+                }
+                syncedAt = System.nanoTime();
+            }
+        } catch (SQLException | RuntimeException ex) {
+            log.warn("Schedule index sync failed", ex);
+        }
+    }
+
+    /** Дочитывает изменённые с {@link #watermark} активности; {@code false} — их слишком много. */
+    private boolean catchUp() throws SQLException {
+        try (Connection c = DBUtil.getConnection()) {
+            Set<Integer> changed = new HashSet<>();
+            Timestamp latest = null;
+            try (PreparedStatement ps = c.prepareStatement(CHANGED_SQL)) {
+                for (int i = 1; i <= 3; i++) {
+                    ps.setTimestamp(i, watermark);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        changed.add(rs.getInt("activity_id"));
+                        Timestamp changedAt = rs.getTimestamp("changed_at");
+                        if (latest == null || changedAt.after(latest)) {
+                            latest = changedAt;
+                        }
+                    }
+                }
+            }
+            if (changed.size() > PARTIAL_REFRESH_LIMIT) {
+                return false;
+            }
+            if (!changed.isEmpty()) {
+                apply(changed, Index.read(c, changed));
+            }
+            if (latest != null) {
+                Timestamp next = Timestamp.valueOf(latest.toLocalDateTime().minus(COMMIT_LAG));
+                if (next.after(watermark)) {
+                    watermark = next;
+                }
+            }
+            return true;
+        }
+    }
+
+    /** Под {@link #writeLock}. */
+    private void rebuild() throws SQLException {
+        long started = System.nanoTime();
+        Index built;
+        Timestamp now;
+        try (Connection c = DBUtil.getConnection()) {
+            try (Statement st = c.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT NOW()")) {
+                rs.next();
+                now = rs.getTimestamp(1);
+            }
+            built = Index.read(c, null);
+        }
+        watermark = Timestamp.valueOf(now.toLocalDateTime().minus(COMMIT_LAG));
+        loadedAt = started;
+        synchronized (this) {
+            index = built;
+            loaded = true;
+            stale = false;
+        }
+        syncedAt = System.nanoTime();
+        ready.countDown();
+        log.debug("Schedule index built for {} people in {} ms",
+                built.byPerson.size(), Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    /** Перечитывает активности в потоке вызывающего; индекс, которого ещё нет, соберёт фоновый поток. */
+    private void refresh(Collection<Integer> activityIds) {
+        if (activityIds.isEmpty()) {
+            return;
+        }
+        synchronized (writeLock) {
+            synchronized (this) {
+                if (!loaded) {
+                    return;
+                }
+            }
+            if (activityIds.size() > PARTIAL_REFRESH_LIMIT) {
+                invalidate();
+                return;
+            }
+            try (Connection c = DBUtil.getConnection()) {
+                apply(activityIds, Index.read(c, activityIds));
+            } catch (SQLException ex) {
+                log.warn("Schedule index refresh failed", ex);
+                invalidate();
+            }
+        }
+    }
+
+    /** Заменяет в индексе занятость по {@code activityIds} прочитанной {@code fresh}. */
+    private synchronized void apply(Collection<Integer> activityIds, Index fresh) {
+        for (Integer activityId : activityIds) {
+            index.removeActivity(activityId);
+        }
+        fresh.byPerson.forEach((personId, schedule) -> schedule.bookings().forEach(b -> index.add(personId, b)));
+    }
+
+    /* ---------- данные индекса ---------- */
+
+    private static final class Index {
+
+        final Map<Integer, PersonSchedule> byPerson = new HashMap<>();
+        final Map<Integer, Set<Integer>> peopleByActivity = new HashMap<>();
+
+        void add(int personId, Booking booking) {
+            byPerson.computeIfAbsent(personId, id -> new PersonSchedule()).add(booking);
+            peopleByActivity.computeIfAbsent(booking.activityId(), id -> new HashSet<>()).add(personId);
+        }
+
+        void removeActivity(int activityId) {
+            Set<Integer> people = peopleByActivity.remove(activityId);
+            if (people == null) {
+                return;
+            }
+            for (Integer personId : people) {
+                PersonSchedule schedule = byPerson.get(personId);
+                if (schedule != null) {
+                    schedule.removeActivity(activityId);
+                }
+            }
+        }
+
+        /** Занятость по всем активностям ({@code activityIds == null}) или по указанным. */
+        static Index read(Connection c, Collection<Integer> activityIds) throws SQLException {
+            Index index = new Index();
+            String filter = activityIds == null ? "" : activityIds.stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(",", " IN (", ")"));
+
+            Map<Integer, Booking> slots = new HashMap<>();
+            String activities = """
+                SELECT a.id,
+                       a.title,
+                       e.title AS event_title,
+                       a.start_at,
+                       a.end_at,
+                       a.moderator_id
+                  FROM activity a
+                  JOIN event e ON e.id = a.event_id
+            """ + (activityIds == null ? "" : " WHERE a.id" + filter);
+            try (PreparedStatement ps = c.prepareStatement(activities);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp startAt = rs.getTimestamp("start_at");
+                    Timestamp endAt = rs.getTimestamp("end_at");
+                    if (startAt == null || endAt == null) {
+                        continue;
+                    }
+                    Booking slot = new Booking(
+                            rs.getInt("id"),
+                            rs.getString("title"),
+                            rs.getString("event_title"),
+                            startAt.toLocalDateTime(),
+                            endAt.toLocalDateTime(),
+                            Role.MODERATOR);
+                    slots.put(slot.activityId(), slot);
+
+                    int moderatorId = rs.getInt("moderator_id");
+                    if (!rs.wasNull()) {
+                        index.add(moderatorId, slot);
+                    }
+                }
+            }
+
+            String applications = """
+                SELECT activity_id, moderator_id, status
+                  FROM moderator_application
+                 WHERE status IN ('SENT', 'APPROVED')
+            """ + (activityIds == null ? "" : " AND activity_id" + filter);
+            try (PreparedStatement ps = c.prepareStatement(applications);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Booking slot = slots.get(rs.getInt("activity_id"));
+                    if (slot != null) {
+                        Role role = "APPROVED".equals(rs.getString("status"))
+                                ? Role.APPLICATION_APPROVED : Role.APPLICATION_SENT;
+                        index.add(rs.getInt("moderator_id"), withRole(slot, role));
+                    }
+                }
+            }
+
+            String jury = "SELECT activity_id, jury_id FROM activity_jury"
+                    + (activityIds == null ? "" : " WHERE activity_id" + filter);
+            try (PreparedStatement ps = c.prepareStatement(jury);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Booking slot = slots.get(rs.getInt("activity_id"));
+                    if (slot != null) {
+                        index.add(rs.getInt("jury_id"), withRole(slot, Role.JURY));
+                    }
+                }
+            }
+            return index;
+        }
+    }
+
+    private static Booking withRole(Booking slot, Role role) {
+        return new Booking(slot.activityId(), slot.activityTitle(), slot.eventTitle(), slot.start(), slot.end(), role);
+    }
+
+    /* ---------- индекс одного человека ---------- */
+
+    /**
+     * Интервалы, упорядоченные по началу. Пересечение с {@code [from, to)} ищется
+     * среди интервалов, начавшихся не раньше {@code from - longest}: всё, что началось
+     * раньше, закончилось до {@code from}. {@code longest} при удалении не уменьшается —
+     * это лишь верхняя граница, на корректность не влияет.
+     */
+    private static final class PersonSchedule {
+
+        private final NavigableMap<LocalDateTime, List<Booking>> byStart = new TreeMap<>();
+        private final Map<Integer, LocalDateTime> startOf = new HashMap<>();
+        private Duration longest = Duration.ZERO;
+
+        void add(Booking booking) {
+            byStart.computeIfAbsent(booking.start(), s -> new ArrayList<>(1)).add(booking);
+            startOf.put(booking.activityId(), booking.start());
+            Duration length = Duration.between(booking.start(), booking.end());
+            if (length.compareTo(longest) > 0) {
+                longest = length;
+            }
+        }
+
+        List<Booking> bookings() {
+            List<Booking> all = new ArrayList<>();
+            byStart.values().forEach(all::addAll);
+            return all;
+        }
+
+        void removeActivity(int activityId) {
+            LocalDateTime start = startOf.remove(activityId);
+            if (start == null) {
+                return;
+            }
+            List<Booking> bucket = byStart.get(start);
+            bucket.removeIf(b -> b.activityId() == activityId);
+            if (bucket.isEmpty()) {
+                byStart.remove(start);
+            }
+        }
+
+        /** Удаляет записи с подходящей ролью; возвращает активности, где человек больше не занят. */
+        List<Integer> remove(Predicate<Role> roles) {
+            List<Integer> freed = new ArrayList<>();
+            byStart.values().removeIf(bucket -> {
+                bucket.removeIf(b -> roles.test(b.role()));
+                return bucket.isEmpty();
+            });
+            startOf.keySet().removeIf(activityId -> {
+                List<Booking> bucket = byStart.get(startOf.get(activityId));
+                boolean gone = bucket == null || bucket.stream().noneMatch(b -> b.activityId() == activityId);
+                if (gone) {
+                    freed.add(activityId);
+                }
+                return gone;
+            });
+            return freed;
+        }
+
+        List<Booking> overlapping(LocalDateTime from, LocalDateTime to, int excludeActivityId) {
+            if (!from.isBefore(to)) {
+                return List.of();
+            }
+            // одна активность может попасть сюда дважды (модератор и заявка) — берём первую роль
+            Map<Integer, Booking> found = new LinkedHashMap<>();
+            for (List<Booking> bucket : byStart.subMap(from.minus(longest), true, to, false).values()) {
+                for (Booking b : bucket) {
+                    if (b.activityId() != excludeActivityId && b.overlaps(from, to)) {
+                        found.putIfAbsent(b.activityId(), b);
+                    }
+                }
+            }
+            return found.isEmpty() ? List.of() : Collections.unmodifiableList(new ArrayList<>(found.values()));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.conferenceapp.service;
+
+import java.util.Locale;
+
+/**
+ * Приведение текста для поиска: нижний регистр, кириллица — латиницей,
+ * разные латинские написания одного звука — к одному («Khabarov»,
+ * «Habarov» и «Хабаров» дают {@code habarov}), всё кроме букв и цифр —
+ * пробел. Запрос и индекс приводятся одинаково, поэтому ищется и
+ * «ivanov», и «иванов».
+ */
+public final class SearchText {
+
+    /** Транслитерация а…я; «ё» как «е», «й» и «ы» как «и», «ъ» и «ь» выпадают. */
+    private static final String[] CYRILLIC = {
+            "a", "b", "v", "g", "d", "e", "zh", "z", "i", "i", "k", "l", "m", "n", "o", "p",
+            "r", "s", "t", "u", "f", "h", "c", "ch", "sh", "sh", "", "i", "", "e", "iu", "ia"
+    };
+
+    /** Латинские сочетания и их общий вид; порядок важен — длинные раньше. */
+    private static final String[][] LATIN = {
+            {"shch", "sh"}, {"sch", "sh"}, {"kh", "h"}, {"ts", "c"}, {"tz", "c"},
+            {"yu", "iu"}, {"ju", "iu"}, {"ya", "ia"}, {"ja", "ia"}, {"yo", "e"},
+            {"y", "i"}, {"j", "i"}, {"w", "v"}, {"x", "ks"}, {"q", "k"}
+    };
+
+    private SearchText() {
+    }
+
+    /** Приведённый текст: слова из {@code [a-z0-9]} через один пробел, без пробелов по краям. */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        StringBuilder latin = new StringBuilder(text.length() + 8);
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            char ch = lower.charAt(i);
+            if (ch >= 'а' && ch <= 'я') {
+                latin.append(CYRILLIC[ch - 'а']);
+            } else if (ch == 'ё') {
+                latin.append('e');
+            } else if ((ch >= 'a' && ch <= 'z') || (ch >= '0' && ch <= '9')) {
+                latin.append(ch);
+            } else if (latin.length() > 0 && latin.charAt(latin.length() - 1) != ' ') {
+                latin.append(' ');
+            }
+        }
+        int end = latin.length();
+        if (end > 0 && latin.charAt(end - 1) == ' ') {
+            latin.setLength(end - 1);
+        }
+        return foldLatin(latin);
+    }
+
+    private static String foldLatin(CharSequence text) {
+        StringBuilder out = new StringBuilder(text.length());
+        int i = 0;
+        outer:
+        while (i < text.length()) {
+            for (String[] rule : LATIN) {
+                String from = rule[0];
+                if (regionMatches(text, i, from)) {
+                    out.append(rule[1]);
+                    i += from.length();
+                    continue outer;
+                }
+            }
+            out.append(text.charAt(i++));
+        }
+        return out.toString();
+    }
+
+    private static boolean regionMatches(CharSequence text, int offset, String part) {
+        if (offset + part.length() > text.length()) {
+            return false;
+        }
+        for (int k = 0; k < part.length(); k++) {
+            if (text.charAt(offset + k) != part.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
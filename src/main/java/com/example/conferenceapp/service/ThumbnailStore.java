@@ -0,0 +1,404 @@
+package com.example.conferenceapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Дисковый кэш уменьшенных копий фотографий и логотипов.
+ * <p>
+ * Для каждого исходного файла один раз строятся варианты {@link #SIZES} и
+ * складываются в {@code <каталог данных>/thumbs/<xx>/<sha256>-<размер>.png}.
+ * Ключ — хэш содержимого, поэтому одна фотография под разными путями
+ * хранится один раз. Чтобы не хэшировать многомегабайтный оригинал при каждом
+ * запуске, {@code index.properties} помнит для пути mtime, длину и хэш.
+ * <p>
+ * Каталог данных — {@code ~/.conference-app}, переопределяется системным
+ * свойством {@code conference.dataDir}. Все методы блокирующие и вызываются
+ * только из фоновых потоков.
+ */
+public final class ThumbnailStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailStore.class);
+
+    /** Размеры вариантов по возрастанию: аватарки в таблицах, логотипы, карточка. */
+    public static final List<Integer> SIZES = List.of(48, 64, 256);
+
+    private static final String INDEX_FILE = "index.properties";
+    private static final int SAVE_EVERY = 50;
+
+    private static final ThumbnailStore INSTANCE = new ThumbnailStore(defaultRoot().resolve("thumbs"));
+
+    /** Что известно об исходном файле на момент последнего хэширования. */
+    private record Source(long modified, long length, String hash) {
+
+        String format() {
+            return modified + ";" + length + ";" + hash;
+        }
+
+        static Source parse(String value) {
+            String[] parts = value.split(";");
+            if (parts.length != 3) {
+                return null;
+            }
+            try {
+                return new Source(Long.parseLong(parts[0]), Long.parseLong(parts[1]), parts[2]);
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+    }
+
+    private final Path root;
+    private final Map<String, Source> index = new HashMap<>();
+    private int unsaved;
+    private Thread warmUp;
+
+    ThumbnailStore(Path root) {
+        this.root = root;
+        loadIndex();
+    }
+
+    public static ThumbnailStore getInstance() {
+        return INSTANCE;
+    }
+
+    /** {@code ~/.conference-app} или {@code -Dconference.dataDir=...}. */
+    public static Path defaultRoot() {
+        String configured = System.getProperty("conference.dataDir");
+        return configured != null && !configured.isBlank()
+                ? Path.of(configured)
+                : Path.of(System.getProperty("user.home"), ".conference-app");
+    }
+
+    /**
+     * Готовая уменьшенная копия не меньше {@code size} пикселей (или самая
+     * крупная из имеющихся). При первом обращении строит все варианты.
+     *
+     * @return файл варианта; {@code null}, если исходник не читается как картинка
+     */
+    public Path thumbnail(Path original, int size) {
+        try {
+            String hash = hashOf(original);
+            if (hash == null) {
+                return null;
+            }
+            int variant = variantFor(size);
+            Path file = variantPath(hash, variant);
+            if (Files.isRegularFile(file) || generate(original, hash)) {
+                return file;
+            }
+        } catch (IOException | UncheckedIOException ex) {
+            log.debug("Cannot build thumbnails for {}: {}", original, ex.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Запускает фоновый прогрев: убирает из индекса исходники, которых больше
+     * нет на диске или в {@code paths}, строит миниатюры для всех путей из
+     * {@code paths} (запрос к БД выполняется тоже в фоне), сохраняет индекс
+     * и удаляет варианты, на которые индекс больше не ссылается.
+     */
+    public synchronized void startWarmUp(Supplier<List<String>> paths) {
+        if (warmUp != null && warmUp.isAlive()) {
+            return;
+        }
+        warmUp = new Thread(() -> warmUp(paths), "thumbnail-warmup");
+        warmUp.setDaemon(true);
+        warmUp.setPriority(Thread.MIN_PRIORITY);
+        warmUp.start();
+    }
+
+    /** Сохраняет индекс, если в нём есть несохранённые записи. */
+    public synchronized void flush() {
+        if (unsaved == 0) {
+            return;
+        }
+        Properties props = new Properties();
+        index.forEach((path, source) -> props.setProperty(path, source.format()));
+        try {
+            Files.createDirectories(root);
+            Path tmp = Files.createTempFile(root, "index", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                props.store(out, "source path = modified;length;sha256");
+            }
+            move(tmp, root.resolve(INDEX_FILE));
+            unsaved = 0;
+        } catch (IOException ex) {
+            log.warn("Cannot save thumbnail index: {}", ex.getMessage());
+        }
+    }
+
+    /* ---------- прогрев ---------- */
+
+    private void warmUp(Supplier<List<String>> paths) {
+        long started = System.nanoTime();
+        int built = 0;
+        int failed = 0;
+        List<String> all = paths.get();
+        int forgotten = forgetStale(all);
+        for (String path : all) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            if (MediaStore.isKey(path)) {
+                continue;                               // варианты созданы при загрузке
+            }
+            Path original;
+            try {
+                original = Path.of(path);
+            } catch (InvalidPathException ex) {
+                failed++;
+                continue;
+            }
+            if (thumbnail(original, SIZES.get(0)) != null) {
+                built++;
+            } else {
+                failed++;
+            }
+        }
+        flush();
+        int removed = prune();
+        log.info("Thumbnail warm-up: {} images ready, {} unreadable, {} stale sources and {} files removed in {} ms",
+                built, failed, forgotten, removed, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Убирает из индекса пути, чей файл удалён или изменился с последнего
+     * хэширования, а также пути, на которые больше не ссылается БД (фото или
+     * логотип заменены). Пустой {@code referenced} — это и «картинок нет», и
+     * ошибка запроса, поэтому в этом случае смотрится только диск. Варианты
+     * забытых хэшей потом удаляет {@link #prune()}.
+     */
+    private int forgetStale(List<String> referenced) {
+        Set<String> live = new HashSet<>();
+        for (String path : referenced) {
+            try {
+                live.add(Path.of(path).toAbsolutePath().normalize().toString());
+            } catch (InvalidPathException ignored) {
+                // такой путь и в индекс не попадёт
+            }
+        }
+        Map<String, Source> known;
+        synchronized (this) {
+            known = new HashMap<>(index);
+        }
+
+        int forgotten = 0;
+        for (Map.Entry<String, Source> entry : known.entrySet()) {
+            boolean stale = !live.isEmpty() && !live.contains(entry.getKey());
+            if (!stale) {
+                try {
+                    BasicFileAttributes attrs = Files.readAttributes(Path.of(entry.getKey()), BasicFileAttributes.class);
+                    stale = !attrs.isRegularFile()
+                            || attrs.lastModifiedTime().toMillis() != entry.getValue().modified()
+                            || attrs.size() != entry.getValue().length();
+                } catch (IOException | InvalidPathException ex) {
+                    stale = true;
+                }
+            }
+            if (stale) {
+                synchronized (this) {
+                    if (index.remove(entry.getKey(), entry.getValue())) {
+                        unsaved++;
+                        forgotten++;
+                    }
+                }
+            }
+        }
+        return forgotten;
+    }
+
+    /** Удаляет варианты, чей хэш не встречается в индексе (исходник изменён или удалён). */
+    private int prune() {
+        Set<String> live = new HashSet<>();
+        synchronized (this) {
+            index.values().forEach(source -> live.add(source.hash()));
+        }
+        int removed = 0;
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                int dash = name.lastIndexOf('-');
+                if (!name.endsWith(".png") || dash < 0 || live.contains(name.substring(0, dash))) {
+                    continue;
+                }
+                if (Files.deleteIfExists(file)) {
+                    removed++;
+                }
+            }
+        } catch (IOException ex) {
+            log.debug("Cannot prune thumbnails: {}", ex.getMessage());
+        }
+        return removed;
+    }
+
+    /* ---------- хэш и индекс ---------- */
+
+    private String hashOf(Path original) throws IOException {
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(original, BasicFileAttributes.class);
+        } catch (IOException ex) {
+            return null;
+        }
+        if (!attrs.isRegularFile()) {
+            return null;
+        }
+        String key = original.toAbsolutePath().normalize().toString();
+        long modified = attrs.lastModifiedTime().toMillis();
+        synchronized (this) {
+            Source known = index.get(key);
+            if (known != null && known.modified() == modified && known.length() == attrs.size()) {
+                return known.hash();
+            }
+        }
+
+        String hash = sha256(original);
+        synchronized (this) {
+            index.put(key, new Source(modified, attrs.size(), hash));
+            if (++unsaved >= SAVE_EVERY) {
+                flush();
+            }
+        }
+        return hash;
+    }
+
+    private void loadIndex() {
+        Path file = root.resolve(INDEX_FILE);
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+        } catch (IOException ex) {
+            log.warn("Cannot read thumbnail index, starting empty: {}", ex.getMessage());
+            return;
+        }
+        for (String path : props.stringPropertyNames()) {
+            Source source = Source.parse(props.getProperty(path));
+            if (source != null) {
+                index.put(path, source);
+            }
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /* ---------- варианты ---------- */
+
+    static int variantFor(int size) {
+        for (int variant : SIZES) {
+            if (variant >= size) {
+                return variant;
+            }
+        }
+        return SIZES.get(SIZES.size() - 1);
+    }
+
+    private Path variantPath(String hash, int size) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash + "-" + size + ".png");
+    }
+
+    /** Один раз декодирует оригинал и пишет все варианты, от крупного к мелкому. */
+    private boolean generate(Path original, String hash) throws IOException {
+        BufferedImage source = ImageIO.read(original.toFile());
+        if (source == null) {
+            return false;
+        }
+        Path dir = variantPath(hash, 0).getParent();
+        Files.createDirectories(dir);
+
+        BufferedImage current = source;
+        for (int i = SIZES.size() - 1; i >= 0; i--) {
+            int size = SIZES.get(i);
+            current = scale(current, size);
+            Path tmp = Files.createTempFile(dir, hash, ".tmp");
+            try {
+                if (!ImageIO.write(current, "png", tmp.toFile())) {
+                    return false;
+                }
+                move(tmp, variantPath(hash, size));
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Вписывает картинку в квадрат {@code size}×{@code size}, уменьшая вдвое
+     * за шаг: одно билинейное сжатие в десятки раз даёт заметную «лесенку».
+     */
+    static BufferedImage scale(BufferedImage image, int size) {
+        double ratio = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int targetW = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int targetH = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        BufferedImage current = image;
+        int w = image.getWidth();
+        int h = image.getHeight();
+        do {
+            w = Math.max(targetW, w / 2);
+            h = Math.max(targetH, h / 2);
+            BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (w != targetW || h != targetH);
+        return current;
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.conferenceapp.tools;
+
+import com.example.conferenceapp.importer.CsvImporter;
+import com.example.conferenceapp.importer.ImportFile;
+import com.example.conferenceapp.importer.ImportOptions;
+import com.example.conferenceapp.importer.ImportReport;
+import com.example.conferenceapp.util.DBUtil;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Загрузка CSV из каталога {@code data/} с консоли.
+ * <pre>
+ * java -cp target/classes:&lt;deps&gt; com.example.conferenceapp.tools.CsvImportTool \
+ *      [--dir=data] [--dry-run] [--rescan] [--only=participants,jury] [--chunk=1000] [--threads=N] \
+ *      [--photos=&lt;каталог с фото&gt;] [--direction=&lt;направление мероприятий&gt;]
+ * </pre>
+ * {@code --dry-run} разбирает и проверяет файлы, ничего не записывая;
+ * {@code --rescan} перечитывает файлы с начала, не доверяя контрольным точкам.
+ * Пересечения в расписании печатаются по модераторам и членам жюри и
+ * на код выхода не влияют.
+ * Код выхода 0 — без ошибок, 1 — были отклонённые строки, 2 — загрузка прервана.
+ */
+public final class CsvImportTool {
+
+    public static void main(String[] args) {
+        Path dir = Path.of("data");
+        boolean dryRun = false;
+        boolean rescan = false;
+        int chunk = ImportOptions.DEFAULT_CHUNK_SIZE;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path photos = null;
+        String direction = ImportOptions.DEFAULT_DIRECTION;
+        Set<ImportFile> only = EnumSet.noneOf(ImportFile.class);
+
+        for (String arg : args) {
+            String value = arg.contains("=") ? arg.substring(arg.indexOf('=') + 1) : "";
+            if (arg.equals("--dry-run")) {
+                dryRun = true;
+            } else if (arg.equals("--rescan")) {
+                rescan = true;
+            } else if (arg.startsWith("--dir=")) {
+                dir = Path.of(value);
+            } else if (arg.startsWith("--chunk=")) {
+                chunk = Integer.parseInt(value);
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(value);
+            } else if (arg.startsWith("--photos=")) {
+                photos = Path.of(value);
+            } else if (arg.startsWith("--direction=")) {
+                direction = value;
+            } else if (arg.startsWith("--only=")) {
+                for (String key : value.split(",")) {
+                    only.add(ImportFile.byKey(key));
+                }
+            } else {
+                System.err.println("Unknown argument: " + arg);
+                System.exit(2);
+            }
+        }
+
+        ImportOptions options = new ImportOptions(dryRun, chunk, threads, photos, direction, only, rescan);
+        int status;
+        try {
+            ImportReport report = new CsvImporter(dir, options, (file, rows, rate, finished) ->
+                    System.out.printf("%-17s %8d rows  %8.0f rows/s%s%n",
+                            file.fileName(), rows, rate, finished ? "  done" : "")).run();
+            System.out.println(report);
+            report.errors().forEach(error -> System.out.println("  " + error));
+            printOverlaps(report);
+            status = report.hasErrors() ? 1 : 0;
+        } catch (SQLException ex) {
+            System.err.println("Import aborted: " + ex.getMessage());
+            status = 2;
+        } finally {
+            DBUtil.shutdown();
+        }
+        System.exit(status);
+    }
+
+    private static void printOverlaps(ImportReport report) {
+        int person = 0;
+        for (ImportReport.Overlap overlap : report.overlaps()) {
+            if (overlap.personId() != person) {
+                person = overlap.personId();
+                System.out.println("Пересечения: " + overlap.personName());
+            }
+            System.out.println("  " + overlap.activities());
+        }
+    }
+}
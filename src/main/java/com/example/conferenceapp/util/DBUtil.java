@@ -1,13 +1,18 @@
 package com.example.conferenceapp.util;
 
+import com.example.conferenceapp.db.ConnectionPool;
+import com.example.conferenceapp.db.DataSourceConfig;
+import com.example.conferenceapp.db.DataSourceProfile;
+import com.example.conferenceapp.db.MigrationRunner;
+import com.example.conferenceapp.db.PoolStats;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 public class DBUtil {
-    private static final String URL = "jdbc:mysql://localhost:3306/conference_db?serverTimezone=UTC&useSSL=false";
-    private static final String USER = "root";
-    private static final String PASSWORD = "";
 
     static {
         try {
@@ -17,7 +22,45 @@ public class DBUtil {
         }
     }
 
+    private static final DataSourceConfig CONFIG = DataSourceConfig.load();
+    private static final Map<DataSourceProfile, ConnectionPool> POOLS = new EnumMap<>(DataSourceProfile.class);
+
+    /** Соединение интерактивного профиля; {@code close()} возвращает его в пул. */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return getConnection(DataSourceProfile.INTERACTIVE);
+    }
+
+    /** Соединение из пула указанного профиля (импорт, отчёты и т.д.). */
+    public static Connection getConnection(DataSourceProfile profile) throws SQLException {
+        return pool(profile).getConnection();
+    }
+
+    public static PoolStats poolStats() {
+        return poolStats(DataSourceProfile.INTERACTIVE);
+    }
+
+    public static PoolStats poolStats(DataSourceProfile profile) {
+        return pool(profile).stats();
+    }
+
+    /**
+     * Приводит схему БД к актуальной версии. Выполняется на соединении профиля
+     * {@code bulk}: построение индексов на больших таблицах не укладывается
+     * в тайм-ауты интерактивного профиля.
+     */
+    public static List<MigrationRunner.Migration> migrate() throws SQLException {
+        try (Connection c = getConnection(DataSourceProfile.BULK_IMPORT)) {
+            return new MigrationRunner(c).migrate();
+        }
+    }
+
+    /** Закрывает простаивающие соединения всех профилей при выходе из приложения. */
+    public static synchronized void shutdown() {
+        POOLS.values().forEach(ConnectionPool::close);
+        POOLS.clear();
+    }
+
+    private static synchronized ConnectionPool pool(DataSourceProfile profile) {
+        return POOLS.computeIfAbsent(profile, p -> new ConnectionPool(CONFIG.poolSettings(p)));
     }
-}
\ No newline at end of file
+}
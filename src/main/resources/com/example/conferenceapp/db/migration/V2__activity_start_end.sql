@@ -0,0 +1,18 @@
+-- =========================================
+-- V2. Фактическое время активностей
+-- =========================================
+-- start_at / end_at = дата мероприятия + (day_num-1) дней + start_time / end_time.
+-- Поддерживаются DAO (вставка активностей, смена дат мероприятия),
+-- чтобы фильтры и сортировка по дате шли по индексу, а не по выражению.
+ALTER TABLE activity
+    ADD COLUMN start_at DATETIME NULL AFTER end_time,
+    ADD COLUMN end_at   DATETIME NULL AFTER start_at;
+
+UPDATE activity a
+    JOIN event e ON e.id = a.event_id
+SET a.start_at = TIMESTAMP(DATE(e.start_datetime) + INTERVAL (a.day_num-1) DAY, a.start_time),
+    a.end_at   = TIMESTAMP(DATE(e.start_datetime) + INTERVAL (a.day_num-1) DAY, a.end_time);
+
+CREATE INDEX idx_activity_event_start     ON activity(event_id, start_at);
+CREATE INDEX idx_activity_moderator_start ON activity(moderator_id, start_at);
+CREATE INDEX idx_activity_start_end       ON activity(start_at, end_at);
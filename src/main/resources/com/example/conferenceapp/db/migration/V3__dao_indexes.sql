@@ -0,0 +1,29 @@
+-- =========================================
+-- V3. Индексы под запросы DAO
+-- =========================================
+-- Явный составной индекс по колонке внешнего ключа заменяет неявный индекс,
+-- который MySQL создаёт для FK, поэтому дублей не остаётся.
+
+-- ActivityDao.hasCollision, ModeratorDao.cancelApplications / myActivities
+CREATE INDEX idx_ma_moderator_status   ON moderator_application(moderator_id, status, activity_id);
+-- ModeratorDao.loadSlots: LEFT JOIN ... ON ma.activity_id = a.id AND ma.moderator_id = ?
+CREATE INDEX idx_ma_activity_moderator ON moderator_application(activity_id, moderator_id, status);
+
+-- ActivityDao.loadParticipants, PersonDao.findParticipants (фильтр по мероприятию)
+CREATE INDEX idx_pe_event_participant  ON participant_event(event_id, participant_id);
+-- PersonDao.findJuryAndModerators (фильтр по мероприятию)
+CREATE INDEX idx_massign_event_user    ON moderator_assignment(event_id, user_id);
+-- PersonDao.findJuryAndModerators: мероприятия члена жюри
+CREATE INDEX idx_aj_jury_activity      ON activity_jury(jury_id, activity_id);
+
+-- PersonDao.loadUsersByRole / find*: WHERE role_id = ? ORDER BY full_name, LIKE 'Фамилия%'
+CREATE INDEX idx_user_role_name        ON user(role_id, full_name);
+
+-- ActivityDao.loadResources / findResources, loadTasks: WHERE activity_id ... ORDER BY id
+CREATE INDEX idx_resource_activity     ON resource(activity_id, id);
+CREATE INDEX idx_task_activity         ON activity_task(activity_id, id);
+
+-- EventDao.find: ORDER BY start_datetime, фильтры по направлению и организатору
+CREATE INDEX idx_event_start           ON event(start_datetime);
+CREATE INDEX idx_event_direction_start ON event(direction_id, start_datetime);
+CREATE INDEX idx_event_organizer_start ON event(organizer_id, start_datetime);
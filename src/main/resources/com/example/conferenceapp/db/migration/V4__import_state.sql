@@ -0,0 +1,32 @@
+-- =========================================
+-- V4. Состояние загрузки CSV
+-- =========================================
+-- import_checkpoint: докуда дочитан каждый файл data/*.csv. Обновляется в той же
+-- транзакции, что и пакет строк, поэтому всегда совпадает с тем, что реально
+-- записано. status = RUNNING — загрузка файла прервана, DONE — файл загружен целиком.
+CREATE TABLE import_checkpoint (
+    file_name       VARCHAR(64) PRIMARY KEY,
+    status          ENUM('RUNNING','DONE') NOT NULL,
+    file_size       BIGINT NOT NULL,
+    file_modified   BIGINT NOT NULL,
+    byte_offset     BIGINT NOT NULL,
+    line_no         INT NOT NULL,
+    last_row_offset BIGINT NULL,
+    last_row_hash   CHAR(64) NULL,
+    rows_done       INT NOT NULL DEFAULT 0,
+    updated_at      TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+-- import_row: какая запись БД создана из строки файла с данным естественным ключом
+-- (почта, название страны, id мероприятия...) и хэш строки при последней загрузке.
+-- Повторная загрузка пишет только строки с новым ключом или изменённым хэшем
+-- и удаляет записи, чьих ключей в файле больше нет.
+CREATE TABLE import_row (
+    file_name   VARCHAR(64) NOT NULL,
+    key_hash    CHAR(64)    NOT NULL,
+    natural_key VARCHAR(512) NOT NULL,
+    row_hash    CHAR(64)    NOT NULL,
+    target_id   INT         NOT NULL,
+    updated_at  TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (file_name, key_hash)
+);
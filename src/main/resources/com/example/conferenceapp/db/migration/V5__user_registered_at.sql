@@ -0,0 +1,6 @@
+-- =========================================
+-- V5. Дата регистрации пользователя
+-- =========================================
+-- Нужна справочнику участников для сортировки «по дате регистрации». Уже
+-- существующие пользователи получают время применения миграции.
+ALTER TABLE user ADD COLUMN created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
@@ -0,0 +1,17 @@
+-- =========================================
+-- V6. Счётчики номеров пользователей
+-- =========================================
+-- id_sequence: следующий свободный номер id_number для каждого префикса
+-- (PT-000123 → префикс PT-, номер 123). Процесс забирает себе блок номеров
+-- одним UPDATE и раздаёт его из памяти, см. IdNumberSequence. Начальные
+-- значения — после самых больших уже выданных номеров.
+CREATE TABLE id_sequence (
+    prefix     VARCHAR(16) PRIMARY KEY,
+    next_value BIGINT NOT NULL
+);
+
+INSERT INTO id_sequence(prefix, next_value)
+SELECT p.prefix, COALESCE(MAX(CAST(SUBSTRING(u.id_number, CHAR_LENGTH(p.prefix) + 1) AS UNSIGNED)), 0) + 1
+  FROM (SELECT 'PT-' AS prefix UNION ALL SELECT 'JR-' UNION ALL SELECT 'MD-' UNION ALL SELECT 'OR-') p
+  LEFT JOIN user u ON u.id_number LIKE CONCAT(p.prefix, '%')
+ GROUP BY p.prefix;
@@ -0,0 +1,17 @@
+-- =========================================
+-- V7. Метки изменений расписания
+-- =========================================
+-- ScheduleConflictService перед проверкой читает, какие активности изменились
+-- с прошлой сверки (в том числе с других рабочих мест и из загрузки CSV), и
+-- перечитывает только их. Удаления меток не оставляют — их подбирает полная
+-- перестройка индекса по возрасту.
+ALTER TABLE activity
+    ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP;
+ALTER TABLE moderator_application
+    ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP;
+ALTER TABLE activity_jury
+    ADD COLUMN created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+CREATE INDEX idx_activity_updated ON activity(updated_at);
+CREATE INDEX idx_ma_updated       ON moderator_application(updated_at, activity_id);
+CREATE INDEX idx_aj_created       ON activity_jury(created_at, activity_id);
@@ -0,0 +1,15 @@
+-- =========================================
+-- V8. Ключи сортировки справочника участников
+-- =========================================
+-- PersonDao.findParticipantPage листает справочник диапазоном индекса от
+-- ключа предыдущей страницы. Колонка ключа не должна содержать NULL, поэтому
+-- для ФИО и почты — вычисляемые колонки с пустой строкой вместо NULL.
+ALTER TABLE user
+    ADD COLUMN sort_name  VARCHAR(255) AS (COALESCE(full_name, '')) STORED NOT NULL,
+    ADD COLUMN sort_email VARCHAR(255) AS (COALESCE(email, '')) STORED NOT NULL;
+
+CREATE INDEX idx_user_role_sort_name  ON user(role_id, sort_name, id);
+CREATE INDEX idx_user_role_sort_email ON user(role_id, sort_email, id);
+CREATE INDEX idx_user_role_created    ON user(role_id, created_at, id);
+-- сортировка по мероприятию: мероприятия по названию, участники — по idx_pe_event_participant
+CREATE INDEX idx_event_title          ON event(title, id);
@@ -0,0 +1,246 @@
+package com.example.conferenceapp.tools;
+
+import com.example.conferenceapp.dao.ActivityDao;
+import com.example.conferenceapp.util.DBUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сравнивает загрузку Kanban-доски ({@link ActivityDao#findByEvent}) с прежней
+ * схемой «1 + 2N запросов» на мероприятиях с 10, 100 и 1000 активностями.
+ * <p>
+ * Тестовые данные создаются во временных строках с префиксом {@code BENCH}
+ * и удаляются после замера. Запуск:
+ * <pre>java -cp target/test-classes:target/classes:&lt;deps&gt; -Dconference.db.url=jdbc:mysql://localhost:3306/conference_bench ... \
+ *      com.example.conferenceapp.tools.ActivityLoadBenchmark</pre>
+ * Схема должна быть отдельной: в её имени должно быть {@code bench}.
+ */
+public final class ActivityLoadBenchmark {
+
+    private static final int[] SIZES = {10, 100, 1_000};
+    private static final int JURY_PER_ACTIVITY = 3;
+    private static final int TASKS_PER_ACTIVITY = 2;
+    private static final int JURY_POOL = 10;
+
+    private final String tag = "BENCH-" + System.currentTimeMillis();
+    private final List<Integer> juryIds = new ArrayList<>();
+    private final List<Integer> eventIds = new ArrayList<>();
+    private int countryId;
+    private int cityId;
+    private int directionId;
+
+    public static void main(String[] args) throws SQLException {
+        try {
+            BenchmarkSupport.requireDedicatedSchema("bench");
+        } catch (IllegalStateException ex) {
+            System.err.println(ex.getMessage());
+            DBUtil.shutdown();
+            System.exit(2);
+        }
+        ActivityLoadBenchmark benchmark = new ActivityLoadBenchmark();
+        try {
+            benchmark.run();
+        } finally {
+            benchmark.cleanUp();
+            DBUtil.shutdown();
+        }
+    }
+
+    private void run() throws SQLException {
+        seedReferences();
+        ActivityDao dao = new ActivityDao();
+
+        System.out.printf("%-11s | %-22s | %-22s%n", "activities", "1 + 2N (trips / ms)", "set-based (trips / ms)");
+        for (int size : SIZES) {
+            int eventId = seedEvent(size);
+            BenchmarkSupport.Measurement legacy = BenchmarkSupport.measure(() -> legacyFindByEvent(eventId));
+            BenchmarkSupport.Measurement current = BenchmarkSupport.measure(() -> dao.findByEvent(eventId).size());
+            System.out.printf("%-11d | %8d / %9.2f | %8d / %9.2f%n",
+                    size, legacy.roundTrips(), legacy.medianMs(), current.roundTrips(), current.medianMs());
+        }
+        System.out.println(DBUtil.poolStats());
+    }
+
+    /** Прежняя реализация: коррелированный подзапрос и по два запроса на каждую активность. */
+    private long legacyFindByEvent(int eventId) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection c = DBUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement("""
+                SELECT a.id,
+                       (SELECT DATE(e.start_datetime) + INTERVAL (a.day_num-1) DAY
+                        FROM event e WHERE e.id = a.event_id) AS activity_date
+                  FROM activity a
+                  LEFT JOIN user u ON a.moderator_id = u.id
+                 WHERE a.event_id = ?
+                 ORDER BY a.day_num, a.start_time
+             """)) {
+            ps.setInt(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+
+        long rows = ids.size();
+        rows += perActivity(ids, """
+            SELECT u.full_name FROM activity_jury aj JOIN user u ON u.id = aj.jury_id
+             WHERE aj.activity_id = ? ORDER BY u.full_name
+        """);
+        rows += perActivity(ids, """
+            SELECT t.id FROM activity_task t LEFT JOIN user u ON u.id = t.created_by
+             WHERE t.activity_id = ? ORDER BY t.id
+        """);
+        return rows;
+    }
+
+    private long perActivity(List<Integer> ids, String sql) throws SQLException {
+        long rows = 0;
+        try (Connection c = DBUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            for (Integer id : ids) {
+                ps.setInt(1, id);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        rows++;
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    /* ---------------------------- test data ---------------------------- */
+
+    private void seedReferences() throws SQLException {
+        try (Connection c = DBUtil.getConnection()) {
+            countryId = insert(c, "INSERT INTO country(name_ru) VALUES(?)", tag);
+            cityId = insert(c, "INSERT INTO city(country_id, name) VALUES(" + countryId + ", ?)", tag);
+            directionId = insert(c, "INSERT INTO direction(name) VALUES(?)", tag);
+            for (int i = 0; i < JURY_POOL; i++) {
+                juryIds.add(insert(c, """
+                    INSERT INTO user(id_number, role_id, full_name)
+                    VALUES(?, (SELECT id FROM role WHERE code = 'jury'), CONCAT('Жюри ', id_number))
+                """, tag + "-J" + i));
+            }
+        }
+    }
+
+    private int seedEvent(int activities) throws SQLException {
+        try (Connection c = DBUtil.getConnection()) {
+            c.setAutoCommit(false);
+            int eventId;
+            LocalDateTime start = LocalDateTime.now().withNano(0);
+            try (PreparedStatement ps = c.prepareStatement("""
+                    INSERT INTO event(title, direction_id, start_datetime, end_datetime, city_id)
+                    VALUES(?,?,?,?,?)
+                 """, Statement.RETURN_GENERATED_KEYS)) {
+                ps.setString(1, tag + " x" + activities);
+                ps.setInt(2, directionId);
+                ps.setTimestamp(3, Timestamp.valueOf(start));
+                ps.setTimestamp(4, Timestamp.valueOf(start.plusDays(3)));
+                ps.setInt(5, cityId);
+                ps.executeUpdate();
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    rs.next();
+                    eventId = rs.getInt(1);
+                }
+            }
+            eventIds.add(eventId);
+
+            List<Integer> activityIds = new ArrayList<>();
+            try (PreparedStatement ps = c.prepareStatement(
+                    "INSERT INTO activity(event_id, title, day_num, start_time, end_time, start_at, end_at) VALUES(?,?,?,?,?,?,?)",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < activities; i++) {
+                    LocalTime startTime = LocalTime.of(9, 0).plusMinutes(15L * (i % 40));
+                    int dayNum = 1 + i / 40;
+                    LocalDateTime day = start.toLocalDate().plusDays(dayNum - 1L).atStartOfDay();
+                    ps.setInt(1, eventId);
+                    ps.setString(2, "Активность " + i);
+                    ps.setInt(3, dayNum);
+                    ps.setTime(4, Time.valueOf(startTime));
+                    ps.setTime(5, Time.valueOf(startTime.plusMinutes(90)));
+                    ps.setTimestamp(6, Timestamp.valueOf(day.with(startTime)));
+                    ps.setTimestamp(7, Timestamp.valueOf(day.with(startTime.plusMinutes(90))));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    while (rs.next()) {
+                        activityIds.add(rs.getInt(1));
+                    }
+                }
+            }
+
+            try (PreparedStatement jury = c.prepareStatement("INSERT INTO activity_jury(activity_id, jury_id) VALUES(?,?)");
+                 PreparedStatement task = c.prepareStatement("INSERT INTO activity_task(activity_id, title) VALUES(?,?)")) {
+                for (int i = 0; i < activityIds.size(); i++) {
+                    int activityId = activityIds.get(i);
+                    for (int j = 0; j < JURY_PER_ACTIVITY; j++) {
+                        jury.setInt(1, activityId);
+                        jury.setInt(2, juryIds.get((i + j) % juryIds.size()));
+                        jury.addBatch();
+                    }
+                    for (int t = 0; t < TASKS_PER_ACTIVITY; t++) {
+                        task.setInt(1, activityId);
+                        task.setString(2, "Задача " + t);
+                        task.addBatch();
+                    }
+                }
+                jury.executeBatch();
+                task.executeBatch();
+            }
+            c.commit();
+            return eventId;
+        }
+    }
+
+    private void cleanUp() {
+        try (Connection c = DBUtil.getConnection()) {
+            for (Integer eventId : eventIds) {
+                String scope = "(SELECT id FROM activity WHERE event_id = " + eventId + ")";
+                execute(c, "DELETE FROM activity_task WHERE activity_id IN " + scope);
+                execute(c, "DELETE FROM activity_jury WHERE activity_id IN " + scope);
+                execute(c, "DELETE FROM activity WHERE event_id = " + eventId);
+                execute(c, "DELETE FROM event WHERE id = " + eventId);
+            }
+            try (PreparedStatement ps = c.prepareStatement("DELETE FROM user WHERE id_number LIKE ?")) {
+                ps.setString(1, tag + "-%");
+                ps.executeUpdate();
+            }
+            execute(c, "DELETE FROM city WHERE id = " + cityId);
+            execute(c, "DELETE FROM country WHERE id = " + countryId);
+            execute(c, "DELETE FROM direction WHERE id = " + directionId);
+        } catch (SQLException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    private static int insert(Connection c, String sql, String value) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, value);
+            ps.executeUpdate();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static void execute(Connection c, String sql) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.executeUpdate(sql);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.conferenceapp.tools;
+
+import com.example.conferenceapp.util.DBUtil;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Общие утилиты для консольных бенчмарков DAO.
+ * <p>
+ * Число обращений к серверу считается по глобальному счётчику {@code Questions}
+ * MySQL, поэтому бенчмарки стоит запускать на тестовой БД без посторонней нагрузки.
+ * <p>
+ * Бенчмарки и аудит планов создают и удаляют строки, поэтому работают только
+ * со схемой, заданной явно ({@code -Dconference.db.url=...}) и названной
+ * соответственно — см. {@link #requireDedicatedSchema(String)}.
+ */
+final class BenchmarkSupport {
+
+    static final int WARMUP_RUNS = 2;
+    static final int MEASURED_RUNS = 7;
+    static final String URL_PROPERTY = "conference.db.url";
+
+    private BenchmarkSupport() {
+    }
+
+    /** Результат замера: медиана времени и число запросов за один прогон. */
+    record Measurement(double medianMs, long roundTrips, long rows) {
+    }
+
+    /** Один прогон сценария; возвращает число полученных строк/объектов. */
+    @FunctionalInterface
+    interface Scenario {
+        long run() throws SQLException;
+    }
+
+    /**
+     * Отказывает, если БД не задана явно системным свойством или имя схемы не
+     * содержит {@code marker} ({@code bench}, {@code audit}): настройки по
+     * умолчанию из {@code db.properties} указывают на рабочую БД.
+     *
+     * @throws IllegalStateException схема не выделена под замеры
+     */
+    static void requireDedicatedSchema(String marker) throws SQLException {
+        String url = System.getProperty(URL_PROPERTY);
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException("Укажите отдельную БД для замеров: -D" + URL_PROPERTY
+                    + "=jdbc:mysql://.../conference_" + marker);
+        }
+        String schema;
+        try (Connection c = DBUtil.getConnection();
+             Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT DATABASE()")) {
+            schema = rs.next() && rs.getString(1) != null ? rs.getString(1) : "";
+        }
+        if (!schema.toLowerCase(Locale.ROOT).contains(marker)) {
+            throw new IllegalStateException("Схема «" + schema + "» не выделена под замеры: в имени нет «"
+                    + marker + "»");
+        }
+    }
+
+    static Measurement measure(Scenario scenario) throws SQLException {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            scenario.run();
+        }
+
+        long[] nanos = new long[MEASURED_RUNS];
+        long rows = 0;
+        long before = questions();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long started = System.nanoTime();
+            rows = scenario.run();
+            nanos[i] = System.nanoTime() - started;
+        }
+        // сам запрос счётчика тоже попадает в Questions
+        long trips = (questions() - before - 1) / MEASURED_RUNS;
+
+        Arrays.sort(nanos);
+        return new Measurement(nanos[MEASURED_RUNS / 2] / 1_000_000.0, trips, rows);
+    }
+
+    static long questions() throws SQLException {
+        try (Connection c = DBUtil.getConnection();
+             Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SHOW GLOBAL STATUS LIKE 'Questions'")) {
+            return rs.next() ? rs.getLong(2) : 0;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.conferenceapp.tools;
+
+import com.example.conferenceapp.service.GlobalSearchIndex;
+import com.example.conferenceapp.service.GlobalSearchIndex.Document;
+import com.example.conferenceapp.service.GlobalSearchIndex.Kind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Задержка и память {@link GlobalSearchIndex} на синтетических данных: по
+ * умолчанию 5 000 мероприятий с описаниями, по 10 активностей, 3 задачи и
+ * 2 материала на активность и 100 000 пользователей. Запросы — в разных
+ * падежах и недописанные, как их набирают. БД не нужна. Запуск:
+ * <pre>java -cp target/test-classes:target/classes:&lt;deps&gt; com.example.conferenceapp.tools.GlobalSearchBenchmark [число мероприятий]</pre>
+ */
+public final class GlobalSearchBenchmark {
+
+    private static final String[] TOPICS = {
+            "информационной безопасности", "защиты персональных данных", "криптографии", "анализа уязвимостей",
+            "безопасной разработки", "сетевой безопасности", "расследования инцидентов", "облачной инфраструктуры"
+    };
+    private static final String[] FORMATS = {"Конференция", "Форум", "Семинар", "Школа", "Хакатон", "Симпозиум"};
+    private static final String[] SESSIONS = {
+            "Секция", "Круглый стол", "Мастер-класс", "Доклад", "Пленарное заседание", "Воркшоп"
+    };
+    private static final String[] TASKS = {"Подготовить слайды", "Проверить оборудование", "Собрать вопросы"};
+    private static final String[] RESOURCES = {"Презентация", "Запись трансляции", "Раздаточные материалы"};
+    private static final String[] PEOPLE = {"Иванов", "Петров", "Смирнова", "Кузнецов", "Соколова", "Хабаров"};
+
+    private static final String[] QUERIES = {
+            "конференция", "конференции", "конфер", "безопасность", "безопасной разработке", "криптограф",
+            "секции", "мастер класс", "презентации", "иванов", "хакатон облачной", "к", "xyz"
+    };
+
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int MEASURED_ROUNDS = 200;
+
+    public static void main(String[] args) {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        long before = usedMemory();
+        long started = System.nanoTime();
+        GlobalSearchIndex index = GlobalSearchIndex.of(documents(events));
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+        long after = usedMemory();
+        System.out.printf("index generated and built in %d ms, ~%,d KB retained%n%n",
+                elapsed, Math.max(0, after - before) / 1024);
+
+        System.out.printf("%-24s | %6s | %8s | %8s | %-40s%n", "query", "hits", "median", "p99", "first");
+        for (String query : QUERIES) {
+            List<GlobalSearchIndex.Hit> hits = index.search(query, 5);
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                index.search(query, 5);
+            }
+            long[] nanos = new long[MEASURED_ROUNDS];
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                long t = System.nanoTime();
+                index.search(query, 5);
+                nanos[i] = System.nanoTime() - t;
+            }
+            Arrays.sort(nanos);
+            String first = hits.isEmpty() ? "" : hits.get(0).kind() + " " + hits.get(0).title();
+            System.out.printf("%-24s | %6d | %5.2f ms | %5.2f ms | %-40.40s%n", query, hits.size(),
+                    nanos[MEASURED_ROUNDS / 2] / 1e6, nanos[MEASURED_ROUNDS * 99 / 100] / 1e6, first);
+        }
+    }
+
+    private static List<Document> documents(int events) {
+        Random random = new Random(42);
+        List<Document> documents = new ArrayList<>();
+        int activityId = 0;
+        int taskId = 0;
+        int resourceId = 0;
+        for (int eventId = 1; eventId <= events; eventId++) {
+            String topic = TOPICS[random.nextInt(TOPICS.length)];
+            String title = FORMATS[random.nextInt(FORMATS.length)] + " по вопросам " + topic + " " + (2000 + eventId % 30);
+            String description = "Ежегодная встреча специалистов в области " + topic
+                    + ". В программе доклады, секции и практические занятия по " + TOPICS[random.nextInt(TOPICS.length)];
+            documents.add(new Document(Kind.EVENT, eventId, eventId, title, "01.06.2025", description));
+            for (int a = 0; a < 10; a++) {
+                String activity = SESSIONS[random.nextInt(SESSIONS.length)] + " " + TOPICS[random.nextInt(TOPICS.length)];
+                documents.add(new Document(Kind.ACTIVITY, ++activityId, eventId, activity, title, null));
+                for (int t = 0; t < 3; t++) {
+                    documents.add(new Document(Kind.TASK, ++taskId, eventId, TASKS[t], activity, null));
+                }
+                for (int r = 0; r < 2; r++) {
+                    documents.add(new Document(Kind.RESOURCE, ++resourceId, eventId,
+                            RESOURCES[random.nextInt(RESOURCES.length)] + " " + activityId + ".pdf", activity, null));
+                }
+            }
+        }
+        for (int userId = 1; userId <= 100_000; userId++) {
+            documents.add(new Document(Kind.PERSON, userId, 0,
+                    PEOPLE[random.nextInt(PEOPLE.length)] + " " + userId, "Участник", null));
+        }
+        return documents;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
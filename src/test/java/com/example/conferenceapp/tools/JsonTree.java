@@ -0,0 +1,168 @@
+package com.example.conferenceapp.tools;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Минимальный разбор JSON в {@code Map}/{@code List}/{@code String}/{@code Double}/{@code Boolean}.
+ * Нужен только для вывода {@code EXPLAIN FORMAT=JSON}, поэтому без отдельной библиотеки.
+ */
+final class JsonTree {
+
+    private final String text;
+    private int pos;
+
+    private JsonTree(String text) {
+        this.text = text;
+    }
+
+    static Object parse(String text) {
+        JsonTree parser = new JsonTree(text);
+        Object value = parser.value();
+        parser.skipSpace();
+        if (parser.pos != text.length()) {
+            throw parser.error("Trailing characters");
+        }
+        return value;
+    }
+
+    /** Число из узла: MySQL пишет одни оценки числами, другие строками ("1.25"). */
+    static double number(Object node) {
+        if (node instanceof Number n) {
+            return n.doubleValue();
+        }
+        if (node instanceof String s && !s.isEmpty()) {
+            try {
+                return Double.parseDouble(s);
+            } catch (NumberFormatException ignored) {
+                // не число
+            }
+        }
+        return 0;
+    }
+
+    private Object value() {
+        skipSpace();
+        if (pos >= text.length()) {
+            throw error("Unexpected end of input");
+        }
+        char ch = text.charAt(pos);
+        return switch (ch) {
+            case '{' -> object();
+            case '[' -> array();
+            case '"' -> string();
+            case 't' -> literal("true", Boolean.TRUE);
+            case 'f' -> literal("false", Boolean.FALSE);
+            case 'n' -> literal("null", null);
+            default -> number();
+        };
+    }
+
+    private Map<String, Object> object() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        pos++;
+        skipSpace();
+        if (consume('}')) {
+            return map;
+        }
+        do {
+            skipSpace();
+            String key = string();
+            skipSpace();
+            expect(':');
+            map.put(key, value());
+            skipSpace();
+        } while (consume(','));
+        expect('}');
+        return map;
+    }
+
+    private List<Object> array() {
+        List<Object> list = new ArrayList<>();
+        pos++;
+        skipSpace();
+        if (consume(']')) {
+            return list;
+        }
+        do {
+            list.add(value());
+            skipSpace();
+        } while (consume(','));
+        expect(']');
+        return list;
+    }
+
+    private String string() {
+        expect('"');
+        StringBuilder sb = new StringBuilder();
+        while (pos < text.length()) {
+            char ch = text.charAt(pos++);
+            if (ch == '"') {
+                return sb.toString();
+            }
+            if (ch != '\\') {
+                sb.append(ch);
+                continue;
+            }
+            char esc = text.charAt(pos++);
+            switch (esc) {
+                case 'n' -> sb.append('\n');
+                case 't' -> sb.append('\t');
+                case 'r' -> sb.append('\r');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'u' -> {
+                    sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    pos += 4;
+                }
+                default -> sb.append(esc);
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private Double number() {
+        int start = pos;
+        while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+            pos++;
+        }
+        if (start == pos) {
+            throw error("Unexpected character '" + text.charAt(pos) + "'");
+        }
+        return Double.valueOf(text.substring(start, pos));
+    }
+
+    private Object literal(String word, Object value) {
+        if (!text.startsWith(word, pos)) {
+            throw error("Expected " + word);
+        }
+        pos += word.length();
+        return value;
+    }
+
+    private void skipSpace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private boolean consume(char ch) {
+        if (pos < text.length() && text.charAt(pos) == ch) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char ch) {
+        if (!consume(ch)) {
+            throw error("Expected '" + ch + "'");
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + pos);
+    }
+}
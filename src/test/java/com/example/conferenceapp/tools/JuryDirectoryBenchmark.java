@@ -0,0 +1,243 @@
+package com.example.conferenceapp.tools;
+
+import com.example.conferenceapp.dao.PersonDao;
+import com.example.conferenceapp.util.DBUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сравнивает справочник жюри и модераторов ({@link PersonDao#findJuryAndModerators})
+ * с прежним запросом, который отдавал строку на каждую пару человек —
+ * мероприятие: число строк и медиану времени, без фильтра и с фильтром по
+ * мероприятию.
+ * <p>
+ * Тестовые данные — {@value #EVENTS} мероприятий по {@value #ACTIVITIES_PER_EVENT}
+ * активностей, {@value #JURY} членов жюри по {@value #JURY_PER_ACTIVITY} на
+ * активность и {@value #MODERATORS} модераторов, назначенных на
+ * {@value #EVENTS_PER_MODERATOR} мероприятий, — создаются во временных строках
+ * с префиксом {@code BENCH} и удаляются после замера. Запуск:
+ * <pre>java -cp target/test-classes:target/classes:&lt;deps&gt; -Dconference.db.url=jdbc:mysql://localhost:3306/conference_bench ... \
+ *      com.example.conferenceapp.tools.JuryDirectoryBenchmark</pre>
+ * Схема должна быть отдельной: в её имени должно быть {@code bench}.
+ */
+public final class JuryDirectoryBenchmark {
+
+    private static final int EVENTS = 40;
+    private static final int ACTIVITIES_PER_EVENT = 30;
+    private static final int JURY = 200;
+    private static final int JURY_PER_ACTIVITY = 3;
+    private static final int MODERATORS = 100;
+    private static final int EVENTS_PER_MODERATOR = 8;
+
+    /** Прежний запрос: связи через UNION, строка на каждое мероприятие человека. */
+    private static final String LEGACY_SQL = """
+            SELECT u.id,
+                   u.full_name,
+                   e.title AS event_title
+              FROM user u
+              JOIN role r ON r.id = u.role_id
+              LEFT JOIN direction d ON d.id = u.direction_id
+              LEFT JOIN (
+                    SELECT ma.user_id, ma.event_id
+                      FROM moderator_assignment ma
+                    UNION
+                    SELECT aj.jury_id AS user_id, a.event_id
+                      FROM activity_jury aj
+                      JOIN activity a ON a.id = aj.activity_id
+              ) rel ON rel.user_id = u.id
+              LEFT JOIN event e ON e.id = rel.event_id
+             WHERE r.code IN ('jury','moderator')
+            """;
+
+    private final String tag = "BENCH-" + System.currentTimeMillis();
+    private final List<Integer> juryIds = new ArrayList<>();
+    private final List<Integer> moderatorIds = new ArrayList<>();
+    private final List<Integer> eventIds = new ArrayList<>();
+    private int countryId;
+    private int cityId;
+    private int directionId;
+
+    public static void main(String[] args) throws SQLException {
+        try {
+            BenchmarkSupport.requireDedicatedSchema("bench");
+        } catch (IllegalStateException ex) {
+            System.err.println(ex.getMessage());
+            DBUtil.shutdown();
+            System.exit(2);
+        }
+        JuryDirectoryBenchmark benchmark = new JuryDirectoryBenchmark();
+        try {
+            benchmark.run();
+        } finally {
+            benchmark.cleanUp();
+            DBUtil.shutdown();
+        }
+    }
+
+    private void run() throws SQLException {
+        seed();
+        PersonDao dao = new PersonDao();
+        int eventId = eventIds.get(0);
+
+        System.out.printf("%-10s | %-24s | %-24s%n", "filter", "per event (rows / ms)", "per person (rows / ms)");
+        BenchmarkSupport.Measurement legacy = BenchmarkSupport.measure(() -> legacy(null));
+        BenchmarkSupport.Measurement current = BenchmarkSupport.measure(
+                () -> dao.findJuryAndModerators(null, null).size());
+        print("all", legacy, current);
+
+        legacy = BenchmarkSupport.measure(() -> legacy(eventId));
+        current = BenchmarkSupport.measure(() -> dao.findJuryAndModerators(null, eventId).size());
+        print("event", legacy, current);
+    }
+
+    private static void print(String filter, BenchmarkSupport.Measurement legacy, BenchmarkSupport.Measurement current) {
+        System.out.printf("%-10s | %8d / %11.2f | %8d / %11.2f%n",
+                filter, legacy.rows(), legacy.medianMs(), current.rows(), current.medianMs());
+    }
+
+    private long legacy(Integer eventId) throws SQLException {
+        String sql = LEGACY_SQL + (eventId != null ? " AND rel.event_id = ?" : "") + " ORDER BY u.full_name";
+        long rows = 0;
+        try (Connection c = DBUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            if (eventId != null) {
+                ps.setInt(1, eventId);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /* ---------------------------- test data ---------------------------- */
+
+    private void seed() throws SQLException {
+        try (Connection c = DBUtil.getConnection()) {
+            c.setAutoCommit(false);
+            countryId = insert(c, "INSERT INTO country(name_ru) VALUES(?)", tag);
+            cityId = insert(c, "INSERT INTO city(country_id, name) VALUES(" + countryId + ", ?)", tag);
+            directionId = insert(c, "INSERT INTO direction(name) VALUES(?)", tag);
+            for (int i = 0; i < JURY; i++) {
+                juryIds.add(insertUser(c, "jury", tag + "-J" + i));
+            }
+            for (int i = 0; i < MODERATORS; i++) {
+                moderatorIds.add(insertUser(c, "moderator", tag + "-M" + i));
+            }
+
+            LocalDateTime start = LocalDateTime.now().withNano(0);
+            try (PreparedStatement event = c.prepareStatement("""
+                    INSERT INTO event(title, direction_id, start_datetime, end_datetime, city_id)
+                    VALUES(?,?,?,?,?)
+                 """, Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement activity = c.prepareStatement(
+                         "INSERT INTO activity(event_id, title, day_num) VALUES(?,?,1)",
+                         Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement jury = c.prepareStatement(
+                         "INSERT INTO activity_jury(activity_id, jury_id) VALUES(?,?)")) {
+                for (int e = 0; e < EVENTS; e++) {
+                    event.setString(1, tag + " event " + e);
+                    event.setInt(2, directionId);
+                    event.setTimestamp(3, Timestamp.valueOf(start.plusDays(e)));
+                    event.setTimestamp(4, Timestamp.valueOf(start.plusDays(e + 1L)));
+                    event.setInt(5, cityId);
+                    event.executeUpdate();
+                    int eventId;
+                    try (ResultSet rs = event.getGeneratedKeys()) {
+                        rs.next();
+                        eventId = rs.getInt(1);
+                    }
+                    eventIds.add(eventId);
+
+                    for (int a = 0; a < ACTIVITIES_PER_EVENT; a++) {
+                        activity.setInt(1, eventId);
+                        activity.setString(2, "Активность " + a);
+                        activity.addBatch();
+                    }
+                    activity.executeBatch();
+                    int a = 0;
+                    try (ResultSet rs = activity.getGeneratedKeys()) {
+                        while (rs.next()) {
+                            // одна и та же небольшая группа жюри сидит почти на всех активностях мероприятия
+                            for (int j = 0; j < JURY_PER_ACTIVITY; j++) {
+                                jury.setInt(1, rs.getInt(1));
+                                jury.setInt(2, juryIds.get((e * 5 + (a + j) % 10) % JURY));
+                                jury.addBatch();
+                            }
+                            a++;
+                        }
+                    }
+                    jury.executeBatch();
+                }
+            }
+
+            try (PreparedStatement assign = c.prepareStatement(
+                    "INSERT INTO moderator_assignment(user_id, event_id) VALUES(?,?)")) {
+                for (int m = 0; m < MODERATORS; m++) {
+                    for (int k = 0; k < EVENTS_PER_MODERATOR; k++) {
+                        assign.setInt(1, moderatorIds.get(m));
+                        assign.setInt(2, eventIds.get((m + k * 3) % EVENTS));
+                        assign.addBatch();
+                    }
+                }
+                assign.executeBatch();
+            }
+            c.commit();
+        }
+    }
+
+    private void cleanUp() {
+        try (Connection c = DBUtil.getConnection()) {
+            for (Integer eventId : eventIds) {
+                execute(c, "DELETE FROM moderator_assignment WHERE event_id = " + eventId);
+                execute(c, "DELETE FROM activity_jury WHERE activity_id IN (SELECT id FROM activity WHERE event_id = "
+                        + eventId + ")");
+                execute(c, "DELETE FROM activity WHERE event_id = " + eventId);
+                execute(c, "DELETE FROM event WHERE id = " + eventId);
+            }
+            try (PreparedStatement ps = c.prepareStatement("DELETE FROM user WHERE id_number LIKE ?")) {
+                ps.setString(1, tag + "-%");
+                ps.executeUpdate();
+            }
+            execute(c, "DELETE FROM city WHERE id = " + cityId);
+            execute(c, "DELETE FROM country WHERE id = " + countryId);
+            execute(c, "DELETE FROM direction WHERE id = " + directionId);
+        } catch (SQLException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    private static int insertUser(Connection c, String role, String idNumber) throws SQLException {
+        return insert(c, """
+            INSERT INTO user(id_number, role_id, full_name)
+            VALUES(?, (SELECT id FROM role WHERE code = '%s'), CONCAT('Бенчмарк ', id_number))
+        """.formatted(role), idNumber);
+    }
+
+    private static int insert(Connection c, String sql, String value) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, value);
+            ps.executeUpdate();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static void execute(Connection c, String sql) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.executeUpdate(sql);
+        }
+    }
+}
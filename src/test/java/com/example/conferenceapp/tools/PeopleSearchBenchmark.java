@@ -0,0 +1,99 @@
+package com.example.conferenceapp.tools;
+
+import com.example.conferenceapp.service.PeopleSearchIndex;
+import com.example.conferenceapp.service.SearchText;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Задержка {@link PeopleSearchIndex} на синтетическом справочнике: по
+ * умолчанию 100 000 пользователей, ФИО из русских и латинских имён.
+ * Запросы — то, что набирают по буквам, с транслитерацией, почтой, номером
+ * и опечаткой. БД не нужна. Запуск:
+ * <pre>java -cp target/test-classes:target/classes:&lt;deps&gt; com.example.conferenceapp.tools.PeopleSearchBenchmark [число пользователей]</pre>
+ */
+public final class PeopleSearchBenchmark {
+
+    private static final String[] SURNAMES = {
+            "Иванов", "Петров", "Сидоров", "Смирнов", "Кузнецов", "Попов", "Васильев", "Соколов",
+            "Михайлов", "Новиков", "Фёдоров", "Морозов", "Волков", "Алексеев", "Лебедев", "Семёнов",
+            "Егоров", "Павлов", "Козлов", "Степанов", "Николаев", "Орлов", "Андреев", "Макаров",
+            "Никитин", "Захаров", "Зайцев", "Соловьёв", "Борисов", "Яковлев", "Григорьев", "Романов",
+            "Воробьёв", "Сергеев", "Кудрявцев", "Тимофеев", "Хабаров", "Щукин", "Юдин", "Шевченко"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Александр", "Алексей", "Анна", "Дмитрий", "Елена", "Иван", "Мария", "Михаил", "Наталья",
+            "Ольга", "Сергей", "Татьяна", "Юлия", "Ярослав", "Ксения", "Пётр", "Евгений", "Жанна"
+    };
+    private static final String[] PATRONYMICS = {
+            "Александрович", "Алексеевич", "Дмитриевич", "Иванович", "Михайлович", "Сергеевич",
+            "Петрович", "Юрьевич", "Андреевич", "Владимирович"
+    };
+    private static final String[] LATIN = {"John Smith", "Maria Garcia", "Wei Zhang", "Yusuf Khan", "Olga Schmidt"};
+    private static final String[] ROLES = {"participant", "participant", "participant", "jury", "moderator", "organizer"};
+    private static final String[] PREFIXES = {"PT-", "PT-", "PT-", "JR-", "MD-", "OR-"};
+
+    private static final String[] QUERIES = {
+            "и", "ив", "ива", "иван", "иванов", "ivanov", "иванов сер", "semenov", "хабар", "khabarov",
+            "ovich", "кузнецоф", "petrov.", "pt-0001", "jr-00004", "щукин ярослав", "zhanna"
+    };
+
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int MEASURED_ROUNDS = 200;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        List<PeopleSearchIndex.Person> people = people(size);
+
+        long started = System.nanoTime();
+        PeopleSearchIndex index = PeopleSearchIndex.of(people);
+        System.out.printf("index of %,d users built in %d ms%n%n", size, (System.nanoTime() - started) / 1_000_000);
+
+        Set<String> staff = Set.of("jury", "moderator");
+        System.out.printf("%-16s | %8s | %8s | %8s | %8s%n", "query", "hits", "median", "p99", "max");
+        for (String query : QUERIES) {
+            int hits = index.search(query, null, Integer.MAX_VALUE).size();
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                index.search(query, null, 50);
+                index.positions(query, staff);
+            }
+            long[] nanos = new long[MEASURED_ROUNDS];
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                long t = System.nanoTime();
+                index.positions(query, staff);
+                nanos[i] = System.nanoTime() - t;
+            }
+            Arrays.sort(nanos);
+            System.out.printf("%-16s | %8d | %6.2f ms | %6.2f ms | %6.2f ms%n", query, hits,
+                    nanos[MEASURED_ROUNDS / 2] / 1e6, nanos[MEASURED_ROUNDS * 99 / 100] / 1e6,
+                    nanos[MEASURED_ROUNDS - 1] / 1e6);
+        }
+    }
+
+    private static List<PeopleSearchIndex.Person> people(int size) {
+        Random random = new Random(42);
+        List<PeopleSearchIndex.Person> people = new ArrayList<>(size);
+        int[] numbers = new int[PREFIXES.length];
+        for (int id = 1; id <= size; id++) {
+            String fullName;
+            if (random.nextInt(20) == 0) {
+                fullName = LATIN[random.nextInt(LATIN.length)];
+            } else {
+                String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String surname = SURNAMES[random.nextInt(SURNAMES.length)];
+                boolean female = first.endsWith("а") || first.endsWith("я") || first.equals("Жанна");
+                fullName = (female && !surname.endsWith("о") ? surname + "а" : surname) + " " + first + " "
+                        + PATRONYMICS[random.nextInt(PATRONYMICS.length)];
+            }
+            int role = random.nextInt(ROLES.length);
+            String idNumber = PREFIXES[role] + String.format("%06d", ++numbers[role]);
+            String email = SearchText.fold(fullName).replace(' ', '.') + id + "@example.org";
+            people.add(new PeopleSearchIndex.Person(id, idNumber, fullName, email, ROLES[role]));
+        }
+        return people;
+    }
+}
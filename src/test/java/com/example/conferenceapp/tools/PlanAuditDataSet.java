@@ -0,0 +1,347 @@
+package com.example.conferenceapp.tools;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Детерминированный набор данных «боевого» объёма для аудита планов запросов.
+ * Заполняет пустую схему (после миграций) справочниками, пользователями всех ролей,
+ * мероприятиями с программой, жюри, заявками модераторов и регистрациями участников.
+ */
+final class PlanAuditDataSet {
+
+    static final int COUNTRIES = 200;
+    static final int CITIES = 1_000;
+    static final int DIRECTIONS = 30;
+    static final int ORGANIZERS = 200;
+    static final int MODERATORS = 2_000;
+    static final int JURY = 3_000;
+    static final int PARTICIPANTS = 50_000;
+    static final int EVENTS = 5_000;
+    static final int ACTIVITIES_PER_EVENT = 8;
+    static final int JURY_PER_ACTIVITY = 3;
+    static final int APPLICATIONS = 20_000;
+    static final int EVENTS_PER_PARTICIPANT = 5;
+    static final int EVENTS_PER_MODERATOR = 2;
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final String[] SURNAMES = {
+            "Иванов", "Смирнов", "Кузнецов", "Попов", "Васильев", "Петров", "Соколов", "Михайлов",
+            "Новиков", "Фёдоров", "Морозов", "Волков", "Алексеев", "Лебедев", "Семёнов", "Егоров",
+            "Павлов", "Козлов", "Степанов", "Николаев", "Орлов", "Андреев", "Макаров", "Никитин"};
+    private static final String[] NAMES = {
+            "Александр", "Дмитрий", "Максим", "Сергей", "Андрей", "Алексей", "Артём", "Илья",
+            "Кирилл", "Михаил", "Никита", "Матвей", "Роман", "Егор", "Арсений", "Иван"};
+
+    private final Connection c;
+    private final Random random = new Random(42);
+
+    PlanAuditDataSet(Connection c) {
+        this.c = c;
+    }
+
+    boolean isSeeded() throws SQLException {
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM event")) {
+            return rs.next() && rs.getInt(1) > 0;
+        }
+    }
+
+    void seed() throws SQLException {
+        c.setAutoCommit(false);
+        try {
+            List<Integer> countries = insertNamed("INSERT INTO country(name_ru) VALUES(?)", "Страна ", COUNTRIES);
+            List<Integer> cities = new ArrayList<>();
+            try (PreparedStatement ps = prepare("INSERT INTO city(country_id, name) VALUES(?,?)")) {
+                for (int i = 0; i < CITIES; i++) {
+                    ps.setInt(1, pick(countries));
+                    ps.setString(2, "Город " + i);
+                    ps.addBatch();
+                    flush(ps, i, cities);
+                }
+                finishRemaining(ps, CITIES, cities);
+            }
+            List<Integer> directions = insertNamed("INSERT INTO direction(name) VALUES(?)", "Направление ", DIRECTIONS);
+
+            List<Integer> organizers = insertUsers("organizer", "OR-", ORGANIZERS, countries, directions);
+            List<Integer> moderators = insertUsers("moderator", "MD-", MODERATORS, countries, directions);
+            List<Integer> jury = insertUsers("jury", "JR-", JURY, countries, directions);
+            List<Integer> participants = insertUsers("participant", "PT-", PARTICIPANTS, countries, directions);
+            c.commit();
+
+            List<Integer> events = new ArrayList<>();
+            List<LocalDate> eventDates = new ArrayList<>();
+            try (PreparedStatement ps = prepare("""
+                    INSERT INTO event(title, direction_id, start_datetime, end_datetime, city_id, organizer_id, description)
+                    VALUES(?,?,?,?,?,?,?)
+                 """)) {
+                LocalDate first = LocalDate.of(2023, 1, 1);
+                for (int i = 0; i < EVENTS; i++) {
+                    LocalDate date = first.plusDays(random.nextInt(3 * 365));
+                    eventDates.add(date);
+                    ps.setString(1, "Мероприятие " + i);
+                    ps.setInt(2, pick(directions));
+                    ps.setTimestamp(3, Timestamp.valueOf(date.atTime(9, 0)));
+                    ps.setTimestamp(4, Timestamp.valueOf(date.plusDays(2).atTime(18, 0)));
+                    ps.setInt(5, pick(cities));
+                    ps.setInt(6, pick(organizers));
+                    ps.setString(7, "Описание мероприятия " + i);
+                    ps.addBatch();
+                    flush(ps, i, events);
+                }
+                finishRemaining(ps, EVENTS, events);
+            }
+
+            List<Integer> activities = new ArrayList<>();
+            try (PreparedStatement ps = prepare("""
+                    INSERT INTO activity(event_id, title, day_num, start_time, end_time, start_at, end_at, moderator_id)
+                    VALUES(?,?,?,?,?,?,?,?)
+                 """)) {
+                int n = 0;
+                for (int e = 0; e < events.size(); e++) {
+                    for (int a = 0; a < ACTIVITIES_PER_EVENT; a++, n++) {
+                        int dayNum = 1 + a / 4;
+                        LocalTime start = LocalTime.of(9, 0).plusMinutes(105L * (a % 4));
+                        LocalDateTime day = eventDates.get(e).plusDays(dayNum - 1L).atStartOfDay();
+                        ps.setInt(1, events.get(e));
+                        ps.setString(2, "Активность " + n);
+                        ps.setInt(3, dayNum);
+                        ps.setTime(4, Time.valueOf(start));
+                        ps.setTime(5, Time.valueOf(start.plusMinutes(90)));
+                        ps.setTimestamp(6, Timestamp.valueOf(day.with(start)));
+                        ps.setTimestamp(7, Timestamp.valueOf(day.with(start.plusMinutes(90))));
+                        if (random.nextInt(3) == 0) {
+                            ps.setInt(8, pick(moderators));
+                        } else {
+                            ps.setNull(8, Types.INTEGER);
+                        }
+                        ps.addBatch();
+                        flush(ps, n, activities);
+                    }
+                }
+                finishRemaining(ps, n, activities);
+            }
+            c.commit();
+
+            try (PreparedStatement jp = prepare("INSERT INTO activity_jury(activity_id, jury_id) VALUES(?,?)");
+                 PreparedStatement tp = prepare("INSERT INTO activity_task(activity_id, title, created_by) VALUES(?,?,?)");
+                 PreparedStatement rp = prepare("INSERT INTO resource(activity_id, name, url, uploaded_by) VALUES(?,?,?,?)")) {
+                int n = 0;
+                for (Integer activityId : activities) {
+                    Set<Integer> chosen = new HashSet<>();
+                    while (chosen.size() < JURY_PER_ACTIVITY) {
+                        chosen.add(pick(jury));
+                    }
+                    for (Integer juryId : chosen) {
+                        jp.setInt(1, activityId);
+                        jp.setInt(2, juryId);
+                        jp.addBatch();
+                    }
+                    tp.setInt(1, activityId);
+                    tp.setString(2, "Подготовить материалы");
+                    tp.setInt(3, pick(organizers));
+                    tp.addBatch();
+                    rp.setInt(1, activityId);
+                    rp.setString(2, "Презентация");
+                    rp.setString(3, "https://example.org/r/" + activityId);
+                    rp.setInt(4, pick(jury));
+                    rp.addBatch();
+                    if (++n % BATCH_SIZE == 0) {
+                        jp.executeBatch();
+                        tp.executeBatch();
+                        rp.executeBatch();
+                    }
+                }
+                jp.executeBatch();
+                tp.executeBatch();
+                rp.executeBatch();
+            }
+
+            try (PreparedStatement ps = prepare(
+                    "INSERT INTO moderator_application(activity_id, moderator_id, status) VALUES(?,?,?)")) {
+                String[] statuses = {"SENT", "APPROVED", "REJECTED"};
+                for (int i = 0; i < APPLICATIONS; i++) {
+                    ps.setInt(1, pick(activities));
+                    ps.setInt(2, pick(moderators));
+                    ps.setString(3, statuses[random.nextInt(statuses.length)]);
+                    ps.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        ps.executeBatch();
+                    }
+                }
+                ps.executeBatch();
+            }
+
+            linkPeople("INSERT INTO moderator_assignment(user_id, event_id) VALUES(?,?)",
+                    moderators, events, EVENTS_PER_MODERATOR);
+            linkPeople("INSERT INTO participant_event(participant_id, event_id) VALUES(?,?)",
+                    participants, events, EVENTS_PER_PARTICIPANT);
+            c.commit();
+        } catch (SQLException ex) {
+            c.rollback();
+            throw ex;
+        } finally {
+            c.setAutoCommit(true);
+        }
+    }
+
+    /** Обновляет статистику таблиц, чтобы оптимизатор видел реальные объёмы. */
+    void analyze() throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute("""
+                ANALYZE TABLE country, city, direction, role, user, event, activity, activity_jury,
+                              activity_task, resource, moderator_application, moderator_assignment,
+                              participant_event
+            """);
+        }
+    }
+
+    /**
+     * Удаляет строки, созданные сценариями записи аудита и прогоном импорта
+     * ({@link PlanAuditImportFiles}), и состояние импорта этих файлов. Вызывается до
+     * и после сценариев: прерванный прошлый прогон не должен сдвигать планы.
+     */
+    void removeScenarioRows() throws SQLException {
+        String events = "SELECT id FROM event WHERE title LIKE '" + PlanAuditImportFiles.MARK + "%'";
+        String activities = "SELECT id FROM activity WHERE event_id IN (" + events + ")";
+        String users = "SELECT id FROM user WHERE email LIKE '%@" + PlanAuditImportFiles.EMAIL_DOMAIN + "'";
+        String named = " LIKE '" + PlanAuditImportFiles.MARK + "%'";
+        c.setAutoCommit(false);
+        try (Statement st = c.createStatement()) {
+            st.executeUpdate("DELETE FROM resource WHERE activity_id IN (" + activities + ")");
+            st.executeUpdate("DELETE FROM activity_task WHERE activity_id IN (" + activities + ")");
+            st.executeUpdate("DELETE FROM activity_jury WHERE activity_id IN (" + activities + ") OR jury_id IN (" + users + ")");
+            st.executeUpdate("DELETE FROM moderator_application WHERE activity_id IN (" + activities
+                    + ") OR moderator_id IN (" + users + ")");
+            st.executeUpdate("DELETE FROM moderator_assignment WHERE event_id IN (" + events + ") OR user_id IN (" + users + ")");
+            st.executeUpdate("DELETE FROM participant_event WHERE event_id IN (" + events
+                    + ") OR participant_id IN (" + users + ")");
+            st.executeUpdate("DELETE FROM activity WHERE event_id IN (" + events + ")");
+            st.executeUpdate("DELETE FROM event WHERE title" + named);
+            st.executeUpdate("DELETE FROM user WHERE email LIKE '%@" + PlanAuditImportFiles.EMAIL_DOMAIN + "'");
+            st.executeUpdate("DELETE FROM city WHERE name" + named);
+            st.executeUpdate("DELETE FROM country WHERE name_ru" + named);
+            st.executeUpdate("DELETE FROM direction WHERE name" + named);
+            st.executeUpdate("DELETE FROM import_row");
+            st.executeUpdate("DELETE FROM import_checkpoint");
+            c.commit();
+        } catch (SQLException ex) {
+            c.rollback();
+            throw ex;
+        } finally {
+            c.setAutoCommit(true);
+        }
+    }
+
+    /* ---------- helpers ---------- */
+
+    private List<Integer> insertUsers(String role, String prefix, int count,
+                                      List<Integer> countries, List<Integer> directions) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement ps = prepare("""
+                INSERT INTO user(id_number, role_id, full_name, password_hash, email, country_id,
+                                 direction_id, birth_date, gender)
+                VALUES(?, (SELECT id FROM role WHERE code = ?), ?, SHA2('password', 256), ?, ?, ?, ?, ?)
+             """)) {
+            for (int i = 0; i < count; i++) {
+                String idNumber = String.format("%s%06d", prefix, i + 1);
+                ps.setString(1, idNumber);
+                ps.setString(2, role);
+                ps.setString(3, SURNAMES[random.nextInt(SURNAMES.length)] + " "
+                        + NAMES[random.nextInt(NAMES.length)] + " " + NAMES[random.nextInt(NAMES.length)] + "ович");
+                ps.setString(4, idNumber.toLowerCase() + "@example.org");
+                ps.setInt(5, pick(countries));
+                if (role.equals("participant")) {
+                    ps.setNull(6, Types.INTEGER);
+                } else {
+                    ps.setInt(6, pick(directions));
+                }
+                ps.setDate(7, Date.valueOf(LocalDate.of(1960 + random.nextInt(45), 1 + random.nextInt(12), 1 + random.nextInt(28))));
+                ps.setString(8, random.nextBoolean() ? "male" : "female");
+                ps.addBatch();
+                flush(ps, i, ids);
+            }
+            finishRemaining(ps, count, ids);
+        }
+        return ids;
+    }
+
+    private List<Integer> insertNamed(String sql, String prefix, int count) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement ps = prepare(sql)) {
+            for (int i = 0; i < count; i++) {
+                ps.setString(1, prefix + i);
+                ps.addBatch();
+                flush(ps, i, ids);
+            }
+            finishRemaining(ps, count, ids);
+        }
+        return ids;
+    }
+
+    private void linkPeople(String sql, List<Integer> people, List<Integer> events, int perPerson) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            int n = 0;
+            for (Integer person : people) {
+                Set<Integer> chosen = new HashSet<>();
+                while (chosen.size() < perPerson) {
+                    chosen.add(pick(events));
+                }
+                for (Integer event : chosen) {
+                    ps.setInt(1, person);
+                    ps.setInt(2, event);
+                    ps.addBatch();
+                    if (++n % BATCH_SIZE == 0) {
+                        ps.executeBatch();
+                    }
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private PreparedStatement prepare(String sql) throws SQLException {
+        return c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+    }
+
+    private void flush(PreparedStatement ps, int index, List<Integer> ids) throws SQLException {
+        if ((index + 1) % BATCH_SIZE == 0) {
+            finish(ps, ids);
+        }
+    }
+
+    /** Досылает неполный последний пакет (пустой пакет не выполняется — ключи прошлого не повторятся). */
+    private static void finishRemaining(PreparedStatement ps, int total, List<Integer> ids) throws SQLException {
+        if (total % BATCH_SIZE != 0) {
+            finish(ps, ids);
+        }
+    }
+
+    private static void finish(PreparedStatement ps, List<Integer> ids) throws SQLException {
+        ps.executeBatch();
+        try (ResultSet rs = ps.getGeneratedKeys()) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+    }
+
+    private int pick(List<Integer> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.conferenceapp.tools;
+
+import com.example.conferenceapp.importer.ImportFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Три версии каталога {@code data/} для прогона импорта в аудите планов:
+ * {@code insert} — по две новые записи в каждом файле, {@code update} — те же
+ * записи с изменёнными полями (другие даты, модератор и жюри), {@code delete} —
+ * только вторая запись каждого файла, первая удаляется загрузкой.
+ * <p>
+ * Все записи помечены ({@value #MARK} в названиях, почта на {@value #EMAIL_DOMAIN},
+ * id от {@value #FIRST_ID}) и убираются {@link PlanAuditDataSet#removeScenarioRows()}.
+ */
+final class PlanAuditImportFiles {
+
+    static final String MARK = "Аудит";
+    static final String EMAIL_DOMAIN = "plan-audit.test";
+    static final int FIRST_ID = 900_001;
+
+    private static final String PASSWORD = "audit-password";
+    private static final String PERSON_HEADER = "ФИО;пол;почта;дата рождения;страна;телефон;направление;пароль;фото";
+    private static final String MODERATOR_HEADER =
+            "ФИО;пол;почта;дата рождения;страна;телефон;направление;мероприятие;пароль;фото";
+
+    private PlanAuditImportFiles() {
+    }
+
+    /** Версии каталога в порядке прогона. */
+    enum Phase { INSERT, UPDATE, DELETE }
+
+    /** Пишет все версии в подкаталоги {@code root/insert}, {@code root/update}, {@code root/delete}. */
+    static Map<Phase, Path> write(Path root) throws IOException {
+        Map<Phase, Path> dirs = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            Path dir = root.resolve(phase.name().toLowerCase(Locale.ROOT));
+            Files.createDirectories(dir);
+            for (ImportFile file : ImportFile.values()) {
+                List<String> lines = new ArrayList<>();
+                lines.add(header(file));
+                List<String> rows = rows(file, phase == Phase.INSERT ? 1 : 2);
+                lines.addAll(phase == Phase.DELETE ? rows.subList(1, rows.size()) : rows);
+                Files.write(dir.resolve(file.fileName()), lines, StandardCharsets.UTF_8);
+            }
+            dirs.put(phase, dir);
+        }
+        return dirs;
+    }
+
+    private static String header(ImportFile file) {
+        return switch (file) {
+            case COUNTRIES -> "Название страны;Английское название;Код;Код2";
+            case CITIES -> "id;name;страна";
+            case EVENTS -> "id;title;date;days;city_id";
+            case ORGANIZERS, PARTICIPANTS, JURY -> PERSON_HEADER;
+            case MODERATORS -> MODERATOR_HEADER;
+            case ACTIVITIES -> "event_id;activity;day;start_time;moderator;jury1;jury2;jury3;jury4;jury5";
+        };
+    }
+
+    /**
+     * Две строки файла; во второй версии меняются поля, но не ключи. Ссылки
+     * (страна, город, мероприятие) ведут на вторые записи: они переживают фазу удаления.
+     */
+    private static List<String> rows(ImportFile file, int version) {
+        String suffix = version == 1 ? "" : " (v2)";
+        int kept = FIRST_ID + 1;
+        List<String> rows = new ArrayList<>();
+        for (int n = 1; n <= 2; n++) {
+            int id = FIRST_ID + n - 1;
+            rows.add(switch (file) {
+                case COUNTRIES -> country(n) + ";Auditland " + n + suffix + ";;";
+                case CITIES -> id + ";" + MARK + "град " + n + suffix + ";" + country(2);
+                case EVENTS -> id + ";" + MARK + " планов: импорт " + n + suffix + ";"
+                        + (version == 1 ? "10.01.2030" : "11.01.2030") + ";" + (version + 1) + ";" + kept;
+                case ORGANIZERS, PARTICIPANTS, JURY -> person(file, n, version, "");
+                case MODERATORS -> person(file, n, version, kept + ";");
+                case ACTIVITIES -> kept + ";" + MARK + " планов: активность " + n + ";1;" + (8 + 2 * n) + ":00;"
+                        + fullName(ImportFile.MODERATORS, version) + ";" + fullName(ImportFile.JURY, version) + ";;;;";
+            });
+        }
+        return rows;
+    }
+
+    /** @param event значение колонки «мероприятие» с разделителем; пусто для файлов без неё */
+    private static String person(ImportFile file, int n, int version, String event) {
+        return fullName(file, n) + ";м;" + file.key() + n + "@" + EMAIL_DOMAIN + ";01.02.1990;" + country(2)
+                + ";+7 900 000-00-0" + version + ";;" + event + PASSWORD + ";";
+    }
+
+    private static String fullName(ImportFile file, int n) {
+        return MARK + "ов " + file.key() + " " + n;
+    }
+
+    private static String country(int n) {
+        return MARK + "ания " + n;
+    }
+}
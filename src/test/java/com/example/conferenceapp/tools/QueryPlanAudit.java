@@ -0,0 +1,685 @@
+package com.example.conferenceapp.tools;
+
+import com.example.conferenceapp.dao.ActivityDao;
+import com.example.conferenceapp.dao.EventDao;
+import com.example.conferenceapp.dao.ModeratorDao;
+import com.example.conferenceapp.dao.PersonDao;
+import com.example.conferenceapp.dao.ReferenceDao;
+import com.example.conferenceapp.dao.UserDao;
+import com.example.conferenceapp.db.ConnectionPool;
+import com.example.conferenceapp.db.DataSourceProfile;
+import com.example.conferenceapp.importer.CsvImporter;
+import com.example.conferenceapp.importer.ImportFile;
+import com.example.conferenceapp.importer.ImportOptions;
+import com.example.conferenceapp.importer.ImportProgress;
+import com.example.conferenceapp.importer.ImportReport;
+import com.example.conferenceapp.model.Activity;
+import com.example.conferenceapp.model.Event;
+import com.example.conferenceapp.model.User;
+import com.example.conferenceapp.util.DBUtil;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Регрессионная проверка планов выполнения для SQL пакета {@code dao} и импорта CSV.
+ * <p>
+ * Инструмент заполняет выделенную схему данными «боевого» объёма
+ * ({@link PlanAuditDataSet}), вызывает методы DAO — чтение, затем запись на собственных
+ * помеченных строках — и прогоняет импорт каждого файла ({@link PlanAuditImportFiles})
+ * по фазам вставки, изменения и удаления. Запросы перехватываются вместе с параметрами,
+ * каждый {@code SELECT/INSERT/UPDATE/DELETE} проходит через {@code EXPLAIN FORMAT=JSON}.
+ * Проверка падает, если в плане есть:
+ * <ul>
+ *   <li>{@code FULL_SCAN} — полный просмотр таблицы больше {@value #LARGE_TABLE_ROWS} строк;</li>
+ *   <li>{@code FILESORT} — сортировка файла над таким же объёмом;</li>
+ *   <li>{@code DEPENDENT_SUBQUERY} — подзапрос, выполняемый для каждой строки внешнего;</li>
+ *   <li>{@code ROWS_REGRESSION} — оценка прочитанных строк выросла больше чем в
+ *       {@value #ALLOWED_GROWTH} раза относительно сохранённой базовой линии;</li>
+ *   <li>{@code NO_BASELINE} — запроса нет в базовой линии.</li>
+ * </ul>
+ * До обращения к БД проверяется, что у каждого публичного метода классов {@code *Dao}
+ * есть сценарий ({@code Класс.метод} или {@code Класс.метод.вариант}); новый метод без
+ * сценария — тоже провал.
+ * <p>
+ * Базовая линия — {@code audit/query-plan-baseline.properties} ({@code <запрос>=<строк>}),
+ * хранится в репозитории; её пишет {@code --update-baseline}, после изменения SQL файл
+ * перегенерируют и коммитят вместе с кодом. Известные и принятые нарушения ведутся
+ * вручную в отдельном файле ({@code audit/query-plan-accepted.properties}) как
+ * {@code <запрос>.accepted=FULL_SCAN,FILESORT}, с комментарием-обоснованием над каждой
+ * строкой; старые {@code .accepted} в базовой линии тоже учитываются.
+ * <p>
+ * Запуск (код выхода 1 — найдены нарушения, 2 — схема не выделена):
+ * <pre>
+ * mvn -Pplan-audit verify -Dconference.db.url=jdbc:mysql://localhost:3306/conference_audit
+ * java -Dconference.db.url=jdbc:mysql://localhost:3306/conference_audit ... \
+ *      com.example.conferenceapp.tools.QueryPlanAudit [--update-baseline] [--baseline=путь] [--accepted=путь]
+ * </pre>
+ * Схема должна быть задана явно и быть отдельной: имя БД обязано содержать {@code audit}.
+ */
+public final class QueryPlanAudit {
+
+    static final long LARGE_TABLE_ROWS = 1_000;
+    static final double ALLOWED_GROWTH = 2.0;
+    private static final Path DEFAULT_BASELINE = Path.of("audit", "query-plan-baseline.properties");
+    private static final Path DEFAULT_ACCEPTED = Path.of("audit", "query-plan-accepted.properties");
+    private static final String ACCEPTED_SUFFIX = ".accepted";
+    private static final String IMPORTER_SCENARIO = "CsvImporter.";
+
+    /** Перехваченный запрос DAO. */
+    record CapturedQuery(String id, String sql, List<Object> parameters) {
+    }
+
+    /** Итог разбора плана. */
+    record PlanReport(String id, long rowsExamined, Set<String> violations, List<String> details) {
+    }
+
+    @FunctionalInterface
+    private interface Scenario {
+        void run() throws SQLException;
+    }
+
+    private final Map<String, CapturedQuery> captured = new LinkedHashMap<>();
+    private String currentScenario;
+    private int statementNo;
+
+    public static void main(String[] args) throws Exception {
+        boolean update = false;
+        Path baselinePath = DEFAULT_BASELINE;
+        Path acceptedPath = DEFAULT_ACCEPTED;
+        for (String arg : args) {
+            if (arg.equals("--update-baseline")) {
+                update = true;
+            } else if (arg.startsWith("--baseline=")) {
+                baselinePath = Path.of(arg.substring("--baseline=".length()));
+            } else if (arg.startsWith("--accepted=")) {
+                acceptedPath = Path.of(arg.substring("--accepted=".length()));
+            } else {
+                System.err.println("Unknown argument: " + arg);
+                System.exit(2);
+            }
+        }
+
+        int exitCode;
+        try {
+            BenchmarkSupport.requireDedicatedSchema("audit");
+            exitCode = new QueryPlanAudit().run(baselinePath, acceptedPath, update);
+        } catch (IllegalStateException ex) {
+            System.err.println(ex.getMessage());
+            exitCode = 2;
+        } finally {
+            DBUtil.shutdown();
+        }
+        System.exit(exitCode);
+    }
+
+    private int run(Path baselinePath, Path acceptedPath, boolean update) throws SQLException, IOException {
+        Samples s = new Samples();
+        Path importDir = Files.createTempDirectory("plan-audit");
+        try {
+            Map<String, Scenario> scenarios = scenarios(s, PlanAuditImportFiles.write(importDir));
+            List<String> uncovered = uncoveredDaoMethods(scenarios.keySet());
+            if (!uncovered.isEmpty()) {
+                System.out.println("DAO methods without an audit scenario:");
+                uncovered.forEach(m -> System.out.println("    " + m));
+                return 1;
+            }
+
+            DBUtil.migrate();
+            try (Connection c = DBUtil.getConnection(DataSourceProfile.BULK_IMPORT)) {
+                String schema = currentSchema(c);
+                PlanAuditDataSet data = new PlanAuditDataSet(c);
+                if (!data.isSeeded()) {
+                    System.out.println("Seeding " + schema + " ...");
+                    long started = System.nanoTime();
+                    data.seed();
+                    System.out.printf("Seeded in %.1f s%n", (System.nanoTime() - started) / 1e9);
+                }
+                data.removeScenarioRows();
+                data.analyze();
+            }
+
+            s.load();
+            try {
+                capture(scenarios);
+            } finally {
+                try (Connection c = DBUtil.getConnection(DataSourceProfile.BULK_IMPORT)) {
+                    new PlanAuditDataSet(c).removeScenarioRows();
+                }
+            }
+        } finally {
+            deleteTree(importDir);
+        }
+
+        List<PlanReport> reports = new ArrayList<>();
+        try (Connection c = DBUtil.getConnection(DataSourceProfile.REPORTING)) {
+            for (CapturedQuery query : captured.values()) {
+                reports.add(explain(c, query));
+            }
+        }
+
+        Properties baseline = loadBaseline(baselinePath);
+        Properties acceptedList = loadBaseline(acceptedPath);
+        int failures = 0;
+        System.out.printf("%n%-44s %12s %12s  %s%n", "query", "rows", "baseline", "result");
+        for (PlanReport report : reports) {
+            Set<String> violations = new TreeSet<>(report.violations());
+            String base = baseline.getProperty(report.id());
+            if (base == null && !update) {
+                violations.add("NO_BASELINE");
+            } else if (base != null) {
+                long baseRows = Long.parseLong(base.trim());
+                if (report.rowsExamined() > Math.max(baseRows * ALLOWED_GROWTH, baseRows + LARGE_TABLE_ROWS)) {
+                    violations.add("ROWS_REGRESSION");
+                }
+            }
+            violations.removeAll(accepted(baseline, report.id()));
+            violations.removeAll(accepted(acceptedList, report.id()));
+
+            String result = violations.isEmpty() ? (base == null ? "new" : "ok") : "FAIL " + violations;
+            System.out.printf("%-44s %12d %12s  %s%n", report.id(), report.rowsExamined(),
+                    base == null ? "-" : base.trim(), result);
+            if (!violations.isEmpty()) {
+                failures++;
+                report.details().forEach(d -> System.out.println("    " + d));
+            }
+        }
+
+        if (update) {
+            saveBaseline(baselinePath, baseline, reports);
+            System.out.println("\nBaseline written to " + baselinePath.toAbsolutePath());
+            return 0;
+        }
+        System.out.println(failures == 0 ? "\nAll query plans are within baseline"
+                : "\n" + failures + " query plan(s) regressed");
+        return failures == 0 ? 0 : 1;
+    }
+
+    /* ---------- сценарии ---------- */
+
+    /**
+     * Сценарии в порядке выполнения: чтение, запись через DAO (на созданных
+     * сценарием строках), затем импорт — каждый файл по фазам вставки, изменения
+     * и удаления. Параметры берутся из {@code s} в момент выполнения.
+     */
+    private static Map<String, Scenario> scenarios(Samples s, Map<PlanAuditImportFiles.Phase, Path> importDirs) {
+        EventDao eventDao = new EventDao();
+        ActivityDao activityDao = new ActivityDao();
+        ModeratorDao moderatorDao = new ModeratorDao();
+        PersonDao personDao = new PersonDao();
+        ReferenceDao referenceDao = new ReferenceDao();
+        UserDao userDao = new UserDao();
+
+        Map<String, Scenario> scenarios = new LinkedHashMap<>();
+        scenarios.put("EventDao.find", () -> eventDao.find(null, null));
+        scenarios.put("EventDao.find.filtered", () -> eventDao.find(s.direction, s.eventDate));
+        scenarios.put("EventDao.findPage", () -> eventDao.findPage(null, null, null, 100));
+        scenarios.put("EventDao.findPage.next",
+                () -> eventDao.findPage(null, null, new EventDao.PageKey(s.eventDate.atStartOfDay(), s.eventId), 100));
+        scenarios.put("EventDao.findPage.filtered", () -> eventDao.findPage(s.direction, s.eventDate, null, 100));
+        scenarios.put("EventDao.search", () -> eventDao.search(EventDao.EventFilter.ALL, 100));
+        scenarios.put("EventDao.search.filtered", () -> eventDao.search(s.monthFilter(), 100));
+        scenarios.put("EventDao.countByDay", () -> eventDao.countByDay(s.monthFilter(), YearMonth.from(s.eventDate)));
+        scenarios.put("EventDao.findByOrganizer", () -> eventDao.findByOrganizer(s.organizerId, null, null));
+        scenarios.put("EventDao.findById", () -> eventDao.findById(s.eventId));
+        scenarios.put("ActivityDao.findByEvent", () -> activityDao.findByEvent(s.eventId));
+        scenarios.put("ActivityDao.findResources", () -> activityDao.findResources(s.activityId));
+        scenarios.put("ActivityDao.findForParticipant", () -> activityDao.findForParticipant(s.participantId));
+        scenarios.put("ActivityDao.findRoster", () -> activityDao.findRoster(s.eventId));
+        scenarios.put("ActivityDao.findRosterPage", () -> activityDao.findRosterPage(s.eventId, 0, 100));
+        scenarios.put("ModeratorDao.loadSlots", () -> moderatorDao.loadSlots(s.moderatorId, null, null));
+        scenarios.put("ModeratorDao.loadSlots.filtered", () -> moderatorDao.loadSlots(s.moderatorId, s.direction, s.eventId));
+        scenarios.put("ModeratorDao.myActivities", () -> moderatorDao.myActivities(s.moderatorId));
+        scenarios.put("PersonDao.findJuryAndModerators", () -> personDao.findJuryAndModerators(null, null));
+        scenarios.put("PersonDao.findJuryAndModerators.filtered",
+                () -> personDao.findJuryAndModerators("jury", s.eventId));
+        PersonDao.ParticipantFilter allParticipants = new PersonDao.ParticipantFilter(null, null);
+        scenarios.put("PersonDao.findParticipantPage",
+                () -> personDao.findParticipantPage(allParticipants, PersonDao.ParticipantSort.NAME, false, null, 100));
+        scenarios.put("PersonDao.findParticipantPage.next",
+                () -> personDao.findParticipantPage(allParticipants, PersonDao.ParticipantSort.NAME, false,
+                        new PersonDao.ParticipantKey(s.surname, s.participantId, 0), 100));
+        scenarios.put("PersonDao.findParticipantPage.registered",
+                () -> personDao.findParticipantPage(allParticipants, PersonDao.ParticipantSort.REGISTERED, true, null, 100));
+        scenarios.put("PersonDao.findParticipantPage.filtered",
+                () -> personDao.findParticipantPage(new PersonDao.ParticipantFilter(s.eventId, null),
+                        PersonDao.ParticipantSort.NAME, false, null, 100));
+        scenarios.put("PersonDao.findParticipantPage.event",
+                () -> personDao.findParticipantPage(allParticipants, PersonDao.ParticipantSort.EVENT, false, null, 100));
+        scenarios.put("PersonDao.findParticipantPage.event.next",
+                () -> personDao.findParticipantPage(allParticipants, PersonDao.ParticipantSort.EVENT, true,
+                        new PersonDao.ParticipantKey(s.eventTitle, s.participantId, s.eventId), 100));
+        scenarios.put("PersonDao.countParticipants", () -> personDao.countParticipants(allParticipants));
+        scenarios.put("PersonDao.countParticipants.filtered",
+                () -> personDao.countParticipants(new PersonDao.ParticipantFilter(s.eventId, null)));
+        scenarios.put("PersonDao.findByIdNumber", () -> personDao.findByIdNumber(s.idNumber));
+        scenarios.put("PersonDao.loadUsersByRole", () -> personDao.loadUsersByRole("jury"));
+        scenarios.put("ReferenceDao.findAllDirections", referenceDao::findAllDirections);
+        scenarios.put("ReferenceDao.findAllCountries", referenceDao::findAllCountries);
+        scenarios.put("ReferenceDao.findAllCities", referenceDao::findAllCities);
+        scenarios.put("ReferenceDao.findImagePaths", referenceDao::findImagePaths);
+        scenarios.put("UserDao.authenticate", () -> userDao.authenticate(s.idNumber, "password"));
+
+        /* запись: строки помечены так же, как в PlanAuditImportFiles, и убираются removeScenarioRows */
+        String mark = PlanAuditImportFiles.MARK + " планов";
+        String email = "moderator@" + PlanAuditImportFiles.EMAIL_DOMAIN;
+        Written w = new Written();
+        scenarios.put("PersonDao.nextIdNumber", () -> w.idNumber = require(personDao.nextIdNumber("MD-"), "id number"));
+        scenarios.put("PersonDao.register", () -> w.userId = require(personDao.register("moderator", w.idNumber,
+                mark + " Модератор", "male", LocalDate.of(1990, 2, 1), s.directionId, null, email,
+                "+7 900 000-00-00", "audit-password", null), "user"));
+        scenarios.put("UserDao.update", () -> {
+            User user = new User(w.userId, w.idNumber, mark + " Модератор (v2)", User.Role.MODERATOR,
+                    null, email, "+7 900 000-00-01");
+            user.setDirection(s.direction);
+            user.setCountry(s.country);
+            user.setPasswordHash("audit-password-2");
+            userDao.update(user);
+        });
+        scenarios.put("ModeratorDao.submitApplication", () -> moderatorDao.submitApplication(s.activityId, w.userId));
+        scenarios.put("ModeratorDao.cancelApplications", () -> moderatorDao.cancelApplications(w.userId));
+        scenarios.put("ActivityDao.addResource", () -> w.resourceId = require(activityDao.addResource(s.activityId,
+                mark + ": материал", "https://example.org/plan-audit", null, null), "resource").getId());
+        scenarios.put("ActivityDao.deleteResource", () -> activityDao.deleteResource(w.resourceId));
+        scenarios.put("ReferenceDao.ensureDirection", () -> referenceDao.ensureDirection(s.direction));
+        scenarios.put("ReferenceDao.ensureDirection.new", () -> referenceDao.ensureDirection(mark + ": направление"));
+        scenarios.put("ReferenceDao.ensureCity", () -> referenceDao.ensureCity(s.city));
+        scenarios.put("ReferenceDao.ensureCity.new", () -> referenceDao.ensureCity(mark + ": город"));
+        LocalDateTime start = LocalDateTime.of(2030, 3, 1, 9, 0);
+        scenarios.put("EventDao.createEventAggregate", () -> {
+            Event event = new Event(0, mark + ": агрегат", mark + ": новое направление", start, null,
+                    mark + ": новый город", null, null);
+            event.setEnd(start.plusDays(1).withHour(18));
+            event.setOrganizerId(s.organizerId);
+            event.withActivity(new Activity(0, mark + ": активность 1", 1, LocalTime.of(10, 0), LocalTime.of(11, 30))
+                            .withJuryId(s.juryId))
+                    .withActivity(new Activity(0, mark + ": активность 2", 2, LocalTime.of(10, 0), LocalTime.of(11, 30))
+                            .withJuryId(s.juryId));
+            require(eventDao.createEventAggregate(event), "event aggregate");
+        });
+        scenarios.put("EventDao.insert", () -> w.eventId = require(eventDao.insert(new Event(0, mark + ": мероприятие",
+                s.directionId, s.direction, start, start.withHour(18), null, null, s.organizerId, null, null, null)),
+                "event"));
+        scenarios.put("EventDao.updateEndDateTime", () -> eventDao.updateEndDateTime(w.eventId, start.withHour(20)));
+
+        /* импорт: удаление идёт от зависимых файлов к справочникам */
+        for (PlanAuditImportFiles.Phase phase : PlanAuditImportFiles.Phase.values()) {
+            List<ImportFile> files = new ArrayList<>(List.of(ImportFile.values()));
+            if (phase == PlanAuditImportFiles.Phase.DELETE) {
+                Collections.reverse(files);
+            }
+            for (ImportFile file : files) {
+                scenarios.put(IMPORTER_SCENARIO + phase.name().toLowerCase(Locale.ROOT) + "." + file.key(),
+                        () -> importFile(importDirs.get(phase), file));
+            }
+        }
+        return scenarios;
+    }
+
+    /** Загружает один файл, перечитывая его целиком; ошибки строк означают, что сценарий не прошёл свой путь. */
+    private static void importFile(Path dir, ImportFile file) throws SQLException {
+        ImportOptions options = new ImportOptions(false, ImportOptions.DEFAULT_CHUNK_SIZE, 1, null,
+                ImportOptions.DEFAULT_DIRECTION, EnumSet.of(file), true);
+        ImportReport report = new CsvImporter(dir, options, ImportProgress.NONE).run();
+        if (report.hasErrors()) {
+            throw new IllegalStateException("Import of " + file.fileName() + " failed: " + report.errors());
+        }
+    }
+
+    private static <T> T require(T value, String what) {
+        if (value == null || Integer.valueOf(0).equals(value)) {
+            throw new IllegalStateException("Audit scenario could not create " + what);
+        }
+        return value;
+    }
+
+    /**
+     * Публичные методы экземпляра классов {@code *Dao} пакета {@code dao}, для которых
+     * нет сценария {@code Класс.метод} или {@code Класс.метод.вариант}.
+     */
+    static List<String> uncoveredDaoMethods(Set<String> scenarioIds) throws IOException {
+        Set<String> missing = new TreeSet<>();
+        for (Class<?> dao : daoClasses()) {
+            for (Method method : dao.getDeclaredMethods()) {
+                int modifiers = method.getModifiers();
+                if (!Modifier.isPublic(modifiers) || Modifier.isStatic(modifiers) || method.isSynthetic()) {
+                    continue;
+                }
+                String name = dao.getSimpleName() + "." + method.getName();
+                if (scenarioIds.stream().noneMatch(id -> id.equals(name) || id.startsWith(name + "."))) {
+                    missing.add(name);
+                }
+            }
+        }
+        return new ArrayList<>(missing);
+    }
+
+    private static List<Class<?>> daoClasses() throws IOException {
+        String pkg = EventDao.class.getPackageName();
+        Path dir;
+        try {
+            dir = Path.of(EventDao.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                    .resolve(pkg.replace('.', '/'));
+        } catch (URISyntaxException ex) {
+            throw new IllegalStateException("Cannot locate DAO classes", ex);
+        }
+        if (!Files.isDirectory(dir)) {
+            throw new IllegalStateException("DAO classes are not in a directory: " + dir);
+        }
+        List<Class<?>> classes = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.sorted().toList()) {
+                String name = file.getFileName().toString();
+                if (name.endsWith("Dao.class") && !name.contains("$")) {
+                    try {
+                        classes.add(Class.forName(pkg + "." + name.substring(0, name.length() - ".class".length())));
+                    } catch (ClassNotFoundException ex) {
+                        throw new IllegalStateException("Cannot load " + name, ex);
+                    }
+                }
+            }
+        }
+        return classes;
+    }
+
+    /* ---------- перехват запросов ---------- */
+
+    private void capture(Map<String, Scenario> scenarios) throws SQLException {
+        Set<String> importerSql = new HashSet<>();
+        ConnectionPool.setStatementListener((sql, parameters) -> {
+            if (currentScenario == null || !isExplainable(sql)) {
+                return;
+            }
+            // справочники и состояние импорта читаются одинаково в каждом прогоне — достаточно первого
+            if (currentScenario.startsWith(IMPORTER_SCENARIO) && !importerSql.add(sql)) {
+                return;
+            }
+            String id = currentScenario + (statementNo++ == 0 ? "" : "#" + statementNo);
+            captured.putIfAbsent(id, new CapturedQuery(id, sql, parameters));
+        });
+        try {
+            for (Map.Entry<String, Scenario> scenario : scenarios.entrySet()) {
+                currentScenario = scenario.getKey();
+                statementNo = 0;
+                scenario.getValue().run();
+            }
+        } finally {
+            currentScenario = null;
+            ConnectionPool.setStatementListener(null);
+        }
+    }
+
+    private static boolean isExplainable(String sql) {
+        String head = sql.stripLeading().toUpperCase(Locale.ROOT);
+        for (String verb : List.of("SELECT", "WITH", "INSERT", "UPDATE", "DELETE", "REPLACE")) {
+            if (head.startsWith(verb)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void deleteTree(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /* ---------- EXPLAIN ---------- */
+
+    private PlanReport explain(Connection c, CapturedQuery query) throws SQLException {
+        String json;
+        try (PreparedStatement ps = c.prepareStatement("EXPLAIN FORMAT=JSON " + query.sql())) {
+            for (int i = 0; i < query.parameters().size(); i++) {
+                ps.setObject(i + 1, query.parameters().get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                json = rs.getString(1);
+            }
+        }
+
+        PlanWalker walker = new PlanWalker();
+        walker.walk(JsonTree.parse(json), 1);
+        return new PlanReport(query.id(), Math.round(walker.rowsExamined), walker.violations, walker.details);
+    }
+
+    /** Обход дерева плана: оценка прочитанных строк и поиск нежелательных операций. */
+    private static final class PlanWalker {
+        double rowsExamined;
+        final Set<String> violations = new TreeSet<>();
+        final List<String> details = new ArrayList<>();
+
+        /**
+         * @param loops сколько раз выполняется узел (строки, пришедшие из предыдущих таблиц nested loop)
+         */
+        @SuppressWarnings("unchecked")
+        double walk(Object node, double loops) {
+            double largestTable = 0;
+            if (node instanceof List<?> list) {
+                for (Object item : list) {
+                    largestTable = Math.max(largestTable, walk(item, loops));
+                }
+                return largestTable;
+            }
+            if (!(node instanceof Map<?, ?> raw)) {
+                return 0;
+            }
+            Map<String, Object> map = (Map<String, Object>) raw;
+
+            if (Boolean.TRUE.equals(map.get("dependent"))) {
+                violations.add("DEPENDENT_SUBQUERY");
+                Object block = map.get("query_block");
+                Object selectId = block instanceof Map<?, ?> qb ? qb.get("select_id") : map.get("select_id");
+                details.add("dependent subquery (select_id " + (selectId == null ? "?" : Math.round(JsonTree.number(selectId))) + ")");
+            }
+
+            if (map.containsKey("table_name")) {
+                double perScan = JsonTree.number(map.get("rows_examined_per_scan"));
+                rowsExamined += perScan * loops;
+                largestTable = perScan;
+                if ("ALL".equals(map.get("access_type")) && perScan > LARGE_TABLE_ROWS) {
+                    violations.add("FULL_SCAN");
+                    details.add("full scan of " + map.get("table_name") + " (~" + Math.round(perScan) + " rows)");
+                }
+            }
+
+            for (Map.Entry<String, Object> entry : map.entrySet()) {
+                if (entry.getKey().equals("nested_loop") && entry.getValue() instanceof List<?> tables) {
+                    double inner = loops;
+                    for (Object table : tables) {
+                        largestTable = Math.max(largestTable, walk(table, inner));
+                        Object t = table instanceof Map<?, ?> m ? m.get("table") : null;
+                        if (t instanceof Map<?, ?> tm) {
+                            inner = Math.max(1, JsonTree.number(tm.get("rows_produced_per_join"))) * loops;
+                        }
+                    }
+                } else if (entry.getValue() instanceof Map<?, ?> || entry.getValue() instanceof List<?>) {
+                    largestTable = Math.max(largestTable, walk(entry.getValue(), loops));
+                }
+            }
+
+            if (Boolean.TRUE.equals(map.get("using_filesort")) && largestTable > LARGE_TABLE_ROWS) {
+                violations.add("FILESORT");
+                details.add("filesort over ~" + Math.round(largestTable) + " rows");
+            }
+            return largestTable;
+        }
+    }
+
+    /* ---------- базовая линия ---------- */
+
+    private static Properties loadBaseline(Path path) throws IOException {
+        Properties props = new Properties();
+        if (Files.isRegularFile(path)) {
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                props.load(reader);
+            }
+        }
+        return props;
+    }
+
+    private static Set<String> accepted(Properties baseline, String id) {
+        Set<String> result = new TreeSet<>();
+        String value = baseline.getProperty(id + ACCEPTED_SUFFIX);
+        if (value != null) {
+            for (String code : value.split(",")) {
+                if (!code.isBlank()) {
+                    result.add(code.trim());
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Переписывает оценки строк, сохраняя вручную заданные {@code .accepted}. */
+    private static void saveBaseline(Path path, Properties old, List<PlanReport> reports) throws IOException {
+        Map<String, String> sorted = new TreeMap<>();
+        for (PlanReport report : reports) {
+            sorted.put(report.id(), String.valueOf(report.rowsExamined()));
+        }
+        for (String key : old.stringPropertyNames()) {
+            if (key.endsWith(ACCEPTED_SUFFIX)) {
+                sorted.put(key, old.getProperty(key));
+            }
+        }
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("# Оценка прочитанных строк для запросов DAO (QueryPlanAudit --update-baseline).\n");
+            writer.write("# <запрос>.accepted=FULL_SCAN,... — принятые нарушения, сохраняются при обновлении.\n");
+            for (Map.Entry<String, String> e : sorted.entrySet()) {
+                writer.write(e.getKey() + "=" + e.getValue() + "\n");
+            }
+        }
+    }
+
+    private static String currentSchema(Connection c) throws SQLException {
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT DATABASE()")) {
+            return rs.next() && rs.getString(1) != null ? rs.getString(1) : "";
+        }
+    }
+
+    /* ---------- значения параметров ---------- */
+
+    /** Параметры из засеянных данных; заполняются {@link #load()} перед сценариями. */
+    private static final class Samples {
+        int eventId;
+        int activityId;
+        int organizerId;
+        int moderatorId;
+        int participantId;
+        int juryId;
+        int directionId;
+        String direction;
+        LocalDate eventDate;
+        String eventTitle;
+        String surname;
+        String idNumber;
+        String city;
+        String country;
+
+        EventDao.EventFilter monthFilter() {
+            return new EventDao.EventFilter(direction, null, YearMonth.from(eventDate), null);
+        }
+
+        void load() throws SQLException {
+            try (Connection c = DBUtil.getConnection();
+                 Statement st = c.createStatement()) {
+                try (ResultSet rs = st.executeQuery("""
+                        SELECT e.id, a.id, e.organizer_id, d.name, DATE(e.start_datetime), e.title, d.id
+                          FROM event e
+                          JOIN activity a ON a.event_id = e.id
+                          JOIN direction d ON d.id = e.direction_id
+                         ORDER BY e.id, a.id
+                         LIMIT 1
+                     """)) {
+                    rs.next();
+                    eventId = rs.getInt(1);
+                    activityId = rs.getInt(2);
+                    organizerId = rs.getInt(3);
+                    direction = rs.getString(4);
+                    eventDate = rs.getDate(5).toLocalDate();
+                    eventTitle = rs.getString(6);
+                    directionId = rs.getInt(7);
+                }
+                try (ResultSet rs = st.executeQuery(
+                        "SELECT moderator_id FROM moderator_application ORDER BY id LIMIT 1")) {
+                    rs.next();
+                    moderatorId = rs.getInt(1);
+                }
+                try (ResultSet rs = st.executeQuery(
+                        "SELECT jury_id FROM activity_jury ORDER BY activity_id, jury_id LIMIT 1")) {
+                    rs.next();
+                    juryId = rs.getInt(1);
+                }
+                try (ResultSet rs = st.executeQuery("""
+                        SELECT u.id, u.id_number, SUBSTRING_INDEX(u.full_name, ' ', 1)
+                          FROM participant_event pe
+                          JOIN user u ON u.id = pe.participant_id
+                         ORDER BY pe.participant_id
+                         LIMIT 1
+                     """)) {
+                    rs.next();
+                    participantId = rs.getInt(1);
+                    idNumber = rs.getString(2);
+                    surname = rs.getString(3);
+                }
+                try (ResultSet rs = st.executeQuery("""
+                        SELECT ci.name, co.name_ru
+                          FROM city ci
+                          JOIN country co ON co.id = ci.country_id
+                         ORDER BY ci.id
+                         LIMIT 1
+                     """)) {
+                    rs.next();
+                    city = rs.getString(1);
+                    country = rs.getString(2);
+                }
+            }
+        }
+    }
+
+    /** Идентификаторы строк, созданных сценариями записи, для следующих сценариев. */
+    private static final class Written {
+        String idNumber;
+        int userId;
+        int resourceId;
+        int eventId;
+    }
+}